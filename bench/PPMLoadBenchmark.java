@@ -0,0 +1,116 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+
+import controller.io.PPMImageLoader;
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+
+/**
+ * Compares the time to load a large plain (P3) PPM file with PPMImageLoader against
+ *     the previous Scanner based loader, which copied the file into a string and
+ *     matched each number with a regular expression. Run from the project root after
+ *     compiling src and bench, for example
+ *     {@code java -cp out PPMLoadBenchmark 2000 1500}.
+ */
+
+public final class PPMLoadBenchmark {
+
+  private static final int ITERATIONS = 5;
+
+  /**
+   * The previous loader, kept here as the baseline.
+   *
+   * @param filePath path of the P3 file
+   * @return the loaded image
+   * @throws FileNotFoundException if the file does not exist
+   */
+
+  private static IImageState scannerLoad(String filePath) throws FileNotFoundException {
+    Scanner sc = new Scanner(new FileInputStream(filePath));
+    StringBuilder builder = new StringBuilder();
+    while (sc.hasNextLine()) {
+      String s = sc.nextLine();
+      if (s.charAt(0) != '#') {
+        builder.append(s + System.lineSeparator());
+      }
+    }
+    sc = new Scanner(builder.toString());
+    sc.next();
+    int width = sc.nextInt();
+    int height = sc.nextInt();
+    sc.nextInt();
+    IImage image = new PackedImageImpl(width, height);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        image.setPixel(i, j, sc.nextInt(), sc.nextInt(), sc.nextInt());
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Writes a P3 file of random pixels.
+   *
+   * @param file file to write
+   * @param width width of the image
+   * @param height height of the image
+   * @throws IOException if the file cannot be written
+   */
+
+  private static void writeRandomFile(File file, int width, int height) throws IOException {
+    Random random = new Random(1);
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+      writer.write("P3\n# benchmark image\n" + width + " " + height + "\n255\n");
+      for (int row = 0; row < height; row++) {
+        for (int col = 0; col < width * 3; col++) {
+          writer.write(Integer.toString(random.nextInt(256)));
+          writer.write(' ');
+        }
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image
+   * @throws IOException if the benchmark file cannot be written
+   */
+
+  public static void main(String[] args) throws IOException {
+    int width = args.length >= 2 ? Integer.parseInt(args[0]) : 2000;
+    int height = args.length >= 2 ? Integer.parseInt(args[1]) : 1500;
+    File file = File.createTempFile("benchmark", ".ppm");
+    file.deleteOnExit();
+    writeRandomFile(file, width, height);
+    System.out.printf("%d x %d P3 file, %.1f MB%n", width, height, file.length() / 1e6);
+
+    long scannerBest = Long.MAX_VALUE;
+    long tokenizerBest = Long.MAX_VALUE;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      IImageState expected = scannerLoad(file.getPath());
+      scannerBest = Math.min(scannerBest, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      IImageState actual = new PPMImageLoader(file.getPath()).run();
+      tokenizerBest = Math.min(tokenizerBest, System.nanoTime() - start);
+
+      if (expected.getBlueChannel(height - 1, width - 1)
+              != actual.getBlueChannel(height - 1, width - 1)) {
+        throw new IllegalStateException("loaders disagree");
+      }
+    }
+    System.out.printf("Scanner loader:   %8.1f ms%n", scannerBest / 1e6);
+    System.out.printf("tokenizer loader: %8.1f ms%n", tokenizerBest / 1e6);
+    System.out.printf("speedup:          %8.1fx%n", (double) scannerBest / tokenizerBest);
+  }
+}
@@ -0,0 +1,115 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import controller.io.PPMFormat;
+import controller.io.PPMImageSaver;
+import model.IImage;
+import model.IPixel;
+import model.PackedImageImpl;
+
+/**
+ * Compares the time to save a large image as a plain (P3) PPM file with the
+ *     buffered PPMImageSaver against the previous approach, which wrote three
+ *     concatenated strings per pixel to an unbuffered FileWriter. Raw (P6) saving
+ *     is timed too. Run from the project root after compiling src and bench, for
+ *     example {@code java -cp out PPMSaveBenchmark 2000 1500}.
+ */
+
+public final class PPMSaveBenchmark {
+
+  private static final int ITERATIONS = 5;
+
+  /**
+   * The previous saver, kept here as the baseline.
+   *
+   * @param file file to write
+   * @param image image to save
+   * @throws IOException if the file cannot be written
+   */
+
+  private static void stringSave(File file, IImage image) throws IOException {
+    try (FileWriter writer = new FileWriter(file)) {
+      writer.append("P3\n");
+      writer.append(image.getWidth() + " " + image.getHeight() + "\n");
+      writer.append(image.getMaxValue() + "\n");
+      for (int i = 0; i < image.getHeight(); i++) {
+        for (int j = 0; j < image.getWidth(); j++) {
+          IPixel pixel = image.getPixel(i, j);
+          writer.append(pixel.getR() + " ");
+          writer.append(pixel.getG() + " ");
+          writer.append(pixel.getB() + " ");
+        }
+        writer.append("\n");
+      }
+    }
+  }
+
+  /**
+   * Saves an image through a buffered file stream in the given format.
+   *
+   * @param file file to write
+   * @param image image to save
+   * @param format format to save in
+   * @throws IOException if the file cannot be written
+   */
+
+  private static void streamSave(File file, IImage image, PPMFormat format) throws IOException {
+    try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+      new PPMImageSaver(file.getPath(), image, output, format).run();
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional width and height of the generated image
+   * @throws IOException if a benchmark file cannot be written
+   */
+
+  public static void main(String[] args) throws IOException {
+    int width = args.length >= 2 ? Integer.parseInt(args[0]) : 2000;
+    int height = args.length >= 2 ? Integer.parseInt(args[1]) : 1500;
+    Random random = new Random(1);
+    IImage image = new PackedImageImpl(width, height);
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        image.setPixel(row, col, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+      }
+    }
+    File before = File.createTempFile("before", ".ppm");
+    File after = File.createTempFile("after", ".ppm");
+    File raw = File.createTempFile("raw", ".ppm");
+    before.deleteOnExit();
+    after.deleteOnExit();
+    raw.deleteOnExit();
+
+    long stringBest = Long.MAX_VALUE;
+    long plainBest = Long.MAX_VALUE;
+    long rawBest = Long.MAX_VALUE;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      stringSave(before, image);
+      stringBest = Math.min(stringBest, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      streamSave(after, image, PPMFormat.PLAIN);
+      plainBest = Math.min(plainBest, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      streamSave(raw, image, PPMFormat.RAW);
+      rawBest = Math.min(rawBest, System.nanoTime() - start);
+    }
+    if (before.length() != after.length()) {
+      throw new IllegalStateException("savers disagree");
+    }
+    System.out.printf("%d x %d image, P3 file %.1f MB%n", width, height, after.length() / 1e6);
+    System.out.printf("string saver:   %8.1f ms%n", stringBest / 1e6);
+    System.out.printf("buffered P3:    %8.1f ms%n", plainBest / 1e6);
+    System.out.printf("buffered P6:    %8.1f ms%n", rawBest / 1e6);
+  }
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.Random;
+
+import model.IImage;
+import model.PackedImageImpl;
+import model.kernel.IKernel;
+import model.kernel.KernelImpl;
+
+/**
+ * Shared inputs for the JMH benchmarks: square images of random pixels and the
+ *     kernels used by the filter benchmarks at any odd size.
+ */
+
+final class BenchmarkImages {
+
+  /**
+   * This class only has static helpers.
+   */
+
+  private BenchmarkImages() {
+    // Empty constructor
+  }
+
+  /**
+   * Returns a square image of random pixels. The same size always gives the same
+   *     pixels, so runs can be compared.
+   *
+   * @param size width and height of the image
+   * @return the image
+   */
+
+  static IImage randomImage(int size) {
+    Random random = new Random(size);
+    int[] pixels = new int[size * size];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(1 << 24);
+    }
+    return new PackedImageImpl(size, size, pixels);
+  }
+
+  /**
+   * Returns a Gaussian blur kernel of the given size, built from binomial
+   *     coefficients like the 3 x 3 blur command. It is given as its row and
+   *     column vectors, so the filter can use them.
+   *
+   * @param size odd size of the kernel
+   * @return the blur kernel
+   */
+
+  static IKernel blurKernel(int size) {
+    double[] vector = new double[size];
+    vector[0] = 1;
+    for (int i = 1; i < size; i++) {
+      // pascal's triangle, row size - 1
+      for (int j = i; j > 0; j--) {
+        vector[j] += vector[j - 1];
+      }
+    }
+    double sum = Math.pow(2, size - 1);
+    for (int i = 0; i < size; i++) {
+      vector[i] /= sum;
+    }
+    return new KernelImpl(vector, vector.clone());
+  }
+
+  /**
+   * Returns a sharpen kernel of the given size shaped like the 5 x 5 sharpen
+   *     command: 1 in the center, 1/4 inside, and -1/8 around the border.
+   *
+   * @param size odd size of the kernel
+   * @return the sharpen kernel
+   */
+
+  static IKernel sharpenKernel(int size) {
+    double[][] values = new double[size][size];
+    int center = size / 2;
+    for (int row = 0; row < size; row++) {
+      for (int col = 0; col < size; col++) {
+        int ring = Math.max(Math.abs(row - center), Math.abs(col - center));
+        values[row][col] = ring == 0 ? 1.0 : ring == center ? -1.0 / 8 : 1.0 / 4;
+      }
+    }
+    return new KernelImpl(values);
+  }
+}
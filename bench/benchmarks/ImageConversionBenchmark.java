@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.ImageUtil;
+import model.IImageState;
+
+/**
+ * JMH benchmarks for converting between images and BufferedImages, which every
+ *     PNG and JPEG load and save and the GUI do, on square images from 256 x 256
+ *     to 8192 x 8192.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ImageConversionBenchmark {
+
+  @Param({"256", "1024", "4096", "8192"})
+  public int size;
+
+  private IImageState image;
+  private BufferedImage bufferedImage;
+
+  /**
+   * Creates the image and a BufferedImage of it in the 3 byte BGR layout the
+   *     PNG and JPEG readers usually return.
+   */
+
+  @Setup
+  public void setUp() {
+    this.image = BenchmarkImages.randomImage(this.size);
+    this.bufferedImage = new BufferedImage(this.size, this.size, BufferedImage.TYPE_3BYTE_BGR);
+    this.bufferedImage.getGraphics().drawImage(ImageUtil.createBufferedImage(this.image),
+            0, 0, null);
+  }
+
+  /**
+   * Converts the image to a BufferedImage.
+   *
+   * @return the converted image
+   */
+
+  @Benchmark
+  public BufferedImage createBufferedImage() {
+    return ImageUtil.createBufferedImage(this.image);
+  }
+
+  /**
+   * Converts the BufferedImage to an image.
+   *
+   * @return the converted image
+   */
+
+  @Benchmark
+  public IImageState createImage() {
+    return ImageUtil.createImage(this.bufferedImage);
+  }
+}
@@ -0,0 +1,119 @@
+package benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.io.OtherImageTypeLoader;
+import controller.io.OtherImageTypeSaver;
+import controller.io.PPMFormat;
+import controller.io.PPMImageLoader;
+import controller.io.PPMImageSaver;
+import model.IImageState;
+
+/**
+ * JMH benchmarks for loading and saving every supported file format, on square
+ *     images of random pixels. Loads read a file written once before measuring;
+ *     saves encode into a stream that discards the bytes, so disk speed is only part
+ *     of the load numbers. The default sizes stop at 4096 because a plain PPM file of
+ *     an 8192 x 8192 image is close to a gigabyte; add {@code -p size=8192} to
+ *     measure it anyway.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ImageIOBenchmark {
+
+  @Param({"256", "1024", "4096"})
+  public int size;
+
+  @Param({"ppm", "ppm-raw", "png", "jpg"})
+  public String format;
+
+  private IImageState image;
+  private File file;
+
+  /**
+   * Creates the image and writes it to a temp file in the benchmark's format.
+   *
+   * @throws IOException if the file cannot be written
+   */
+
+  @Setup
+  public void setUp() throws IOException {
+    this.image = BenchmarkImages.randomImage(this.size);
+    String extension = this.format.startsWith("ppm") ? "ppm" : this.format;
+    this.file = File.createTempFile("benchmark", "." + extension);
+    try (OutputStream output = new BufferedOutputStream(new FileOutputStream(this.file))) {
+      save(output);
+    }
+  }
+
+  /**
+   * Deletes the temp file.
+   */
+
+  @TearDown
+  public void tearDown() {
+    this.file.delete();
+  }
+
+  /**
+   * Encodes the image in the benchmark's format to the given stream.
+   *
+   * @param output stream to write to
+   */
+
+  private void save(OutputStream output) {
+    if (this.format.equals("ppm")) {
+      new PPMImageSaver(this.file.getPath(), this.image, output, PPMFormat.PLAIN).run();
+    } else if (this.format.equals("ppm-raw")) {
+      new PPMImageSaver(this.file.getPath(), this.image, output, PPMFormat.RAW).run();
+    } else {
+      new OtherImageTypeSaver(this.image, this.format, output).run();
+    }
+  }
+
+  /**
+   * Loads the image file written in setUp.
+   *
+   * @return the loaded image
+   */
+
+  @Benchmark
+  public IImageState load() {
+    if (this.format.startsWith("ppm")) {
+      return new PPMImageLoader(this.file.getPath()).run();
+    }
+    return new OtherImageTypeLoader(this.file.getPath()).run();
+  }
+
+  /**
+   * Encodes the image into a stream that discards the bytes.
+   */
+
+  @Benchmark
+  public void save() {
+    save(OutputStream.nullOutputStream());
+  }
+}
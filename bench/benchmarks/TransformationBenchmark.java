@@ -0,0 +1,149 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.EdgeMode;
+import model.GreyscaleComponent;
+import model.IImageState;
+import model.kernel.KernelImpl;
+import model.transformations.BoxBlurTransformation;
+import model.transformations.BrightenTransformation;
+import model.transformations.ColorTransformation;
+import model.transformations.FilterTransformation;
+import model.transformations.ITransformation;
+import model.transformations.IntensityTransformation;
+import model.transformations.LookupTransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.ParallelTransformation;
+import model.transformations.ValueComponentTransformation;
+import model.transformations.ValueTransformation;
+
+/**
+ * JMH benchmarks for every transformation the commands use, on square images from
+ *     256 x 256 to 8192 x 8192. Filters are measured at several kernel sizes and the
+ *     box-based Gaussian blur at several standard deviations, and every
+ *     transformation runs both on one thread and on the default thread count.
+ *     Select a subset with JMH options, for example
+ *     {@code -p transformation=blur-7,sepia -p size=4096}. Sharpen kernels of 9 and
+ *     up are filtered through the Fourier transform; add
+ *     {@code -jvmArgsAppend -Dime.fft.threshold=1000} to measure them directly.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TransformationBenchmark {
+
+  private static final double[][] SEPIA = {
+          {0.393, 0.769, 0.189},
+          {0.349, 0.686, 0.168},
+          {0.272, 0.534, 0.131}
+  };
+  private static final double[][] GREYSCALE = {
+          {0.2126, 0.7152, 0.0722},
+          {0.2126, 0.7152, 0.0722},
+          {0.2126, 0.7152, 0.0722}
+  };
+
+  @Param({"256", "1024", "4096", "8192"})
+  public int size;
+
+  @Param({"brighten", "gamma", "levels", "red-component", "green-component", "blue-component", "value",
+          "intensity", "luma", "sepia", "greyscale", "blur-3", "blur-7", "blur-15",
+          "sharpen-5", "sharpen-9", "sharpen-15", "sharpen-31", "gaussian-2", "gaussian-10",
+          "gaussian-50"})
+  public String transformation;
+
+  @Param({"1", "default"})
+  public String threads;
+
+  private IImageState source;
+  private ITransformation toRun;
+
+  /**
+   * Creates the source image and the transformation to measure.
+   */
+
+  @Setup
+  public void setUp() {
+    this.source = BenchmarkImages.randomImage(this.size);
+    int threadCount = this.threads.equals("default")
+            ? ParallelTransformation.getDefaultThreadCount() : Integer.parseInt(this.threads);
+    this.toRun = new ParallelTransformation(create(this.transformation), threadCount);
+  }
+
+  /**
+   * Returns the transformation with the given benchmark name.
+   *
+   * @param name benchmark name of the transformation
+   * @return the transformation
+   */
+
+  static ITransformation create(String name) {
+    if (name.startsWith("blur-")) {
+      return new FilterTransformation(
+              BenchmarkImages.blurKernel(Integer.parseInt(name.substring(5))));
+    }
+    if (name.startsWith("gaussian-")) {
+      return BoxBlurTransformation.gaussian(Double.parseDouble(name.substring(9)),
+              EdgeMode.CLAMP);
+    }
+    if (name.startsWith("sharpen-")) {
+      return new FilterTransformation(
+              BenchmarkImages.sharpenKernel(Integer.parseInt(name.substring(8))));
+    }
+    switch (name) {
+      case "brighten":
+        return new BrightenTransformation(10);
+      case "gamma":
+        return LookupTransformation.gamma(2.2);
+      case "levels":
+        return LookupTransformation.levels(20, 100, 200);
+      case "red-component":
+        return new ValueComponentTransformation(GreyscaleComponent.RED);
+      case "green-component":
+        return new ValueComponentTransformation(GreyscaleComponent.GREEN);
+      case "blue-component":
+        return new ValueComponentTransformation(GreyscaleComponent.BLUE);
+      case "value":
+        return new ValueTransformation();
+      case "intensity":
+        return new IntensityTransformation();
+      case "luma":
+        return new LumaTransformation();
+      case "sepia":
+        return new ColorTransformation(new KernelImpl(SEPIA));
+      case "greyscale":
+        return new ColorTransformation(new KernelImpl(GREYSCALE));
+      default:
+        throw new IllegalArgumentException("Unknown transformation: " + name);
+    }
+  }
+
+  /**
+   * Runs the transformation once. The result is returned so that it is not
+   *     optimized away.
+   *
+   * @return the transformed image
+   */
+
+  @Benchmark
+  public IImageState run() {
+    return this.toRun.run(this.source);
+  }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.IImageState;
+import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
+import model.transformations.VectorSupport;
+
+/**
+ * JMH benchmarks comparing the point transformations with and without the Vector
+ *     API kernels. Every parameter set runs in its own fork, which sets the
+ *     ime.vector system property before the kernels are looked up, and fails if
+ *     the kernels did not load when they should have. The simd folder must be
+ *     compiled in with {@code --add-modules jdk.incubator.vector}; the forks add
+ *     the module themselves.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class VectorBenchmark {
+
+  @Param({"1024", "4096"})
+  public int size;
+
+  @Param({"brighten", "value", "intensity", "luma", "sepia", "greyscale"})
+  public String transformation;
+
+  @Param({"true", "false"})
+  public String vector;
+
+  @Param({"1", "default"})
+  public String threads;
+
+  private IImageState source;
+  private ITransformation toRun;
+
+  /**
+   * Chooses the kernels, then creates the source image and the transformation to
+   *     measure.
+   *
+   * @throws IllegalStateException if the vector kernels were asked for but did not
+   *     load
+   */
+
+  @Setup
+  public void setUp() throws IllegalStateException {
+    System.setProperty("ime.vector", this.vector);
+    if (VectorSupport.isAvailable() != Boolean.parseBoolean(this.vector)) {
+      throw new IllegalStateException("vector kernels did not load; compile the simd folder "
+              + "with --add-modules jdk.incubator.vector");
+    }
+    this.source = BenchmarkImages.randomImage(this.size);
+    int threadCount = this.threads.equals("default")
+            ? ParallelTransformation.getDefaultThreadCount() : Integer.parseInt(this.threads);
+    this.toRun = new ParallelTransformation(TransformationBenchmark.create(this.transformation),
+            threadCount);
+  }
+
+  /**
+   * Runs the transformation once. The result is returned so that it is not
+   *     optimized away.
+   *
+   * @return the transformed image
+   */
+
+  @Benchmark
+  public IImageState run() {
+    return this.toRun.run(this.source);
+  }
+}
@@ -0,0 +1,230 @@
+package model.transformations;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class implements the point transformation kernels with the Java Vector API.
+ * Each vector holds the packed pixels of several cols; the channels are shifted and
+ * masked out lane by lane, transformed, and packed back. Kernels that compute in
+ * double use one double lane per pixel and the same multiplies and adds in the same
+ * order as the scalar loops, so the sums are identical, and round exactly like
+ * Math.round. VectorSupport loads this class by name, so the rest of the program
+ * compiles and runs without the incubator module.
+ */
+
+final class VectorRowOperations implements RowOperations {
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+  // ints with one lane per double lane, for the kernels that compute in double
+  private static final VectorSpecies<Integer> DOUBLE_INTS = VectorSpecies.of(int.class,
+          VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+  // sums below this round the same here and in the scalar loops, whose cast of the
+  // rounded long to int would wrap around past the int range
+  private static final double SUM_LIMIT = 1 << 30;
+  // adding this to a small double leaves its nearest integer in the low bits
+  private static final double ROUNDING = 1.5 * (1L << 52);
+
+  /**
+   * Construct the vector kernels.
+   *
+   * @throws UnsupportedOperationException if the platform has no vectors of more
+   *     than one double
+   */
+
+  VectorRowOperations() throws UnsupportedOperationException {
+    if (DOUBLES.length() < 2) {
+      throw new UnsupportedOperationException("no vector registers");
+    }
+  }
+
+  @Override
+  public int brighten(int[] pixels, int length, int value) {
+    int end = INTS.loopBound(length);
+    for (int col = 0; col < end; col += INTS.length()) {
+      IntVector rgb = IntVector.fromArray(INTS, pixels, col);
+      IntVector red = clamp(channel(rgb, 16).add(value));
+      IntVector green = clamp(channel(rgb, 8).add(value));
+      IntVector blue = clamp(channel(rgb, 0).add(value));
+      pack(red, green, blue).intoArray(pixels, col);
+    }
+    return end;
+  }
+
+  @Override
+  public int weightedSum(int[] pixels, int length, double redWeight, double greenWeight,
+                         double blueWeight) {
+    int end = DOUBLE_INTS.loopBound(length);
+    for (int col = 0; col < end; col += DOUBLE_INTS.length()) {
+      IntVector rgb = IntVector.fromArray(DOUBLE_INTS, pixels, col);
+      DoubleVector sum = toDouble(channel(rgb, 16)).mul(redWeight)
+              .add(toDouble(channel(rgb, 8)).mul(greenWeight))
+              .add(toDouble(channel(rgb, 0)).mul(blueWeight));
+      IntVector grey = roundClamp(sum);
+      pack(grey, grey, grey).intoArray(pixels, col);
+    }
+    return end;
+  }
+
+  @Override
+  public int intensity(int[] pixels, int length) {
+    int end = INTS.loopBound(length);
+    for (int col = 0; col < end; col += INTS.length()) {
+      IntVector rgb = IntVector.fromArray(INTS, pixels, col);
+      IntVector sum = channel(rgb, 16).add(channel(rgb, 8)).add(channel(rgb, 0));
+      // x * 43691 >>> 17 is x / 3 rounded down for every sum up to 765
+      IntVector average = sum.mul(43691).lanewise(VectorOperators.LSHR, 17);
+      pack(average, average, average).intoArray(pixels, col);
+    }
+    return end;
+  }
+
+  @Override
+  public int value(int[] pixels, int length) {
+    int end = INTS.loopBound(length);
+    for (int col = 0; col < end; col += INTS.length()) {
+      IntVector rgb = IntVector.fromArray(INTS, pixels, col);
+      IntVector max = channel(rgb, 16).max(channel(rgb, 8).max(channel(rgb, 0)));
+      pack(max, max, max).intoArray(pixels, col);
+    }
+    return end;
+  }
+
+  @Override
+  public int colorMatrix(int[] pixels, int length, double[] matrix) {
+    for (int row = 0; row < 3; row++) {
+      double bound = 255 * (Math.abs(matrix[4 * row]) + Math.abs(matrix[4 * row + 1])
+              + Math.abs(matrix[4 * row + 2])) + Math.abs(matrix[4 * row + 3]);
+      if (!(bound < SUM_LIMIT)) {
+        return 0;
+      }
+    }
+    // one output channel per pass over the row; the body of a loop that does all
+    // three is too big for the compiler to keep every vector operation inlined
+    int end = DOUBLE_INTS.loopBound(length);
+    int[] result = new int[end];
+    for (int shift = 16; shift >= 0; shift -= 8) {
+      int start = 4 * (2 - shift / 8);
+      for (int col = 0; col < end; col += DOUBLE_INTS.length()) {
+        colorMatrixAt(pixels, result, col, matrix, start, shift);
+      }
+    }
+    System.arraycopy(result, 0, pixels, 0, end);
+    return end;
+  }
+
+  /**
+   * Private helper method to compute one output channel of one vector of pixels
+   *     and add it to the packed result.
+   *
+   * @param pixels packed pixels of the row
+   * @param result packed result so far
+   * @param col first col of the vector
+   * @param matrix the 3 x 4 matrix in row-major order
+   * @param start index of the first value of the matrix row
+   * @param shift where the channel goes in the packed result
+   */
+
+  private static void colorMatrixAt(int[] pixels, int[] result, int col, double[] matrix,
+                                    int start, int shift) {
+    IntVector rgb = IntVector.fromArray(DOUBLE_INTS, pixels, col);
+    IntVector channel = combine(toDouble(channel(rgb, 16)), toDouble(channel(rgb, 8)),
+            toDouble(channel(rgb, 0)), matrix, start);
+    channel.lanewise(VectorOperators.LSHL, shift)
+            .or(IntVector.fromArray(DOUBLE_INTS, result, col))
+            .intoArray(result, col);
+  }
+
+  /**
+   * Private helper method to compute one output channel of a color matrix as
+   *     r * m[start] + (g * m[start + 1] + (b * m[start + 2] + m[start + 3])),
+   *     rounded and clamped.
+   *
+   * @param red red values
+   * @param green green values
+   * @param blue blue values
+   * @param matrix the 3 x 4 matrix in row-major order
+   * @param start index of the first value of the matrix row
+   * @return the output channel values
+   */
+
+  private static IntVector combine(DoubleVector red, DoubleVector green, DoubleVector blue,
+                                   double[] matrix, int start) {
+    return roundClamp(red.mul(matrix[start]).add(green.mul(matrix[start + 1])
+            .add(blue.mul(matrix[start + 2]).add(matrix[start + 3]))));
+  }
+
+  /**
+   * Private helper method to extract one channel from packed pixels.
+   *
+   * @param rgb packed pixels
+   * @param shift 16 for red, 8 for green, or 0 for blue
+   * @return the channel values
+   */
+
+  private static IntVector channel(IntVector rgb, int shift) {
+    return rgb.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+  }
+
+  /**
+   * Private helper method to pack channel values into pixels.
+   *
+   * @param red red values from 0 to 255
+   * @param green green values from 0 to 255
+   * @param blue blue values from 0 to 255
+   * @return the packed pixels
+   */
+
+  private static IntVector pack(IntVector red, IntVector green, IntVector blue) {
+    return red.lanewise(VectorOperators.LSHL, 16)
+            .or(green.lanewise(VectorOperators.LSHL, 8))
+            .or(blue);
+  }
+
+  /**
+   * Private helper method to clamp values to 0 to 255.
+   *
+   * @param values values to clamp
+   * @return the clamped values
+   */
+
+  private static IntVector clamp(IntVector values) {
+    return values.max(0).min(255);
+  }
+
+  /**
+   * Private helper method to convert int lanes to double lanes.
+   *
+   * @param values values with one lane per double lane
+   * @return the values as doubles
+   */
+
+  private static DoubleVector toDouble(IntVector values) {
+    return (DoubleVector) values.convertShape(VectorOperators.I2D, DOUBLES, 0);
+  }
+
+  /**
+   * Private helper method to round sums exactly like Math.round and clamp them to
+   *     0 to 255. Adding 1.5 * 2^52 rounds a sum to the nearest integer, halves to
+   *     even, and leaves that integer in the low bits of the double, which are
+   *     then narrowed to ints; sums exactly halfway up from an even integer are
+   *     moved up by one, as Math.round rounds every half up. This avoids the double
+   *     to int conversion, which the Vector API does not compile to a single
+   *     instruction on every processor.
+   *
+   * @param sums sums to round, all below SUM_LIMIT in size
+   * @return the rounded and clamped values
+   */
+
+  private static IntVector roundClamp(DoubleVector sums) {
+    DoubleVector shifted = sums.add(ROUNDING);
+    VectorMask<Double> halfDown = sums.sub(shifted.sub(ROUNDING)).eq(0.5);
+    shifted = shifted.add(1, halfDown);
+    return clamp((IntVector) shifted.reinterpretAsLongs()
+            .convertShape(VectorOperators.L2I, DOUBLE_INTS, 0));
+  }
+}
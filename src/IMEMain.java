@@ -3,9 +3,16 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.nio.file.Paths;
+import java.util.List;
+import controller.BatchScriptRunner;
+import controller.CommandMetrics;
 import controller.ControllerImpl;
+import controller.ExecutionMode;
 import controller.GUIController;
 import controller.IController;
+import controller.ScriptResult;
+import model.BoundedModelImpl;
 import model.IModel;
 import model.ModelImpl;
 import view.GUIView;
@@ -25,14 +32,32 @@ public final class IMEMain {
    * and initializes a model, view, and controller based
    * on the command line argument given as a string. - file with .txt file
    * will read the file and run the commands. -text will allow for interactive
-   * keyboard input. Running with no command line configurations with initiate the GUI.
+   * keyboard input. Adding -lazy after the script file runs only the commands that a
+   * save depends on, and adding -parallel instead runs commands that use different
+   * images at the same time. -batch with a directory of .txt scripts, or a manifest file listing
+   * one script per line, runs every script in parallel, each with its own model, and
+   * prints a report; add -threads N to set how many run at once and -lazy to run each
+   * script lazily. Adding -metrics after the script file prints the time, memory, and
+   * pixels of each command once the script is done. Running with no command line configurations with initiate the GUI.
+   * Setting the ime.model.budget system property to a number of megabytes keeps at
+   * most that much image data in memory, spilling older images to temp files that
+   * are deleted when the program exits.
    *
    * @param args string input which represents a command line argument
    *             to determine the IME command.
    */
 
   public static void main(String[] args) {
-    IModel model = new ModelImpl();
+    long memoryBudget = Long.getLong("ime.model.budget", 0);
+    IModel model;
+    if (memoryBudget > 0) {
+      BoundedModelImpl boundedModel = new BoundedModelImpl(memoryBudget * 1024 * 1024);
+      // the GUI keeps running after main returns, so spill files are deleted on exit
+      Runtime.getRuntime().addShutdownHook(new Thread(boundedModel::close));
+      model = boundedModel;
+    } else {
+      model = new ModelImpl();
+    }
     ImageView view = new ImageTextView(model);
     IController controller;
 
@@ -47,11 +72,28 @@ public final class IMEMain {
         }
         // use the script content as input for the controller
         Readable readable = new StringReader(scriptContent.toString());
-        controller = new ControllerImpl(readable, model, view);
+        ExecutionMode executionMode = ExecutionMode.EAGER;
+        boolean printMetrics = false;
+        for (int i = 2; i < args.length; i++) {
+          if (args[i].equals("-lazy")) {
+            executionMode = ExecutionMode.LAZY;
+          } else if (args[i].equals("-parallel")) {
+            executionMode = ExecutionMode.PARALLEL;
+          } else if (args[i].equals("-metrics")) {
+            printMetrics = true;
+          }
+        }
+        CommandMetrics metrics = new CommandMetrics();
+        controller = new ControllerImpl(readable, model, view, executionMode, metrics);
         controller.run();
+        if (printMetrics) {
+          metrics.writeSummary(System.out);
+        }
       } catch (IOException e) {
         throw new IllegalStateException("Unable to read script file");
       }
+    } else if (args.length >= 2 && args[0].equals("-batch")) {
+      runBatch(args);
     } else if (args.length >= 1 && args[0].equals("-text")) {
       // if "-text" option is provided, use the default keyboard input
       controller = new ControllerImpl(new InputStreamReader(System.in), model, view);
@@ -59,7 +101,7 @@ public final class IMEMain {
     } else {
       if (args.length > 0) {
         // display an error message for unrecognized command-line arguments
-        System.err.println("Invalid command-line arguments. Use -file or -text.");
+        System.err.println("Invalid command-line arguments. Use -file, -batch, or -text.");
         return; // quit the program
       }
       // otherwise, default to GUI
@@ -68,4 +110,40 @@ public final class IMEMain {
       guiController.run();
     }
   }
+
+  /**
+   * Runs the scripts in the directory or manifest given after -batch and prints a
+   *     report of how each went.
+   *
+   * @param args command line arguments, starting with -batch and the location
+   */
+
+  private static void runBatch(String[] args) {
+    int threadCount = BatchScriptRunner.getDefaultThreadCount();
+    ExecutionMode executionMode = ExecutionMode.EAGER;
+    for (int i = 2; i < args.length; i++) {
+      if (args[i].equals("-lazy")) {
+        executionMode = ExecutionMode.LAZY;
+      } else if (args[i].equals("-threads") && i + 1 < args.length) {
+        try {
+          threadCount = Integer.parseInt(args[++i]);
+        } catch (NumberFormatException e) {
+          System.err.println("Thread count must be a number.");
+          return;
+        }
+      }
+    }
+    List<ScriptResult> results;
+    long start = System.nanoTime();
+    try {
+      results = new BatchScriptRunner(BatchScriptRunner.findScripts(Paths.get(args[1])),
+              threadCount, executionMode).run();
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      System.err.println(e.getMessage().trim());
+      return;
+    }
+    BatchScriptRunner.writeReport(results, System.out);
+    System.out.printf("finished in %.1f ms with %d threads%n",
+            (System.nanoTime() - start) / 1e6, threadCount);
+  }
 }
@@ -0,0 +1,237 @@
+package controller;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import model.IModel;
+import model.ModelImpl;
+import view.ImageTextView;
+
+/**
+ * This class runs many scripts at once on a pool of worker threads. Each script
+ * runs in its own ControllerImpl with its own model, so image IDs in one script
+ * never clash with those in another, and the messages a script produces are
+ * collected rather than printed. The result of every script is returned in the
+ * order the scripts were given, with its run time and the message of every
+ * command that failed.
+ */
+
+public class BatchScriptRunner {
+  private static final String COMPLETED = "Command completed successfully\n";
+  private static final String SKIPPED = "Command skipped, result is never saved\n";
+
+  private final List<Path> scripts;
+  private final int threadCount;
+  private final ExecutionMode executionMode;
+
+  /**
+   * Construct a batch runner for the given scripts.
+   *
+   * @param scripts paths of the scripts to run
+   * @param threadCount number of scripts to run at the same time
+   * @param executionMode how each script's commands are executed
+   *
+   * @throws IllegalArgumentException if scripts or executionMode are null, if
+   *     scripts contains null, or if threadCount is less than 1
+   */
+
+  public BatchScriptRunner(List<Path> scripts, int threadCount, ExecutionMode executionMode)
+          throws IllegalArgumentException {
+    if (scripts == null || executionMode == null) {
+      throw new IllegalArgumentException("scripts or execution mode cannot be null");
+    }
+    if (scripts.contains(null)) {
+      throw new IllegalArgumentException("script path cannot be null");
+    }
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("thread count must be at least 1");
+    }
+    this.scripts = new ArrayList<>(scripts);
+    this.threadCount = threadCount;
+    this.executionMode = executionMode;
+  }
+
+  /**
+   * Returns the scripts to run for a directory or a manifest file. For a
+   *     directory, every .txt file in it is a script, in name order. A manifest
+   *     lists one script path per line; blank lines and lines starting with '#'
+   *     are ignored, and relative paths are relative to the manifest's directory.
+   *
+   * @param location directory of scripts or manifest file
+   * @return the script paths
+   * @throws IllegalArgumentException if location is null
+   * @throws IllegalStateException if the directory or manifest cannot be read
+   */
+
+  public static List<Path> findScripts(Path location)
+          throws IllegalArgumentException, IllegalStateException {
+    if (location == null) {
+      throw new IllegalArgumentException("location cannot be null");
+    }
+    try {
+      if (Files.isDirectory(location)) {
+        try (Stream<Path> files = Files.list(location)) {
+          return files.filter(file -> file.getFileName().toString().endsWith(".txt"))
+                  .filter(Files::isRegularFile)
+                  .sorted()
+                  .collect(Collectors.toList());
+        }
+      }
+      Path base = location.toAbsolutePath().getParent();
+      List<Path> scripts = new ArrayList<>();
+      for (String line : Files.readAllLines(location, StandardCharsets.UTF_8)) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          scripts.add(base.resolve(line));
+        }
+      }
+      return scripts;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read script list: " + location + "\n");
+    }
+  }
+
+  /**
+   * Returns the default number of scripts to run at the same time, which is the
+   *     number of processors.
+   *
+   * @return the default worker count
+   */
+
+  public static int getDefaultThreadCount() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Runs every script and waits for all of them to finish. A script that fails
+   *     does not stop the others.
+   *
+   * @return the result of each script, in the order the scripts were given
+   * @throws IllegalStateException if the runner is interrupted while waiting
+   */
+
+  public List<ScriptResult> run() throws IllegalStateException {
+    ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(this.threadCount, Math.max(1, this.scripts.size())));
+    try {
+      List<Future<ScriptResult>> futures = new ArrayList<>();
+      for (Path script : this.scripts) {
+        futures.add(executor.submit(() -> runScript(script)));
+      }
+      List<ScriptResult> results = new ArrayList<>();
+      for (Future<ScriptResult> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Batch run was interrupted.\n");
+    } catch (ExecutionException e) {
+      // runScript catches everything a script can throw
+      throw new IllegalStateException("Batch run failed: " + e.getCause() + "\n");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Private helper method to run one script with its own model and collect the
+   *     messages it writes.
+   *
+   * @param script path of the script
+   * @return the result of the script
+   */
+
+  private ScriptResult runScript(Path script) {
+    long start = System.nanoTime();
+    String content;
+    try {
+      content = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      return new ScriptResult(script, System.nanoTime() - start, 0,
+              Collections.singletonList("Unable to read script file\n"));
+    }
+    IModel model = new ModelImpl();
+    StringBuilder messages = new StringBuilder();
+    String error = null;
+    try {
+      new ControllerImpl(new StringReader(content), model,
+              new ImageTextView(model, messages), this.executionMode).run();
+    } catch (RuntimeException e) {
+      error = "Script stopped: " + e + "\n";
+    }
+    long elapsed = System.nanoTime() - start;
+
+    // every command writes one message ending in a line break
+    int completed = 0;
+    List<String> failures = new ArrayList<>();
+    int messageStart = 0;
+    while (messageStart < messages.length()) {
+      int messageEnd = messages.indexOf("\n", messageStart);
+      messageEnd = messageEnd < 0 ? messages.length() : messageEnd + 1;
+      String message = messages.substring(messageStart, messageEnd);
+      if (message.equals(COMPLETED)) {
+        completed++;
+      } else if (!message.equals(SKIPPED)) {
+        failures.add(message);
+      }
+      messageStart = messageEnd;
+    }
+    if (error != null) {
+      failures.add(error);
+    }
+    return new ScriptResult(script, elapsed, completed, failures);
+  }
+
+  /**
+   * Writes a report of the given results: one line per script with its status,
+   *     run time, completed command count, and first failure, followed by a
+   *     summary line.
+   *
+   * @param results results returned by run
+   * @param output where to write the report
+   * @throws IllegalArgumentException if results or output are null
+   * @throws IllegalStateException if writing to output fails
+   */
+
+  public static void writeReport(List<ScriptResult> results, Appendable output)
+          throws IllegalArgumentException, IllegalStateException {
+    if (results == null || output == null) {
+      throw new IllegalArgumentException("results or output cannot be null");
+    }
+    int failed = 0;
+    long totalNanos = 0;
+    try {
+      for (ScriptResult result : results) {
+        totalNanos += result.getElapsedNanos();
+        output.append(String.format("%-4s %10.1f ms %4d commands  %s",
+                result.isSuccessful() ? "OK" : "FAIL", result.getElapsedNanos() / 1e6,
+                result.getCompletedCount(), result.getScript()));
+        if (!result.isSuccessful()) {
+          failed++;
+          output.append("  ").append(result.getFailures().get(0).trim());
+          if (result.getFailures().size() > 1) {
+            output.append(String.format(" (and %d more)", result.getFailures().size() - 1));
+          }
+        }
+        output.append("\n");
+      }
+      output.append(String.format("%d scripts, %d failed, %.1f ms of script time\n",
+              results.size(), failed, totalNanos / 1e6));
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to write report.");
+    }
+  }
+}
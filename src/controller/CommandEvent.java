@@ -0,0 +1,36 @@
+package controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class represents a Java Flight Recorder event for one command run. It is
+ * only recorded while a flight recording with the ime.Command event enabled is
+ * running, for example one started with -XX:StartFlightRecording, so it costs
+ * almost nothing otherwise.
+ */
+
+@Name("ime.Command")
+@Label("IME Command")
+@Category("IME")
+@Description("A script command run by the controller")
+class CommandEvent extends Event {
+
+  @Label("Command")
+  String command;
+
+  @Label("Pixels")
+  @Description("Pixels in the images written, or read if none were written")
+  long pixels;
+
+  @Label("Allocated")
+  @DataAmount
+  long allocatedBytes;
+
+  @Label("Successful")
+  boolean successful;
+}
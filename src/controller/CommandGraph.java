@@ -0,0 +1,241 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import controller.commands.ICommand;
+
+/**
+ * This class represents a script of commands as a dependency graph. Each command
+ *     depends on the earlier commands that last wrote the images it reads, so an
+ *     image ID that is overwritten later in the script is tracked as a new version.
+ *     Commands with side effects, such as save, are the roots of the graph. Only
+ *     the commands the roots depend on need to run; the rest produce images that
+ *     are never used. A result used by several commands is still produced by a
+ *     single command, so it is computed once.
+ */
+
+public class CommandGraph {
+  private final List<ICommand> commands;
+  private final List<String[]> argumentLists;
+  private final List<List<Integer>> dependencies;
+  private final Map<String, Integer> lastWriters;
+
+  /**
+   * Construct an empty command graph.
+   */
+
+  public CommandGraph() {
+    this.commands = new ArrayList<>();
+    this.argumentLists = new ArrayList<>();
+    this.dependencies = new ArrayList<>();
+    this.lastWriters = new HashMap<>();
+  }
+
+  /**
+   * Adds the next command of the script to the graph.
+   *
+   * @param command the command, or null if the command name is not valid
+   * @param arguments the arguments after the command name
+   *
+   * @throws IllegalArgumentException if arguments is null
+   */
+
+  public void add(ICommand command, String[] arguments) throws IllegalArgumentException {
+    if (arguments == null) {
+      throw new IllegalArgumentException("arguments cannot be null");
+    }
+    int index = this.commands.size();
+    List<Integer> commandDependencies = new ArrayList<>();
+    if (command != null && arguments.length >= command.getArgumentCount()) {
+      // images read come from the last command that wrote them, if any
+      for (String sourceID : command.getSourceIDs(arguments)) {
+        Integer writer = this.lastWriters.get(sourceID);
+        if (writer != null) {
+          commandDependencies.add(writer);
+        }
+      }
+      for (String destID : command.getDestinationIDs(arguments)) {
+        this.lastWriters.put(destID, index);
+      }
+    }
+    this.commands.add(command);
+    this.argumentLists.add(arguments);
+    this.dependencies.add(commandDependencies);
+  }
+
+  /**
+   * Returns the number of commands in the graph.
+   *
+   * @return the number of commands added
+   */
+
+  public int size() {
+    return this.commands.size();
+  }
+
+  /**
+   * Returns the command at the given position in the script.
+   *
+   * @param index position of the command
+   * @return the command, or null if its name was not valid
+   */
+
+  public ICommand getCommand(int index) {
+    return this.commands.get(index);
+  }
+
+  /**
+   * Returns the arguments of the command at the given position in the script.
+   *
+   * @param index position of the command
+   * @return the arguments after the command name
+   */
+
+  public String[] getArguments(int index) {
+    return this.argumentLists.get(index);
+  }
+
+  /**
+   * Returns which commands need to run. A command is required if it has side
+   *     effects, if it is missing arguments (so that its error is still reported),
+   *     or if a required command reads an image it wrote.
+   *
+   * @return for each command in script order, whether it needs to run
+   */
+
+  public boolean[] findRequired() {
+    boolean[] required = new boolean[this.commands.size()];
+    Deque<Integer> toVisit = new ArrayDeque<>();
+    for (int i = 0; i < this.commands.size(); i++) {
+      ICommand command = this.commands.get(i);
+      if (command != null && (command.hasSideEffects()
+              || this.argumentLists.get(i).length < command.getArgumentCount())) {
+        required[i] = true;
+        toVisit.push(i);
+      }
+    }
+    // walk back from the roots through the commands they read from
+    while (!toVisit.isEmpty()) {
+      for (int dependency : this.dependencies.get(toVisit.pop())) {
+        if (!required[dependency]) {
+          required[dependency] = true;
+          toVisit.push(dependency);
+        }
+      }
+    }
+    return required;
+  }
+
+  /**
+   * Returns, for each command, the only required command that reads an image it
+   *     wrote. A command that reads the same image more than once counts once.
+   *
+   * @param required for each command in script order, whether it needs to run
+   * @return for each command in script order, the position of the only required
+   *     command that reads its result, or -1 if no required command or more than
+   *     one reads it
+   * @throws IllegalArgumentException if required is null or not one per command
+   */
+
+  public int[] findOnlyReaders(boolean[] required) throws IllegalArgumentException {
+    if (required == null || required.length != this.commands.size()) {
+      throw new IllegalArgumentException("required must have one entry per command");
+    }
+    int[] readers = new int[this.commands.size()];
+    int[] readerCounts = new int[this.commands.size()];
+    Arrays.fill(readers, -1);
+    for (int i = 0; i < this.commands.size(); i++) {
+      if (!required[i]) {
+        continue;
+      }
+      for (int dependency : this.dependencies.get(i)) {
+        if (readers[dependency] != i) {
+          readers[dependency] = i;
+          readerCounts[dependency]++;
+        }
+      }
+    }
+    for (int i = 0; i < readers.length; i++) {
+      if (readerCounts[i] != 1) {
+        readers[i] = -1;
+      }
+    }
+    return readers;
+  }
+
+  /**
+   * Returns, for each command, the images that no later command needs once it has
+   *     run. An image a required command wrote is released after the last required
+   *     command that reads it. Images read by a command with side effects, such as
+   *     save, are never released, so saved images stay in the model, and neither
+   *     are images that a required command overwrites before that last read.
+   *
+   * @param required for each command in script order, whether it needs to run
+   * @return for each command in script order, the IDs of the images that can be
+   *     removed from the model after it runs
+   * @throws IllegalArgumentException if required is null or not one per command
+   */
+
+  public List<List<String>> findReleasedImages(boolean[] required)
+          throws IllegalArgumentException {
+    if (required == null || required.length != this.commands.size()) {
+      throw new IllegalArgumentException("required must have one entry per command");
+    }
+    int[] lastReaders = new int[this.commands.size()];
+    boolean[] saved = new boolean[this.commands.size()];
+    Arrays.fill(lastReaders, -1);
+    for (int i = 0; i < this.commands.size(); i++) {
+      if (!required[i]) {
+        continue;
+      }
+      for (int dependency : this.dependencies.get(i)) {
+        lastReaders[dependency] = i;
+        saved[dependency] |= this.commands.get(i).hasSideEffects();
+      }
+    }
+    List<List<String>> released = new ArrayList<>();
+    for (int i = 0; i < this.commands.size(); i++) {
+      released.add(new ArrayList<>());
+    }
+    for (int i = 0; i < this.commands.size(); i++) {
+      if (lastReaders[i] < 0 || saved[i]) {
+        continue;
+      }
+      for (String destID : this.commands.get(i).getDestinationIDs(this.argumentLists.get(i))) {
+        if (!isOverwritten(destID, i, lastReaders[i], required)) {
+          released.get(lastReaders[i]).add(destID);
+        }
+      }
+    }
+    return released;
+  }
+
+  /**
+   * Private helper method to check whether a required command after the given
+   *     writer, up to and including the given reader, writes the same image ID.
+   *
+   * @param imageID ID of the image
+   * @param writer position of the command that wrote the image
+   * @param reader position of the last command that reads it
+   * @param required for each command in script order, whether it needs to run
+   * @return true if the image is overwritten by the time the reader has run
+   */
+
+  private boolean isOverwritten(String imageID, int writer, int reader, boolean[] required) {
+    for (int i = writer + 1; i <= reader; i++) {
+      ICommand command = this.commands.get(i);
+      String[] arguments = this.argumentLists.get(i);
+      if (required[i] && command != null && arguments.length >= command.getArgumentCount()
+              && command.getDestinationIDs(arguments).contains(imageID)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
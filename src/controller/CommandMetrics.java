@@ -0,0 +1,91 @@
+package controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements the ICommandMetrics interface by keeping every record in
+ * memory. Records can be added from several threads at once.
+ */
+
+public class CommandMetrics implements ICommandMetrics {
+  private final List<CommandRecord> records;
+
+  /**
+   * Construct an empty collection of command measurements.
+   */
+
+  public CommandMetrics() {
+    this.records = new ArrayList<>();
+  }
+
+  @Override
+  public synchronized void record(CommandRecord record) throws IllegalArgumentException {
+    if (record == null) {
+      throw new IllegalArgumentException("record cannot be null");
+    }
+    this.records.add(record);
+  }
+
+  @Override
+  public synchronized List<CommandRecord> getRecords() {
+    return new ArrayList<>(this.records);
+  }
+
+  @Override
+  public void writeSummary(Appendable output)
+          throws IllegalArgumentException, IllegalStateException {
+    if (output == null) {
+      throw new IllegalArgumentException("output cannot be null");
+    }
+    // group by command name in order of first use, the last row is the total
+    Map<String, long[]> totals = new LinkedHashMap<>();
+    long[] overall = new long[6];
+    for (CommandRecord record : getRecords()) {
+      long[] row = totals.computeIfAbsent(record.getCommandName(), name -> new long[6]);
+      for (long[] sums : new long[][] {row, overall}) {
+        sums[0]++;
+        sums[1] += record.isSuccessful() ? 0 : 1;
+        sums[2] += record.getWallNanos();
+        sums[3] = addKnown(sums[3], record.getCpuNanos());
+        sums[4] = addKnown(sums[4], record.getAllocatedBytes());
+        sums[5] += record.getPixels();
+      }
+    }
+    totals.put("total", overall);
+    try {
+      output.append(String.format("%-16s %5s %6s %10s %10s %10s %10s %9s\n", "command", "runs",
+              "failed", "wall ms", "cpu ms", "alloc MB", "Mpixels", "Mpix/s"));
+      for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+        long[] sums = entry.getValue();
+        output.append(String.format("%-16s %5d %6d %10.1f %10s %10s %10.2f %9s\n",
+                entry.getKey(), sums[0], sums[1], sums[2] / 1e6,
+                sums[3] < 0 ? "n/a" : String.format("%.1f", sums[3] / 1e6),
+                sums[4] < 0 ? "n/a" : String.format("%.1f", sums[4] / 1e6),
+                sums[5] / 1e6,
+                sums[2] == 0 ? "n/a" : String.format("%.1f", sums[5] * 1e3 / sums[2])));
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to write summary.");
+    }
+  }
+
+  /**
+   * Private helper method to add a measurement that may be unavailable to a sum.
+   *     Once any measurement is unavailable the sum is too.
+   *
+   * @param sum sum so far, or -1 if unavailable
+   * @param value value to add, or -1 if unavailable
+   * @return the new sum, or -1 if unavailable
+   */
+
+  private static long addKnown(long sum, long value) {
+    if (value < 0 || sum < 0) {
+      return -1;
+    }
+    return sum + value;
+  }
+}
@@ -0,0 +1,193 @@
+package controller;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Scanner;
+
+import controller.commands.ICommand;
+import model.IImageState;
+import model.IModel;
+
+/**
+ * This class runs commands and records how long each took, the CPU time and memory
+ * it used, and how many pixels it processed, to an ICommandMetrics and as a flight
+ * recorder event. When commands run one at a time, CPU time and allocations are
+ * taken across the whole JVM, so the work done by transformation threads counts
+ * toward the command that started it. When commands run at the same time they
+ * would count toward each other, so only the running thread is measured instead.
+ */
+
+public class CommandProfiler {
+  private static final OperatingSystemMXBean OS_BEAN =
+          ManagementFactory.getOperatingSystemMXBean();
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+  private final ICommandMetrics metrics;
+  private final boolean wholeProcess;
+
+  /**
+   * Construct a profiler that records to the given metrics.
+   *
+   * @param metrics where to record each command
+   * @param wholeProcess true to measure CPU time and allocations across the JVM,
+   *     for commands that run one at a time, or false to measure only the thread
+   *     that runs the command
+   *
+   * @throws IllegalArgumentException if metrics is null
+   */
+
+  public CommandProfiler(ICommandMetrics metrics, boolean wholeProcess)
+          throws IllegalArgumentException {
+    if (metrics == null) {
+      throw new IllegalArgumentException("metrics cannot be null");
+    }
+    this.metrics = metrics;
+    this.wholeProcess = wholeProcess;
+  }
+
+  /**
+   * Runs a command and records it. Whatever the command throws is rethrown
+   *     after the record is added, with the command marked as not successful.
+   *
+   * @param commandName name of the command as written in the script
+   * @param command command to run
+   * @param scanner scanner holding the command's arguments
+   * @param model model to run the command against
+   *
+   * @throws IllegalArgumentException if the command does
+   * @throws IllegalStateException if the command does
+   */
+
+  public void run(String commandName, ICommand command, Scanner scanner, IModel model)
+          throws IllegalArgumentException, IllegalStateException {
+    CountingModel countingModel = new CountingModel(model);
+    CommandEvent event = new CommandEvent();
+    boolean successful = false;
+    long cpuStart = cpuTime();
+    long allocatedStart = allocatedBytes();
+    long start = System.nanoTime();
+    event.begin();
+    try {
+      command.run(scanner, countingModel);
+      successful = true;
+    } finally {
+      event.end();
+      long wall = System.nanoTime() - start;
+      long cpu = difference(cpuStart, cpuTime());
+      long allocated = difference(allocatedStart, allocatedBytes());
+      long pixels = countingModel.pixelsWritten > 0
+              ? countingModel.pixelsWritten : countingModel.pixelsRead;
+      this.metrics.record(new CommandRecord(commandName, wall, cpu, allocated, pixels,
+              successful));
+      if (event.shouldCommit()) {
+        event.command = commandName;
+        event.pixels = pixels;
+        event.allocatedBytes = allocated;
+        event.successful = successful;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Private helper method to return the difference of two measurements that may
+   *     be unavailable.
+   *
+   * @param start measurement before, or -1 if unavailable
+   * @param end measurement after, or -1 if unavailable
+   * @return end - start, at least 0, or -1 if either is unavailable
+   */
+
+  private static long difference(long start, long end) {
+    return start < 0 || end < 0 ? -1 : Math.max(0, end - start);
+  }
+
+  /**
+   * Private helper method to return the CPU time used so far.
+   *
+   * @return CPU time in nanoseconds of the JVM or of this thread, or -1 if the
+   *     JVM does not provide it
+   */
+
+  private long cpuTime() {
+    if (!this.wholeProcess) {
+      return THREAD_BEAN.isCurrentThreadCpuTimeSupported()
+              ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+    if (OS_BEAN instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) OS_BEAN).getProcessCpuTime();
+    }
+    return -1;
+  }
+
+  /**
+   * Private helper method to return the bytes allocated so far. Threads that
+   *     have ended are no longer counted, so the whole JVM count assumes the
+   *     transformation threads outlive the command, as pool threads do.
+   *
+   * @return bytes allocated by every live thread or by this thread, or -1 if the
+   *     JVM does not provide it
+   */
+
+  private long allocatedBytes() {
+    if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+    if (!threadBean.isThreadAllocatedMemorySupported()
+            || !threadBean.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    if (!this.wholeProcess) {
+      return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    long total = 0;
+    for (long allocated : threadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+      // -1 for threads that ended in between
+      total += Math.max(0, allocated);
+    }
+    return total;
+  }
+
+  /**
+   * This class represents a view of a model that counts the pixels of the images
+   *     read from it and added to it.
+   */
+
+  private static class CountingModel implements IModel {
+    private final IModel model;
+    private long pixelsRead;
+    private long pixelsWritten;
+
+    /**
+     * Construct a counting view of the given model.
+     *
+     * @param model model to use
+     */
+
+    private CountingModel(IModel model) {
+      this.model = model;
+    }
+
+    @Override
+    public void addImage(String imageID, IImageState image) throws IllegalArgumentException {
+      this.model.addImage(imageID, image);
+      this.pixelsWritten += (long) image.getWidth() * image.getHeight();
+    }
+
+    @Override
+    public IImageState getImage(String imageID) {
+      IImageState image = this.model.getImage(imageID);
+      if (image != null) {
+        this.pixelsRead += (long) image.getWidth() * image.getHeight();
+      }
+      return image;
+    }
+
+    @Override
+    public void removeImage(String imageID) throws IllegalArgumentException {
+      this.model.removeImage(imageID);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package controller;
+
+/**
+ * This class represents the measurements of one command run: how long it took,
+ * how much CPU time it used, how many bytes it allocated, and how many pixels it
+ * processed. Measurements that the JVM cannot provide are -1.
+ */
+
+public class CommandRecord {
+  private final String commandName;
+  private final long wallNanos;
+  private final long cpuNanos;
+  private final long allocatedBytes;
+  private final long pixels;
+  private final boolean successful;
+
+  /**
+   * Construct the record of a command run.
+   *
+   * @param commandName name of the command as written in the script
+   * @param wallNanos elapsed time in nanoseconds
+   * @param cpuNanos CPU time in nanoseconds, or -1 if not available
+   * @param allocatedBytes bytes allocated, or -1 if not available
+   * @param pixels pixels in the images the command wrote, or read if it wrote none
+   * @param successful whether the command completed
+   *
+   * @throws IllegalArgumentException if commandName is null
+   */
+
+  public CommandRecord(String commandName, long wallNanos, long cpuNanos, long allocatedBytes,
+                       long pixels, boolean successful) throws IllegalArgumentException {
+    if (commandName == null) {
+      throw new IllegalArgumentException("command name cannot be null");
+    }
+    this.commandName = commandName;
+    this.wallNanos = wallNanos;
+    this.cpuNanos = cpuNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.pixels = pixels;
+    this.successful = successful;
+  }
+
+  /**
+   * Returns the name of the command.
+   *
+   * @return the name of the command as written in the script
+   */
+
+  public String getCommandName() {
+    return this.commandName;
+  }
+
+  /**
+   * Returns the elapsed time of the command.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+
+  public long getWallNanos() {
+    return this.wallNanos;
+  }
+
+  /**
+   * Returns the CPU time the command used.
+   *
+   * @return the CPU time in nanoseconds, or -1 if not available
+   */
+
+  public long getCpuNanos() {
+    return this.cpuNanos;
+  }
+
+  /**
+   * Returns the number of bytes allocated while the command ran.
+   *
+   * @return the allocated bytes, or -1 if not available
+   */
+
+  public long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * Returns the number of pixels the command processed: the pixels of the images
+   *     it added to the model, or of the images it read if it added none, such as
+   *     a save.
+   *
+   * @return the number of pixels processed
+   */
+
+  public long getPixels() {
+    return this.pixels;
+  }
+
+  /**
+   * Returns whether the command completed.
+   *
+   * @return true if the command completed, false if it reported an error
+   */
+
+  public boolean isSuccessful() {
+    return this.successful;
+  }
+}
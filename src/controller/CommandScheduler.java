@@ -0,0 +1,316 @@
+package controller;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import controller.commands.ICommand;
+import model.IImageState;
+import model.IModel;
+
+/**
+ * This class runs the commands of a script concurrently wherever that cannot change
+ * the result. Each command reads and writes a set of resources: the images given by
+ * its source and destination IDs, and the files it loads or saves. A command waits
+ * for the last earlier command that wrote anything it reads or writes, and for every
+ * earlier command that read something it writes since that write. Commands with
+ * nothing in common, such as "blur a a1" and "sepia b b1", run at the same time. The
+ * messages of the commands are still given out in script order, each as soon as it
+ * and every earlier command have finished.
+ */
+
+public class CommandScheduler {
+  private static final String INVALID = "Invalid command. Please enter a valid command.\n";
+
+  private final int threadCount;
+  private final List<String> names;
+  private final List<ICommand> commands;
+  private final List<String[]> argumentLists;
+  private final List<Set<Integer>> dependencies;
+  private final Map<String, Integer> lastWriters;
+  private final Map<String, List<Integer>> readersSinceWrite;
+
+  /**
+   * Construct an empty scheduler that runs at most the given number of commands
+   *     at the same time.
+   *
+   * @param threadCount number of commands to run at the same time
+   *
+   * @throws IllegalArgumentException if threadCount is less than 1
+   */
+
+  public CommandScheduler(int threadCount) throws IllegalArgumentException {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("thread count must be at least 1");
+    }
+    this.threadCount = threadCount;
+    this.names = new ArrayList<>();
+    this.commands = new ArrayList<>();
+    this.argumentLists = new ArrayList<>();
+    this.dependencies = new ArrayList<>();
+    this.lastWriters = new HashMap<>();
+    this.readersSinceWrite = new HashMap<>();
+  }
+
+  /**
+   * Adds the next command of the script, named after its class in the metrics.
+   *
+   * @param command the command, or null if the command name is not valid
+   * @param arguments the arguments after the command name
+   *
+   * @throws IllegalArgumentException if arguments is null
+   */
+
+  public void add(ICommand command, String[] arguments) throws IllegalArgumentException {
+    add(command == null ? "invalid" : command.getClass().getSimpleName(), command, arguments);
+  }
+
+  /**
+   * Adds the next command of the script.
+   *
+   * @param name name of the command as written in the script
+   * @param command the command, or null if the command name is not valid
+   * @param arguments the arguments after the command name
+   *
+   * @throws IllegalArgumentException if name or arguments are null
+   */
+
+  public void add(String name, ICommand command, String[] arguments)
+          throws IllegalArgumentException {
+    if (name == null || arguments == null) {
+      throw new IllegalArgumentException("name or arguments cannot be null");
+    }
+    int index = this.commands.size();
+    Set<Integer> commandDependencies = new HashSet<>();
+    if (command != null && arguments.length < command.getArgumentCount()) {
+      // without its arguments nothing is known about it, so keep it in order
+      for (int i = 0; i < index; i++) {
+        commandDependencies.add(i);
+      }
+    } else if (command != null) {
+      List<String> reads = new ArrayList<>();
+      List<String> writes = new ArrayList<>();
+      for (String sourceID : command.getSourceIDs(arguments)) {
+        reads.add("image:" + sourceID);
+      }
+      for (String destID : command.getDestinationIDs(arguments)) {
+        writes.add("image:" + destID);
+      }
+      for (String path : command.getFilePaths(arguments)) {
+        (command.hasSideEffects() ? writes : reads).add(fileKey(path));
+      }
+
+      for (String resource : reads) {
+        Integer writer = this.lastWriters.get(resource);
+        if (writer != null) {
+          commandDependencies.add(writer);
+        }
+        this.readersSinceWrite.computeIfAbsent(resource, key -> new ArrayList<>()).add(index);
+      }
+      for (String resource : writes) {
+        Integer writer = this.lastWriters.get(resource);
+        if (writer != null) {
+          commandDependencies.add(writer);
+        }
+        List<Integer> readers = this.readersSinceWrite.remove(resource);
+        if (readers != null) {
+          commandDependencies.addAll(readers);
+        }
+        this.lastWriters.put(resource, index);
+      }
+      commandDependencies.remove(index);
+    }
+    this.names.add(name);
+    this.commands.add(command);
+    this.argumentLists.add(arguments);
+    this.dependencies.add(commandDependencies);
+  }
+
+  /**
+   * Private helper method to return the resource name of a file, so that two
+   *     ways of writing the same path name the same resource.
+   *
+   * @param path path as written in the script
+   * @return the resource name of the file
+   */
+
+  private static String fileKey(String path) {
+    try {
+      return "file:" + Paths.get(path).toAbsolutePath().normalize();
+    } catch (InvalidPathException e) {
+      return "file:" + path;
+    }
+  }
+
+  /**
+   * Returns the number of commands added.
+   *
+   * @return the number of commands added
+   */
+
+  public int size() {
+    return this.commands.size();
+  }
+
+  /**
+   * Returns the earlier commands that the command at the given position must
+   *     wait for.
+   *
+   * @param index position of the command in the script
+   * @return positions of the commands it waits for
+   */
+
+  public Set<Integer> getDependencies(int index) {
+    return new HashSet<>(this.dependencies.get(index));
+  }
+
+  /**
+   * Runs every command against the given model and gives the message of each
+   *     command to output, in script order, on the calling thread. The model is
+   *     only used through a synchronized view, so it does not need to be thread
+   *     safe. If a command throws an exception other than IllegalStateException,
+   *     the messages before it are given out and the exception is rethrown;
+   *     commands that do not depend on it may already have run.
+   *
+   * @param model model the commands read and write images in
+   * @param output receives the message of each command
+   *
+   * @throws IllegalArgumentException if model or output are null
+   */
+
+  public void run(IModel model, Consumer<String> output) throws IllegalArgumentException {
+    run(model, output, new CommandProfiler(new CommandMetrics(), false));
+  }
+
+  /**
+   * Runs every command as above, measuring each with the given profiler. The
+   *     profiler should measure only the running thread, since commands run at the
+   *     same time.
+   *
+   * @param model model the commands read and write images in
+   * @param output receives the message of each command
+   * @param profiler runs and measures each valid command
+   *
+   * @throws IllegalArgumentException if model, output, or profiler are null
+   */
+
+  public void run(IModel model, Consumer<String> output, CommandProfiler profiler)
+          throws IllegalArgumentException {
+    if (model == null || output == null || profiler == null) {
+      throw new IllegalArgumentException("model, output, or profiler cannot be null");
+    }
+    IModel synchronizedModel = new SynchronizedModel(model);
+    ExecutorService executor = Executors.newFixedThreadPool(this.threadCount);
+    try {
+      List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+      for (int i = 0; i < this.commands.size(); i++) {
+        int index = i;
+        CompletableFuture<?>[] waitFor = this.dependencies.get(i).stream()
+                .map(outcomes::get).toArray(CompletableFuture<?>[]::new);
+        outcomes.add(CompletableFuture.allOf(waitFor)
+                .thenApplyAsync(ignored -> execute(index, synchronizedModel, profiler), executor));
+      }
+      for (CompletableFuture<Outcome> future : outcomes) {
+        Outcome outcome = future.join();
+        for (String message : outcome.messages) {
+          output.accept(message);
+        }
+        if (outcome.error != null) {
+          throw outcome.error;
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Private helper method to run one command and record its messages. Nothing
+   *     is thrown, so commands that wait for this one always run.
+   *
+   * @param index position of the command in the script
+   * @param model model to run the command against
+   * @param profiler runs and measures the command
+   * @return the messages of the command and any unexpected exception
+   */
+
+  private Outcome execute(int index, IModel model, CommandProfiler profiler) {
+    Outcome outcome = new Outcome();
+    ICommand command = this.commands.get(index);
+    if (command == null) {
+      outcome.messages.add(INVALID);
+      return outcome;
+    }
+    Scanner scanner = new Scanner(String.join(" ", this.argumentLists.get(index)));
+    try {
+      profiler.run(this.names.get(index), command, scanner, model);
+      outcome.messages.add("Command completed successfully\n");
+    } catch (IllegalStateException e) {
+      // write any message from commands
+      outcome.messages.add(e.getMessage());
+    } catch (RuntimeException e) {
+      outcome.error = e;
+      return outcome;
+    }
+    if (scanner.hasNext()) {
+      // extra arguments on the line are not a valid command
+      outcome.messages.add(INVALID);
+    }
+    return outcome;
+  }
+
+  /**
+   * This class represents what happened when a command ran.
+   */
+
+  private static class Outcome {
+    private final List<String> messages = new ArrayList<>();
+    private RuntimeException error;
+  }
+
+  /**
+   * This class represents a view of a model that lets only one thread use it at
+   *     a time. Images are not copied, so transforming an image read from the
+   *     model happens outside the lock.
+   */
+
+  private static class SynchronizedModel implements IModel {
+    private final IModel model;
+
+    /**
+     * Construct a synchronized view of the given model.
+     *
+     * @param model model to use
+     */
+
+    private SynchronizedModel(IModel model) {
+      this.model = model;
+    }
+
+    @Override
+    public synchronized void addImage(String imageID, IImageState image)
+            throws IllegalArgumentException {
+      this.model.addImage(imageID, image);
+    }
+
+    @Override
+    public synchronized IImageState getImage(String imageID) {
+      return this.model.getImage(imageID);
+    }
+
+    @Override
+    public synchronized void removeImage(String imageID) throws IllegalArgumentException {
+      this.model.removeImage(imageID);
+    }
+  }
+}
@@ -1,25 +1,46 @@
 package controller;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 import controller.commands.Blur;
+import controller.commands.BoxBlurCommand;
+import controller.commands.ContrastCommand;
+import controller.commands.ConvolveCommand;
 import controller.commands.EditBrightness;
+import controller.commands.GammaCommand;
+import controller.commands.GaussianBlurCommand;
 import controller.commands.GreyscaleCommand;
 import controller.commands.GreyscaleMatrixCommand;
 import controller.commands.ICommand;
+import controller.commands.IPointCommand;
+import controller.commands.LevelsAdjustCommand;
 import controller.commands.LoadImageCommand;
 import controller.commands.SaveImageCommand;
 import controller.commands.SepiaMatrixCommand;
 import controller.commands.Sharpen;
+import controller.io.PPMFormat;
+import model.IImageState;
 import model.IModel;
 import model.GreyscaleComponent;
+import model.transformations.IPointTransformation;
+import model.transformations.ParallelTransformation;
 import view.ImageView;
 
 /**
- * This class implements the IController interface.
+ * This class implements the IController interface. By default every command runs
+ * as soon as it is read. In lazy mode the whole script is read first, one command
+ * per line, and only the commands that a save depends on are run; a chain of point
+ * commands where each result is only read by the next one runs as one pipeline
+ * without building the images in between. In parallel mode the whole script is
+ * also read first, and commands that use different images and files run at the
+ * same time. In every mode the time, memory, and pixels of each command run are
+ * recorded in the controller's command metrics.
  */
 
 public class ControllerImpl implements  IController {
@@ -27,6 +48,8 @@ public class ControllerImpl implements  IController {
   private final IModel model;
   private final ImageView view;
   private final Map<String, ICommand> commandMap;
+  private final ExecutionMode executionMode;
+  private final ICommandMetrics metrics;
 
   /**
    * Constructs an Image Manipulation and Editor (IME) program controller given
@@ -41,15 +64,59 @@ public class ControllerImpl implements  IController {
 
   public ControllerImpl(Readable input, IModel model, ImageView view)
           throws IllegalArgumentException {
-    if (model == null || input == null || view == null) {
+    this(input, model, view, ExecutionMode.EAGER);
+  }
+
+  /**
+   * Constructs an Image Manipulation and Editor (IME) program controller given
+   *  image database model, view, readable, and how to execute commands.
+   *
+   * @param model the image database model
+   * @param view the view to render messages
+   * @param input readable input
+   * @param executionMode EAGER to run each command as it is read, LAZY to read
+   *     the whole script and run only the commands a save depends on, or PARALLEL
+   *     to read the whole script and run independent commands at the same time
+   *
+   * @throws IllegalArgumentException if model, view, readable, or execution mode
+   *     are null.
+   */
+
+  public ControllerImpl(Readable input, IModel model, ImageView view,
+                        ExecutionMode executionMode) throws IllegalArgumentException {
+    this(input, model, view, executionMode, new CommandMetrics());
+  }
+
+  /**
+   * Constructs an Image Manipulation and Editor (IME) program controller given
+   *  image database model, view, readable, how to execute commands, and where to
+   *  record the time, memory, and pixels of each command run.
+   *
+   * @param model the image database model
+   * @param view the view to render messages
+   * @param input readable input
+   * @param executionMode EAGER, LAZY, or PARALLEL
+   * @param metrics where to record each command run
+   *
+   * @throws IllegalArgumentException if any argument is null.
+   */
+
+  public ControllerImpl(Readable input, IModel model, ImageView view,
+                        ExecutionMode executionMode, ICommandMetrics metrics)
+          throws IllegalArgumentException {
+    if (model == null || input == null || view == null || executionMode == null
+            || metrics == null) {
       throw new IllegalArgumentException("Constructor argument cannot be null.");
     }
     this.input = input;
     this.model = model;
     this.view = view;
+    this.executionMode = executionMode;
+    this.metrics = metrics;
     // create hashmap and add commands
     this.commandMap = new HashMap<String, ICommand>();
     this.commandMap.put("save", new SaveImageCommand());
+    this.commandMap.put("save-binary", new SaveImageCommand(PPMFormat.RAW));
     this.commandMap.put("load", new LoadImageCommand());
     this.commandMap.put("brighten", new EditBrightness());
     this.commandMap.put("luma", new GreyscaleCommand(GreyscaleComponent.LUMA));
@@ -62,6 +129,22 @@ public class ControllerImpl implements  IController {
     this.commandMap.put("sharpen", new Sharpen());
     this.commandMap.put("greyscale", new GreyscaleMatrixCommand());
     this.commandMap.put("sepia", new SepiaMatrixCommand());
+    this.commandMap.put("gamma", new GammaCommand());
+    this.commandMap.put("contrast", new ContrastCommand());
+    this.commandMap.put("levels-adjust", new LevelsAdjustCommand());
+    this.commandMap.put("box-blur", new BoxBlurCommand());
+    this.commandMap.put("gaussian-blur", new GaussianBlurCommand());
+    this.commandMap.put("convolve", new ConvolveCommand());
+  }
+
+  /**
+   * Returns the record of every command this controller has run.
+   *
+   * @return the command metrics
+   */
+
+  public ICommandMetrics getMetrics() {
+    return this.metrics;
   }
 
   /**
@@ -84,6 +167,15 @@ public class ControllerImpl implements  IController {
 
   @Override
   public void run() throws IllegalStateException {
+    if (this.executionMode == ExecutionMode.LAZY) {
+      runLazy();
+      return;
+    }
+    if (this.executionMode == ExecutionMode.PARALLEL) {
+      runParallel();
+      return;
+    }
+    CommandProfiler profiler = new CommandProfiler(this.metrics, true);
     Scanner scanner = new Scanner(this.input);
 
     while (scanner.hasNext()) {
@@ -98,12 +190,181 @@ public class ControllerImpl implements  IController {
         continue;
       }
       try {
-        commandToRun.run(scanner, this.model);
+        profiler.run(command, commandToRun, scanner, this.model);
+        write("Command completed successfully\n");
+      } catch (IllegalStateException e) {
+        // write any message from commands
+        write(e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Private helper method to read the whole script into a command graph and run
+   *     only the commands that a save depends on, in script order. A message is
+   *     written for every command in order; commands whose result is never used
+   *     are skipped. A point command whose result only the next point command in
+   *     its chain reads is not run alone; the last command of the chain runs them
+   *     all as one pipeline and is recorded under their names joined by "+".
+   *     Images that are never saved are removed from the model once the last
+   *     command that reads them has run.
+   *
+   * @throws IllegalStateException if writing to the view fails
+   */
+
+  private void runLazy() throws IllegalStateException {
+    Scanner lines = new Scanner(this.input);
+    CommandGraph graph = new CommandGraph();
+    List<String> names = new ArrayList<>();
+    while (lines.hasNextLine()) {
+      String line = lines.nextLine().trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      String[] tokens = line.split("\\s+");
+      graph.add(this.commandMap.get(tokens[0]), Arrays.copyOfRange(tokens, 1, tokens.length));
+      names.add(tokens[0]);
+    }
+
+    CommandProfiler profiler = new CommandProfiler(this.metrics, true);
+    boolean[] required = graph.findRequired();
+    int[] onlyReaders = graph.findOnlyReaders(required);
+    List<List<String>> releasedImages = graph.findReleasedImages(required);
+    Map<Integer, FusedPointCommand> chains = new HashMap<>();
+    for (int i = 0; i < graph.size(); i++) {
+      ICommand commandToRun = graph.getCommand(i);
+      if (commandToRun == null) {
+        write("Invalid command. Please enter a valid command.\n");
+        continue;
+      }
+      if (!required[i]) {
+        write("Command skipped, result is never saved\n");
+        continue;
+      }
+      String name = names.get(i);
+      String[] arguments = graph.getArguments(i);
+      // a chain that ends at this command was started by the command it reads
+      FusedPointCommand chain = chains.remove(i);
+      boolean fusesIntoReader = canFuse(graph, i, onlyReaders[i]);
+      IPointTransformation transformation = null;
+      if (chain != null || fusesIntoReader) {
+        transformation = readTransformation((IPointCommand) commandToRun, arguments);
+      }
+      if (transformation != null && chain == null) {
+        IImageState source = this.model.getImage(commandToRun.getSourceIDs(arguments).get(0));
+        if (source != null) {
+          chain = new FusedPointCommand(source);
+        }
+      }
+      if (transformation != null && chain != null) {
+        chain.add(name, transformation);
+        if (fusesIntoReader) {
+          // the only command that reads this result continues the chain
+          chains.put(onlyReaders[i], chain);
+          write("Command completed successfully\n");
+          removeImages(releasedImages.get(i));
+          continue;
+        }
+        // the last command of the chain runs the whole chain
+        arguments = commandToRun.getDestinationIDs(arguments).toArray(new String[0]);
+        name = chain.getName();
+        commandToRun = chain;
+      }
+      Scanner scanner = new Scanner(String.join(" ", arguments));
+      try {
+        profiler.run(name, commandToRun, scanner, this.model);
         write("Command completed successfully\n");
       } catch (IllegalStateException e) {
         // write any message from commands
         write(e.getMessage());
       }
+      if (scanner.hasNext()) {
+        // extra arguments on the line are not a valid command
+        write("Invalid command. Please enter a valid command.\n");
+      }
+      removeImages(releasedImages.get(i));
+    }
+  }
+
+  /**
+   * Private helper method to remove images that no later command reads from the
+   *     model, so that intermediate results do not stay in memory for the rest of
+   *     the script.
+   *
+   * @param imageIDs IDs of the images to remove
+   */
+
+  private void removeImages(List<String> imageIDs) {
+    for (String imageID : imageIDs) {
+      this.model.removeImage(imageID);
+    }
+  }
+
+  /**
+   * Private helper method to check whether a command can run as part of a chain
+   *     with the only command that reads its result. Both must be point commands
+   *     with exactly their arguments, so that no error or extra argument is lost.
+   *
+   * @param graph the command graph of the script
+   * @param index position of the command
+   * @param reader position of the only required command that reads its result,
+   *     or -1 if there is none
+   * @return true if the command can continue a chain into its reader
+   */
+
+  private boolean canFuse(CommandGraph graph, int index, int reader) {
+    if (reader < 0) {
+      return false;
+    }
+    for (int position : new int[] {index, reader}) {
+      ICommand command = graph.getCommand(position);
+      if (!(command instanceof IPointCommand)
+              || graph.getArguments(position).length != command.getArgumentCount()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Private helper method to build the transformation of a point command without
+   *     running it.
+   *
+   * @param command the point command
+   * @param arguments the arguments after the command name
+   * @return the transformation, or null if the arguments are not valid, so that
+   *     the command runs alone and reports its own error
+   */
+
+  private IPointTransformation readTransformation(IPointCommand command, String[] arguments) {
+    try {
+      return command.getTransformation(arguments);
+    } catch (IllegalStateException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Private helper method to read the whole script, one command per line, and run
+   *     it with a command scheduler so that commands using different images and
+   *     files run at the same time. Messages are written in script order.
+   *
+   * @throws IllegalStateException if writing to the view fails
+   */
+
+  private void runParallel() throws IllegalStateException {
+    Scanner lines = new Scanner(this.input);
+    CommandScheduler scheduler =
+            new CommandScheduler(ParallelTransformation.getDefaultThreadCount());
+    while (lines.hasNextLine()) {
+      String line = lines.nextLine().trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      String[] tokens = line.split("\\s+");
+      scheduler.add(tokens[0], this.commandMap.get(tokens[0]),
+              Arrays.copyOfRange(tokens, 1, tokens.length));
     }
+    scheduler.run(this.model, this::write, new CommandProfiler(this.metrics, false));
   }
 }
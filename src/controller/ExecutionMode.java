@@ -0,0 +1,31 @@
+package controller;
+
+/**
+ * This enum represents how the controller executes script commands.
+ */
+
+public enum ExecutionMode {
+  EAGER("eager"),
+  LAZY("lazy"),
+  PARALLEL("parallel");
+
+  private final String txt;
+
+  /**
+   * Constructs a string of the enum value.
+   */
+
+  ExecutionMode(String txt) {
+    this.txt = txt;
+  }
+
+  /**
+   * Returns a string of the enum type. Either "eager", "lazy", or "parallel".
+   *
+   * @return a string of the enum type. Either "eager", "lazy", or "parallel".
+   */
+
+  public String toString() {
+    return txt;
+  }
+}
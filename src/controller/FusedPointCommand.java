@@ -0,0 +1,107 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import controller.commands.ICommand;
+import model.IImageState;
+import model.IModel;
+import model.transformations.IPointTransformation;
+import model.transformations.ITransformation;
+import model.transformations.TransformationPipeline;
+
+/**
+ * This class represents a chain of point commands, each reading only the image the
+ *     one before it wrote, run as a single command. It implements the ICommand
+ *     interface. The image the first command read is kept when the chain starts, so
+ *     the chain gives the same image even if that ID is written again before the last
+ *     command. The transformations run as one TransformationPipeline, which computes
+ *     every pixel through the whole chain at once instead of building each image in
+ *     between, and only the last command's result is added to the model.
+ */
+
+class FusedPointCommand implements ICommand {
+  private final IImageState sourceImage;
+  private final List<ITransformation> transformations;
+  private final List<String> names;
+
+  /**
+   * Construct a chain that starts from the given image.
+   *
+   * @param sourceImage image the first command of the chain reads
+   */
+
+  FusedPointCommand(IImageState sourceImage) {
+    this.sourceImage = sourceImage;
+    this.transformations = new ArrayList<>();
+    this.names = new ArrayList<>();
+  }
+
+  /**
+   * Adds the next command of the chain.
+   *
+   * @param name name of the command as written in the script
+   * @param transformation the command's transformation
+   */
+
+  void add(String name, IPointTransformation transformation) {
+    this.names.add(name);
+    this.transformations.add(transformation);
+  }
+
+  /**
+   * Returns the names of the commands in the chain joined by "+", to record the
+   *     chain under.
+   *
+   * @return the name of the chain
+   */
+
+  String getName() {
+    return String.join("+", this.names);
+  }
+
+  /**
+   * Runs the whole chain and adds the result under the destination ID.
+   *
+   * @param scanner scanner holding the destination ID of the last command
+   * @param model model to add the result to
+   * @throws IllegalArgumentException if scanner or model is null
+   */
+
+  @Override
+  public void run(Scanner scanner, IModel model) throws IllegalArgumentException {
+    if (scanner == null || model == null) {
+      throw new IllegalArgumentException("scanner or model cannot be null");
+    }
+    String destID = scanner.next();
+    model.addImage(destID, new TransformationPipeline(this.transformations)
+            .run(this.sourceImage));
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 1;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
+}
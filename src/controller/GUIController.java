@@ -1,14 +1,15 @@
 package controller;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import controller.io.IImageLoader;
 import controller.io.IImageSaver;
 import controller.io.OtherImageTypeLoader;
 import controller.io.OtherImageTypeSaver;
+import controller.io.PPMFormat;
 import controller.io.PPMImageLoader;
 import controller.io.PPMImageSaver;
 import model.GreyscaleComponent;
@@ -21,6 +22,7 @@ import model.transformations.FilterTransformation;
 import model.transformations.ITransformation;
 import model.transformations.IntensityTransformation;
 import model.transformations.LumaTransformation;
+import model.transformations.ParallelTransformation;
 import model.transformations.ValueComponentTransformation;
 import model.transformations.ValueTransformation;
 import view.IGUIView;
@@ -108,15 +110,15 @@ public class GUIController implements IController, ViewListener {
       // if file extension is not a PPM
       if (!fileExtension.equals("ppm")) {
         // call to other image save strategy
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        IImageSaver otherImageTypeSaver = new OtherImageTypeSaver(filePath, currentImage, output);
+        IImageSaver otherImageTypeSaver = new OtherImageTypeSaver(filePath, currentImage);
         otherImageTypeSaver.run();
       } else {
         // call to ppm save strategy
-        // create file at given file path and write to file
-        File outputFile = new File(filePath);
-        try (FileWriter fileWriter = new FileWriter(outputFile)) {
-          PPMImageSaver ppmImageSaver = new PPMImageSaver(filePath, currentImage, fileWriter);
+        // create file at given file path and write bytes to it through a buffer
+        try (OutputStream fileOutput =
+                     new BufferedOutputStream(new FileOutputStream(filePath))) {
+          PPMImageSaver ppmImageSaver =
+                  new PPMImageSaver(filePath, currentImage, fileOutput, PPMFormat.PLAIN);
           ppmImageSaver.run();
         } catch (IOException e) {
           throw new IllegalStateException("Failed to write to file.\n");
@@ -149,7 +151,8 @@ public class GUIController implements IController, ViewListener {
       greyscaleComponentTransformation = new LumaTransformation();
     }
     // run the transformation
-    IImageState greyscaleComponentImage = greyscaleComponentTransformation.run(currentImage);
+    IImageState greyscaleComponentImage =
+            new ParallelTransformation(greyscaleComponentTransformation).run(currentImage);
     // add to model
     model.addImage("currentImage", greyscaleComponentImage);
     // convert IImageState object from model to buffered image
@@ -165,7 +168,8 @@ public class GUIController implements IController, ViewListener {
   public void handleBrightenEvent(int brightenValue) {
     // get current image from model
     IImageState currentImage = model.getImage("currentImage");
-    ITransformation brightenTransformation = new BrightenTransformation(brightenValue);
+    ITransformation brightenTransformation =
+            new ParallelTransformation(new BrightenTransformation(brightenValue));
     // call to brighten transformation
     IImageState brightenedImage = brightenTransformation.run(currentImage);
     // add to model
@@ -184,7 +188,8 @@ public class GUIController implements IController, ViewListener {
     // get current image from model
     IImageState currentImage = model.getImage("currentImage");
     // run the transformation
-    ITransformation blurTransformation = new FilterTransformation(kernel);
+    ITransformation blurTransformation =
+            new ParallelTransformation(new FilterTransformation(kernel));
     IImageState blurImage = blurTransformation.run(currentImage);
     // add to model
     model.addImage("currentImage", blurImage);
@@ -202,7 +207,8 @@ public class GUIController implements IController, ViewListener {
     // get current image from model
     IImageState currentImage = model.getImage("currentImage");
     // run the transformation
-    ITransformation sharpenTransformation = new FilterTransformation(kernel);
+    ITransformation sharpenTransformation =
+            new ParallelTransformation(new FilterTransformation(kernel));
     IImageState sharpenImage = sharpenTransformation.run(currentImage);
     // add to model
     model.addImage("currentImage", sharpenImage);
@@ -220,7 +226,8 @@ public class GUIController implements IController, ViewListener {
     // get current image from model
     IImageState currentImage = model.getImage("currentImage");
     // run the transformation
-    ITransformation greyscaleColorTransformation = new ColorTransformation(kernel);
+    ITransformation greyscaleColorTransformation =
+            new ParallelTransformation(new ColorTransformation(kernel));
     IImageState greyscaleImage = greyscaleColorTransformation.run(currentImage);
     // add to model
     model.addImage("currentImage", greyscaleImage);
@@ -238,7 +245,8 @@ public class GUIController implements IController, ViewListener {
     // get current image from model
     IImageState currentImage = model.getImage("currentImage");
     // run the transformation
-    ITransformation sepiaColorTransformation = new ColorTransformation(kernel);
+    ITransformation sepiaColorTransformation =
+            new ParallelTransformation(new ColorTransformation(kernel));
     IImageState sepiaImage = sepiaColorTransformation.run(currentImage);
     // add to model
     model.addImage("currentImage", sepiaImage);
@@ -0,0 +1,41 @@
+package controller;
+
+import java.util.List;
+
+/**
+ * This interface represents a collection of command measurements. The controller
+ * adds a record for every command it runs, which can be read back or summarized.
+ */
+
+public interface ICommandMetrics {
+
+  /**
+   * Adds the record of a command run. This may be called from several threads.
+   *
+   * @param record record to add
+   *
+   * @throws IllegalArgumentException if record is null
+   */
+
+  void record(CommandRecord record) throws IllegalArgumentException;
+
+  /**
+   * Returns every record added so far, in the order they were added.
+   *
+   * @return the records
+   */
+
+  List<CommandRecord> getRecords();
+
+  /**
+   * Writes a table with one row per command name, totalling its runs, elapsed
+   *     time, CPU time, allocated memory, and pixels, followed by a total row.
+   *
+   * @param output where to write the table
+   *
+   * @throws IllegalArgumentException if output is null
+   * @throws IllegalStateException if writing to output fails
+   */
+
+  void writeSummary(Appendable output) throws IllegalArgumentException, IllegalStateException;
+}
@@ -1,10 +1,24 @@
 package controller;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
 import model.IImageState;
+import model.PackedImageImpl;
 
 /**
- * Utility class providing methods for image-related operations.
+ * Utility class providing methods for image-related operations. Conversions between
+ * buffered images and the model work on whole rasters at a time rather than calling
+ * getRGB or setRGB, which convert through the color model, once per pixel.
  */
 
 public class ImageUtil {
@@ -28,6 +42,7 @@ public class ImageUtil {
 
   /**
    * Creates and returns buffered image object created from given IImageState object.
+   *     The pixels are copied straight into the buffered image's int raster.
    *
    * @param image IImageState to convert to buffered image object
    * @return buffered image object created from given IImageState object.
@@ -43,16 +58,107 @@ public class ImageUtil {
     int height = image.getHeight();
     // create new buffered image object with height/width
     BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    // iterate through to assign RGB values to buffered image
-    for (int i = 0;i < height;i++) {
-      for (int j = 0; j < width; j++) {
-        int r = image.getRedChannel(i, j);
-        int g = image.getGreenChannel(i, j);
-        int b = image.getBlueChannel(i, j);
-        int rgbValue = (r << 16) | (g << 8) | b;
-        bufferedImage.setRGB(j, i, rgbValue);
+    // TYPE_INT_RGB stores 0xRRGGBB ints row by row, the same as the packed pixels
+    int[] rasterData = ((DataBufferInt) bufferedImage.getRaster().getDataBuffer()).getData();
+    image.copyRegion(0, 0, width, height, rasterData);
+    return bufferedImage;
+  }
+
+  /**
+   * Creates and returns an image object with the same pixels as the given
+   *     buffered image, dropping any alpha. Int RGB rasters are used as the
+   *     image's storage without copying, so the buffered image should not be used
+   *     afterwards. Other int, 8-bit RGB, and indexed rasters are read directly,
+   *     and any other kind is read a row at a time through getRGB.
+   *
+   * @param bufferedImage buffered image to convert
+   * @return an image object with the pixels of the buffered image
+   * @throws IllegalArgumentException if bufferedImage is null.
+   */
+
+  public static IImageState createImage(BufferedImage bufferedImage)
+          throws IllegalArgumentException {
+    if (bufferedImage == null) {
+      throw new IllegalArgumentException("The selected file is not a valid image.");
+    }
+    int width = bufferedImage.getWidth();
+    int height = bufferedImage.getHeight();
+    WritableRaster raster = bufferedImage.getRaster();
+    ColorModel colorModel = bufferedImage.getColorModel();
+    SampleModel sampleModel = raster.getSampleModel();
+    DataBuffer dataBuffer = raster.getDataBuffer();
+    // only read the data directly when the raster starts at the start of one array
+    boolean direct = raster.getSampleModelTranslateX() == 0
+            && raster.getSampleModelTranslateY() == 0
+            && dataBuffer.getNumBanks() == 1 && dataBuffer.getOffset() == 0;
+
+    int type = bufferedImage.getType();
+    if (direct && (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB
+            || type == BufferedImage.TYPE_INT_BGR)
+            && ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride() == width) {
+      int[] data = ((DataBufferInt) dataBuffer).getData();
+      if (type == BufferedImage.TYPE_INT_RGB) {
+        // share the raster's array
+        return new PackedImageImpl(width, height, data);
       }
+      int[] pixels = new int[width * height];
+      for (int i = 0; i < pixels.length; i++) {
+        int pixel = data[i];
+        if (type == BufferedImage.TYPE_INT_BGR) {
+          pixel = ((pixel & 0xFF) << 16) | (pixel & 0xFF00) | ((pixel >> 16) & 0xFF);
+        }
+        pixels[i] = pixel & 0xFFFFFF;
+      }
+      return new PackedImageImpl(width, height, pixels);
     }
-    return bufferedImage;
+
+    if (direct && colorModel instanceof ComponentColorModel
+            && colorModel.getColorSpace().isCS_sRGB() && !colorModel.isAlphaPremultiplied()
+            && colorModel.getNumComponents() >= 3 && dataBuffer instanceof DataBufferByte
+            && sampleModel instanceof PixelInterleavedSampleModel) {
+      // 8-bit RGB such as TYPE_3BYTE_BGR and TYPE_4BYTE_ABGR, bands in R, G, B order
+      PixelInterleavedSampleModel interleaved = (PixelInterleavedSampleModel) sampleModel;
+      byte[] data = ((DataBufferByte) dataBuffer).getData();
+      int[] bandOffsets = interleaved.getBandOffsets();
+      int pixelStride = interleaved.getPixelStride();
+      int scanlineStride = interleaved.getScanlineStride();
+      int[] pixels = new int[width * height];
+      for (int row = 0; row < height; row++) {
+        int offset = row * scanlineStride;
+        for (int col = 0; col < width; col++) {
+          pixels[row * width + col] = ((data[offset + bandOffsets[0]] & 0xFF) << 16)
+                  | ((data[offset + bandOffsets[1]] & 0xFF) << 8)
+                  | (data[offset + bandOffsets[2]] & 0xFF);
+          offset += pixelStride;
+        }
+      }
+      return new PackedImageImpl(width, height, pixels);
+    }
+
+    int[] pixels = new int[width * height];
+    int[] rowValues = new int[width];
+    if (colorModel instanceof IndexColorModel && colorModel.getPixelSize() <= 16) {
+      // look every index up in the palette, entries past the map size are black
+      IndexColorModel indexColorModel = (IndexColorModel) colorModel;
+      int[] palette = new int[Math.max(indexColorModel.getMapSize(),
+              1 << indexColorModel.getPixelSize())];
+      indexColorModel.getRGBs(palette);
+      for (int row = 0; row < height; row++) {
+        raster.getSamples(0, row, width, 1, 0, rowValues);
+        for (int col = 0; col < width; col++) {
+          pixels[row * width + col] = palette[rowValues[col]] & 0xFFFFFF;
+        }
+      }
+      return new PackedImageImpl(width, height, pixels);
+    }
+
+    // any other raster goes through the color model, a row at a time
+    for (int row = 0; row < height; row++) {
+      bufferedImage.getRGB(0, row, width, 1, rowValues, 0, width);
+      for (int col = 0; col < width; col++) {
+        pixels[row * width + col] = rowValues[col] & 0xFFFFFF;
+      }
+    }
+    return new PackedImageImpl(width, height, pixels);
   }
 }
@@ -0,0 +1,96 @@
+package controller;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents the outcome of running one script in a batch. It records
+ * how long the script took, how many commands completed, and the message of every
+ * command that failed.
+ */
+
+public class ScriptResult {
+  private final Path script;
+  private final long elapsedNanos;
+  private final int completedCount;
+  private final List<String> failures;
+
+  /**
+   * Construct the result of running a script.
+   *
+   * @param script path of the script
+   * @param elapsedNanos time the script took to run, in nanoseconds
+   * @param completedCount number of commands that completed successfully
+   * @param failures message of each command that failed, in script order
+   *
+   * @throws IllegalArgumentException if script or failures are null, or if
+   *     elapsedNanos or completedCount are negative
+   */
+
+  public ScriptResult(Path script, long elapsedNanos, int completedCount, List<String> failures)
+          throws IllegalArgumentException {
+    if (script == null || failures == null) {
+      throw new IllegalArgumentException("script or failures cannot be null");
+    }
+    if (elapsedNanos < 0 || completedCount < 0) {
+      throw new IllegalArgumentException("time and command count cannot be negative");
+    }
+    this.script = script;
+    this.elapsedNanos = elapsedNanos;
+    this.completedCount = completedCount;
+    this.failures = Collections.unmodifiableList(failures);
+  }
+
+  /**
+   * Returns the path of the script.
+   *
+   * @return the path of the script
+   */
+
+  public Path getScript() {
+    return this.script;
+  }
+
+  /**
+   * Returns the time the script took to run.
+   *
+   * @return the run time in nanoseconds
+   */
+
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Returns the number of commands that completed successfully.
+   *
+   * @return the number of completed commands
+   */
+
+  public int getCompletedCount() {
+    return this.completedCount;
+  }
+
+  /**
+   * Returns the message of every command that failed, in script order. A script
+   *     that could not be read or stopped with an exception has a single message
+   *     describing why.
+   *
+   * @return the failure messages, empty if the script succeeded
+   */
+
+  public List<String> getFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Returns whether every command in the script succeeded.
+   *
+   * @return true if there were no failures
+   */
+
+  public boolean isSuccessful() {
+    return this.failures.isEmpty();
+  }
+}
@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import model.IImageState;
@@ -8,6 +10,7 @@ import model.kernel.IKernel;
 import model.kernel.KernelImpl;
 import model.transformations.FilterTransformation;
 import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
 
 /**
  * This class represents a blur command. It implements the
@@ -59,11 +62,37 @@ public class Blur implements ICommand {
     };
     // create kernel object and pass to transformation call
     IKernel blurKernel = new KernelImpl(blurFilter);
-    ITransformation blurTransformation = new FilterTransformation(blurKernel);
+    ITransformation blurTransformation =
+            new ParallelTransformation(new FilterTransformation(blurKernel));
     IImageState blurImage = blurTransformation.run(sourceImage);
 
     // now need to add to model - if destination id is same as source, it will overwrite
     model.addImage(destID, blurImage);
 
   }
+
+  @Override
+  public int getArgumentCount() {
+    return 2;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
 }
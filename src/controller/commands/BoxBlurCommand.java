@@ -0,0 +1,100 @@
+package controller.commands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import model.EdgeMode;
+import model.IImageState;
+import model.IModel;
+import model.transformations.BoxBlurTransformation;
+import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
+
+/**
+ * This class represents a box blur command. It implements the
+ * ICommand interface and implements the mandated operation. When initialized
+ * and ran, it scans a radius, source image id, and destination image id from the
+ * controller, replaces each pixel by the average of the square of pixels within
+ * the radius, and then adds the image to the model. Pixels outside the image take
+ * the value of the nearest edge pixel.
+ */
+
+public class BoxBlurCommand implements ICommand {
+
+  /**
+   * Construct a box blur command.
+   */
+
+  public BoxBlurCommand() {
+    // Empty constructor
+  }
+
+  @Override
+  public void run(Scanner scanner, IModel model) throws IllegalArgumentException {
+    if (scanner == null || model == null) {
+      throw new IllegalArgumentException("scanner or model cannot be null");
+    }
+
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.\n");
+    }
+    // assign blur radius
+    int radius = scanner.nextInt();
+    if (radius < 0) {
+      throw new IllegalStateException("Radius cannot be negative.\n");
+    }
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be image id.\n");
+    }
+    // assign source image id
+    String sourceImageID = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be destination id.\n");
+    }
+    //assign destination image id
+    String destID = scanner.next();
+
+    // get the source image from the model
+    IImageState sourceImage = model.getImage(sourceImageID);
+
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified ID does not exist.\n");
+    }
+
+    // call to box blur transformation
+    ITransformation blurTransformation =
+            new ParallelTransformation(new BoxBlurTransformation(radius, EdgeMode.CLAMP));
+    IImageState adjustedImage = blurTransformation.run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, adjustedImage);
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 3;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[2]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
+}
@@ -0,0 +1,101 @@
+package controller.commands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import controller.io.KernelLoader;
+import model.EdgeMode;
+import model.IImageState;
+import model.IModel;
+import model.kernel.IKernelState;
+import model.transformations.FilterTransformation;
+import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
+
+/**
+ * This class represents a custom filter command. It implements the
+ * ICommand interface and implements the mandated operation. When initialized
+ * and ran, it scans a kernel file path, source image id, and destination image id
+ * from the controller, loads the kernel with a KernelLoader, filters the image
+ * with it, and then adds the image to the model. Large kernels are filtered
+ * through the Fourier transform. Pixels outside the image take the value of the
+ * nearest edge pixel.
+ */
+
+public class ConvolveCommand implements ICommand {
+
+  /**
+   * Construct a custom filter command.
+   */
+
+  public ConvolveCommand() {
+    // Empty constructor
+  }
+
+  @Override
+  public void run(Scanner scanner, IModel model) throws IllegalArgumentException {
+    if (scanner == null || model == null) {
+      throw new IllegalArgumentException("scanner or model cannot be null");
+    }
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Second argument must be kernel file path.\n");
+    }
+    // assign kernel file path
+    String kernelPath = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be image id.\n");
+    }
+    // assign source image id
+    String sourceImageID = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be destination id.\n");
+    }
+    //assign destination image id
+    String destID = scanner.next();
+
+    // get the source image from the model
+    IImageState sourceImage = model.getImage(sourceImageID);
+
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified ID does not exist.\n");
+    }
+
+    // load the kernel and pass to filter transformation call
+    IKernelState kernel = new KernelLoader(kernelPath).run();
+    ITransformation filterTransformation =
+            new ParallelTransformation(new FilterTransformation(kernel, EdgeMode.CLAMP));
+    IImageState adjustedImage = filterTransformation.run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, adjustedImage);
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 3;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[2]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
+}
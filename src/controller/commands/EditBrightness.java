@@ -1,20 +1,24 @@
 package controller.commands;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import model.IImageState;
 import model.IModel;
 import model.transformations.BrightenTransformation;
+import model.transformations.IPointTransformation;
 import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
 
 /**
  * This class represents an edit brightness command. It implements the
- * ICommand interface and implements the mandated operation. When initialized
+ * IPointCommand interface and implements the mandated operation. When initialized
  * and ran, it scans input from the controller and calls to the brighten transformation
  * to return a brightened image and then adds the image to the model.
  */
 
-public class EditBrightness  implements ICommand {
+public class EditBrightness  implements IPointCommand {
 
   private IModel model;
 
@@ -32,11 +36,7 @@ public class EditBrightness  implements ICommand {
       throw new IllegalArgumentException("scanner or model cannot be null");
     }
 
-    if (!scanner.hasNextInt()) {
-      throw new IllegalStateException("Second argument must be an int.\n");
-    }
-    // assign brighten value
-    int value = scanner.nextInt();
+    IPointTransformation transformation = readTransformation(scanner);
 
     if (!scanner.hasNext()) {
       throw new IllegalStateException("Third argument must be image id.\n");
@@ -58,11 +58,59 @@ public class EditBrightness  implements ICommand {
     }
 
     // call to brighten transformation
-    ITransformation brightenTransformation = new BrightenTransformation(value);
+    ITransformation brightenTransformation = new ParallelTransformation(transformation);
     IImageState brightenedImage = brightenTransformation.run(sourceImage);
 
     // now need to add to model - if destination id is same as source, it will overwrite
     model.addImage(destID, brightenedImage);
 
   }
+
+  @Override
+  public IPointTransformation getTransformation(String[] arguments)
+          throws IllegalStateException {
+    return readTransformation(new Scanner(String.join(" ", arguments)));
+  }
+
+  /**
+   * Private helper method to scan the brighten value and create the transformation.
+   *
+   * @param scanner scanner positioned at the brighten value
+   * @return the brighten transformation
+   * @throws IllegalStateException if the value is not an int
+   */
+
+  private IPointTransformation readTransformation(Scanner scanner) throws IllegalStateException {
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.\n");
+    }
+    // assign brighten value
+    int value = scanner.nextInt();
+    return new BrightenTransformation(value);
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 3;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[2]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
 }
@@ -0,0 +1,118 @@
+package controller.commands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import model.IImageState;
+import model.IModel;
+import model.transformations.IPointTransformation;
+import model.transformations.ITransformation;
+import model.transformations.LookupTransformation;
+import model.transformations.ParallelTransformation;
+
+/**
+ * This class represents a gamma correction command. It implements the
+ * IPointCommand interface and implements the mandated operation. When initialized
+ * and ran, it scans a gamma value, source image id, and destination image id from
+ * the controller, applies the gamma curve to each channel through a lookup table,
+ * and then adds the image to the model. A gamma above 1 brightens the mid tones.
+ */
+
+public class GammaCommand implements IPointCommand {
+
+  /**
+   * Construct a gamma command.
+   */
+
+  public GammaCommand() {
+    // Empty constructor
+  }
+
+  @Override
+  public void run(Scanner scanner, IModel model) throws IllegalArgumentException {
+    if (scanner == null || model == null) {
+      throw new IllegalArgumentException("scanner or model cannot be null");
+    }
+
+    IPointTransformation transformation = readTransformation(scanner);
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be image id.\n");
+    }
+    // assign source image id
+    String sourceImageID = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be destination id.\n");
+    }
+    //assign destination image id
+    String destID = scanner.next();
+
+    // get the source image from the model
+    IImageState sourceImage = model.getImage(sourceImageID);
+
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified ID does not exist.\n");
+    }
+
+    // call to gamma lookup transformation
+    ITransformation gammaTransformation =
+            new ParallelTransformation(transformation);
+    IImageState adjustedImage = gammaTransformation.run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, adjustedImage);
+  }
+
+  @Override
+  public IPointTransformation getTransformation(String[] arguments)
+          throws IllegalStateException {
+    return readTransformation(new Scanner(String.join(" ", arguments)));
+  }
+
+  /**
+   * Private helper method to scan the gamma value and create the transformation.
+   *
+   * @param scanner scanner positioned at the gamma value
+   * @return the lookup transformation
+   * @throws IllegalStateException if the gamma value is not a valid number
+   */
+
+  private IPointTransformation readTransformation(Scanner scanner) throws IllegalStateException {
+    if (!scanner.hasNextDouble()) {
+      throw new IllegalStateException("Second argument must be a number.\n");
+    }
+    // assign gamma value
+    double gamma = scanner.nextDouble();
+    if (!(gamma > 0) || Double.isInfinite(gamma)) {
+      throw new IllegalStateException("Gamma must be greater than 0.\n");
+    }
+    return LookupTransformation.gamma(gamma);
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 3;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[2]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
+}
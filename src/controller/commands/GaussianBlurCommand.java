@@ -0,0 +1,101 @@
+package controller.commands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import model.EdgeMode;
+import model.IImageState;
+import model.IModel;
+import model.transformations.BoxBlurTransformation;
+import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
+
+/**
+ * This class represents a Gaussian blur command. It implements the
+ * ICommand interface and implements the mandated operation. When initialized
+ * and ran, it scans a standard deviation in pixels, source image id, and
+ * destination image id from the controller, blurs the image with three box blurs
+ * that approximate a Gaussian of that standard deviation, and then adds the image
+ * to the model. The time taken does not grow with the standard deviation. Pixels
+ * outside the image take the value of the nearest edge pixel.
+ */
+
+public class GaussianBlurCommand implements ICommand {
+
+  /**
+   * Construct a Gaussian blur command.
+   */
+
+  public GaussianBlurCommand() {
+    // Empty constructor
+  }
+
+  @Override
+  public void run(Scanner scanner, IModel model) throws IllegalArgumentException {
+    if (scanner == null || model == null) {
+      throw new IllegalArgumentException("scanner or model cannot be null");
+    }
+
+    if (!scanner.hasNextDouble()) {
+      throw new IllegalStateException("Second argument must be a number.\n");
+    }
+    // assign standard deviation
+    double sigma = scanner.nextDouble();
+    if (!(sigma >= 0) || Double.isInfinite(sigma)) {
+      throw new IllegalStateException("Sigma cannot be negative.\n");
+    }
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be image id.\n");
+    }
+    // assign source image id
+    String sourceImageID = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be destination id.\n");
+    }
+    //assign destination image id
+    String destID = scanner.next();
+
+    // get the source image from the model
+    IImageState sourceImage = model.getImage(sourceImageID);
+
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified ID does not exist.\n");
+    }
+
+    // call to approximate Gaussian blur transformation
+    ITransformation blurTransformation =
+            new ParallelTransformation(BoxBlurTransformation.gaussian(sigma, EdgeMode.CLAMP));
+    IImageState adjustedImage = blurTransformation.run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, adjustedImage);
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 3;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[2]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
+}
@@ -1,24 +1,27 @@
 package controller.commands;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import model.GreyscaleComponent;
 import model.IImageState;
 import model.IModel;
-import model.transformations.ITransformation;
+import model.transformations.IPointTransformation;
 import model.transformations.IntensityTransformation;
 import model.transformations.LumaTransformation;
+import model.transformations.ParallelTransformation;
 import model.transformations.ValueComponentTransformation;
 import model.transformations.ValueTransformation;
 
 /**
  * This class represents a greyscale component command. It implements the
- * ICommand interface and implements the mandated operation. When initialized
+ * IPointCommand interface and implements the mandated operation. When initialized
  * and ran, it scans input from the controller and calls to given greyscale component
  * transformation strategy to return a new image and then adds the image to the model.
  */
 
-public class GreyscaleCommand implements ICommand {
+public class GreyscaleCommand implements IPointCommand {
   private IModel model;
   private final GreyscaleComponent greyscaleComponent;
 
@@ -61,8 +64,29 @@ public class GreyscaleCommand implements ICommand {
     if (sourceImage == null) {
       throw new IllegalStateException("Image with specified ID does not exist.\n");
     }
+    // run the transformation and store image
+    IImageState greyscaleComponentImage =
+            new ParallelTransformation(createTransformation()).run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, greyscaleComponentImage);
+  }
+
+  @Override
+  public IPointTransformation getTransformation(String[] arguments)
+          throws IllegalStateException {
+    return createTransformation();
+  }
+
+  /**
+   * Private helper method to create the transformation for the greyscale component.
+   *
+   * @return the greyscale transformation
+   */
+
+  private IPointTransformation createTransformation() {
     // call to correct transformation based on greyscaleComponent enum
-    ITransformation greyscaleComponentTransformation = null;
+    IPointTransformation greyscaleComponentTransformation = null;
     if (this.greyscaleComponent == GreyscaleComponent.RED
             || this.greyscaleComponent == GreyscaleComponent.GREEN
             || this.greyscaleComponent == GreyscaleComponent.BLUE) {
@@ -74,10 +98,31 @@ public class GreyscaleCommand implements ICommand {
     } else if (this.greyscaleComponent == GreyscaleComponent.LUMA) {
       greyscaleComponentTransformation = new LumaTransformation();
     }
-    // run the transformation and store image
-    IImageState greyscaleComponentImage = greyscaleComponentTransformation.run(sourceImage);
+    return greyscaleComponentTransformation;
+  }
 
-    // now need to add to model - if destination id is same as source, it will overwrite
-    model.addImage(destID, greyscaleComponentImage);
+  @Override
+  public int getArgumentCount() {
+    return 2;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
   }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import model.IImageState;
@@ -7,17 +9,19 @@ import model.IModel;
 import model.kernel.IKernel;
 import model.kernel.KernelImpl;
 import model.transformations.ColorTransformation;
+import model.transformations.IPointTransformation;
 import model.transformations.ITransformation;
+import model.transformations.ParallelTransformation;
 
 /**
  * This class represents a greyscale matrix command. It implements the
- * ICommand interface and implements the mandated operation. When initialized
+ * IPointCommand interface and implements the mandated operation. When initialized
  * and ran, it scans input from the controller and calls to the color transformation
  * strategy with the initialized matrix for performing a greyscale linear color
  * transformation and then adds the image to the model.
  */
 
-public class GreyscaleMatrixCommand implements  ICommand {
+public class GreyscaleMatrixCommand implements  IPointCommand {
 
   /**
    * Construct a greyscale matrix command.
@@ -51,6 +55,27 @@ public class GreyscaleMatrixCommand implements  ICommand {
       throw new IllegalStateException("Image with specified ID does not exist.\n");
     }
 
+    ITransformation greyscaleColorTransformation =
+            new ParallelTransformation(createTransformation());
+    IImageState greyscaleImage = greyscaleColorTransformation.run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, greyscaleImage);
+  }
+
+  @Override
+  public IPointTransformation getTransformation(String[] arguments)
+          throws IllegalStateException {
+    return createTransformation();
+  }
+
+  /**
+   * Private helper method to create the greyscale color transformation.
+   *
+   * @return the color transformation
+   */
+
+  private IPointTransformation createTransformation() {
     // create greyscale matrix filter
     double[][] greyscaleFilter = {
             {0.2126, 0.7152, 0.0722},
@@ -59,10 +84,31 @@ public class GreyscaleMatrixCommand implements  ICommand {
     };
     // create kernel object and pass to transformation call
     IKernel greyscaleMatrix = new KernelImpl(greyscaleFilter);
-    ITransformation greyscaleColorTransformation = new ColorTransformation(greyscaleMatrix);
-    IImageState greyscaleImage = greyscaleColorTransformation.run(sourceImage);
+    return new ColorTransformation(greyscaleMatrix);
+  }
 
-    // now need to add to model - if destination id is same as source, it will overwrite
-    model.addImage(destID, greyscaleImage);
+  @Override
+  public int getArgumentCount() {
+    return 2;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
   }
 }
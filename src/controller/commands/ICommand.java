@@ -1,5 +1,6 @@
 package controller.commands;
 
+import java.util.List;
 import java.util.Scanner;
 
 import model.IModel;
@@ -21,4 +22,53 @@ public interface ICommand {
    * @throws IllegalArgumentException if scanner or model are null
    */
   void run(Scanner scanner, IModel model) throws IllegalArgumentException;
+
+  /**
+   * Returns the number of arguments this command reads after the command name.
+   *
+   * @return the number of arguments this command reads
+   */
+
+  int getArgumentCount();
+
+  /**
+   * Returns the IDs of the images this command reads from the model when run
+   * with the given arguments.
+   *
+   * @param arguments the arguments after the command name, getArgumentCount long
+   * @return the IDs of the images read by this command
+   */
+
+  List<String> getSourceIDs(String[] arguments);
+
+  /**
+   * Returns the IDs of the images this command adds to the model when run
+   * with the given arguments.
+   *
+   * @param arguments the arguments after the command name, getArgumentCount long
+   * @return the IDs of the images written by this command
+   */
+
+  List<String> getDestinationIDs(String[] arguments);
+
+  /**
+   * Returns whether this command has an effect outside the model, such as
+   * writing a file. Commands without side effects only matter if an image they
+   * write is later used.
+   *
+   * @return true if this command has an effect outside the model
+   */
+
+  boolean hasSideEffects();
+
+  /**
+   * Returns the paths of the files this command uses when run with the given
+   * arguments. A command with side effects writes these files; any other
+   * command only reads them.
+   *
+   * @param arguments the arguments after the command name, getArgumentCount long
+   * @return the paths of the files used by this command, as written in the script
+   */
+
+  List<String> getFilePaths(String[] arguments);
 }
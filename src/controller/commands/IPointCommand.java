@@ -0,0 +1,24 @@
+package controller.commands;
+
+import model.transformations.IPointTransformation;
+
+/**
+ * This interface represents a command that reads one image, applies a point
+ *     transformation to it, and adds the result to the model. Its transformation
+ *     can be built from the arguments without running it, so a chain of point
+ *     commands can be run as a single TransformationPipeline.
+ */
+
+public interface IPointCommand extends ICommand {
+
+  /**
+   * Returns the transformation the command applies for the given arguments.
+   *
+   * @param arguments the arguments after the command name
+   * @return the point transformation
+   * @throws IllegalStateException if the arguments before the image IDs are not
+   *     valid, with the same message run gives
+   */
+
+  IPointTransformation getTransformation(String[] arguments) throws IllegalStateException;
+}
@@ -0,0 +1,122 @@
+package controller.commands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import model.IImageState;
+import model.IModel;
+import model.transformations.IPointTransformation;
+import model.transformations.ITransformation;
+import model.transformations.LookupTransformation;
+import model.transformations.ParallelTransformation;
+
+/**
+ * This class represents a levels adjustment command. It implements the
+ * IPointCommand interface and implements the mandated operation. When initialized
+ * and ran, it scans the black, mid, and white points, source image id, and
+ * destination image id from the controller, maps them to 0, 128, and 255 along a
+ * quadratic curve through a lookup table, and then adds the image to the model.
+ */
+
+public class LevelsAdjustCommand implements IPointCommand {
+
+  /**
+   * Construct a levels adjustment command.
+   */
+
+  public LevelsAdjustCommand() {
+    // Empty constructor
+  }
+
+  @Override
+  public void run(Scanner scanner, IModel model) throws IllegalArgumentException {
+    if (scanner == null || model == null) {
+      throw new IllegalArgumentException("scanner or model cannot be null");
+    }
+
+    IPointTransformation transformation = readTransformation(scanner);
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fifth argument must be image id.\n");
+    }
+    // assign source image id
+    String sourceImageID = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Sixth argument must be destination id.\n");
+    }
+    //assign destination image id
+    String destID = scanner.next();
+
+    // get the source image from the model
+    IImageState sourceImage = model.getImage(sourceImageID);
+
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified ID does not exist.\n");
+    }
+
+    // call to levels lookup transformation
+    ITransformation levelsTransformation = new ParallelTransformation(transformation);
+    IImageState adjustedImage = levelsTransformation.run(sourceImage);
+
+    // now need to add to model - if destination id is same as source, it will overwrite
+    model.addImage(destID, adjustedImage);
+  }
+
+  @Override
+  public IPointTransformation getTransformation(String[] arguments)
+          throws IllegalStateException {
+    return readTransformation(new Scanner(String.join(" ", arguments)));
+  }
+
+  /**
+   * Private helper method to scan the black, mid, and white points and create the
+   *     transformation.
+   *
+   * @param scanner scanner positioned at the black point
+   * @return the lookup transformation
+   * @throws IllegalStateException if the points are not ascending ints from 0 to 255
+   */
+
+  private IPointTransformation readTransformation(Scanner scanner) throws IllegalStateException {
+    // assign black, mid, and white points
+    int[] levels = new int[3];
+    String[] names = {"Second", "Third", "Fourth"};
+    for (int i = 0; i < levels.length; i++) {
+      if (!scanner.hasNextInt()) {
+        throw new IllegalStateException(names[i] + " argument must be an int.\n");
+      }
+      levels[i] = scanner.nextInt();
+    }
+    if (levels[0] < 0 || levels[0] >= levels[1] || levels[1] >= levels[2] || levels[2] > 255) {
+      throw new IllegalStateException("Levels must be ascending values from 0 to 255.\n");
+    }
+    return LookupTransformation.levels(levels[0], levels[1], levels[2]);
+  }
+
+  @Override
+  public int getArgumentCount() {
+    return 5;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[3]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[4]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.emptyList();
+  }
+}
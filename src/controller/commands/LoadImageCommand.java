@@ -1,5 +1,7 @@
 package controller.commands;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import controller.io.IImageLoader;
@@ -91,4 +93,29 @@ public class LoadImageCommand implements ICommand {
       throw new IllegalStateException(e.getMessage());
     }
   }
+
+  @Override
+  public int getArgumentCount() {
+    return 2;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return false;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
 }
@@ -1,13 +1,16 @@
 package controller.commands;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import controller.io.IImageSaver;
 import controller.io.OtherImageTypeSaver;
+import controller.io.PPMFormat;
 import controller.io.PPMImageSaver;
 import model.IImageState;
 import model.IModel;
@@ -17,19 +20,36 @@ import model.IModel;
  * ICommand interface and implements the mandated operation. When initialized
  * and ran, it scans input from the controller and based on the file extension,
  * it calls to the correct save image type strategy and then adds the image to
- * save the image.
+ * save the image. PPM files are written in the plain (P3) format unless the
+ * command was constructed with the raw (P6) format.
  */
 
 public class SaveImageCommand implements ICommand {
 
   //private IModel model;
+  private final PPMFormat ppmFormat;
 
   /**
-   * Construct a save image command.
+   * Construct a save image command that saves PPM files in the plain format.
    */
 
   public SaveImageCommand() {
-    // Empty constructor
+    this(PPMFormat.PLAIN);
+  }
+
+  /**
+   * Construct a save image command that saves PPM files in the given format.
+   *
+   * @param ppmFormat format to save PPM files in
+   *
+   * @throws IllegalArgumentException if ppmFormat is null.
+   */
+
+  public SaveImageCommand(PPMFormat ppmFormat) throws IllegalArgumentException {
+    if (ppmFormat == null) {
+      throw new IllegalArgumentException("PPM format cannot be null");
+    }
+    this.ppmFormat = ppmFormat;
   }
 
   /**
@@ -79,16 +99,14 @@ public class SaveImageCommand implements ICommand {
       // if file extension is not a PPM
       if (!fileExtension.equals("ppm")) {
         // call to other image save strategy
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        IImageSaver otherImageTypeSaver = new OtherImageTypeSaver(saveFilePath, saveImage, output);
+        IImageSaver otherImageTypeSaver = new OtherImageTypeSaver(saveFilePath, saveImage);
         otherImageTypeSaver.run();
       } else {
         // call to ppm save strategy
-        // create file at given file path and write to file
-        File outputFile = new File(saveFilePath);
-        try (FileWriter fileWriter = new FileWriter(outputFile)) {
-          PPMImageSaver ppmImageSaver = new PPMImageSaver(saveFilePath, saveImage, fileWriter);
-          ppmImageSaver.run();
+        // create file at given file path and write bytes to it through a buffer
+        try (OutputStream fileOutput =
+                     new BufferedOutputStream(new FileOutputStream(saveFilePath))) {
+          new PPMImageSaver(saveFilePath, saveImage, fileOutput, this.ppmFormat).run();
         } catch (IOException e) {
           throw new IllegalStateException("Failed to write to file.\n");
         }
@@ -97,4 +115,29 @@ public class SaveImageCommand implements ICommand {
       throw new IllegalStateException(e.getMessage());
     }
   }
+
+  @Override
+  public int getArgumentCount() {
+    return 2;
+  }
+
+  @Override
+  public List<String> getSourceIDs(String[] arguments) {
+    return Collections.singletonList(arguments[1]);
+  }
+
+  @Override
+  public List<String> getDestinationIDs(String[] arguments) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean hasSideEffects() {
+    return true;
+  }
+
+  @Override
+  public List<String> getFilePaths(String[] arguments) {
+    return Collections.singletonList(arguments[0]);
+  }
 }
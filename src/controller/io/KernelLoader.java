@@ -0,0 +1,84 @@
+package controller.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.kernel.IKernel;
+import model.kernel.KernelImpl;
+
+/**
+ * This class represents a filter kernel loader. When initialized and ran, it reads
+ * a square kernel from a text file: the kernel values in row order, separated by
+ * spaces or line breaks, with anything after a # on a line ignored. The number of
+ * values must be the square of an odd number of at least 3, which gives the size.
+ */
+
+public class KernelLoader {
+  private final String filePath;
+
+  /**
+   * Construct a kernel loader that will load a kernel at a given file path.
+   *
+   * @param filePath filepath of the kernel to load
+   *
+   * @throws IllegalArgumentException if filePath is null.
+   */
+
+  public KernelLoader(String filePath) throws IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("file path cannot be null\n");
+    }
+    this.filePath = filePath;
+  }
+
+  /**
+   * Loads the kernel.
+   *
+   * @return the kernel in the file
+   * @throws IllegalStateException if the file cannot be read or does not hold a
+   *     valid kernel
+   */
+
+  public IKernel run() throws IllegalStateException {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(Paths.get(this.filePath));
+    } catch (NoSuchFileException e) {
+      throw new IllegalStateException("Kernel file does not exist.\n");
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalStateException("Failed to read file.\n");
+    }
+
+    List<Double> values = new ArrayList<>();
+    for (String line : lines) {
+      int comment = line.indexOf('#');
+      String content = comment >= 0 ? line.substring(0, comment) : line;
+      for (String token : content.trim().split("\\s+")) {
+        if (token.isEmpty()) {
+          continue;
+        }
+        try {
+          values.add(Double.parseDouble(token));
+        } catch (NumberFormatException e) {
+          throw new IllegalStateException("Invalid kernel file: " + token
+                  + " is not a number.\n");
+        }
+      }
+    }
+
+    int size = (int) Math.round(Math.sqrt(values.size()));
+    if (size * size != values.size() || size % 2 != 1 || size < 3) {
+      throw new IllegalStateException("Invalid kernel file: kernel must be square with an odd "
+              + "size of at least 3.\n");
+    }
+    double[][] kernelValues = new double[size][size];
+    for (int i = 0; i < values.size(); i++) {
+      kernelValues[i / size][i % size] = values.get(i);
+    }
+    return new KernelImpl(kernelValues);
+  }
+}
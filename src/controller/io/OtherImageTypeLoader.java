@@ -6,9 +6,8 @@ import java.io.IOException;
 
 import javax.imageio.ImageIO;
 
-import model.IImage;
+import controller.ImageUtil;
 import model.IImageState;
-import model.ImageImpl;
 
 /**
  * This class represents a non PPM image loader. It implements the
@@ -49,22 +48,7 @@ public class OtherImageTypeLoader implements  IImageLoader {
     } catch (IOException e) {
       throw new IllegalStateException("Failed to read from file.\n");
     }
-    // extract and assign height and width
-    int height = image.getHeight();
-    int width = image.getWidth();
-
-    // create image object
-    IImage loadedImage = new ImageImpl(width, height);
-    for (int i = 0;i < height;i++) {
-      for (int j = 0;j < width;j++) {
-        int pixelRGB = image.getRGB(j, i); // retrieve RGB and assign
-        int r = (pixelRGB >> 16) & 0xFF;
-        int g = (pixelRGB >> 8) & 0xFF;
-        int b = pixelRGB & 0xFF;
-        // load pixels
-        loadedImage.setPixel(i, j, r, g, b);
-      }
-    }
-    return loadedImage;
+    // convert the whole raster at once
+    return ImageUtil.createImage(image);
   }
-}
\ No newline at end of file
+}
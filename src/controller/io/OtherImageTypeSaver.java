@@ -2,31 +2,52 @@ package controller.io;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Iterator;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 
+import controller.ImageUtil;
 import model.IImageState;
 
 /**
  * This class represents a non PPM image saver. It implements the
  * IImageSaver interface and implements the mandated operation. When initialized
- * and ran, it saves a given image to a specified file path.
+ * and ran, it saves a given image to a specified file path, or writes it to a
+ * given output stream. The encoded bytes are streamed to the destination as the
+ * image writer produces them rather than being collected in memory first. The
+ * JPEG quality and PNG compression level can be set before running. They start
+ * from the ime.jpeg.quality and ime.png.compression system properties when those are
+ * set, and otherwise the image writer's defaults are used.
  */
 
 public class OtherImageTypeSaver implements IImageSaver {
 
   private final IImageState image;
   private final String pathToSave;
+  private final String formatName;
+  private final OutputStream stream;
   private final ByteArrayOutputStream output;
+  private float jpegQuality;
+  private int pngCompressionLevel;
 
   /**
    * Construct an image saver that will save a given image to a given
-   * file path by writing to the provided ByteArrayOutputStream.
+   * file path by writing to the provided ByteArrayOutputStream. The
+   * encoded image is kept in the ByteArrayOutputStream and also written to
+   * the file. Use the constructor without a ByteArrayOutputStream to avoid
+   * keeping a copy.
    *
    * @param pathToSave path where image should be saved
    * @param image image object to be saved
@@ -42,7 +63,120 @@ public class OtherImageTypeSaver implements IImageSaver {
     }
     this.pathToSave = pathToSave;
     this.image = image;
+    this.formatName = getFileExtension(pathToSave);
+    this.stream = null;
     this.output = output;
+    this.jpegQuality = getDefaultJpegQuality();
+    this.pngCompressionLevel = getDefaultPngCompressionLevel();
+  }
+
+  /**
+   * Construct an image saver that will save a given image to a given
+   * file path, streaming the encoded bytes straight to the file. The format
+   * is taken from the file extension.
+   *
+   * @param pathToSave path where image should be saved
+   * @param image image object to be saved
+   *
+   * @throws IllegalArgumentException if pathToSave or image are null.
+   */
+
+  public OtherImageTypeSaver(String pathToSave, IImageState image)
+          throws IllegalArgumentException {
+    if (pathToSave == null || image == null) {
+      throw new IllegalArgumentException("path to save or image cannot be null\n");
+    }
+    this.pathToSave = pathToSave;
+    this.image = image;
+    this.formatName = getFileExtension(pathToSave);
+    this.stream = null;
+    this.output = null;
+    this.jpegQuality = getDefaultJpegQuality();
+    this.pngCompressionLevel = getDefaultPngCompressionLevel();
+  }
+
+  /**
+   * Construct an image saver that will write a given image in the given
+   * format to an output stream. The stream is flushed but not closed.
+   *
+   * @param image image object to be saved
+   * @param formatName image format, such as "png" or "jpeg"
+   * @param stream stream to write the encoded image to
+   *
+   * @throws IllegalArgumentException if image, formatName, or stream are null.
+   */
+
+  public OtherImageTypeSaver(IImageState image, String formatName, OutputStream stream)
+          throws IllegalArgumentException {
+    if (image == null || formatName == null || stream == null) {
+      throw new IllegalArgumentException("image, format, or stream cannot be null\n");
+    }
+    this.pathToSave = null;
+    this.image = image;
+    this.formatName = formatName.toLowerCase();
+    this.stream = stream;
+    this.output = null;
+    this.jpegQuality = getDefaultJpegQuality();
+    this.pngCompressionLevel = getDefaultPngCompressionLevel();
+  }
+
+  /**
+   * Returns the JPEG quality given by the ime.jpeg.quality system property.
+   *
+   * @return the quality from 0 to 1, or -1 if the property is not set or invalid
+   */
+
+  public static float getDefaultJpegQuality() {
+    try {
+      float quality = Float.parseFloat(System.getProperty("ime.jpeg.quality", "-1"));
+      return quality >= 0 && quality <= 1 ? quality : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the PNG compression level given by the ime.png.compression system
+   *     property.
+   *
+   * @return the level from 0 to 9, or -1 if the property is not set or invalid
+   */
+
+  public static int getDefaultPngCompressionLevel() {
+    int level = Integer.getInteger("ime.png.compression", -1);
+    return level >= 0 && level <= 9 ? level : -1;
+  }
+
+  /**
+   * Sets the quality used when saving JPEG images. Lower quality gives
+   *     smaller files.
+   *
+   * @param quality quality from 0 (smallest) to 1 (best)
+   *
+   * @throws IllegalArgumentException if quality is not between 0 and 1.
+   */
+
+  public void setJpegQuality(float quality) throws IllegalArgumentException {
+    if (!(quality >= 0 && quality <= 1)) {
+      throw new IllegalArgumentException("JPEG quality must be between 0 and 1");
+    }
+    this.jpegQuality = quality;
+  }
+
+  /**
+   * Sets the deflate level used when saving PNG images. Higher levels take
+   *     more time and give smaller files; the image is the same at every level.
+   *
+   * @param level compression level from 0 (none) to 9 (most)
+   *
+   * @throws IllegalArgumentException if level is not between 0 and 9.
+   */
+
+  public void setPngCompressionLevel(int level) throws IllegalArgumentException {
+    if (level < 0 || level > 9) {
+      throw new IllegalArgumentException("PNG compression level must be between 0 and 9");
+    }
+    this.pngCompressionLevel = level;
   }
 
   /**
@@ -63,49 +197,72 @@ public class OtherImageTypeSaver implements IImageSaver {
   }
 
   /**
-   * Private helper method to create and return buffered image object
-   *     created from given IImageState object.
+   * Private helper method to encode the image to the given image output stream.
    *
-   * @param image IImageState to convert to buffered image object
-   * @return buffered image object created from given IImageState object.
+   * @param writer image writer for this saver's format
+   * @param bufferedImage image to encode
+   * @param imageOutput stream to write to
+   * @throws IOException if writing fails
    */
 
-  private BufferedImage createBufferedImage(IImageState image) {
-    int width = this.image.getWidth();
-    int height = this.image.getHeight();
-    // create new buffered image object with height/width
-    BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    // iterate through to assign RGB values to buffered image
-    for (int i = 0;i < height;i++) {
-      for (int j = 0; j < width; j++) {
-        int r = image.getRedChannel(i, j);
-        int g = image.getGreenChannel(i, j);
-        int b = image.getBlueChannel(i, j);
-        int rgbValue = (r << 16) | (g << 8) | b;
-        bufferedImage.setRGB(j, i, rgbValue);
+  private void encode(ImageWriter writer, BufferedImage bufferedImage,
+                      ImageOutputStream imageOutput) throws IOException {
+    writer.setOutput(imageOutput);
+    // a null param keeps the writer's defaults
+    ImageWriteParam param = null;
+    boolean jpeg = this.formatName.equals("jpeg") || this.formatName.equals("jpg");
+    if (jpeg && this.jpegQuality >= 0) {
+      param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(this.jpegQuality);
+    } else if (this.formatName.equals("png") && this.pngCompressionLevel >= 0) {
+      param = writer.getDefaultWriteParam();
+      if (param.canWriteCompressed()) {
+        // the PNG writer uses deflate level (int) (9 * (1 - quality))
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(
+                Math.max(0f, 1f - (this.pngCompressionLevel + 0.5f) / 9f));
       }
     }
-    return bufferedImage;
+    writer.write(null, new IIOImage(bufferedImage, null, null), param);
   }
 
-
   @Override
   public void run() {
-    // create buffered image from image object to save and write to ByteArrayOutputStream
-    try {
-      String fileExtension = getFileExtension(this.pathToSave);
-      BufferedImage bufferedImage = createBufferedImage(this.image);
-      ImageIO.write(bufferedImage, fileExtension, this.output);
-    } catch (IOException e) {
-      throw new IllegalStateException("Failed to write to file.\n");
+    // find the writer before touching the destination
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(this.formatName);
+    if (!writers.hasNext()) {
+      throw new IllegalStateException("Unsupported image file type.\n");
     }
-
-    // create file at given file path and write content of output to file
-    File outputFile = new File(this.pathToSave);
-    try (FileOutputStream fileOutputStream = new FileOutputStream(outputFile)) {
-      fileOutputStream.write(this.output.toByteArray());
+    ImageWriter writer = writers.next();
+    BufferedImage bufferedImage = ImageUtil.createBufferedImage(this.image);
+    try {
+      if (this.output != null) {
+        // encode into the ByteArrayOutputStream, then write it out to the file
+        try (ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(this.output)) {
+          encode(writer, bufferedImage, imageOutput);
+        }
+        try (FileOutputStream fileOutputStream = new FileOutputStream(this.pathToSave)) {
+          this.output.writeTo(fileOutputStream);
+        }
+      } else if (this.pathToSave != null) {
+        // stream straight to the file, emptying any existing file first
+        try (RandomAccessFile file = new RandomAccessFile(this.pathToSave, "rw");
+             ImageOutputStream imageOutput = new FileImageOutputStream(file)) {
+          file.setLength(0);
+          encode(writer, bufferedImage, imageOutput);
+        }
+      } else {
+        // closing the image output stream leaves the given stream open
+        try (ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(this.stream)) {
+          encode(writer, bufferedImage, imageOutput);
+        }
+        this.stream.flush();
+      }
     } catch (IOException e) {
       throw new IllegalStateException("Failed to write to file.\n");
+    } finally {
+      writer.dispose();
     }
   }
 }
@@ -0,0 +1,32 @@
+package controller.io;
+
+/**
+ * This enum represents the two PPM file formats. PLAIN files (magic number P3)
+ * store each channel value as ASCII text, and RAW files (magic number P6) store
+ * each channel value as a single byte.
+ */
+
+public enum PPMFormat {
+  PLAIN("P3"),
+  RAW("P6");
+
+  private final String txt;
+
+  /**
+   * Constructs a string of the enum value.
+   */
+
+  PPMFormat(String txt) {
+    this.txt = txt;
+  }
+
+  /**
+   * Returns the magic number of the format. Either "P3" or "P6".
+   *
+   * @return the magic number of the format. Either "P3" or "P6".
+   */
+
+  public String toString() {
+    return txt;
+  }
+}
@@ -2,16 +2,24 @@ package controller.io;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
 
 import model.IImage;
 import model.IImageState;
-import model.ImageImpl;
+import model.PackedImageImpl;
+import model.TiledImage;
 
 /**
  * This class represents a PPM image loader. It implements the
  * IImageLoader interface and implements the mandated operation. When initialized
- * and ran, it loads an image to specified file path.
+ * and ran, it loads an image to specified file path. Both plain (P3) and raw (P6)
+ * PPM files are supported; the format is chosen from the magic number at the start
+ * of the file. The file is read through a PPMTokenizer, which parses numbers straight
+ * from the bytes and skips comments anywhere in the file, and each row of pixels is
+ * packed into a row buffer and written to the image at once. Images that
+ * TiledImage.shouldTile picks are loaded into a TiledImage, so they never need to
+ * fit in memory.
  */
 
 public class PPMImageLoader implements IImageLoader {
@@ -35,48 +43,153 @@ public class PPMImageLoader implements IImageLoader {
 
   @Override
   public IImageState run() {
-    Scanner sc;
+    InputStream input;
 
     try {
-      sc = new Scanner(new FileInputStream(this.filePath));
+      input = new FileInputStream(this.filePath);
     }
     catch (FileNotFoundException e) {
       return null;
     }
 
-    StringBuilder builder = new StringBuilder();
-    //read the file line by line, and populate a string.
-    while (sc.hasNextLine()) {
-      String s = sc.nextLine();
-      if (s.charAt(0) != '#') {
-        builder.append(s + System.lineSeparator());
+    try (InputStream in = input) {
+      PPMTokenizer tokenizer = new PPMTokenizer(in);
+      String token = tokenizer.nextToken();
+      if (PPMFormat.RAW.toString().equals(token)) {
+        return readRaw(tokenizer);
       }
+      if (!PPMFormat.PLAIN.toString().equals(token)) {
+        throw new IllegalArgumentException("Invalid PPM file: file should begin with P3 or P6");
+      }
+      return readPlain(tokenizer);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read file.\n");
+    }
+  }
+
+  /**
+   * Private helper method to read the width, height, and max value of the header.
+   *
+   * @param tokenizer tokenizer positioned after the magic number
+   * @return the width, height, and max value
+   * @throws IOException if reading the file fails
+   * @throws IllegalStateException if the header values are invalid
+   */
+
+  private int[] readHeader(PPMTokenizer tokenizer) throws IOException, IllegalStateException {
+    int width = tokenizer.nextInt();
+    int height = tokenizer.nextInt();
+    int maxValue = tokenizer.nextInt();
+    if (width < 1 || height < 1 || maxValue < 1 || maxValue > 65535) {
+      throw new IllegalStateException("Invalid PPM file: bad header values\n");
+    }
+    return new int[] {width, height, maxValue};
+  }
+
+  /**
+   * Private helper method to create the image to load the pixels into.
+   *
+   * @param width width of the image
+   * @param height height of the image
+   * @return a TiledImage if the image should be tiled, otherwise a PackedImageImpl
+   */
+
+  private static IImage createImage(int width, int height) {
+    if (TiledImage.shouldTile(width, height)) {
+      return new TiledImage(width, height);
     }
+    return new PackedImageImpl(width, height);
+  }
 
-    //now set up the scanner to read from the string we just built
-    sc = new Scanner(builder.toString());
+  /**
+   * Private helper method to read a plain (P3) PPM image. Values of files with a
+   *     max value above 255 are scaled down to 0 to 255.
+   *
+   * @param tokenizer tokenizer positioned after the magic number
+   * @return the loaded image
+   * @throws IOException if reading the file fails
+   * @throws IllegalStateException if the file is not a valid PPM file
+   * @throws IllegalArgumentException if a value exceeds 255 in a file with a max
+   *     value of 255 or less
+   */
 
-    String token;
+  private IImageState readPlain(PPMTokenizer tokenizer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+    int[] header = readHeader(tokenizer);
+    int width = header[0];
+    int height = header[1];
+    int maxValue = header[2];
 
-    token = sc.next();
-    if (!token.equals("P3")) {
-      throw new IllegalArgumentException("Invalid PPM file: plain RAW file should begin with P3");
+    // create new image object
+    IImage loadedImage = createImage(width, height);
+    int[] rowPixels = new int[width];
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        int pixel = 0;
+        for (int channel = 0; channel < 3; channel++) {
+          int sample = tokenizer.nextInt();
+          if (maxValue > 255) {
+            sample = sample * 255 / maxValue;
+          }
+          if (sample > 255) {
+            throw new IllegalArgumentException(
+                    "Component values cannot be less than 0 or exceed 255");
+          }
+          pixel = (pixel << 8) | sample;
+        }
+        rowPixels[col] = pixel;
+      }
+      // load pixels
+      loadedImage.writeRow(row, rowPixels);
     }
-    int width = sc.nextInt();
-    int height = sc.nextInt();
-    int maxValue = sc.nextInt();
+    return loadedImage;
+  }
+
+  /**
+   * Private helper method to read a raw (P6) PPM image. Samples are one byte each
+   *     when the max value is below 256 and two bytes, most significant first,
+   *     otherwise. Two byte samples are scaled down to 0 to 255.
+   *
+   * @param tokenizer tokenizer positioned after the magic number
+   * @return the loaded image
+   * @throws IOException if reading the file fails
+   * @throws IllegalStateException if the header is invalid or the pixel data is
+   *     incomplete
+   * @throws IllegalArgumentException if a two byte sample exceeds the max value,
+   *     so that it would exceed 255 once scaled
+   */
+
+  private IImageState readRaw(PPMTokenizer tokenizer)
+          throws IOException, IllegalStateException, IllegalArgumentException {
+    int[] header = readHeader(tokenizer);
+    int width = header[0];
+    int height = header[1];
+    int maxValue = header[2];
+    int bytesPerSample = maxValue < 256 ? 1 : 2;
 
     // create new image object
-    IImage loadedImage = new ImageImpl(width, height);
-
-    for (int i = 0;i < height;i++) {
-      for (int j = 0;j < width;j++) {
-        int r = sc.nextInt();
-        int g = sc.nextInt();
-        int b = sc.nextInt();
-        // load pixels
-        loadedImage.setPixel(i, j, r, g, b);
+    IImage loadedImage = createImage(width, height);
+    byte[] rowBytes = new byte[width * 3 * bytesPerSample];
+    int[] rowPixels = new int[width];
+    for (int row = 0; row < height; row++) {
+      tokenizer.readFully(rowBytes);
+      for (int col = 0; col < width; col++) {
+        int pixel = 0;
+        for (int channel = 0; channel < 3; channel++) {
+          int index = (col * 3 + channel) * bytesPerSample;
+          int sample = rowBytes[index] & 0xFF;
+          if (bytesPerSample == 2) {
+            sample = ((sample << 8) | (rowBytes[index + 1] & 0xFF)) * 255 / maxValue;
+            if (sample > 255) {
+              throw new IllegalArgumentException(
+                      "Component values cannot be less than 0 or exceed 255");
+            }
+          }
+          pixel = (pixel << 8) | sample;
+        }
+        rowPixels[col] = pixel;
       }
+      loadedImage.writeRow(row, rowPixels);
     }
     return loadedImage;
   }
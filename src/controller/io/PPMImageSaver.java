@@ -1,19 +1,36 @@
 package controller.io;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 
 import model.IImageState;
-import model.IPixel;
 
 /**
  * This class represents a PPM image saver. It implements the
  * IImageSaver interface and implements the mandated operation. When initialized
- * and ran, it saves a given image to a specified file path.
+ * and ran, it saves a given image to a specified file path. Images can be written
+ * as plain (P3) text to an appendable, or as plain or raw (P6) bytes to an output
+ * stream. Each row of pixels is read at once and its text is encoded into a reusable
+ * buffer from a table of the 256 channel values, so saving makes one write per row
+ * and no strings per pixel.
  */
 
 public class PPMImageSaver implements IImageSaver {
+  // text of every channel value followed by a space, such as "255 "
+  private static final byte[][] SAMPLE_TEXT = new byte[256][];
+
+  static {
+    for (int value = 0; value < SAMPLE_TEXT.length; value++) {
+      SAMPLE_TEXT[value] = (value + " ").getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
   private final IImageState image;
   private final Appendable output;
+  private final OutputStream stream;
+  private final PPMFormat format;
 
   /**
    * Construct a PPM image saver that will save a given image to a given
@@ -34,6 +51,32 @@ public class PPMImageSaver implements IImageSaver {
     String pathToSaveFile = pathToSave;
     this.image = image;
     this.output = appendable;
+    this.stream = null;
+    this.format = PPMFormat.PLAIN;
+  }
+
+  /**
+   * Construct a PPM image saver that will save a given image to a given
+   * file path by writing bytes in the given format to the provided stream.
+   * The stream is flushed but not closed.
+   *
+   * @param pathToSave path where image should be saved
+   * @param image image object to be saved
+   * @param output stream to write image to
+   * @param format PLAIN for a P3 file or RAW for a P6 file
+   *
+   * @throws IllegalArgumentException if any argument is null.
+   */
+
+  public PPMImageSaver(String pathToSave, IImageState image, OutputStream output,
+                       PPMFormat format) throws IllegalArgumentException {
+    if (pathToSave == null || image == null || output == null || format == null) {
+      throw new IllegalArgumentException("path to save, image, output, or format cannot be null\n");
+    }
+    this.image = image;
+    this.output = null;
+    this.stream = output;
+    this.format = format;
   }
 
   /**
@@ -56,6 +99,10 @@ public class PPMImageSaver implements IImageSaver {
 
   @Override
   public void run() {
+    if (this.stream != null) {
+      writeStream();
+      return;
+    }
     int width = image.getWidth();
     int height = image.getHeight();
     int maxValue = image.getMaxValue();
@@ -65,15 +112,98 @@ public class PPMImageSaver implements IImageSaver {
     write(width + " " + height + "\n");
     write(maxValue + "\n");
 
-    // Loop through the 2D array and write RGB values for each pixel
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        IPixel pixel = image.getPixel(i, j);
-        write(pixel.getR() + " ");
-        write(pixel.getG() + " ");
-        write(pixel.getB() + " ");
+    // Loop through the rows and write RGB values for each pixel, one append per row
+    int[] rowPixels = new int[width];
+    byte[] rowBytes = new byte[plainRowLength(width)];
+    char[] rowChars = new char[rowBytes.length];
+    CharBuffer rowText = CharBuffer.wrap(rowChars);
+    try {
+      for (int row = 0; row < height; row++) {
+        image.readRow(row, rowPixels);
+        int length = encodePlainRow(rowPixels, rowBytes);
+        for (int i = 0; i < length; i++) {
+          rowChars[i] = (char) rowBytes[i];
+        }
+        this.output.append(rowText, 0, length);
       }
-      write("\n"); // Move to the next line after writing a row
+    } catch (IOException e) {
+      throw new IllegalStateException("Writing failed.");
+    }
+  }
+
+  /**
+   * Private helper method to return the most bytes a plain row of the given
+   *     width can take.
+   *
+   * @param width width of the image
+   * @return the largest encoded row length, including the line break
+   */
+
+  private static int plainRowLength(int width) {
+    // "255 255 255 " per pixel and a line break
+    return width * 12 + 1;
+  }
+
+  /**
+   * Private helper method to encode a row of pixels as plain text, each channel
+   *     value followed by a space and the row followed by a line break.
+   *
+   * @param rowPixels packed pixels of the row
+   * @param dst buffer of at least plainRowLength bytes
+   * @return the number of bytes written to dst
+   */
+
+  private static int encodePlainRow(int[] rowPixels, byte[] dst) {
+    int length = 0;
+    for (int pixel : rowPixels) {
+      for (int shift = 16; shift >= 0; shift -= 8) {
+        byte[] text = SAMPLE_TEXT[(pixel >> shift) & 0xFF];
+        for (byte b : text) {
+          dst[length++] = b;
+        }
+      }
+    }
+    dst[length++] = '\n';
+    return length;
+  }
+
+  /**
+   * Private helper method to write the image to the output stream in this
+   *     saver's format, a row at a time.
+   *
+   * @throws IllegalStateException if writing to the stream fails
+   */
+
+  private void writeStream() throws IllegalStateException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] rowPixels = new int[width];
+    try {
+      String header = this.format + "\n" + width + " " + height + "\n"
+              + image.getMaxValue() + "\n";
+      this.stream.write(header.getBytes(StandardCharsets.US_ASCII));
+      if (this.format == PPMFormat.RAW) {
+        byte[] rowBytes = new byte[width * 3];
+        for (int row = 0; row < height; row++) {
+          image.readRow(row, rowPixels);
+          for (int col = 0; col < width; col++) {
+            int pixel = rowPixels[col];
+            rowBytes[col * 3] = (byte) (pixel >> 16);
+            rowBytes[col * 3 + 1] = (byte) (pixel >> 8);
+            rowBytes[col * 3 + 2] = (byte) pixel;
+          }
+          this.stream.write(rowBytes);
+        }
+      } else {
+        byte[] rowBytes = new byte[plainRowLength(width)];
+        for (int row = 0; row < height; row++) {
+          image.readRow(row, rowPixels);
+          this.stream.write(rowBytes, 0, encodePlainRow(rowPixels, rowBytes));
+        }
+      }
+      this.stream.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException("Writing failed.");
     }
   }
 }
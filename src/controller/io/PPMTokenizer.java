@@ -0,0 +1,198 @@
+package controller.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class represents a tokenizer for PPM files. It reads the underlying stream
+ * in large blocks into its own byte buffer and parses numbers straight from the
+ * bytes, so no strings are built and no regular expressions are matched. Comments
+ * start with '#' and run to the end of the line, and may appear anywhere a
+ * whitespace may appear.
+ */
+
+public class PPMTokenizer {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final InputStream input;
+  private final byte[] buffer;
+  private int position;
+  private int limit;
+
+  /**
+   * Construct a tokenizer that reads from the given stream. The stream does not
+   * need to be buffered.
+   *
+   * @param input stream to read from
+   *
+   * @throws IllegalArgumentException if input is null
+   */
+
+  public PPMTokenizer(InputStream input) throws IllegalArgumentException {
+    if (input == null) {
+      throw new IllegalArgumentException("input cannot be null");
+    }
+    this.input = input;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.position = 0;
+    this.limit = 0;
+  }
+
+  /**
+   * Private helper method to return the next byte of the stream.
+   *
+   * @return the next byte as 0 to 255, or -1 at the end of the stream
+   * @throws IOException if reading the stream fails
+   */
+
+  private int read() throws IOException {
+    if (this.position == this.limit) {
+      this.limit = this.input.read(this.buffer, 0, this.buffer.length);
+      this.position = 0;
+      if (this.limit <= 0) {
+        this.limit = 0;
+        return -1;
+      }
+    }
+    return this.buffer[this.position++] & 0xFF;
+  }
+
+  /**
+   * Private helper method to return whether a byte is PPM whitespace.
+   *
+   * @param next byte to check
+   * @return true if the byte is a space, tab, carriage return, line feed,
+   *     vertical tab, or form feed
+   */
+
+  private static boolean isWhitespace(int next) {
+    return next == ' ' || (next >= '\t' && next <= '\r');
+  }
+
+  /**
+   * Private helper method to skip whitespace and comments.
+   *
+   * @return the first byte that is not whitespace or part of a comment, or -1
+   *     at the end of the stream
+   * @throws IOException if reading the stream fails
+   */
+
+  private int skipWhitespace() throws IOException {
+    int next = read();
+    while (next == '#' || isWhitespace(next)) {
+      if (next == '#') {
+        skipComment();
+      }
+      next = read();
+    }
+    return next;
+  }
+
+  /**
+   * Private helper method to skip the rest of a comment, including the line
+   *     break that ends it.
+   *
+   * @throws IOException if reading the stream fails
+   */
+
+  private void skipComment() throws IOException {
+    int next = read();
+    while (next != '\n' && next != '\r' && next != -1) {
+      next = read();
+    }
+  }
+
+  /**
+   * Returns the next token, such as the magic number.
+   *
+   * @return the next run of bytes that are not whitespace, or null at the end
+   *     of the stream
+   * @throws IOException if reading the stream fails
+   */
+
+  public String nextToken() throws IOException {
+    int next = skipWhitespace();
+    if (next == -1) {
+      return null;
+    }
+    StringBuilder token = new StringBuilder();
+    while (next != -1 && next != '#' && !isWhitespace(next)) {
+      token.append((char) next);
+      next = read();
+    }
+    if (next == '#') {
+      skipComment();
+    }
+    return token.toString();
+  }
+
+  /**
+   * Returns the next non-negative number. The single whitespace byte that ends
+   *     the number is consumed, which after the max value of a raw file is the
+   *     byte before the pixel data.
+   *
+   * @return the number read
+   * @throws IOException if reading the stream fails
+   * @throws IllegalStateException if the stream ends or the next token is not a
+   *     number that fits in an int
+   */
+
+  public int nextInt() throws IOException, IllegalStateException {
+    int next = skipWhitespace();
+    if (next == -1) {
+      throw new IllegalStateException("Invalid PPM file: file ended early\n");
+    }
+    if (next < '0' || next > '9') {
+      throw new IllegalStateException("Invalid PPM file: expected a number\n");
+    }
+    int value = 0;
+    while (next >= '0' && next <= '9') {
+      if (value > (Integer.MAX_VALUE - 9) / 10) {
+        throw new IllegalStateException("Invalid PPM file: number is too large\n");
+      }
+      value = value * 10 + (next - '0');
+      next = read();
+    }
+    if (next == '#') {
+      skipComment();
+    } else if (next != -1 && !isWhitespace(next)) {
+      throw new IllegalStateException("Invalid PPM file: expected a number\n");
+    }
+    return value;
+  }
+
+  /**
+   * Reads exactly dst.length bytes, such as a row of raw pixel data.
+   *
+   * @param dst array to fill
+   * @throws IOException if reading the stream fails
+   * @throws IllegalStateException if the stream ends before dst is full
+   */
+
+  public void readFully(byte[] dst) throws IOException, IllegalStateException {
+    int filled = 0;
+    while (filled < dst.length) {
+      if (this.position == this.limit) {
+        if (dst.length - filled >= this.buffer.length) {
+          // large reads go straight into dst
+          int count = this.input.read(dst, filled, dst.length - filled);
+          if (count <= 0) {
+            throw new IllegalStateException("Invalid PPM file: pixel data is incomplete\n");
+          }
+          filled += count;
+          continue;
+        }
+        this.limit = this.input.read(this.buffer, 0, this.buffer.length);
+        this.position = 0;
+        if (this.limit <= 0) {
+          this.limit = 0;
+          throw new IllegalStateException("Invalid PPM file: pixel data is incomplete\n");
+        }
+      }
+      int count = Math.min(this.limit - this.position, dst.length - filled);
+      System.arraycopy(this.buffer, this.position, dst, filled, count);
+      this.position += count;
+      filled += count;
+    }
+  }
+}
@@ -0,0 +1,362 @@
+package model;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents an image database model with a memory budget. It implements
+ * the IModel interface and implements all mandated operations. Like ModelImpl it keeps
+ * a copy of each image it is given. Each image in memory is counted as 4 bytes per
+ * pixel, and whenever the images in memory add up to more than the budget, the least
+ * recently used ones are spilled to temp files and dropped from memory. A spilled
+ * image is stored as its width and height followed by 3 bytes per pixel, and is
+ * memory-mapped and read back the next time it is asked for. The image being added
+ * or retrieved is never spilled, so a single image larger than the budget stays in
+ * memory until another image is used. A TiledImage keeps its pixels in its own file,
+ * so it is counted as 0 bytes and never spilled. Call close to delete the temp files.
+ */
+
+public class BoundedModelImpl implements IModel, AutoCloseable {
+  private static final int HEADER_BYTES = 8;
+
+  private final long memoryBudget;
+  private final Path spillDirectory;
+  // access ordered, so iteration starts at the least recently used image
+  private final LinkedHashMap<String, IImageState> residentImages;
+  private final Map<String, Path> spilledImages;
+  private long residentBytes;
+  private long hitCount;
+  private long spillCount;
+  private long reloadCount;
+
+  /**
+   * Construct an empty image database model that keeps at most the given number
+   *     of bytes of images in memory, spilling to a new temp directory.
+   *
+   * @param memoryBudget number of bytes of images to keep in memory
+   *
+   * @throws IllegalArgumentException if memoryBudget is less than 1
+   * @throws IllegalStateException if the temp directory cannot be created
+   */
+
+  public BoundedModelImpl(long memoryBudget)
+          throws IllegalArgumentException, IllegalStateException {
+    this(memoryBudget, createSpillDirectory());
+  }
+
+  /**
+   * Construct an empty image database model that keeps at most the given number
+   *     of bytes of images in memory, spilling to the given directory.
+   *
+   * @param memoryBudget number of bytes of images to keep in memory
+   * @param spillDirectory existing directory to write spilled images to
+   *
+   * @throws IllegalArgumentException if memoryBudget is less than 1, or if
+   *     spillDirectory is null or not a directory
+   */
+
+  public BoundedModelImpl(long memoryBudget, Path spillDirectory)
+          throws IllegalArgumentException {
+    if (memoryBudget < 1) {
+      throw new IllegalArgumentException("Memory budget must be at least 1 byte");
+    }
+    if (spillDirectory == null || !Files.isDirectory(spillDirectory)) {
+      throw new IllegalArgumentException("Spill directory must be an existing directory");
+    }
+    this.memoryBudget = memoryBudget;
+    this.spillDirectory = spillDirectory;
+    this.residentImages = new LinkedHashMap<String, IImageState>(16, 0.75f, true);
+    this.spilledImages = new HashMap<String, Path>();
+    this.residentBytes = 0;
+    this.hitCount = 0;
+    this.spillCount = 0;
+    this.reloadCount = 0;
+  }
+
+  /**
+   * Private helper method to create a temp directory for spilled images.
+   *
+   * @return the new directory
+   * @throws IllegalStateException if the directory cannot be created
+   */
+
+  private static Path createSpillDirectory() throws IllegalStateException {
+    try {
+      Path directory = Files.createTempDirectory("ime-spill");
+      directory.toFile().deleteOnExit();
+      return directory;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to create spill directory.\n");
+    }
+  }
+
+  /**
+   * Private helper method to return the number of bytes an image is counted as.
+   *
+   * @param image image to measure
+   * @return 4 bytes per pixel of the image, or 0 for a TiledImage, whose pixels
+   *     are already on disk and which is never spilled
+   */
+
+  private static long sizeOf(IImageState image) {
+    if (image instanceof TiledImage) {
+      return 0;
+    }
+    return 4L * image.getWidth() * image.getHeight();
+  }
+
+  @Override
+  public void addImage(String imageID, IImageState image) throws IllegalArgumentException {
+    if (imageID == null || image == null) {
+      throw new IllegalArgumentException("ID or Image cannot be null");
+    }
+    // replacing image with same ID already exists
+    remove(imageID);
+    IImageState copy = image.copy();
+    this.residentImages.put(imageID, copy);
+    this.residentBytes += sizeOf(copy);
+    evict(imageID);
+  }
+
+  @Override
+  public IImageState getImage(String imageID) {
+    IImageState image = this.residentImages.get(imageID);
+    if (image != null) {
+      this.hitCount++;
+      return image;
+    }
+    Path file = this.spilledImages.get(imageID);
+    if (file == null) {
+      return null;
+    }
+    image = reload(file);
+    this.spilledImages.remove(imageID);
+    deleteQuietly(file);
+    this.reloadCount++;
+    this.residentImages.put(imageID, image);
+    this.residentBytes += sizeOf(image);
+    evict(imageID);
+    return image;
+  }
+
+  @Override
+  public void removeImage(String imageID) throws IllegalArgumentException {
+    if (imageID == null) {
+      throw new IllegalArgumentException("ID cannot be null");
+    }
+    remove(imageID);
+  }
+
+  /**
+   * Private helper method to drop the image with the given ID, in memory or on disk.
+   *
+   * @param imageID ID of the image to drop
+   */
+
+  private void remove(String imageID) {
+    IImageState old = this.residentImages.remove(imageID);
+    if (old != null) {
+      this.residentBytes -= sizeOf(old);
+    }
+    Path file = this.spilledImages.remove(imageID);
+    if (file != null) {
+      deleteQuietly(file);
+    }
+  }
+
+  /**
+   * Private helper method to spill least recently used images until the images
+   *     in memory fit the budget.
+   *
+   * @param keepID ID of the image that is in use and must stay in memory
+   * @throws IllegalStateException if an image cannot be written to disk
+   */
+
+  private void evict(String keepID) throws IllegalStateException {
+    Iterator<Map.Entry<String, IImageState>> entries = this.residentImages.entrySet().iterator();
+    while (this.residentBytes > this.memoryBudget && entries.hasNext()) {
+      Map.Entry<String, IImageState> entry = entries.next();
+      if (entry.getKey().equals(keepID) || entry.getValue() instanceof TiledImage) {
+        continue;
+      }
+      this.spilledImages.put(entry.getKey(), spill(entry.getValue()));
+      this.residentBytes -= sizeOf(entry.getValue());
+      this.spillCount++;
+      entries.remove();
+    }
+  }
+
+  /**
+   * Private helper method to write an image to a new temp file.
+   *
+   * @param image image to write
+   * @return the file the image was written to
+   * @throws IllegalStateException if the image cannot be written
+   */
+
+  private Path spill(IImageState image) throws IllegalStateException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    Path file = null;
+    try {
+      file = Files.createTempFile(this.spillDirectory, "image", ".spill");
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(width).putInt(height).flip();
+        channel.write(header);
+        int[] pixels = new int[width];
+        ByteBuffer row = ByteBuffer.allocate(width * 3);
+        for (int r = 0; r < height; r++) {
+          image.readRow(r, pixels);
+          row.clear();
+          for (int c = 0; c < width; c++) {
+            int rgb = pixels[c];
+            row.put((byte) (rgb >> 16)).put((byte) (rgb >> 8)).put((byte) rgb);
+          }
+          row.flip();
+          while (row.hasRemaining()) {
+            channel.write(row);
+          }
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      if (file != null) {
+        deleteQuietly(file);
+      }
+      throw new IllegalStateException("Failed to spill image to disk.\n");
+    }
+  }
+
+  /**
+   * Private helper method to read a spilled image back by mapping its file. The
+   *     file is left in place, so a failed read does not lose the image.
+   *
+   * @param file file the image was spilled to
+   * @return the image
+   * @throws IllegalStateException if the file cannot be read or is cut short
+   */
+
+  private IImageState reload(Path file) throws IllegalStateException {
+    try (RandomAccessFile spillFile = new RandomAccessFile(file.toFile(), "r");
+         FileChannel channel = spillFile.getChannel()) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      int width = buffer.getInt();
+      int height = buffer.getInt();
+      int[] pixelData = new int[width * height];
+      byte[] row = new byte[width * 3];
+      for (int r = 0; r < height; r++) {
+        buffer.get(row);
+        int offset = r * width;
+        for (int c = 0; c < width; c++) {
+          pixelData[offset + c] = ((row[3 * c] & 0xFF) << 16)
+                  | ((row[3 * c + 1] & 0xFF) << 8) | (row[3 * c + 2] & 0xFF);
+        }
+      }
+      return new PackedImageImpl(width, height, pixelData);
+    } catch (IOException | BufferUnderflowException e) {
+      throw new IllegalStateException("Failed to reload spilled image.\n");
+    }
+  }
+
+  /**
+   * Private helper method to delete a file, ignoring failures.
+   *
+   * @param file file to delete
+   */
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // a leftover temp file is not worth failing over
+    }
+  }
+
+  /**
+   * Returns the memory budget of this model.
+   *
+   * @return the number of bytes of images this model keeps in memory
+   */
+
+  public long getMemoryBudget() {
+    return this.memoryBudget;
+  }
+
+  /**
+   * Returns the number of bytes of images currently in memory.
+   *
+   * @return 4 bytes per pixel of every image in memory
+   */
+
+  public long getResidentBytes() {
+    return this.residentBytes;
+  }
+
+  /**
+   * Returns the number of images currently spilled to disk.
+   *
+   * @return the number of spilled images
+   */
+
+  public int getSpilledImageCount() {
+    return this.spilledImages.size();
+  }
+
+  /**
+   * Returns the number of times getImage found the image in memory.
+   *
+   * @return the number of hits
+   */
+
+  public long getHitCount() {
+    return this.hitCount;
+  }
+
+  /**
+   * Returns the number of times an image was spilled to disk.
+   *
+   * @return the number of spills
+   */
+
+  public long getSpillCount() {
+    return this.spillCount;
+  }
+
+  /**
+   * Returns the number of times getImage read a spilled image back from disk.
+   *
+   * @return the number of reloads
+   */
+
+  public long getReloadCount() {
+    return this.reloadCount;
+  }
+
+  /**
+   * Removes every image from this model and deletes the spilled image files.
+   *     The model can still be used afterwards.
+   */
+
+  @Override
+  public void close() {
+    List<String> ids = new ArrayList<String>(this.spilledImages.keySet());
+    ids.addAll(this.residentImages.keySet());
+    for (String id : ids) {
+      remove(id);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class represents an image database model that can be shared by several
+ * threads, such as controllers running scripts in parallel, without any outside
+ * locking. It implements the IModel interface and implements all mandated operations.
+ * Like ModelImpl it keeps a copy of each image it is given, and it hands out copies
+ * too, so callers cannot change stored images. Copies of packed and tiled images are
+ * constant time. Each ID also has a version that goes up by one every time an image
+ * is stored under it, so a thread can read an image, transform it, and store the
+ * result only if no other thread has replaced the image in the meantime. Removing an
+ * image keeps its last version, so an ID's versions never repeat.
+ */
+
+public class ConcurrentModelImpl implements IModel {
+  private final ConcurrentMap<String, VersionedImage> loadedImages;
+
+  /**
+   * Construct an empty image database model that is represented
+   *     by an empty concurrent hashmap.
+   */
+
+  public ConcurrentModelImpl() {
+    this.loadedImages = new ConcurrentHashMap<String, VersionedImage>();
+  }
+
+  @Override
+  public void addImage(String imageID, IImageState image) throws IllegalArgumentException {
+    if (imageID == null || image == null) {
+      throw new IllegalArgumentException("ID or Image cannot be null");
+    }
+    IImageState copy = image.copy();
+    // replacing image with same ID already exists
+    this.loadedImages.compute(imageID, (id, old) ->
+            new VersionedImage(copy, old == null ? 1 : old.version + 1));
+  }
+
+  @Override
+  public IImageState getImage(String imageID) {
+    VersionedImage versionedImage = getVersionedImage(imageID);
+    return versionedImage == null ? null : versionedImage.getImage();
+  }
+
+  @Override
+  public void removeImage(String imageID) throws IllegalArgumentException {
+    if (imageID == null) {
+      throw new IllegalArgumentException("ID cannot be null");
+    }
+    // the entry stays without an image, so the next image stored gets a new version
+    this.loadedImages.computeIfPresent(imageID, (id, old) ->
+            old.image == null ? old : new VersionedImage(null, old.version));
+  }
+
+  /**
+   * Returns the image with the given ID together with its version, read at the
+   *     same moment.
+   *
+   * @param imageID imageID of the image object to be retrieved
+   *
+   * @return the image and its version, or null if there is no image with that ID
+   */
+
+  public VersionedImage getVersionedImage(String imageID) {
+    if (imageID == null) {
+      return null;
+    }
+    VersionedImage versionedImage = this.loadedImages.get(imageID);
+    // a removed image leaves an entry without an image
+    return versionedImage == null || versionedImage.image == null ? null : versionedImage;
+  }
+
+  /**
+   * Returns the version of the image with the given ID. The first image stored
+   *     under an ID is version 1.
+   *
+   * @param imageID imageID of the image
+   *
+   * @return the version of the image, or 0 if there is no image with that ID
+   */
+
+  public long getVersion(String imageID) {
+    VersionedImage versionedImage = getVersionedImage(imageID);
+    return versionedImage == null ? 0 : versionedImage.version;
+  }
+
+  /**
+   * Stores the given image under the given ID only if the image currently
+   *     stored there has the expected version. An expected version of 0 means
+   *     there must be no image with that ID yet.
+   *
+   * @param imageID imageID of the image object to be stored
+   * @param expectedVersion version the current image must have
+   * @param image image object to be stored
+   *
+   * @return true if the image was stored, false if the version did not match
+   * @throws IllegalArgumentException if the imageID or image are null, or if
+   *     expectedVersion is negative
+   */
+
+  public boolean replaceImage(String imageID, long expectedVersion, IImageState image)
+          throws IllegalArgumentException {
+    if (imageID == null || image == null) {
+      throw new IllegalArgumentException("ID or Image cannot be null");
+    }
+    if (expectedVersion < 0) {
+      throw new IllegalArgumentException("Version cannot be negative");
+    }
+    IImageState copy = image.copy();
+    VersionedImage current = this.loadedImages.get(imageID);
+    if (current == null) {
+      return expectedVersion == 0
+              && this.loadedImages.putIfAbsent(imageID, new VersionedImage(copy, 1)) == null;
+    }
+    boolean matches = expectedVersion == 0
+            ? current.image == null
+            : current.image != null && current.version == expectedVersion;
+    // only succeeds if no other thread has stored or removed an image since current was read
+    return matches && this.loadedImages.replace(imageID, current,
+            new VersionedImage(copy, current.version + 1));
+  }
+
+  /**
+   * This class represents an image stored in the model together with its
+   *     version.
+   */
+
+  public static final class VersionedImage {
+    private final IImageState image;
+    private final long version;
+
+    /**
+     * Construct a versioned image.
+     *
+     * @param image stored image, or null once the image is removed
+     * @param version version of the image
+     */
+
+    private VersionedImage(IImageState image, long version) {
+      this.image = image;
+      this.version = version;
+    }
+
+    /**
+     * Returns a copy of the stored image, so the stored image cannot be changed
+     *     through it.
+     *
+     * @return a copy of the stored image
+     */
+
+    public IImageState getImage() {
+      return this.image.copy();
+    }
+
+    /**
+     * Returns the version of the stored image.
+     *
+     * @return the version, starting at 1
+     */
+
+    public long getVersion() {
+      return this.version;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package model;
+
+/**
+ * This enum represents how a filter treats pixels that fall outside the image.
+ */
+
+public enum EdgeMode {
+  ZERO("zero"),
+  CLAMP("clamp"),
+  MIRROR("mirror"),
+  WRAP("wrap");
+
+  private final String txt;
+
+  /**
+   * Constructs a string of the enum value.
+   */
+
+  EdgeMode(String txt) {
+    this.txt = txt;
+  }
+
+  /**
+   * Maps a row or col position that may be outside the image to the position
+   *     of the pixel that should be used in its place. ZERO returns -1 for any
+   *     position outside the image, meaning the pixel counts as black. CLAMP uses
+   *     the nearest edge pixel, MIRROR reflects about the edge pixel without
+   *     repeating it, and WRAP tiles the image.
+   *
+   * @param position row or col position, possibly outside the image
+   * @param length height or width of the image
+   *
+   * @return the position inside the image to use, or -1 for a black pixel.
+   * @throws IllegalArgumentException if length is less than 1
+   */
+
+  public int map(int position, int length) throws IllegalArgumentException {
+    if (length < 1) {
+      throw new IllegalArgumentException("length must be at least 1");
+    }
+    if (position >= 0 && position < length) {
+      return position;
+    }
+    switch (this) {
+      case CLAMP:
+        return position < 0 ? 0 : length - 1;
+      case MIRROR:
+        if (length == 1) {
+          return 0;
+        }
+        int period = 2 * length - 2;
+        int reflected = Math.floorMod(position, period);
+        return reflected < length ? reflected : period - reflected;
+      case WRAP:
+        return Math.floorMod(position, length);
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Returns a string of the enum type. Either "zero",
+   *     "clamp", "mirror", or "wrap".
+   *
+   * @return a string of the enum type. Either "zero",
+   *     "clamp", "mirror", or "wrap".
+   */
+
+  public String toString() {
+    return txt;
+  }
+}
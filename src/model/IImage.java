@@ -22,4 +22,18 @@ public interface IImage extends IImageState {
    */
 
   void setPixel(int row, int col, int r, int g, int b) throws IllegalArgumentException;
+
+  /**
+   * Set every pixel of the given row from the given array of packed 0xRRGGBB
+   *     values. src[col] is the new value of the pixel at row/col. Any bits
+   *     above the 24 colour bits are ignored.
+   *
+   * @param row row position to set
+   * @param src array of packed pixel values, at least width long
+   *
+   * @throws IllegalArgumentException if row is less than 0 or row >= height,
+   *     or if src is null or shorter than the width.
+   */
+
+  void writeRow(int row, int[] src) throws IllegalArgumentException;
 }
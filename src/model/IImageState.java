@@ -90,4 +90,45 @@ public interface IImageState {
 
   IPixel getPixel(int row, int col) throws IllegalArgumentException;
 
+  /**
+   * Copy every pixel of the given row into the given array, packed as
+   *     0xRRGGBB. dst[col] holds the pixel at row/col.
+   *
+   * @param row row position to read
+   * @param dst array to copy the row into, at least width long
+   *
+   * @throws IllegalArgumentException if row is less than 0 or row >= height,
+   *     or if dst is null or shorter than the width.
+   */
+
+  void readRow(int row, int[] dst) throws IllegalArgumentException;
+
+  /**
+   * Copy a rectangular region of the image into the given array, packed as
+   *     0xRRGGBB in row-major order. dst[r * w + c] holds the pixel at
+   *     row y + r and col x + c.
+   *
+   * @param x col position of the top left corner of the region
+   * @param y row position of the top left corner of the region
+   * @param w width of the region
+   * @param h height of the region
+   * @param dst array to copy the region into, at least w * h long
+   *
+   * @throws IllegalArgumentException if the region is not inside the image,
+   *     or if dst is null or shorter than w * h.
+   */
+
+  void copyRegion(int x, int y, int w, int h, int[] dst) throws IllegalArgumentException;
+
+  /**
+   * Returns a copy of this image that can be changed without changing this
+   *     image. The copy may share its storage with this image until either of
+   *     them is written to, so copying an image can be much cheaper than
+   *     copying each pixel.
+   *
+   * @return a copy of this image
+   */
+
+  IImage copy();
+
 }
@@ -29,4 +29,15 @@ public interface IModel {
 
   IImageState getImage(String imageID) throws IllegalArgumentException;
 
+  /**
+   * Removes the image with the given ID from the model. Nothing happens if there is
+   *     no image with that ID.
+   *
+   * @param imageID imageID of the image object to be removed
+   *
+   * @throws IllegalArgumentException if the imageID is null
+   */
+
+  void removeImage(String imageID) throws IllegalArgumentException;
+
 }
@@ -91,4 +91,86 @@ public class ImageImpl implements IImage {
     }
     this.pixelArray[row][col] = new PixelImpl(r, g, b);
   }
+
+  /**
+   * Private helper method to return the packed 0xRRGGBB value of the pixel at
+   *     a given row/col. Pixels that have not been set are treated as black.
+   *
+   * @param row row position of pixel
+   * @param col col position of pixel
+   * @return the packed value of the pixel
+   */
+
+  private int packedPixel(int row, int col) {
+    IPixel pixel = this.pixelArray[row][col];
+    if (pixel == null) {
+      return 0;
+    }
+    return (pixel.getR() << 16) | (pixel.getG() << 8) | pixel.getB();
+  }
+
+  @Override
+  public void readRow(int row, int[] dst) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("row out of bounds");
+    }
+    if (dst == null || dst.length < this.width) {
+      throw new IllegalArgumentException("Row array must hold at least width pixels");
+    }
+    for (int col = 0; col < this.width; col++) {
+      dst[col] = packedPixel(row, col);
+    }
+  }
+
+  @Override
+  public void copyRegion(int x, int y, int w, int h, int[] dst)
+          throws IllegalArgumentException {
+    if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > this.width || y + h > this.height) {
+      throw new IllegalArgumentException("Region out of bounds");
+    }
+    if (dst == null || dst.length < w * h) {
+      throw new IllegalArgumentException("Region array must hold at least w * h pixels");
+    }
+    for (int r = 0; r < h; r++) {
+      for (int c = 0; c < w; c++) {
+        dst[r * w + c] = packedPixel(y + r, x + c);
+      }
+    }
+  }
+
+  @Override
+  public void writeRow(int row, int[] src) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("row out of bounds");
+    }
+    if (src == null || src.length < this.width) {
+      throw new IllegalArgumentException("Row array must hold at least width pixels");
+    }
+    for (int col = 0; col < this.width; col++) {
+      int value = src[col];
+      this.pixelArray[row][col] =
+              new PixelImpl((value >> 16) & 0xFF, (value >> 8) & 0xFF, value & 0xFF);
+    }
+  }
+
+  /**
+   * Returns a copy of this image. Each pixel is copied, so the copy never
+   *     shares storage with this image.
+   *
+   * @return a copy of this image
+   */
+
+  @Override
+  public IImage copy() {
+    ImageImpl copy = new ImageImpl(this.width, this.height);
+    for (int row = 0; row < this.height; row++) {
+      for (int col = 0; col < this.width; col++) {
+        IPixel pixel = this.pixelArray[row][col];
+        if (pixel != null) {
+          copy.pixelArray[row][col] = new PixelImpl(pixel.getR(), pixel.getG(), pixel.getB());
+        }
+      }
+    }
+    return copy;
+  }
 }
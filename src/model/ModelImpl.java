@@ -5,7 +5,11 @@ import java.util.Map;
 
 /**
  * This class represents an image database model. It implements the IModel interface
- * and implements all mandated operations.
+ * and implements all mandated operations. The model keeps a copy of each image it is
+ * given, so later changes to the given image do not change the stored one. Packed
+ * and tiled images are copied without copying their pixels, so several IDs holding
+ * the same image share a single pixel array or tile file until one of them is
+ * written to.
  */
 
 public class ModelImpl implements IModel {
@@ -26,7 +30,7 @@ public class ModelImpl implements IModel {
       throw new IllegalArgumentException("ID or Image cannot be null");
     }
     // replacing image with same ID already exists
-    loadedImages.put(imageID, image);
+    loadedImages.put(imageID, image.copy());
   }
 
   @Override
@@ -34,4 +38,12 @@ public class ModelImpl implements IModel {
     return loadedImages.get(imageID);
   }
 
+  @Override
+  public void removeImage(String imageID) throws IllegalArgumentException {
+    if (imageID == null) {
+      throw new IllegalArgumentException("ID cannot be null");
+    }
+    loadedImages.remove(imageID);
+  }
+
 }
@@ -0,0 +1,313 @@
+package model;
+
+/**
+ * This class represents an image and performs operations to access
+ *     and set components of the image. It implements the IImage class
+ *     and implements all operations mandated by the IImageState and IImage interfaces.
+ *     Unlike ImageImpl, pixels are not stored as individual objects. The whole image
+ *     is kept in a single int array with each pixel packed as 0xRRGGBB in row-major
+ *     order, so an image costs 4 bytes per pixel and a single allocation. Copies
+ *     share that array until either image is written to, at which point the image
+ *     being written takes its own copy of the array.
+ */
+
+public class PackedImageImpl implements IImage {
+
+  private int[] pixelData;
+  private boolean shared;
+  private final int width;
+  private final int height;
+  private final int maxValue;
+
+  /**
+   * Construct an image given the image height, and width
+   *     and represent image as a packed int array. All pixels start black.
+   *
+   * @param width width value of the image
+   * @param height height value of the image.
+   *
+   * @throws IllegalArgumentException if height or width are negative or if
+   *     width * height is too large to be stored in a single array
+   */
+
+  public PackedImageImpl(int width, int height) throws IllegalArgumentException {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Cannot have negative height/width");
+    }
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Image is too large to be stored in memory");
+    }
+    this.pixelData = new int[width * height];
+    this.shared = false;
+    this.width = width;
+    this.height = height;
+    this.maxValue = 255; // max pixel value is 255
+  }
+
+  /**
+   * Construct an image of the given size that uses the given array as its
+   *     storage, without copying it. The array holds the pixels packed as
+   *     0xRRGGBB in row-major order; any bits above the 24 color bits are
+   *     cleared. Later changes to the array show up in the image and the
+   *     other way around until the image is copied, so the caller should not
+   *     keep using it.
+   *
+   * @param width width value of the image
+   * @param height height value of the image.
+   * @param pixelData packed pixels, at least width * height long
+   *
+   * @throws IllegalArgumentException if height or width are negative, if
+   *     width * height is too large to be stored in a single array, or if
+   *     pixelData is null or too short
+   */
+
+  public PackedImageImpl(int width, int height, int[] pixelData)
+          throws IllegalArgumentException {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Cannot have negative height/width");
+    }
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Image is too large to be stored in memory");
+    }
+    if (pixelData == null || pixelData.length < width * height) {
+      throw new IllegalArgumentException("Pixel array must hold at least width * height pixels");
+    }
+    for (int i = 0; i < width * height; i++) {
+      pixelData[i] &= 0xFFFFFF;
+    }
+    this.pixelData = pixelData;
+    this.shared = false;
+    this.width = width;
+    this.height = height;
+    this.maxValue = 255; // max pixel value is 255
+  }
+
+  /**
+   * Construct a copy of the given image that shares its packed array. Both
+   *     images are marked as shared, so whichever is written to first copies
+   *     the array before changing it.
+   *
+   * @param source image to copy
+   */
+
+  private PackedImageImpl(PackedImageImpl source) {
+    source.shared = true;
+    this.pixelData = source.pixelData;
+    this.shared = true;
+    this.width = source.width;
+    this.height = source.height;
+    this.maxValue = source.maxValue;
+  }
+
+  /**
+   * Private helper method to give this image its own packed array before it is
+   *     written to, if the array is still shared with a copy.
+   */
+
+  private void ensureOwned() {
+    if (this.shared) {
+      this.pixelData = this.pixelData.clone();
+      this.shared = false;
+    }
+  }
+
+  /**
+   * Returns a copy of this image in constant time. The copy shares the packed
+   *     array with this image until either of them is written to.
+   *
+   * @return a copy of this image
+   */
+
+  @Override
+  public IImage copy() {
+    return new PackedImageImpl(this);
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getMaxValue() {
+    return this.maxValue;
+  }
+
+  /**
+   * Private helper method to check the given row/col and return the index of
+   *     that pixel in the packed array.
+   *
+   * @param row row position of pixel
+   * @param col col position of pixel
+   * @return the index of the pixel in the packed array
+   * @throws IllegalArgumentException if row or col is less than 0
+   *     or if row >= height or col is >= width.
+   */
+
+  private int indexOf(int row, int col) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height || col < 0 || col >= this.width) {
+      throw new IllegalArgumentException("row or col out of bounds");
+    }
+    return row * this.width + col;
+  }
+
+  @Override
+  public int getRedChannel(int row, int col) throws IllegalArgumentException {
+    return (this.pixelData[indexOf(row, col)] >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int row, int col) throws IllegalArgumentException {
+    return (this.pixelData[indexOf(row, col)] >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int row, int col) throws IllegalArgumentException {
+    return this.pixelData[indexOf(row, col)] & 0xFF;
+  }
+
+  /**
+   * Returns a lightweight view of the pixel at a given row/col. The returned
+   *     pixel does not hold its own copy of the channel values; it reads and
+   *     writes straight through to this image.
+   *
+   * @param row row position of pixel
+   * @param col col position of pixel
+   *
+   * @return a view of the pixel at a given row/col.
+   * @throws IllegalArgumentException if row or col is less than 0
+   *     or if row >= height or col is >= width.
+   */
+
+  @Override
+  public IPixel getPixel(int row, int col) throws IllegalArgumentException {
+    return new PixelView(indexOf(row, col));
+  }
+
+  @Override
+  public void setPixel(int row, int col, int r, int g, int b) throws IllegalArgumentException {
+    int index = indexOf(row, col);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Component values cannot be less than 0 or exceed 255");
+    }
+    ensureOwned();
+    this.pixelData[index] = (r << 16) | (g << 8) | b;
+  }
+
+  @Override
+  public void readRow(int row, int[] dst) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("row out of bounds");
+    }
+    if (dst == null || dst.length < this.width) {
+      throw new IllegalArgumentException("Row array must hold at least width pixels");
+    }
+    System.arraycopy(this.pixelData, row * this.width, dst, 0, this.width);
+  }
+
+  @Override
+  public void copyRegion(int x, int y, int w, int h, int[] dst)
+          throws IllegalArgumentException {
+    if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > this.width || y + h > this.height) {
+      throw new IllegalArgumentException("Region out of bounds");
+    }
+    if (dst == null || dst.length < w * h) {
+      throw new IllegalArgumentException("Region array must hold at least w * h pixels");
+    }
+    for (int r = 0; r < h; r++) {
+      System.arraycopy(this.pixelData, (y + r) * this.width + x, dst, r * w, w);
+    }
+  }
+
+  @Override
+  public void writeRow(int row, int[] src) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("row out of bounds");
+    }
+    if (src == null || src.length < this.width) {
+      throw new IllegalArgumentException("Row array must hold at least width pixels");
+    }
+    ensureOwned();
+    int offset = row * this.width;
+    for (int col = 0; col < this.width; col++) {
+      this.pixelData[offset + col] = src[col] & 0xFFFFFF;
+    }
+  }
+
+  /**
+   * This class represents a pixel view into the packed array of the enclosing
+   *     image. It implements the IPixel interface by reading and writing the
+   *     packed value at a fixed index.
+   */
+
+  private class PixelView implements IPixel {
+    private final int index;
+
+    /**
+     * Construct a pixel view of the pixel at the given index.
+     *
+     * @param index index of the pixel in the packed array
+     */
+
+    private PixelView(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public int getR() {
+      return (pixelData[this.index] >> 16) & 0xFF;
+    }
+
+    @Override
+    public int getG() {
+      return (pixelData[this.index] >> 8) & 0xFF;
+    }
+
+    @Override
+    public int getB() {
+      return pixelData[this.index] & 0xFF;
+    }
+
+    @Override
+    public double getAlpha() {
+      return 1.0;
+    }
+
+    @Override
+    public void setR(int r) throws IllegalArgumentException {
+      if (r < 0 || r > 255) {
+        throw new IllegalArgumentException("Invalid channel value");
+      }
+      ensureOwned();
+      pixelData[this.index] = (pixelData[this.index] & 0x00FFFF) | (r << 16);
+    }
+
+    @Override
+    public void setG(int g) throws IllegalArgumentException {
+      if (g < 0 || g > 255) {
+        throw new IllegalArgumentException("Invalid channel value");
+      }
+      ensureOwned();
+      pixelData[this.index] = (pixelData[this.index] & 0xFF00FF) | (g << 8);
+    }
+
+    @Override
+    public void setB(int b) throws IllegalArgumentException {
+      if (b < 0 || b > 255) {
+        throw new IllegalArgumentException("Invalid channel value");
+      }
+      ensureOwned();
+      pixelData[this.index] = (pixelData[this.index] & 0xFFFF00) | b;
+    }
+
+    @Override
+    public String toString() {
+      return getR() + " " + getG() + " " + getB();
+    }
+  }
+}
@@ -0,0 +1,701 @@
+package model;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.Cleaner;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class represents an image whose pixels live in a file instead of the heap,
+ *     so it can be larger than memory and than the 2^31 pixels of an array. It
+ *     implements the IImage interface. The image is cut into square tiles, each
+ *     stored as tileSize * tileSize packed 0xRRGGBB ints one after another in a
+ *     temporary file. A tile is memory-mapped the first time it is read or written,
+ *     and the most recently used tiles stay mapped up to the cache size; the
+ *     operating system pages their contents in and out, so the heap only holds the
+ *     mappings. The cache always holds at least one row of tiles plus one, so reading
+ *     or writing the image row by row maps each tile once. Images are usually
+ *     transformed a tile at a time, see TiledTransformation. Copies share the tile
+ *     file until either image is written to, so copying is constant time. The file
+ *     is deleted once every image using it is closed or garbage collected, or at
+ *     the latest when the program exits.
+ */
+
+public class TiledImage implements IImage, AutoCloseable {
+  /**
+   * Default width and height of a tile, in pixels.
+   */
+
+  public static final int DEFAULT_TILE_SIZE = 512;
+
+  /**
+   * Default number of megabytes of tiles kept mapped.
+   */
+
+  public static final int DEFAULT_CACHE_MB = 256;
+
+  // deletes the files of images that were never closed
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final int width;
+  private final int height;
+  private final int tileSize;
+  private final int tilesAcross;
+  private final long cacheBytes;
+  private final LinkedHashMap<Integer, IntBuffer> mappedTiles;
+  private TileFile tileFile;
+  private Cleaner.Cleanable cleanable;
+  // true once no other image can share the tile file
+  private boolean owned;
+
+  /**
+   * Construct a black image of the given size with the default tile size and
+   *     cache, read from the ime.tile.size and ime.tile.cache system properties.
+   *
+   * @param width width value of the image
+   * @param height height value of the image
+   *
+   * @throws IllegalArgumentException if height or width are negative
+   * @throws IllegalStateException if the file for the tiles cannot be created
+   */
+
+  public TiledImage(int width, int height)
+          throws IllegalArgumentException, IllegalStateException {
+    this(width, height, getDefaultTileSize(), getDefaultCacheBytes());
+  }
+
+  /**
+   * Construct a black image of the given size.
+   *
+   * @param width width value of the image
+   * @param height height value of the image
+   * @param tileSize width and height of each tile
+   * @param cacheBytes number of bytes of tiles to keep mapped
+   *
+   * @throws IllegalArgumentException if height or width are negative, tileSize is
+   *     less than 1 or above 16384, or cacheBytes is negative
+   * @throws IllegalStateException if the file for the tiles cannot be created
+   */
+
+  public TiledImage(int width, int height, int tileSize, long cacheBytes)
+          throws IllegalArgumentException, IllegalStateException {
+    this(width, height, tileSize, cacheBytes, null);
+  }
+
+  /**
+   * Construct an image of the given size that uses the given tile file, or a new
+   *     black one.
+   *
+   * @param width width value of the image
+   * @param height height value of the image
+   * @param tileSize width and height of each tile
+   * @param cacheBytes number of bytes of tiles to keep mapped
+   * @param tileFile tile file shared with the image this is a copy of, already
+   *     acquired for this image, or null for a new file
+   *
+   * @throws IllegalArgumentException if height or width are negative, tileSize is
+   *     less than 1 or above 16384, or cacheBytes is negative
+   * @throws IllegalStateException if the file for the tiles cannot be created
+   */
+
+  private TiledImage(int width, int height, int tileSize, long cacheBytes, TileFile tileFile)
+          throws IllegalArgumentException, IllegalStateException {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Cannot have negative height/width");
+    }
+    if (tileSize < 1 || tileSize > 16384) {
+      throw new IllegalArgumentException("Tile size must be 1 to 16384");
+    }
+    if (cacheBytes < 0) {
+      throw new IllegalArgumentException("Tile cache cannot be negative");
+    }
+    this.width = width;
+    this.height = height;
+    this.tileSize = tileSize;
+    this.tilesAcross = (width + tileSize - 1) / tileSize;
+    this.cacheBytes = cacheBytes;
+    long tilesDown = (height + tileSize - 1) / tileSize;
+    int cachedTiles = (int) Math.min(Integer.MAX_VALUE,
+            Math.max(this.tilesAcross + 1L, cacheBytes / getTileBytes()));
+    this.mappedTiles = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, IntBuffer> eldest) {
+        // the mapping is released once the buffer is garbage collected
+        return size() > cachedTiles;
+      }
+    };
+    this.owned = tileFile == null;
+    this.tileFile = this.owned
+            ? TileFile.create(this.tilesAcross * tilesDown * getTileBytes()) : tileFile;
+    this.cleanable = CLEANER.register(this, new Release(this.tileFile));
+  }
+
+  /**
+   * Returns the default tile size, read from the ime.tile.size system property
+   *     and otherwise DEFAULT_TILE_SIZE.
+   *
+   * @return the default tile size
+   */
+
+  public static int getDefaultTileSize() {
+    return Integer.getInteger("ime.tile.size", DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Returns the default tile cache in bytes, read in megabytes from the
+   *     ime.tile.cache system property and otherwise DEFAULT_CACHE_MB.
+   *
+   * @return the default tile cache in bytes
+   */
+
+  public static long getDefaultCacheBytes() {
+    return Long.getLong("ime.tile.cache", DEFAULT_CACHE_MB) << 20;
+  }
+
+  /**
+   * Returns whether an image of the given size should be tiled rather than kept
+   *     in the heap: if it does not fit in an array, or if it has more pixels than
+   *     the ime.tile.threshold system property. When the property is unset, images
+   *     are tiled once their 4 bytes per pixel are more than a quarter of the
+   *     maximum heap, since a transformation holds its source and result and the
+   *     model keeps images of its own.
+   *
+   * @param width width of the image
+   * @param height height of the image
+   * @return true if the image should be a TiledImage
+   */
+
+  public static boolean shouldTile(int width, int height) {
+    long pixels = (long) width * height;
+    if (pixels > Integer.MAX_VALUE) {
+      return true;
+    }
+    Long threshold = Long.getLong("ime.tile.threshold");
+    if (threshold != null) {
+      return pixels > threshold;
+    }
+    return 4 * pixels > Runtime.getRuntime().maxMemory() / 4;
+  }
+
+  /**
+   * Returns the width and height of each tile.
+   *
+   * @return the tile size in pixels
+   */
+
+  public int getTileSize() {
+    return this.tileSize;
+  }
+
+  /**
+   * Returns the number of bytes of tiles this image keeps mapped.
+   *
+   * @return the tile cache in bytes
+   */
+
+  public long getCacheBytes() {
+    return this.cacheBytes;
+  }
+
+  /**
+   * Private helper method to return the number of bytes in the file per tile.
+   *
+   * @return the bytes per tile
+   */
+
+  private long getTileBytes() {
+    return 4L * this.tileSize * this.tileSize;
+  }
+
+  /**
+   * Private helper method to return the mapping of a tile, mapping it if it is not
+   *     in the cache.
+   *
+   * @param tileRow row of the tile
+   * @param tileCol col of the tile
+   * @return the tile's pixels, tileSize per row
+   * @throws IllegalStateException if the tile cannot be mapped
+   */
+
+  private synchronized IntBuffer tile(int tileRow, int tileCol) throws IllegalStateException {
+    int index = tileRow * this.tilesAcross + tileCol;
+    IntBuffer tile = this.mappedTiles.get(index);
+    if (tile == null) {
+      try {
+        tile = this.tileFile.channel.map(FileChannel.MapMode.READ_WRITE, index * getTileBytes(),
+                getTileBytes()).order(ByteOrder.nativeOrder()).asIntBuffer();
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not read tile file.\n");
+      }
+      this.mappedTiles.put(index, tile);
+    }
+    return tile;
+  }
+
+  /**
+   * Private helper method to check the given row/col.
+   *
+   * @param row row position of pixel
+   * @param col col position of pixel
+   * @throws IllegalArgumentException if row or col is less than 0
+   *     or if row >= height or col is >= width.
+   */
+
+  private void checkPosition(int row, int col) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height || col < 0 || col >= this.width) {
+      throw new IllegalArgumentException("row or col out of bounds");
+    }
+  }
+
+  /**
+   * Private helper method to read the packed value of a pixel.
+   *
+   * @param row row position of pixel, already checked
+   * @param col col position of pixel, already checked
+   * @return the packed pixel
+   */
+
+  private int get(int row, int col) {
+    return tile(row / this.tileSize, col / this.tileSize)
+            .get((row % this.tileSize) * this.tileSize + col % this.tileSize);
+  }
+
+  /**
+   * Private helper method to write the packed value of a pixel.
+   *
+   * @param row row position of pixel, already checked
+   * @param col col position of pixel, already checked
+   * @param rgb packed pixel
+   */
+
+  private void put(int row, int col, int rgb) {
+    ensureOwned();
+    tile(row / this.tileSize, col / this.tileSize)
+            .put((row % this.tileSize) * this.tileSize + col % this.tileSize, rgb);
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getMaxValue() {
+    return 255;
+  }
+
+  @Override
+  public int getRedChannel(int row, int col) throws IllegalArgumentException {
+    checkPosition(row, col);
+    return (get(row, col) >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int row, int col) throws IllegalArgumentException {
+    checkPosition(row, col);
+    return (get(row, col) >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int row, int col) throws IllegalArgumentException {
+    checkPosition(row, col);
+    return get(row, col) & 0xFF;
+  }
+
+  /**
+   * Returns a view of the pixel at a given row/col that reads and writes straight
+   *     through to this image.
+   *
+   * @param row row position of pixel
+   * @param col col position of pixel
+   *
+   * @return a view of the pixel at a given row/col.
+   * @throws IllegalArgumentException if row or col is less than 0
+   *     or if row >= height or col is >= width.
+   */
+
+  @Override
+  public IPixel getPixel(int row, int col) throws IllegalArgumentException {
+    checkPosition(row, col);
+    return new PixelView(row, col);
+  }
+
+  @Override
+  public void setPixel(int row, int col, int r, int g, int b) throws IllegalArgumentException {
+    checkPosition(row, col);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Component values cannot be less than 0 or exceed 255");
+    }
+    put(row, col, (r << 16) | (g << 8) | b);
+  }
+
+  @Override
+  public void readRow(int row, int[] dst) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("row out of bounds");
+    }
+    if (dst == null || dst.length < this.width) {
+      throw new IllegalArgumentException("Row array must hold at least width pixels");
+    }
+    copyRegion(0, row, this.width, 1, dst);
+  }
+
+  @Override
+  public void copyRegion(int x, int y, int w, int h, int[] dst)
+          throws IllegalArgumentException {
+    if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > this.width || y + h > this.height) {
+      throw new IllegalArgumentException("Region out of bounds");
+    }
+    if (dst == null || dst.length < (long) w * h) {
+      throw new IllegalArgumentException("Region array must hold at least w * h pixels");
+    }
+    for (int row = y; row < y + h; row++) {
+      int tileRow = row / this.tileSize;
+      int offsetInTile = (row % this.tileSize) * this.tileSize;
+      // each tile the row crosses is one bulk read
+      for (int col = x; col < x + w; ) {
+        int count = Math.min(x + w - col, this.tileSize - col % this.tileSize);
+        tile(tileRow, col / this.tileSize).get(offsetInTile + col % this.tileSize, dst,
+                (row - y) * w + col - x, count);
+        col += count;
+      }
+    }
+  }
+
+  @Override
+  public void writeRow(int row, int[] src) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("row out of bounds");
+    }
+    if (src == null || src.length < this.width) {
+      throw new IllegalArgumentException("Row array must hold at least width pixels");
+    }
+    writeRegion(0, row, this.width, 1, src);
+  }
+
+  /**
+   * Writes a rectangular region of packed 0xRRGGBB pixels into this image. Any bits
+   *     above the 24 color bits are cleared.
+   *
+   * @param x col of the region's left edge
+   * @param y row of the region's top edge
+   * @param w width of the region
+   * @param h height of the region
+   * @param src the region's pixels in row-major order, w per row
+   * @throws IllegalArgumentException if the region is not inside the image or src
+   *     is null or holds fewer than w * h pixels
+   */
+
+  public void writeRegion(int x, int y, int w, int h, int[] src)
+          throws IllegalArgumentException {
+    if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > this.width || y + h > this.height) {
+      throw new IllegalArgumentException("Region out of bounds");
+    }
+    if (src == null || src.length < (long) w * h) {
+      throw new IllegalArgumentException("Region array must hold at least w * h pixels");
+    }
+    ensureOwned();
+    int[] masked = new int[Math.min(w, this.tileSize)];
+    for (int row = y; row < y + h; row++) {
+      int tileRow = row / this.tileSize;
+      int offsetInTile = (row % this.tileSize) * this.tileSize;
+      for (int col = x; col < x + w; ) {
+        int count = Math.min(x + w - col, this.tileSize - col % this.tileSize);
+        int start = (row - y) * w + col - x;
+        for (int i = 0; i < count; i++) {
+          masked[i] = src[start + i] & 0xFFFFFF;
+        }
+        tile(tileRow, col / this.tileSize).put(offsetInTile + col % this.tileSize, masked, 0,
+                count);
+        col += count;
+      }
+    }
+  }
+
+  /**
+   * Returns a black tiled image of the same size, tile size, and cache as this one.
+   *
+   * @return the new image
+   * @throws IllegalStateException if the file for the tiles cannot be created
+   */
+
+  public TiledImage createBlank() throws IllegalStateException {
+    return new TiledImage(this.width, this.height, this.tileSize, this.cacheBytes);
+  }
+
+  /**
+   * Returns a copy of this image in constant time. The copy shares the tile file
+   *     with this image until either of them is written to; the one written to
+   *     first then copies the file, unless the other has been closed or garbage
+   *     collected by then.
+   *
+   * @return a copy of this image
+   */
+
+  @Override
+  public synchronized IImage copy() {
+    this.tileFile.acquire();
+    this.owned = false;
+    return new TiledImage(this.width, this.height, this.tileSize, this.cacheBytes,
+            this.tileFile);
+  }
+
+  /**
+   * Private helper method to give this image a tile file of its own before it is
+   *     written to, if the file is still shared with a copy.
+   *
+   * @throws IllegalStateException if the tile file cannot be copied
+   */
+
+  private synchronized void ensureOwned() throws IllegalStateException {
+    if (this.owned) {
+      return;
+    }
+    if (this.tileFile.isShared()) {
+      TileFile copy = this.tileFile.copy();
+      // mappings of the shared file must not be written through
+      this.mappedTiles.clear();
+      this.cleanable.clean();
+      this.tileFile = copy;
+      this.cleanable = CLEANER.register(this, new Release(copy));
+    }
+    this.owned = true;
+  }
+
+  /**
+   * Unmaps every tile and stops using the tile file, which is closed and deleted
+   *     once no copy uses it either. The image cannot be used afterwards.
+   */
+
+  @Override
+  public synchronized void close() {
+    this.mappedTiles.clear();
+    this.cleanable.clean();
+  }
+
+  /**
+   * This class represents a temporary tile file and the number of images using it.
+   *     The file is closed and deleted when the last of them releases it.
+   */
+
+  private static class TileFile {
+    private final Path file;
+    private final RandomAccessFile storage;
+    private final FileChannel channel;
+    private int users;
+
+    /**
+     * Construct a tile file used by one image.
+     *
+     * @param file path of the file
+     * @param storage the open file
+     */
+
+    private TileFile(Path file, RandomAccessFile storage) {
+      this.file = file;
+      this.storage = storage;
+      this.channel = storage.getChannel();
+      this.users = 1;
+    }
+
+    /**
+     * Creates a new temporary tile file of zeros, so every tile starts black.
+     *
+     * @param length length of the file in bytes
+     * @return the tile file
+     * @throws IllegalStateException if the file cannot be created
+     */
+
+    private static TileFile create(long length) throws IllegalStateException {
+      Path file = null;
+      try {
+        file = Files.createTempFile("ime-tiles", ".bin");
+        file.toFile().deleteOnExit();
+        RandomAccessFile storage = new RandomAccessFile(file.toFile(), "rw");
+        TileFile tileFile = new TileFile(file, storage);
+        try {
+          // a sparse file, so only tiles that are written take up space
+          storage.setLength(length);
+        } catch (IOException e) {
+          tileFile.release();
+          throw e;
+        }
+        return tileFile;
+      } catch (IOException e) {
+        if (file != null) {
+          file.toFile().delete();
+        }
+        throw new IllegalStateException("Could not create tile file.\n");
+      }
+    }
+
+    /**
+     * Returns a new tile file with the same contents, used by one image.
+     *
+     * @return the copy
+     * @throws IllegalStateException if the file cannot be copied
+     */
+
+    private TileFile copy() throws IllegalStateException {
+      try {
+        // mapped tiles write through to the file, so the channel sees every change
+        long size = this.channel.size();
+        TileFile copy = create(size);
+        try {
+          for (long position = 0; position < size; ) {
+            position += this.channel.transferTo(position, size - position, copy.channel);
+          }
+        } catch (IOException e) {
+          copy.release();
+          throw e;
+        }
+        return copy;
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not copy tile file.\n");
+      }
+    }
+
+    /**
+     * Records one more image using this file.
+     */
+
+    private synchronized void acquire() {
+      this.users++;
+    }
+
+    /**
+     * Returns whether more than one image uses this file.
+     *
+     * @return true if the file is shared
+     */
+
+    private synchronized boolean isShared() {
+      return this.users > 1;
+    }
+
+    /**
+     * Records that an image stopped using this file, closing and deleting it if
+     *     that was the last one.
+     */
+
+    private synchronized void release() {
+      this.users--;
+      if (this.users > 0) {
+        return;
+      }
+      try {
+        this.storage.close();
+        Files.deleteIfExists(this.file);
+      } catch (IOException e) {
+        // the file is deleted when the program exits instead
+      }
+    }
+  }
+
+  /**
+   * This class releases an image's tile file. It holds no reference to the image,
+   *     so it can run once the image is unreachable.
+   */
+
+  private static class Release implements Runnable {
+    private final TileFile tileFile;
+
+    /**
+     * Construct the action that releases the given tile file.
+     *
+     * @param tileFile the tile file
+     */
+
+    private Release(TileFile tileFile) {
+      this.tileFile = tileFile;
+    }
+
+    @Override
+    public void run() {
+      this.tileFile.release();
+    }
+  }
+
+  /**
+   * This class represents a view of one pixel of the enclosing image. It
+   *     implements the IPixel interface by reading and writing the packed value
+   *     at a fixed position.
+   */
+
+  private class PixelView implements IPixel {
+    private final int row;
+    private final int col;
+
+    /**
+     * Construct a pixel view of the pixel at the given position.
+     *
+     * @param row row position of pixel
+     * @param col col position of pixel
+     */
+
+    private PixelView(int row, int col) {
+      this.row = row;
+      this.col = col;
+    }
+
+    @Override
+    public int getR() {
+      return (get(this.row, this.col) >> 16) & 0xFF;
+    }
+
+    @Override
+    public int getG() {
+      return (get(this.row, this.col) >> 8) & 0xFF;
+    }
+
+    @Override
+    public int getB() {
+      return get(this.row, this.col) & 0xFF;
+    }
+
+    @Override
+    public double getAlpha() {
+      return 1.0;
+    }
+
+    @Override
+    public void setR(int r) throws IllegalArgumentException {
+      if (r < 0 || r > 255) {
+        throw new IllegalArgumentException("Invalid channel value");
+      }
+      put(this.row, this.col, (get(this.row, this.col) & 0x00FFFF) | (r << 16));
+    }
+
+    @Override
+    public void setG(int g) throws IllegalArgumentException {
+      if (g < 0 || g > 255) {
+        throw new IllegalArgumentException("Invalid channel value");
+      }
+      put(this.row, this.col, (get(this.row, this.col) & 0xFF00FF) | (g << 8));
+    }
+
+    @Override
+    public void setB(int b) throws IllegalArgumentException {
+      if (b < 0 || b > 255) {
+        throw new IllegalArgumentException("Invalid channel value");
+      }
+      put(this.row, this.col, (get(this.row, this.col) & 0xFFFF00) | b);
+    }
+
+    @Override
+    public String toString() {
+      return getR() + " " + getG() + " " + getB();
+    }
+  }
+}
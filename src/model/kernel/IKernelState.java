@@ -27,6 +27,35 @@ public interface IKernelState {
    */
 
   double getValue(int row, int col) throws IllegalArgumentException;
+
+  /**
+   * Returns whether the kernel is separable, meaning every value is the product
+   *     of a column vector entry and a row vector entry:
+   *     getValue(row, col) == getColumnVector()[row] * getRowVector()[col].
+   *     A separable kernel can be applied as two 1D passes instead of one 2D pass.
+   *
+   * @return true if the kernel is separable, false otherwise.
+   */
+
+  boolean isSeparable();
+
+  /**
+   * Get the column vector of a separable kernel, with one value per kernel row.
+   *
+   * @return the column vector of the kernel.
+   * @throws IllegalStateException if the kernel is not separable.
+   */
+
+  double[] getColumnVector() throws IllegalStateException;
+
+  /**
+   * Get the row vector of a separable kernel, with one value per kernel column.
+   *
+   * @return the row vector of the kernel.
+   * @throws IllegalStateException if the kernel is not separable.
+   */
+
+  double[] getRowVector() throws IllegalStateException;
 }
 
 
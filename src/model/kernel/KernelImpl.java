@@ -7,8 +7,14 @@ package model.kernel;
  */
 
 public class KernelImpl implements IKernel {
+  // relative tolerance used when checking whether a kernel is separable
+  private static final double SEPARABLE_TOLERANCE = 1e-9;
+
   private final int size;
   private final double[][] kernelData;
+  // declared separable vectors, null unless given to constructor 3
+  private double[] columnVector;
+  private double[] rowVector;
 
   /**
    * Construct an image filtering kernel given 2D array size
@@ -52,6 +58,40 @@ public class KernelImpl implements IKernel {
     this.kernelData = values;
   }
 
+  /**
+   * Construct a separable image filtering kernel given its column and row vectors.
+   *     The value at row/col is columnVector[row] * rowVector[col].
+   *
+   * @param columnVector column vector, one value per kernel row
+   * @param rowVector row vector, one value per kernel column
+   *
+   * @throws IllegalArgumentException if either vector is null, if the vectors are
+   *     not the same length, or if the length is not odd or is less than 3
+   */
+
+  // Constructor 3
+  public KernelImpl(double[] columnVector, double[] rowVector) throws IllegalArgumentException {
+    if (columnVector == null || rowVector == null) {
+      throw new IllegalArgumentException("Kernel vectors cannot be null");
+    }
+    if (columnVector.length != rowVector.length) {
+      throw new IllegalArgumentException("Kernel vectors must be the same length");
+    }
+    int length = columnVector.length;
+    if (length % 2 != 1 || length < 3) {
+      throw new IllegalArgumentException("Kernel size must be odd or greater than 3");
+    }
+    this.size = length;
+    this.kernelData = new double[length][length];
+    for (int row = 0; row < length; row++) {
+      for (int col = 0; col < length; col++) {
+        this.kernelData[row][col] = columnVector[row] * rowVector[col];
+      }
+    }
+    this.columnVector = columnVector.clone();
+    this.rowVector = rowVector.clone();
+  }
+
 
   @Override
   public void setValue(int row, int col, double value) {
@@ -59,6 +99,9 @@ public class KernelImpl implements IKernel {
       throw new IllegalArgumentException("row or col out of bounds");
     }
     kernelData[row][col] = value;
+    // any declared vectors may no longer describe the kernel
+    this.columnVector = null;
+    this.rowVector = null;
   }
 
   @Override
@@ -73,4 +116,75 @@ public class KernelImpl implements IKernel {
     }
     return this.kernelData[row][col];
   }
+
+  /**
+   * Private helper method to split the kernel into a column vector and row vector
+   *     whose outer product is the kernel. The declared vectors are used if there
+   *     are any; otherwise the row and column through the largest value are used
+   *     and every other value is checked against their product.
+   *
+   * @return an array holding the column vector then the row vector, or null
+   *     if the kernel is not separable.
+   */
+
+  private double[][] separate() {
+    if (this.columnVector != null && this.rowVector != null) {
+      return new double[][] {this.columnVector.clone(), this.rowVector.clone()};
+    }
+    // find the value with the largest magnitude to divide by
+    int pivotRow = 0;
+    int pivotCol = 0;
+    for (int row = 0; row < this.size; row++) {
+      for (int col = 0; col < this.size; col++) {
+        if (Math.abs(this.kernelData[row][col])
+                > Math.abs(this.kernelData[pivotRow][pivotCol])) {
+          pivotRow = row;
+          pivotCol = col;
+        }
+      }
+    }
+    double pivot = this.kernelData[pivotRow][pivotCol];
+    double[] column = new double[this.size];
+    double[] row = new double[this.size];
+    if (pivot == 0) {
+      // an all zero kernel is the product of two zero vectors
+      return new double[][] {column, row};
+    }
+    for (int i = 0; i < this.size; i++) {
+      column[i] = this.kernelData[i][pivotCol];
+      row[i] = this.kernelData[pivotRow][i] / pivot;
+    }
+    double tolerance = SEPARABLE_TOLERANCE * Math.abs(pivot);
+    for (int i = 0; i < this.size; i++) {
+      for (int j = 0; j < this.size; j++) {
+        if (Math.abs(this.kernelData[i][j] - column[i] * row[j]) > tolerance) {
+          return null;
+        }
+      }
+    }
+    return new double[][] {column, row};
+  }
+
+  @Override
+  public boolean isSeparable() {
+    return separate() != null;
+  }
+
+  @Override
+  public double[] getColumnVector() throws IllegalStateException {
+    double[][] vectors = separate();
+    if (vectors == null) {
+      throw new IllegalStateException("Kernel is not separable");
+    }
+    return vectors[0];
+  }
+
+  @Override
+  public double[] getRowVector() throws IllegalStateException {
+    double[][] vectors = separate();
+    if (vectors == null) {
+      throw new IllegalStateException("Kernel is not separable");
+    }
+    return vectors[1];
+  }
 }
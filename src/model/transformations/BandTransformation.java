@@ -0,0 +1,36 @@
+package model.transformations;
+
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+import model.TiledImage;
+
+/**
+ * This abstract class represents a transformation that computes its output one
+ *     band of rows at a time. It extends the clamp abstract class and implements
+ *     the IBandTransformation interface. Subclasses only implement runBand; running
+ *     the whole transformation serially is a single band covering every row.
+ */
+
+public abstract class BandTransformation extends Clamp implements IBandTransformation {
+
+  /**
+   * Default constructor for band transformations.
+   * This default constructor is intentionally left empty.
+   */
+
+  public BandTransformation() {
+    // Empty constructor
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    if (sourceImage instanceof TiledImage) {
+      // an image that may not fit in memory is transformed a tile at a time
+      return new TiledTransformation(this, 1).run(sourceImage);
+    }
+    IImage newImage = new PackedImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
+    runBand(sourceImage, newImage, 0, sourceImage.getHeight());
+    return newImage;
+  }
+}
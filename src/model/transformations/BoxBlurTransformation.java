@@ -0,0 +1,249 @@
+package model.transformations;
+
+import model.EdgeMode;
+import model.IImage;
+import model.IImageState;
+
+/**
+ * This class represents a blur made of one or more box blur passes. It extends the
+ * band transformation abstract class. Each pass replaces every channel value by the
+ * average of the (2 * radius + 1) values around it, first along rows and then along
+ * columns. The average is kept as a running sum that adds the value entering the
+ * window and subtracts the value leaving it, so each pass costs the same per pixel
+ * whatever its radius. Three box passes of suitable sizes closely approximate a
+ * Gaussian blur, see gaussian. Pixels outside the image are treated according to
+ * the edge mode, as in FilterTransformation, and the result equals filtering with
+ * the combined kernel of every pass, up to rounding.
+ */
+
+public class BoxBlurTransformation extends BandTransformation {
+  private final int[] radii;
+  private final EdgeMode edgeMode;
+
+  /**
+   * Construct a single box blur of the given radius.
+   *
+   * @param radius number of pixels on each side of a pixel that are averaged with it
+   * @param edgeMode how to treat pixels outside the image
+   *
+   * @throws IllegalArgumentException if radius is negative or edgeMode is null
+   */
+
+  public BoxBlurTransformation(int radius, EdgeMode edgeMode) throws IllegalArgumentException {
+    this(new int[] {radius}, edgeMode);
+  }
+
+  /**
+   * Construct a blur that applies a box blur of each given radius in turn.
+   *
+   * @param radii radius of each pass
+   * @param edgeMode how to treat pixels outside the image
+   *
+   * @throws IllegalArgumentException if radii is null or empty, a radius is
+   *     negative, or edgeMode is null
+   */
+
+  public BoxBlurTransformation(int[] radii, EdgeMode edgeMode) throws IllegalArgumentException {
+    if (radii == null || radii.length == 0) {
+      throw new IllegalArgumentException("box blur needs at least one pass");
+    }
+    if (edgeMode == null) {
+      throw new IllegalArgumentException("edge mode cannot be null");
+    }
+    long total = 0;
+    for (int radius : radii) {
+      if (radius < 0) {
+        throw new IllegalArgumentException("radius cannot be negative");
+      }
+      total += radius;
+    }
+    if (total > Integer.MAX_VALUE / 4) {
+      throw new IllegalArgumentException("radius is too large");
+    }
+    this.radii = radii.clone();
+    this.edgeMode = edgeMode;
+  }
+
+  /**
+   * Returns three box blur passes that together approximate a Gaussian blur with
+   *     the given standard deviation. The box widths are the two odd widths around
+   *     the ideal width, mixed so that the combined variance is as close as
+   *     possible to sigma squared.
+   *
+   * @param sigma standard deviation of the Gaussian in pixels
+   * @param edgeMode how to treat pixels outside the image
+   * @return the blur
+   * @throws IllegalArgumentException if sigma is negative or not finite, or
+   *     edgeMode is null
+   */
+
+  public static BoxBlurTransformation gaussian(double sigma, EdgeMode edgeMode)
+          throws IllegalArgumentException {
+    if (!(sigma >= 0) || Double.isInfinite(sigma)) {
+      throw new IllegalArgumentException("sigma cannot be negative");
+    }
+    int passes = 3;
+    double variance = 12 * sigma * sigma;
+    // largest odd width not above the ideal width, and the next odd width
+    int lower = (int) Math.floor(Math.sqrt(variance / passes + 1));
+    if (lower % 2 == 0) {
+      lower--;
+    }
+    lower = Math.max(1, lower);
+    int upper = lower + 2;
+    // number of passes that use the lower width
+    long lowerPasses = Math.round((variance - passes * (double) lower * lower
+            - 4.0 * passes * lower - 3.0 * passes) / (-4.0 * lower - 4));
+    int[] radii = new int[passes];
+    for (int i = 0; i < passes; i++) {
+      radii[i] = ((i < lowerPasses ? lower : upper) - 1) / 2;
+    }
+    return new BoxBlurTransformation(radii, edgeMode);
+  }
+
+  /**
+   * Returns the radius of each pass.
+   *
+   * @return the radii, in the order the passes run
+   */
+
+  public int[] getRadii() {
+    return this.radii.clone();
+  }
+
+  @Override
+  public int getHalo() {
+    int halo = 0;
+    for (int radius : this.radii) {
+      halo += radius;
+    }
+    return halo;
+  }
+
+  @Override
+  public EdgeMode getEdgeMode() {
+    return this.edgeMode;
+  }
+
+  @Override
+  public void runBand(IImageState sourceImage, IImage destImage, int startRow, int endRow) {
+    int width = sourceImage.getWidth();
+    int rows = endRow - startRow;
+    // every pass reads radius pixels past the last, so pad by their sum
+    int border = getHalo();
+    int[] paddedPixels = FilterTransformation.padBand(sourceImage, startRow, endRow, border,
+            this.edgeMode);
+    int paddedWidth = width + 2 * border;
+    int paddedRows = rows + 2 * border;
+
+    // blur one channel at a time so only one plane is held. Horizontal passes run
+    // on one padded row at a time while it is in cache, and only the cols of the
+    // image are kept for the vertical passes
+    double[] plane = new double[width * paddedRows];
+    double[] rowValues = new double[paddedWidth];
+    int[] result = new int[rows * width];
+    for (int shift = 16; shift >= 0; shift -= 8) {
+      for (int paddedRow = 0; paddedRow < paddedRows; paddedRow++) {
+        int offset = paddedRow * paddedWidth;
+        for (int col = 0; col < paddedWidth; col++) {
+          rowValues[col] = (paddedPixels[offset + col] >> shift) & 0xFF;
+        }
+        int validWidth = paddedWidth;
+        for (int radius : this.radii) {
+          blurRow(rowValues, validWidth, radius);
+          validWidth -= 2 * radius;
+        }
+        System.arraycopy(rowValues, 0, plane, paddedRow * width, width);
+      }
+      int validRows = paddedRows;
+      for (int radius : this.radii) {
+        blurColumns(plane, width, validRows, radius);
+        validRows -= 2 * radius;
+      }
+      for (int i = 0; i < result.length; i++) {
+        // averages are never negative, so adding 0.5 rounds the same as Math.round
+        result[i] |= clamp((int) (plane[i] + 0.5)) << shift;
+      }
+    }
+
+    int[] rowPixels = new int[width];
+    for (int row = 0; row < rows; row++) {
+      System.arraycopy(result, row * width, rowPixels, 0, width);
+      destImage.writeRow(startRow + row, rowPixels);
+    }
+  }
+
+  /**
+   * Private helper method to box blur a row in place. The average of the window
+   *     starting at each col is written to that col, so the valid part of the row
+   *     shrinks by 2 * radius on the right.
+   *
+   * @param values values of one channel along the row
+   * @param validWidth number of valid values at the start of the row
+   * @param radius radius of the box
+   */
+
+  private static void blurRow(double[] values, int validWidth, int radius) {
+    if (radius == 0) {
+      return;
+    }
+    int window = 2 * radius + 1;
+    int outputWidth = validWidth - 2 * radius;
+    double scale = 1.0 / window;
+    double sum = 0;
+    for (int i = 0; i < window; i++) {
+      sum += values[i];
+    }
+    for (int col = 0; col < outputWidth; col++) {
+      // the value leaving the window is about to be overwritten, so keep it
+      double leaving = values[col];
+      values[col] = sum * scale;
+      if (col + window < validWidth) {
+        sum += values[col + window] - leaving;
+      }
+    }
+  }
+
+  /**
+   * Private helper method to box blur the columns of a plane in place, a whole
+   *     row of columns at a time so the plane is read in order. The valid part
+   *     shrinks by 2 * radius at the bottom.
+   *
+   * @param plane values of one channel, width values per row
+   * @param width number of values per row
+   * @param validRows number of valid rows at the top of the plane
+   * @param radius radius of the box
+   */
+
+  private static void blurColumns(double[] plane, int width, int validRows, int radius) {
+    if (radius == 0) {
+      return;
+    }
+    int window = 2 * radius + 1;
+    int outputRows = validRows - 2 * radius;
+    double scale = 1.0 / window;
+    double[] sums = new double[width];
+    for (int i = 0; i < window; i++) {
+      int offset = i * width;
+      for (int col = 0; col < width; col++) {
+        sums[col] += plane[offset + col];
+      }
+    }
+    for (int row = 0; row < outputRows; row++) {
+      int offset = row * width;
+      if (row + window >= validRows) {
+        // last output row, nothing enters the window
+        for (int col = 0; col < width; col++) {
+          plane[offset + col] = sums[col] * scale;
+        }
+        continue;
+      }
+      int entering = (row + window) * width;
+      for (int col = 0; col < width; col++) {
+        double leaving = plane[offset + col];
+        plane[offset + col] = sums[col] * scale;
+        sums[col] += plane[entering + col] - leaving;
+      }
+    }
+  }
+}
@@ -1,17 +1,16 @@
 package model.transformations;
 
-import model.IImage;
-import model.IImageState;
-import model.ImageImpl;
 
 /**
  * This class represents an image brightening transformation. It extends the
- * clamp abstract class and implements the ITransformation interface and implements
+ * lookup transformation class and implements
  * the mandated operation. It performs image brightening/darkening on an image
- * depending on the value provided when called.
+ * depending on the value provided when called, by looking each channel up in a
+ * table of the clamped sums instead of adding and clamping per pixel, or by adding
+ * and clamping a whole vector of pixels at once when the vector kernels are loaded.
  */
 
-public class BrightenTransformation extends Clamp implements ITransformation {
+public class BrightenTransformation extends LookupTransformation {
   private final int brightenValue;
 
   /**
@@ -23,24 +22,16 @@ public class BrightenTransformation extends Clamp implements ITransformation {
    */
 
   public BrightenTransformation(int brightenValue) {
+    super(offsetTable(brightenValue));
     this.brightenValue = brightenValue;
   }
 
-
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col ++) {
-        int newR = clamp(sourceImage.getRedChannel(row, col) + brightenValue);
-        int newG = clamp(sourceImage.getGreenChannel(row, col) + brightenValue);
-        int newB = clamp(sourceImage.getBlueChannel(row, col) + brightenValue);
-        // set new rgb values
-        newImage.setPixel(row, col, newR, newG, newB);
-      }
-    }
-    return newImage;
+  public void applyToRow(int[] pixels, int length) {
+    // the vector kernels, when loaded, add and clamp all but the last few pixels
+    // faster than three table reads each, and the table does the rest
+    RowOperations vector = VectorSupport.operations();
+    int start = vector == null ? 0 : vector.brighten(pixels, length, this.brightenValue);
+    applyToCols(pixels, start, length);
   }
 }
@@ -1,66 +1,241 @@
 package model.transformations;
 
-import model.IImage;
-import model.IImageState;
-import model.ImageImpl;
 import model.kernel.IKernelState;
 
 /**
  * This class represents an image color transformation. It extends the
- * clamp abstract class and implements the ITransformation interface and implements
+ * point transformation abstract class and implements
  * the mandated operation. Given a kernel object representing a matrix containing values,
  * it uses those values to perform a linear color transformation in which the final red,
  * green and blue values of a pixel are linear combinations of its initial red,
- * green and blue values.
+ * green and blue values, plus an optional offset per channel.
+ *
+ * <p>The matrix is copied out of the kernel once, when the transformation is
+ * constructed, and also kept as fixed-point integers with 32 fraction bits, so
+ * each channel is three integer multiply-adds and a shift. The fixed-point sum
+ * is within a known distance of the exact one; when it is closer than that to a
+ * rounding boundary, the channel is computed in double instead, so the pixels are
+ * always exactly those of r * m[0] + (g * m[1] + (b * m[2] + offset)) rounded
+ * with Math.round.
  */
 
-public class ColorTransformation extends Clamp implements ITransformation {
+public class ColorTransformation extends PointTransformation {
+  private static final int SHIFT = 32;
+  private static final long ONE = 1L << SHIFT;
+  // sums up to this size keep every fixed-point sum far inside a long
+  private static final double FIXED_LIMIT = 1 << 28;
 
-  private final IKernelState kernel;
+  // 3 x 4 matrix in row-major order, the offsets in the last column
+  private final double[] matrix;
+  // fixed-point matrix with half of ONE added to each offset, or null if a sum can
+  // be too large
+  private final long[] coefficients;
+  // largest distance between a fixed-point sum and the exact sum, in units of 1 / ONE
+  private final long tolerance;
 
   /**
    * Construct an image coloring transformation that calculates new RGB values for
    *     each pixel in the image based on a 2d matrix.
    *
    * @param kernel kernel object that represents a 2D matrix
+   *
+   * @throws IllegalArgumentException if kernel is null
+   */
+
+  public ColorTransformation(IKernelState kernel) throws IllegalArgumentException {
+    this(kernel, new double[3]);
+  }
+
+  /**
+   * Construct an image coloring transformation with a 3 x 4 matrix: the top left
+   *     3 x 3 values of the kernel, and an offset added to each new channel before
+   *     it is rounded and clamped.
+   *
+   * @param kernel kernel object that represents a 2D matrix
+   * @param offsets value added to the new red, green, and blue
+   *
+   * @throws IllegalArgumentException if kernel is null or offsets is null or does
+   *     not have 3 values
+   */
+
+  public ColorTransformation(IKernelState kernel, double[] offsets)
+          throws IllegalArgumentException {
+    this(extract(kernel, offsets));
+  }
+
+  /**
+   * Private constructor for a transformation with the given 3 x 4 matrix.
+   *
+   * @param matrix 3 x 4 matrix in row-major order, kept without copying
    */
 
-  public ColorTransformation(IKernelState kernel) {
-    this.kernel = kernel;
+  private ColorTransformation(double[] matrix) {
+    this.matrix = matrix;
+    long[] fixed = new long[12];
+    double largest = 0;
+    for (int row = 0; row < 3; row++) {
+      double size = 255 * (Math.abs(matrix[4 * row]) + Math.abs(matrix[4 * row + 1])
+              + Math.abs(matrix[4 * row + 2])) + Math.abs(matrix[4 * row + 3]);
+      // a NaN size stays NaN and fails the limit below
+      largest = Math.max(largest, size);
+      for (int col = 0; col < 4; col++) {
+        fixed[4 * row + col] = Math.round(matrix[4 * row + col] * ONE);
+      }
+      fixed[4 * row + 3] += ONE / 2;
+    }
+    if (largest < FIXED_LIMIT) {
+      this.coefficients = fixed;
+      // each of the four rounded coefficients is off by at most 1 / 2, times at most
+      // 255, and the double sum is off by at most six rounding errors of its size
+      this.tolerance = 384 + (long) Math.ceil(8 * largest * Math.scalb(1.0, SHIFT - 53)) + 1;
+    } else {
+      this.coefficients = null;
+      this.tolerance = 0;
+    }
+  }
+
+  /**
+   * Private helper method to copy a kernel and offsets into a 3 x 4 matrix.
+   *
+   * @param kernel kernel object that represents a 2D matrix
+   * @param offsets value added to the new red, green, and blue
+   * @return the matrix in row-major order
+   * @throws IllegalArgumentException if kernel is null or offsets is null or does
+   *     not have 3 values
+   */
+
+  private static double[] extract(IKernelState kernel, double[] offsets)
+          throws IllegalArgumentException {
+    if (kernel == null) {
+      throw new IllegalArgumentException("kernel cannot be null");
+    }
+    if (offsets == null || offsets.length != 3) {
+      throw new IllegalArgumentException("color transformation needs 3 offsets");
+    }
+    double[] matrix = new double[12];
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 3; col++) {
+        matrix[4 * row + col] = kernel.getValue(row, col);
+      }
+      matrix[4 * row + 3] = offsets[row];
+    }
+    return matrix;
   }
 
+  @Override
+  public boolean isIdentity() {
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 4; col++) {
+        if (this.matrix[4 * row + col] != (row == col ? 1 : 0)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col ++) {
-        int redChannel = sourceImage.getRedChannel(row,col);
-        int greenChannel = sourceImage.getGreenChannel(row, col);
-        int blueChannel = sourceImage.getBlueChannel(row, col);
-
-        // calc linear channel
-        int linearRed = (int) Math.round((redChannel * kernel.getValue(0,0)
-                + (greenChannel * kernel.getValue(0,1)
-                + (blueChannel * kernel.getValue(0,2)))));
-        int linearGreen = (int) Math.round((redChannel * kernel.getValue(1,0)
-                + (greenChannel * kernel.getValue(1,1)
-                + (blueChannel * kernel.getValue(1,2)))));
-        int linearBlue = (int) Math.round((redChannel * kernel.getValue(2,0)
-                + (greenChannel * kernel.getValue(2,1)
-                + (blueChannel * kernel.getValue(2,2)))));
-
-        // clamp calculated values
-        linearRed = clamp(linearRed);
-        linearGreen = clamp(linearGreen);
-        linearBlue = clamp(linearBlue);
-
-        // set new rgb values
-        newImage.setPixel(row, col, linearRed, linearGreen, linearBlue);
+  public void applyToRow(int[] pixels, int length) {
+    // the vector kernels, when loaded, do all but the last few pixels
+    RowOperations vector = VectorSupport.operations();
+    int start = vector == null ? 0 : vector.colorMatrix(pixels, length, this.matrix);
+
+    long[] fixed = this.coefficients;
+    // sums whose fraction is within tolerance of a rounding boundary are moved into
+    // the bottom 2 * tolerance of the fraction range
+    long tolerance = this.tolerance;
+    long window = 2 * tolerance;
+    // iterate through the row and update pixel channels in place
+    for (int col = start; col < length; col++) {
+      int rgb = pixels[col];
+      int redChannel = (rgb >> 16) & 0xFF;
+      int greenChannel = (rgb >> 8) & 0xFF;
+      int blueChannel = rgb & 0xFF;
+
+      // calc linear channel in fixed point unless any sum is too close to call
+      if (fixed != null) {
+        long redSum = fixed[0] * redChannel + fixed[1] * greenChannel
+                + fixed[2] * blueChannel + fixed[3];
+        long greenSum = fixed[4] * redChannel + fixed[5] * greenChannel
+                + fixed[6] * blueChannel + fixed[7];
+        long blueSum = fixed[8] * redChannel + fixed[9] * greenChannel
+                + fixed[10] * blueChannel + fixed[11];
+        if (((redSum + tolerance) & (ONE - 1)) >= window
+                && ((greenSum + tolerance) & (ONE - 1)) >= window
+                && ((blueSum + tolerance) & (ONE - 1)) >= window) {
+          pixels[col] = (clampFixed(redSum) << 16) | (clampFixed(greenSum) << 8)
+                  | clampFixed(blueSum);
+          continue;
+        }
+      }
+      int linearRed = roundDouble(0, redChannel, greenChannel, blueChannel);
+      int linearGreen = roundDouble(1, redChannel, greenChannel, blueChannel);
+      int linearBlue = roundDouble(2, redChannel, greenChannel, blueChannel);
+
+      // set new rgb values
+      pixels[col] = (linearRed << 16) | (linearGreen << 8) | linearBlue;
+    }
+  }
+
+  /**
+   * Private helper method to round a fixed-point sum, that already includes one
+   *     half, and clamp it.
+   *
+   * @param sum fixed-point sum of one matrix row times the channels
+   * @return the new channel value
+   */
+
+  private static int clampFixed(long sum) {
+    return (int) Math.max(0, Math.min(255, sum >> SHIFT));
+  }
+
+  /**
+   * Private helper method to compute one new channel in double, round it, and
+   *     clamp it.
+   *
+   * @param row matrix row of the channel
+   * @param red red value of the pixel
+   * @param green green value of the pixel
+   * @param blue blue value of the pixel
+   * @return the new channel value
+   */
+
+  private int roundDouble(int row, int red, int green, int blue) {
+    int start = 4 * row;
+    return clamp((int) Math.round(red * this.matrix[start]
+            + (green * this.matrix[start + 1]
+            + (blue * this.matrix[start + 2] + this.matrix[start + 3]))));
+  }
+
+  /**
+   * Returns a single color transformation whose matrix is the product of the
+   *     given transformation's matrix and this one, so that running it is the same
+   *     as running this transformation and then the next one, except that the
+   *     channel values in between are neither rounded nor clamped. The result can
+   *     therefore differ from running the two transformations in turn whenever an
+   *     in-between value would have been rounded or fallen outside 0 to 255.
+   *
+   * @param next color transformation to run after this one
+   *
+   * @return a color transformation with the combined matrix
+   * @throws IllegalArgumentException if next is null
+   */
+
+  public ColorTransformation combine(ColorTransformation next) throws IllegalArgumentException {
+    if (next == null) {
+      throw new IllegalArgumentException("color transformation cannot be null");
+    }
+    double[] combined = new double[12];
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 4; col++) {
+        // this transformation's offsets pass through the next matrix too
+        double sum = col == 3 ? next.matrix[4 * row + 3] : 0;
+        for (int i = 0; i < 3; i++) {
+          sum += next.matrix[4 * row + i] * this.matrix[4 * i + col];
+        }
+        combined[4 * row + col] = sum;
       }
     }
-    return newImage;
+    return new ColorTransformation(combined);
   }
 }
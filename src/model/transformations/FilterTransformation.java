@@ -1,77 +1,410 @@
 package model.transformations;
 
+import model.EdgeMode;
 import model.IImage;
 import model.IImageState;
-import model.IPixel;
-import model.ImageImpl;
 import model.kernel.IKernelState;
 
 /**
  * This class represents an image filtering transformation. It extends the
- * clamp abstract class and implements the ITransformation interface and implements
+ * band transformation abstract class and implements
  * the mandated operation. Given a kernel object, it iterates across the given image,
  * overlaying the kernel 2d array center position on each image pixel. For all
  * overlapping positions, the value in the kernel filter array is multiplied
  * by each individual pixel channel and summed together to return the new RGB values for that pixel
- * before moving on to the next pixel.
+ * before moving on to the next pixel. Separable kernels, such as the Gaussian blur, are
+ * applied as a horizontal pass followed by a vertical pass, which costs 2 * size
+ * multiplications per pixel instead of size * size. Pixels outside the image are
+ * treated according to the edge mode, which is ZERO (black) unless another is given.
+ * Each band is copied once with a border of edge pixels around it, so the filtering
+ * loops themselves never need to check whether a position is inside the image.
  */
 
-public class FilterTransformation extends Clamp implements ITransformation {
+public class FilterTransformation extends BandTransformation {
+  /**
+   * Kernels that are not separable and at least this size are filtered through
+   *     the fast Fourier transform, where it was measured to be faster.
+   */
+  public static final int FOURIER_THRESHOLD = 9;
+
   private final IKernelState kernel;
+  private final EdgeMode edgeMode;
 
   /**
    * Construct an image filtering transformation that calculates new RGB values for
    *     each pixel in the image based on the overlapping 2d kernel filtering array.
+   *     Pixels outside the image count as black.
    *
    * @param kernel kernel object that represents a 2D array
    */
 
   public FilterTransformation(IKernelState kernel) {
+    this(kernel, EdgeMode.ZERO);
+  }
+
+  /**
+   * Construct an image filtering transformation that calculates new RGB values for
+   *     each pixel in the image based on the overlapping 2d kernel filtering array,
+   *     treating pixels outside the image according to the given edge mode.
+   *
+   * @param kernel kernel object that represents a 2D array
+   * @param edgeMode how to treat pixels outside the image
+   *
+   * @throws IllegalArgumentException if edgeMode is null
+   */
+
+  public FilterTransformation(IKernelState kernel, EdgeMode edgeMode)
+          throws IllegalArgumentException {
+    if (edgeMode == null) {
+      throw new IllegalArgumentException("edge mode cannot be null");
+    }
     this.kernel = kernel;
+    this.edgeMode = edgeMode;
   }
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
+  public int getHalo() {
+    return (this.kernel.getSize() - 1) / 2;
+  }
+
+  @Override
+  public EdgeMode getEdgeMode() {
+    return this.edgeMode;
+  }
+
+  @Override
+  public void runBand(IImageState sourceImage, IImage destImage, int startRow, int endRow) {
+    int width = sourceImage.getWidth();
+    if (usesFourier()) {
+      int[] result = filterFourier(sourceImage, 0, startRow, width, endRow - startRow);
+      int[] rowPixels = new int[width];
+      for (int row = startRow; row < endRow; row++) {
+        System.arraycopy(result, (row - startRow) * width, rowPixels, 0, width);
+        destImage.writeRow(row, rowPixels);
+      }
+      return;
+    }
     // identify center of kernel array
-    int centerSlot = (this.kernel.getSize() - 1) / 2;
+    int size = this.kernel.getSize();
+    int centerSlot = (size - 1) / 2;
+
+    // copy the band with a border as wide as the kernel reaches on every side
+    int[] paddedPixels = padBand(sourceImage, startRow, endRow, centerSlot, this.edgeMode);
+    int paddedWidth = width + 2 * centerSlot;
+
+    if (this.kernel.isSeparable()) {
+      runSeparable(paddedPixels, paddedWidth, width, destImage, startRow, endRow);
+    } else {
+      runFull(paddedPixels, paddedWidth, width, destImage, startRow, endRow);
+    }
+  }
+
+  /**
+   * Helper method to copy a band of the source image with a border of the given
+   *     width around it. Border pixels are filled according to the edge mode, and
+   *     left black for positions the edge mode maps outside the image. Other
+   *     filters in this package pad their bands the same way.
+   *
+   * @param sourceImage image to copy from
+   * @param startRow first row of the band
+   * @param endRow row after the last row of the band
+   * @param border width of the border on each side
+   * @param edgeMode how to fill the border
+   * @return the packed padded band, width + 2 * border pixels per row
+   */
+
+  static int[] padBand(IImageState sourceImage, int startRow, int endRow, int border,
+                       EdgeMode edgeMode) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    int paddedWidth = width + 2 * border;
+    int paddedRows = endRow - startRow + 2 * border;
+    int[] padded = new int[paddedWidth * paddedRows];
+    int[] rowPixels = new int[width];
+
+    // map each border col to the source col it copies once, -1 means black
+    int[] borderCols = new int[2 * border];
+    for (int i = 0; i < border; i++) {
+      borderCols[i] = edgeMode.map(i - border, width);
+      borderCols[border + i] = edgeMode.map(width + i, width);
+    }
+
+    for (int paddedRow = 0; paddedRow < paddedRows; paddedRow++) {
+      int imageRow = edgeMode.map(startRow - border + paddedRow, height);
+      if (imageRow < 0) {
+        // row outside the image stays black
+        continue;
+      }
+      sourceImage.readRow(imageRow, rowPixels);
+      int offset = paddedRow * paddedWidth;
+      System.arraycopy(rowPixels, 0, padded, offset + border, width);
+      for (int i = 0; i < border; i++) {
+        if (borderCols[i] >= 0) {
+          padded[offset + i] = rowPixels[borderCols[i]];
+        }
+        if (borderCols[border + i] >= 0) {
+          padded[offset + border + width + i] = rowPixels[borderCols[border + i]];
+        }
+      }
+    }
+    return padded;
+  }
+
+  /**
+   * Helper method to copy a rectangular region of the source image with a border
+   *     of the given width around it, filled the same way as padBand fills it.
+   *
+   * @param sourceImage image to copy from
+   * @param x col of the region's left edge
+   * @param y row of the region's top edge
+   * @param w width of the region
+   * @param h height of the region
+   * @param border width of the border on each side
+   * @param edgeMode how to fill the border
+   * @return the packed padded region, w + 2 * border pixels per row
+   */
+
+  static int[] padRegion(IImageState sourceImage, int x, int y, int w, int h, int border,
+                         EdgeMode edgeMode) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    int paddedWidth = w + 2 * border;
+    int paddedRows = h + 2 * border;
+    int[] padded = new int[paddedWidth * paddedRows];
+
+    // the cols inside the image are copied in one run per row, the rest one by one
+    int firstCol = Math.max(0, x - border);
+    int endCol = Math.min(width, x + w + border);
+    int[] rowPixels = new int[endCol - firstCol];
+    int[] pixel = new int[1];
+    for (int paddedRow = 0; paddedRow < paddedRows; paddedRow++) {
+      int imageRow = edgeMode.map(y - border + paddedRow, height);
+      if (imageRow < 0) {
+        // row outside the image stays black
+        continue;
+      }
+      int offset = paddedRow * paddedWidth;
+      sourceImage.copyRegion(firstCol, imageRow, rowPixels.length, 1, rowPixels);
+      System.arraycopy(rowPixels, 0, padded, offset + firstCol - (x - border),
+              rowPixels.length);
+      for (int paddedCol = 0; paddedCol < paddedWidth; paddedCol++) {
+        int imageCol = x - border + paddedCol;
+        if (imageCol >= firstCol && imageCol < endCol) {
+          continue;
+        }
+        imageCol = edgeMode.map(imageCol, width);
+        if (imageCol >= 0) {
+          sourceImage.copyRegion(imageCol, imageRow, 1, 1, pixel);
+          padded[offset + paddedCol] = pixel[0];
+        }
+      }
+    }
+    return padded;
+  }
+
+  /**
+   * Returns the smallest kernel size that is not separable and is filtered
+   *     through the fast Fourier transform instead of directly, read from the
+   *     ime.fft.threshold system property and otherwise FOURIER_THRESHOLD.
+   *
+   * @return the smallest kernel size filtered through the Fourier transform
+   */
+
+  public static int getFourierThreshold() {
+    return Integer.getInteger("ime.fft.threshold", FOURIER_THRESHOLD);
+  }
+
+  /**
+   * Returns whether this filter goes through the fast Fourier transform, which it
+   *     does for kernels that are not separable and at least the Fourier threshold.
+   *
+   * @return true if the filter uses the Fourier transform
+   */
+
+  boolean usesFourier() {
+    return !this.kernel.isSeparable() && this.kernel.getSize() >= getFourierThreshold();
+  }
+
+  /**
+   * Filters a rectangular region of the source image through the fast Fourier
+   *     transform. The transform's tiles start at multiples of its tile size in the
+   *     whole image, and the region is widened to whole tiles before filtering, so
+   *     every tile sees exactly the pixels it would if the whole image were
+   *     filtered at once. The result is therefore the same no matter how the image
+   *     is cut into bands or tiles.
+   *
+   * @param sourceImage image to filter
+   * @param x col of the region's left edge
+   * @param y row of the region's top edge
+   * @param w width of the region
+   * @param h height of the region
+   * @return the filtered region, w pixels per row
+   */
+
+  int[] filterFourier(IImageState sourceImage, int x, int y, int w, int h) {
+    int size = this.kernel.getSize();
+    double[] kernelValues = new double[size * size];
+    for (int kernelRow = 0; kernelRow < size; kernelRow++) {
+      for (int kernelCol = 0; kernelCol < size; kernelCol++) {
+        kernelValues[kernelRow * size + kernelCol] = this.kernel.getValue(kernelRow, kernelCol);
+      }
+    }
+    FourierConvolution convolution = new FourierConvolution(kernelValues, size);
+    int tileSize = convolution.getTileSize();
+    int alignedX = x / tileSize * tileSize;
+    int alignedY = y / tileSize * tileSize;
+    int alignedWidth = Math.min(sourceImage.getWidth(),
+            (x + w + tileSize - 1) / tileSize * tileSize) - alignedX;
+    int alignedHeight = Math.min(sourceImage.getHeight(),
+            (y + h + tileSize - 1) / tileSize * tileSize) - alignedY;
+    int border = getHalo();
+    int[] paddedPixels = padRegion(sourceImage, alignedX, alignedY, alignedWidth,
+            alignedHeight, border, this.edgeMode);
+    int[] filtered = convolution.filter(paddedPixels, alignedWidth + 2 * border,
+            alignedWidth, alignedHeight);
+    if (alignedX == x && alignedY == y && alignedWidth == w && alignedHeight == h) {
+      return filtered;
+    }
+    int[] result = new int[w * h];
+    for (int row = 0; row < h; row++) {
+      System.arraycopy(filtered, (y - alignedY + row) * alignedWidth + x - alignedX,
+              result, row * w, w);
+    }
+    return result;
+  }
+
+  /**
+   * Private helper method to filter a band by overlaying the whole 2D kernel on
+   *     each pixel of the padded band.
+   *
+   * @param paddedPixels padded band from padBand
+   * @param paddedWidth width of each padded row
+   * @param width width of the image
+   * @param destImage image to write the filtered rows to
+   * @param startRow first row to filter
+   * @param endRow row after the last row to filter
+   */
+
+  private void runFull(int[] paddedPixels, int paddedWidth, int width,
+                       IImage destImage, int startRow, int endRow) {
+    int size = this.kernel.getSize();
+    // copy the kernel values once so the inner loops work on a plain array
+    double[] kernelValues = new double[size * size];
+    for (int kernelRow = 0; kernelRow < size; kernelRow++) {
+      for (int kernelCol = 0; kernelCol < size; kernelCol++) {
+        kernelValues[kernelRow * size + kernelCol] = this.kernel.getValue(kernelRow, kernelCol);
+      }
+    }
+    int[] rowPixels = new int[width];
 
     // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
+    for (int row = startRow; row < endRow; row++) {
+      // padded row under the top row of the kernel
+      int topRow = row - startRow;
+      for (int col = 0; col < width; col++) {
         double redSum = 0;
         double greenSum = 0;
         double blueSum = 0;
-        // iterate through 2d kernel array
-        for (int kernelRow = 0; kernelRow < this.kernel.getSize(); kernelRow++) {
-          for (int kernelCol = 0; kernelCol < this.kernel.getSize(); kernelCol++) {
-            // Calculate the relative position of the kernel's center on the image
-            int imageRow = row + kernelRow - centerSlot;
-            int imageCol = col + kernelCol - centerSlot;
-
-            // Check if the current pixel is within the bounds of the image
-            if (imageRow >= 0 && imageRow < sourceImage.getHeight()
-                    && imageCol >= 0 && imageCol < sourceImage.getWidth()) {
-              // get the image pixel in that position
-              IPixel pixel = sourceImage.getPixel(imageRow, imageCol);
-              // get the kernel value in that position
-              double kernelValue = kernel.getValue(kernelRow, kernelCol);
-
-              // Accumulate the filtered values for each channel
-              redSum += pixel.getR() * kernelValue;
-              greenSum += pixel.getG() * kernelValue;
-              blueSum += pixel.getB() * kernelValue;
-            }
+        // iterate through 2d kernel array, the kernel's top left lands on padded col "col"
+        for (int kernelRow = 0; kernelRow < size; kernelRow++) {
+          int offset = (topRow + kernelRow) * paddedWidth + col;
+          int kernelOffset = kernelRow * size;
+          for (int kernelCol = 0; kernelCol < size; kernelCol++) {
+            int rgb = paddedPixels[offset + kernelCol];
+            double kernelValue = kernelValues[kernelOffset + kernelCol];
+
+            // Accumulate the filtered values for each channel
+            redSum += ((rgb >> 16) & 0xFF) * kernelValue;
+            greenSum += ((rgb >> 8) & 0xFF) * kernelValue;
+            blueSum += (rgb & 0xFF) * kernelValue;
           }
         }
-        // round, convert to int, and clamp
-        int r = clamp((int) Math.round(redSum));
-        int g = clamp((int) Math.round(greenSum));
-        int b = clamp((int) Math.round(blueSum));
-        newImage.setPixel(row, col, r, g, b);
+        rowPixels[col] = toPixel(redSum, greenSum, blueSum);
       }
+      destImage.writeRow(row, rowPixels);
     }
-    return newImage;
+  }
+
+  /**
+   * Private helper method to filter a band with a separable kernel. Every padded
+   *     row is first filtered horizontally with the row vector, then the result is
+   *     filtered vertically with the column vector.
+   *
+   * @param paddedPixels padded band from padBand
+   * @param paddedWidth width of each padded row
+   * @param width width of the image
+   * @param destImage image to write the filtered rows to
+   * @param startRow first row to filter
+   * @param endRow row after the last row to filter
+   */
+
+  private void runSeparable(int[] paddedPixels, int paddedWidth, int width,
+                            IImage destImage, int startRow, int endRow) {
+    int size = this.kernel.getSize();
+    double[] columnVector = this.kernel.getColumnVector();
+    double[] rowVector = this.kernel.getRowVector();
+
+    // horizontal pass over every padded row, one plane per channel
+    int rows = paddedPixels.length / paddedWidth;
+    double[] red = new double[rows * width];
+    double[] green = new double[rows * width];
+    double[] blue = new double[rows * width];
+    for (int row = 0; row < rows; row++) {
+      int paddedOffset = row * paddedWidth;
+      int offset = row * width;
+      for (int col = 0; col < width; col++) {
+        double redSum = 0;
+        double greenSum = 0;
+        double blueSum = 0;
+        for (int kernelCol = 0; kernelCol < size; kernelCol++) {
+          int rgb = paddedPixels[paddedOffset + col + kernelCol];
+          double kernelValue = rowVector[kernelCol];
+          redSum += ((rgb >> 16) & 0xFF) * kernelValue;
+          greenSum += ((rgb >> 8) & 0xFF) * kernelValue;
+          blueSum += (rgb & 0xFF) * kernelValue;
+        }
+        red[offset + col] = redSum;
+        green[offset + col] = greenSum;
+        blue[offset + col] = blueSum;
+      }
+    }
+
+    // vertical pass over the band
+    int[] rowPixels = new int[width];
+    for (int row = startRow; row < endRow; row++) {
+      int topRow = row - startRow;
+      for (int col = 0; col < width; col++) {
+        double redSum = 0;
+        double greenSum = 0;
+        double blueSum = 0;
+        for (int kernelRow = 0; kernelRow < size; kernelRow++) {
+          int index = (topRow + kernelRow) * width + col;
+          double kernelValue = columnVector[kernelRow];
+          redSum += red[index] * kernelValue;
+          greenSum += green[index] * kernelValue;
+          blueSum += blue[index] * kernelValue;
+        }
+        rowPixels[col] = toPixel(redSum, greenSum, blueSum);
+      }
+      destImage.writeRow(row, rowPixels);
+    }
+  }
+
+  /**
+   * Private helper method to round, convert to int, clamp, and pack filtered
+   *     channel sums into a pixel.
+   *
+   * @param redSum filtered red value
+   * @param greenSum filtered green value
+   * @param blueSum filtered blue value
+   * @return the packed 0xRRGGBB pixel
+   */
+
+  private int toPixel(double redSum, double greenSum, double blueSum) {
+    int r = clamp((int) Math.round(redSum));
+    int g = clamp((int) Math.round(greenSum));
+    int b = clamp((int) Math.round(blueSum));
+    return (r << 16) | (g << 8) | b;
   }
 
 }
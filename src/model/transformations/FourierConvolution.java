@@ -0,0 +1,251 @@
+package model.transformations;
+
+import java.util.Arrays;
+
+/**
+ * This class filters padded bands with a large kernel through the fast Fourier
+ * transform. The band is cut into square tiles; each tile and the kernel reach
+ * around it are transformed, multiplied by the transform of the kernel, and
+ * transformed back, and only the part of the result that did not wrap around is
+ * kept (overlap-save). Red and green are transformed together as the real and
+ * imaginary parts of one complex tile, since the kernel is real. The cost per
+ * pixel grows with the logarithm of the tile size instead of with the kernel area,
+ * so FilterTransformation uses this class for kernels from a measured size up.
+ */
+
+final class FourierConvolution {
+  // far above the transform's error and far below the step between pixel values
+  private static final double SNAP = 1.0 / (1 << 20);
+
+  private final int kernelSize;
+  private final int fftSize;
+  private final int tileSize;
+  private final double[] kernelReal;
+  private final double[] kernelImaginary;
+  private final double[] cosTable;
+  private final double[] sinTable;
+  private final int[] bitReverse;
+
+  /**
+   * Construct a Fourier convolution for the given kernel. The kernel is laid on
+   *     the pixels the same way as in FilterTransformation: the output at a pixel
+   *     is the sum of each kernel value times the pixel under it, without flipping
+   *     the kernel.
+   *
+   * @param kernelValues kernel values in row-major order
+   * @param kernelSize width and height of the kernel
+   */
+
+  FourierConvolution(double[] kernelValues, int kernelSize) {
+    this.kernelSize = kernelSize;
+    // tiles of about twice the kernel size keep most of each transform useful
+    int size = 16;
+    while (size < 2 * kernelSize) {
+      size *= 2;
+    }
+    this.fftSize = size;
+    this.tileSize = size - kernelSize + 1;
+
+    this.cosTable = new double[size / 2];
+    this.sinTable = new double[size / 2];
+    for (int i = 0; i < size / 2; i++) {
+      this.cosTable[i] = Math.cos(2 * Math.PI * i / size);
+      this.sinTable[i] = Math.sin(2 * Math.PI * i / size);
+    }
+    this.bitReverse = new int[size];
+    int bits = Integer.numberOfTrailingZeros(size);
+    for (int i = 0; i < size; i++) {
+      this.bitReverse[i] = Integer.reverse(i) >>> (32 - bits);
+    }
+
+    // summing kernel times pixel without flipping multiplies by the conjugate, and
+    // the scale of the inverse transform is applied to the kernel once
+    this.kernelReal = new double[size * size];
+    this.kernelImaginary = new double[size * size];
+    for (int row = 0; row < kernelSize; row++) {
+      System.arraycopy(kernelValues, row * kernelSize, this.kernelReal, row * size,
+              kernelSize);
+    }
+    transform2d(this.kernelReal, this.kernelImaginary, false);
+    double scale = 1.0 / ((double) size * size);
+    for (int i = 0; i < this.kernelReal.length; i++) {
+      this.kernelReal[i] *= scale;
+      this.kernelImaginary[i] *= -scale;
+    }
+  }
+
+  /**
+   * Returns the width and height of the output each transform covers. The tiles
+   *     of a band start at its top left corner, so callers that need the same
+   *     result however an image is cut start their bands at multiples of this.
+   *
+   * @return the tile size in pixels
+   */
+
+  int getTileSize() {
+    return this.tileSize;
+  }
+
+  /**
+   * Filters a padded band and returns the packed result.
+   *
+   * @param paddedPixels packed band with a border of kernelSize / 2 on every side
+   * @param paddedWidth width of each padded row
+   * @param width width of the band
+   * @param rows number of rows in the band
+   * @return the filtered band, width pixels per row, rounded and clamped
+   */
+
+  int[] filter(int[] paddedPixels, int paddedWidth, int width, int rows) {
+    int size = this.fftSize;
+    int paddedRows = rows + this.kernelSize - 1;
+    double[] redGreen = new double[size * size];
+    double[] redGreenImaginary = new double[size * size];
+    double[] blue = new double[size * size];
+    double[] blueImaginary = new double[size * size];
+    int[] result = new int[rows * width];
+
+    for (int tileRow = 0; tileRow < rows; tileRow += this.tileSize) {
+      for (int tileCol = 0; tileCol < width; tileCol += this.tileSize) {
+        Arrays.fill(redGreen, 0);
+        Arrays.fill(redGreenImaginary, 0);
+        Arrays.fill(blue, 0);
+        Arrays.fill(blueImaginary, 0);
+        // the tile's output plus the kernel reach below and to the right
+        int inputRows = Math.min(size, paddedRows - tileRow);
+        int inputCols = Math.min(size, paddedWidth - tileCol);
+        for (int row = 0; row < inputRows; row++) {
+          int offset = (tileRow + row) * paddedWidth + tileCol;
+          int tileOffset = row * size;
+          for (int col = 0; col < inputCols; col++) {
+            int rgb = paddedPixels[offset + col];
+            redGreen[tileOffset + col] = (rgb >> 16) & 0xFF;
+            redGreenImaginary[tileOffset + col] = (rgb >> 8) & 0xFF;
+            blue[tileOffset + col] = rgb & 0xFF;
+          }
+        }
+
+        transform2d(redGreen, redGreenImaginary, false);
+        transform2d(blue, blueImaginary, false);
+        multiplyByKernel(redGreen, redGreenImaginary);
+        multiplyByKernel(blue, blueImaginary);
+        transform2d(redGreen, redGreenImaginary, true);
+        transform2d(blue, blueImaginary, true);
+
+        int outputRows = Math.min(this.tileSize, rows - tileRow);
+        int outputCols = Math.min(this.tileSize, width - tileCol);
+        for (int row = 0; row < outputRows; row++) {
+          int offset = (tileRow + row) * width + tileCol;
+          int tileOffset = row * size;
+          for (int col = 0; col < outputCols; col++) {
+            int r = clampRound(redGreen[tileOffset + col]);
+            int g = clampRound(redGreenImaginary[tileOffset + col]);
+            int b = clampRound(blue[tileOffset + col]);
+            result[offset + col] = (r << 16) | (g << 8) | b;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Private helper method to round a filtered value and clamp it to 0 to 255. The
+   *     value is first snapped to the nearest multiple of SNAP, which removes the
+   *     transform's tiny errors, so a sum that is exactly halfway between two
+   *     values rounds the same way as in the direct filter.
+   *
+   * @param value filtered value
+   * @return the channel value
+   */
+
+  private static int clampRound(double value) {
+    long rounded = Math.round(Math.rint(value / SNAP) * SNAP);
+    return (int) Math.max(0, Math.min(255, rounded));
+  }
+
+  /**
+   * Private helper method to multiply a transformed tile by the kernel's
+   *     transform in place.
+   *
+   * @param real real parts of the tile
+   * @param imaginary imaginary parts of the tile
+   */
+
+  private void multiplyByKernel(double[] real, double[] imaginary) {
+    for (int i = 0; i < real.length; i++) {
+      double re = real[i];
+      double im = imaginary[i];
+      real[i] = re * this.kernelReal[i] - im * this.kernelImaginary[i];
+      imaginary[i] = re * this.kernelImaginary[i] + im * this.kernelReal[i];
+    }
+  }
+
+  /**
+   * Private helper method to transform a square tile in place, every row and
+   *     then every column. The inverse transform is not scaled; the kernel's
+   *     transform already is.
+   *
+   * @param real real parts of the tile, fftSize values per row
+   * @param imaginary imaginary parts of the tile
+   * @param inverse true for the inverse transform
+   */
+
+  private void transform2d(double[] real, double[] imaginary, boolean inverse) {
+    int size = this.fftSize;
+    double[] columnReal = new double[size];
+    double[] columnImaginary = new double[size];
+    for (int row = 0; row < size; row++) {
+      transform(real, imaginary, row * size, 1, inverse, columnReal, columnImaginary);
+    }
+    for (int col = 0; col < size; col++) {
+      transform(real, imaginary, col, size, inverse, columnReal, columnImaginary);
+    }
+  }
+
+  /**
+   * Private helper method to transform one row or column of a tile in place with
+   *     the iterative radix-2 algorithm. The values are gathered into the work
+   *     arrays in bit-reversed order, transformed there, and written back.
+   *
+   * @param real real parts of the tile
+   * @param imaginary imaginary parts of the tile
+   * @param start index of the first value
+   * @param step distance between consecutive values
+   * @param inverse true for the inverse transform, without scaling
+   * @param workReal work array of fftSize values
+   * @param workImaginary work array of fftSize values
+   */
+
+  private void transform(double[] real, double[] imaginary, int start, int step,
+                         boolean inverse, double[] workReal, double[] workImaginary) {
+    int size = this.fftSize;
+    for (int i = 0; i < size; i++) {
+      int from = start + this.bitReverse[i] * step;
+      workReal[i] = real[from];
+      workImaginary[i] = imaginary[from];
+    }
+    double sign = inverse ? 1 : -1;
+    for (int half = 1; half < size; half *= 2) {
+      int tableStep = size / (2 * half);
+      for (int blockStart = 0; blockStart < size; blockStart += 2 * half) {
+        for (int k = 0; k < half; k++) {
+          double cos = this.cosTable[k * tableStep];
+          double sin = sign * this.sinTable[k * tableStep];
+          int even = blockStart + k;
+          int odd = even + half;
+          double oddReal = workReal[odd] * cos - workImaginary[odd] * sin;
+          double oddImaginary = workReal[odd] * sin + workImaginary[odd] * cos;
+          workReal[odd] = workReal[even] - oddReal;
+          workImaginary[odd] = workImaginary[even] - oddImaginary;
+          workReal[even] += oddReal;
+          workImaginary[even] += oddImaginary;
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      real[start + i * step] = workReal[i];
+      imaginary[start + i * step] = workImaginary[i];
+    }
+  }
+}
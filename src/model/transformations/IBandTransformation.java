@@ -0,0 +1,50 @@
+package model.transformations;
+
+import model.EdgeMode;
+import model.IImage;
+import model.IImageState;
+
+/**
+ * This interface represents an image transformation strategy whose output rows
+ *     can be computed independently of each other. Any band of rows can be
+ *     computed on its own, so the image can be split into bands that run in parallel.
+ *     Each output pixel depends only on the source pixels within the halo distance of
+ *     it, or outside the image, on the pixels the edge mode maps those positions to,
+ *     so the image can also be cut into tiles that are each computed from the tile
+ *     and a border of halo pixels around it.
+ */
+
+public interface IBandTransformation extends ITransformation {
+
+  /**
+   * Computes the transformed rows startRow (inclusive) to endRow (exclusive) of
+   *     the source image and writes them to the same rows of the destination image.
+   *     Only those rows of the destination image are written.
+   *
+   * @param sourceImage image object to be transformed
+   * @param destImage image object to write the transformed rows to, the same
+   *     size as the source image
+   * @param startRow first row to transform
+   * @param endRow row after the last row to transform
+   */
+
+  void runBand(IImageState sourceImage, IImage destImage, int startRow, int endRow);
+
+  /**
+   * Returns how far from an output pixel, in rows or cols, the source pixels it
+   *     is computed from can be. Point transformations return 0.
+   *
+   * @return the halo distance
+   */
+
+  int getHalo();
+
+  /**
+   * Returns how source positions outside the image are treated. Transformations
+   *     with a halo of 0 never read outside the image.
+   *
+   * @return the edge mode
+   */
+
+  EdgeMode getEdgeMode();
+}
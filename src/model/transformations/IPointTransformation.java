@@ -0,0 +1,32 @@
+package model.transformations;
+
+/**
+ * This interface represents an image transformation strategy where each output
+ *     pixel depends only on the input pixel at the same position. Such
+ *     transformations can be applied to a row of pixels in place, and several of
+ *     them can be applied one after another to the same row without creating any
+ *     intermediate image.
+ */
+
+public interface IPointTransformation extends IBandTransformation {
+
+  /**
+   * Transforms the first length pixels of the given row in place. Each pixel is
+   *     packed as 0xRRGGBB.
+   *
+   * @param pixels packed pixels to transform
+   * @param length number of pixels to transform
+   */
+
+  void applyToRow(int[] pixels, int length);
+
+  /**
+   * Returns whether this transformation leaves every pixel unchanged, such as
+   *     brightening by 0. The result of an identity transformation can share its
+   *     storage with the source image instead of being computed.
+   *
+   * @return true if applyToRow never changes a pixel
+   */
+
+  boolean isIdentity();
+}
@@ -1,18 +1,15 @@
 package model.transformations;
 
-import model.IImage;
-import model.IImageState;
-import model.ImageImpl;
 
 /**
  * This class represents an image intensity transformation. It extends the
- * clamp abstract class and implements the ITransformation interface
+ * point transformation abstract class
  * and implements the mandated operation. It finds
  * the average of the three components for each pixel and set that for each
  * pixel chanel.
  */
 
-public class IntensityTransformation extends Clamp implements ITransformation {
+public class IntensityTransformation extends PointTransformation {
 
 
   /**
@@ -27,21 +24,19 @@ public class IntensityTransformation extends Clamp implements ITransformation {
 
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col ++) {
-        int redChannel = clamp(sourceImage.getRedChannel(row, col));
-        int greenChannel = clamp(sourceImage.getGreenChannel(row, col));
-        int blueChannel = clamp(sourceImage.getBlueChannel(row, col));
-        int averageComponent = clamp((redChannel + greenChannel + blueChannel) / 3);
-        averageComponent = Math.round(averageComponent);
-        // set new rgb values
-        newImage.setPixel(row, col, averageComponent, averageComponent, averageComponent);
-      }
+  public void applyToRow(int[] pixels, int length) {
+
+    // the vector kernels, when loaded, do all but the last few pixels
+    RowOperations vector = VectorSupport.operations();
+    int start = vector == null ? 0 : vector.intensity(pixels, length);
+
+    // iterate through the row and update pixel channels in place
+    for (int col = start; col < length; col++) {
+      int rgb = pixels[col];
+      int averageComponent = ((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF);
+      averageComponent = clamp(averageComponent / 3);
+      // set new rgb values
+      pixels[col] = (averageComponent << 16) | (averageComponent << 8) | averageComponent;
     }
-    return newImage;
   }
 }
@@ -0,0 +1,300 @@
+package model.transformations;
+
+/**
+ * This class represents a transformation that maps each channel value through a
+ * table. It extends the point transformation abstract class. Each channel has its
+ * own 256 entry table giving the new value for every old value, so any operation
+ * on single channel values, such as brightening, gamma, contrast, levels, or
+ * curves, costs one table read per channel however complicated its formula is.
+ * Two lookup transformations can be combined into one exactly by looking each
+ * table up in the next.
+ */
+
+public class LookupTransformation extends PointTransformation {
+  private static final int SIZE = 256;
+
+  private final int[] redTable;
+  private final int[] greenTable;
+  private final int[] blueTable;
+
+  /**
+   * Construct a lookup transformation that maps all three channels through the
+   *     same table.
+   *
+   * @param table new value for each old value from 0 to 255
+   *
+   * @throws IllegalArgumentException if table is null, does not have 256 entries,
+   *     or has an entry outside 0 to 255
+   */
+
+  public LookupTransformation(int[] table) throws IllegalArgumentException {
+    this(table, table, table);
+  }
+
+  /**
+   * Construct a lookup transformation with a table for each channel.
+   *
+   * @param redTable new red value for each old red value from 0 to 255
+   * @param greenTable new green value for each old green value from 0 to 255
+   * @param blueTable new blue value for each old blue value from 0 to 255
+   *
+   * @throws IllegalArgumentException if a table is null, does not have 256
+   *     entries, or has an entry outside 0 to 255
+   */
+
+  public LookupTransformation(int[] redTable, int[] greenTable, int[] blueTable)
+          throws IllegalArgumentException {
+    this.redTable = checkTable(redTable);
+    this.greenTable = checkTable(greenTable);
+    this.blueTable = checkTable(blueTable);
+  }
+
+  /**
+   * Private helper method to check a table and return a copy of it.
+   *
+   * @param table table to check
+   * @return a copy of the table
+   * @throws IllegalArgumentException if table is null, does not have 256 entries,
+   *     or has an entry outside 0 to 255
+   */
+
+  private static int[] checkTable(int[] table) throws IllegalArgumentException {
+    if (table == null || table.length != SIZE) {
+      throw new IllegalArgumentException("lookup table must have 256 entries");
+    }
+    for (int value : table) {
+      if (value < 0 || value > 255) {
+        throw new IllegalArgumentException("lookup table entries must be 0 to 255");
+      }
+    }
+    return table.clone();
+  }
+
+  /**
+   * Returns the table of a transformation that adds the given value to each
+   *     channel, clamped to 0 to 255.
+   *
+   * @param value value to add, negative to darken
+   * @return the table
+   */
+
+  static int[] offsetTable(int value) {
+    int[] table = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      table[i] = Math.max(0, Math.min(255, i + value));
+    }
+    return table;
+  }
+
+  /**
+   * Returns a transformation that applies a gamma curve to each channel: each
+   *     value v becomes 255 * (v / 255) ^ (1 / gamma), rounded. A gamma above 1
+   *     brightens the mid tones and a gamma below 1 darkens them.
+   *
+   * @param gamma gamma to apply
+   * @return the transformation
+   * @throws IllegalArgumentException if gamma is not greater than 0
+   */
+
+  public static LookupTransformation gamma(double gamma) throws IllegalArgumentException {
+    if (!(gamma > 0) || Double.isInfinite(gamma)) {
+      throw new IllegalArgumentException("gamma must be greater than 0");
+    }
+    int[] table = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      table[i] = (int) Math.round(255 * Math.pow(i / 255.0, 1 / gamma));
+    }
+    return new LookupTransformation(table);
+  }
+
+  /**
+   * Returns a transformation that scales each channel's distance from the middle
+   *     value 128 by the given factor, clamped to 0 to 255. A factor above 1 raises
+   *     contrast, below 1 lowers it, and 0 makes every pixel mid grey.
+   *
+   * @param factor factor to scale the contrast by
+   * @return the transformation
+   * @throws IllegalArgumentException if factor is negative or not finite
+   */
+
+  public static LookupTransformation contrast(double factor) throws IllegalArgumentException {
+    if (!(factor >= 0) || Double.isInfinite(factor)) {
+      throw new IllegalArgumentException("contrast factor cannot be negative");
+    }
+    int[] table = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      table[i] = clampValue(Math.round(128 + (i - 128) * factor));
+    }
+    return new LookupTransformation(table);
+  }
+
+  /**
+   * Returns a levels adjustment: the curve through the black point (b, 0), the
+   *     mid point (m, 128), and the white point (w, 255) is fitted as a quadratic
+   *     and applied to each channel, clamped to 0 to 255. Values below b become
+   *     black and values above w become white.
+   *
+   * @param black input value that becomes 0
+   * @param mid input value that becomes 128
+   * @param white input value that becomes 255
+   * @return the transformation
+   * @throws IllegalArgumentException unless 0 &lt;= black &lt; mid &lt; white &lt;= 255
+   */
+
+  public static LookupTransformation levels(int black, int mid, int white)
+          throws IllegalArgumentException {
+    if (black < 0 || black >= mid || mid >= white || white > 255) {
+      throw new IllegalArgumentException("levels must be in ascending order from 0 to 255");
+    }
+    // coefficients of y = a x^2 + b x + c through the three points
+    double denominator = (double) (black - mid) * (black - white) * (mid - white);
+    double a = (black * (255.0 - 128) - mid * 255.0 + white * 128.0) / denominator;
+    double b = (black * black * (128.0 - 255) + mid * mid * 255.0 - white * white * 128.0)
+            / denominator;
+    double c = (black * black * (mid * 255.0 - white * 128.0)
+            + black * (white * white * 128.0 - mid * mid * 255.0)) / denominator;
+    int[] table = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      if (i <= black) {
+        table[i] = 0;
+      } else if (i >= white) {
+        table[i] = 255;
+      } else {
+        table[i] = clampValue(Math.round(a * i * i + b * i + c));
+      }
+    }
+    return new LookupTransformation(table);
+  }
+
+  /**
+   * Returns a curves adjustment: each channel value is mapped along straight lines
+   *     between the given control points. Values before the first point take its
+   *     output and values after the last point take the last point's output.
+   *
+   * @param inputs input values of the control points, strictly increasing
+   * @param outputs output values of the control points
+   * @return the transformation
+   * @throws IllegalArgumentException if either array is null or empty, their
+   *     lengths differ, a value is outside 0 to 255, or inputs are not increasing
+   */
+
+  public static LookupTransformation curves(int[] inputs, int[] outputs)
+          throws IllegalArgumentException {
+    if (inputs == null || outputs == null || inputs.length == 0
+            || inputs.length != outputs.length) {
+      throw new IllegalArgumentException("curves need the same number of inputs and outputs");
+    }
+    for (int i = 0; i < inputs.length; i++) {
+      if (inputs[i] < 0 || inputs[i] > 255 || outputs[i] < 0 || outputs[i] > 255) {
+        throw new IllegalArgumentException("control points must be 0 to 255");
+      }
+      if (i > 0 && inputs[i] <= inputs[i - 1]) {
+        throw new IllegalArgumentException("control point inputs must be increasing");
+      }
+    }
+    int[] table = new int[SIZE];
+    int segment = 0;
+    for (int i = 0; i < SIZE; i++) {
+      if (i <= inputs[0]) {
+        table[i] = outputs[0];
+      } else if (i >= inputs[inputs.length - 1]) {
+        table[i] = outputs[outputs.length - 1];
+      } else {
+        while (inputs[segment + 1] < i) {
+          segment++;
+        }
+        double t = (double) (i - inputs[segment]) / (inputs[segment + 1] - inputs[segment]);
+        table[i] = (int) Math.round(outputs[segment]
+                + t * (outputs[segment + 1] - outputs[segment]));
+      }
+    }
+    return new LookupTransformation(table);
+  }
+
+  /**
+   * Private helper method to clamp a rounded value to 0 to 255.
+   *
+   * @param value value to clamp
+   * @return the clamped value
+   */
+
+  private static int clampValue(long value) {
+    return (int) Math.max(0, Math.min(255, value));
+  }
+
+  /**
+   * Returns a single lookup transformation that is exactly the same as running
+   *     this transformation and then the next one.
+   *
+   * @param next lookup transformation to run after this one
+   * @return the combined transformation
+   * @throws IllegalArgumentException if next is null
+   */
+
+  public LookupTransformation then(LookupTransformation next) throws IllegalArgumentException {
+    if (next == null) {
+      throw new IllegalArgumentException("lookup transformation cannot be null");
+    }
+    int[] red = new int[SIZE];
+    int[] green = new int[SIZE];
+    int[] blue = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      red[i] = next.redTable[this.redTable[i]];
+      green[i] = next.greenTable[this.greenTable[i]];
+      blue[i] = next.blueTable[this.blueTable[i]];
+    }
+    return new LookupTransformation(red, green, blue);
+  }
+
+  /**
+   * Returns the new value this transformation gives a channel value.
+   *
+   * @param channel 0 for red, 1 for green, or 2 for blue
+   * @param value old value from 0 to 255
+   * @return the new value
+   * @throws IllegalArgumentException if channel or value is out of range
+   */
+
+  public int lookup(int channel, int value) throws IllegalArgumentException {
+    if (channel < 0 || channel > 2 || value < 0 || value > 255) {
+      throw new IllegalArgumentException("channel or value out of range");
+    }
+    int[] table = channel == 0 ? this.redTable : channel == 1 ? this.greenTable : this.blueTable;
+    return table[value];
+  }
+
+  @Override
+  public boolean isIdentity() {
+    for (int i = 0; i < SIZE; i++) {
+      if (this.redTable[i] != i || this.greenTable[i] != i || this.blueTable[i] != i) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void applyToRow(int[] pixels, int length) {
+    applyToCols(pixels, 0, length);
+  }
+
+  /**
+   * Maps part of a row through the tables in place.
+   *
+   * @param pixels packed pixels of the row
+   * @param start first col to map
+   * @param end col after the last one to map
+   */
+
+  void applyToCols(int[] pixels, int start, int end) {
+    // copy the tables into locals so the loop only reads local arrays
+    int[] red = this.redTable;
+    int[] green = this.greenTable;
+    int[] blue = this.blueTable;
+    for (int col = start; col < end; col++) {
+      int rgb = pixels[col];
+      pixels[col] = (red[(rgb >> 16) & 0xFF] << 16) | (green[(rgb >> 8) & 0xFF] << 8)
+              | blue[rgb & 0xFF];
+    }
+  }
+}
@@ -1,18 +1,18 @@
 package model.transformations;
 
-import model.IImage;
-import model.IImageState;
-import model.ImageImpl;
 
 /**
  * This class represents an image luma transformation. It extends the
- * clamp abstract class and implements the ITransformation interface
+ * point transformation abstract class
  * and implements the mandated operation. It finds
  * the weighted sum (0.2126r + 0.7152g + 0.0722b) and sets that for each
  * pixel chanel.
  */
 
-public class LumaTransformation extends Clamp implements ITransformation {
+public class LumaTransformation extends PointTransformation {
+  private static final double RED_WEIGHT = 0.2126;
+  private static final double GREEN_WEIGHT = 0.7152;
+  private static final double BLUE_WEIGHT = 0.0722;
 
   /**
    * Construct a luma transformation that finds
@@ -26,20 +26,22 @@ public class LumaTransformation extends Clamp implements ITransformation {
 
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col ++) {
-        double redChannel = sourceImage.getRedChannel(row, col) * 0.2126;
-        double greenChannel = sourceImage.getGreenChannel(row, col) * 0.7152;
-        double blueChannel = sourceImage.getBlueChannel(row, col) * 0.0722;
-        int weightedSum = clamp((int) Math.round(redChannel + greenChannel + blueChannel));
-        // set new rgb values
-        newImage.setPixel(row, col, weightedSum, weightedSum, weightedSum);
-      }
+  public void applyToRow(int[] pixels, int length) {
+
+    // the vector kernels, when loaded, do all but the last few pixels
+    RowOperations vector = VectorSupport.operations();
+    int start = vector == null ? 0
+            : vector.weightedSum(pixels, length, RED_WEIGHT, GREEN_WEIGHT, BLUE_WEIGHT);
+
+    // iterate through the row and update pixel channels in place
+    for (int col = start; col < length; col++) {
+      int rgb = pixels[col];
+      double redChannel = ((rgb >> 16) & 0xFF) * RED_WEIGHT;
+      double greenChannel = ((rgb >> 8) & 0xFF) * GREEN_WEIGHT;
+      double blueChannel = (rgb & 0xFF) * BLUE_WEIGHT;
+      int weightedSum = clamp((int) Math.round(redChannel + greenChannel + blueChannel));
+      // set new rgb values
+      pixels[col] = (weightedSum << 16) | (weightedSum << 8) | weightedSum;
     }
-    return newImage;
   }
 }
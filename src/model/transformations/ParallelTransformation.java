@@ -0,0 +1,146 @@
+package model.transformations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+import model.TiledImage;
+
+/**
+ * This class represents a transformation that runs another transformation across
+ *     several threads. It implements the ITransformation interface. If the wrapped
+ *     transformation is an IBandTransformation, the output image is split into bands
+ *     of rows and each band is computed by a fork-join pool. Every output row is
+ *     computed exactly as the serial path computes it, so the result is identical
+ *     no matter how many threads are used. Bands are at least four halos tall, so
+ *     transformations that read far around each pixel, such as large box blurs,
+ *     use fewer and taller bands. A TiledImage source is transformed a tile at a
+ *     time by a TiledTransformation instead. Any other transformation runs serially.
+ *     The default number of threads is the number of available processors and can be
+ *     changed with the ime.threads system property.
+ */
+
+public class ParallelTransformation implements ITransformation {
+
+  // smallest band worth handing to a separate task
+  private static final int MIN_BAND_ROWS = 16;
+  // bands per thread, so threads that finish early can pick up more work
+  private static final int BANDS_PER_THREAD = 4;
+  // bands are at least this many halos tall, so the extra rows read around each
+  // band stay small next to the rows it computes
+  private static final int MIN_BAND_HALOS = 4;
+  // pools are shared between transformations with the same thread count
+  private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+  private final ITransformation transformation;
+  private final int threadCount;
+
+  /**
+   * Construct a parallel transformation that runs the given transformation with
+   *     the default number of threads.
+   *
+   * @param transformation transformation to run in parallel
+   *
+   * @throws IllegalArgumentException if transformation is null
+   */
+
+  public ParallelTransformation(ITransformation transformation)
+          throws IllegalArgumentException {
+    this(transformation, getDefaultThreadCount());
+  }
+
+  /**
+   * Construct a parallel transformation that runs the given transformation with
+   *     the given number of threads.
+   *
+   * @param transformation transformation to run in parallel
+   * @param threadCount number of threads to use, 1 runs serially
+   *
+   * @throws IllegalArgumentException if transformation is null or threadCount is
+   *     less than 1
+   */
+
+  public ParallelTransformation(ITransformation transformation, int threadCount)
+          throws IllegalArgumentException {
+    if (transformation == null) {
+      throw new IllegalArgumentException("transformation cannot be null");
+    }
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("thread count must be at least 1");
+    }
+    this.transformation = transformation;
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Returns the default number of threads, read from the ime.threads system
+   *     property and otherwise the number of available processors.
+   *
+   * @return the default number of threads
+   */
+
+  public static int getDefaultThreadCount() {
+    int threads = Integer.getInteger("ime.threads", Runtime.getRuntime().availableProcessors());
+    return Math.max(1, threads);
+  }
+
+  /**
+   * Returns the fork-join pool shared by transformations with the given number of
+   *     threads, creating it the first time.
+   *
+   * @param threadCount number of threads in the pool
+   * @return the pool
+   */
+
+  static ForkJoinPool getPool(int threadCount) {
+    return POOLS.computeIfAbsent(threadCount, ForkJoinPool::new);
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    if (this.transformation instanceof IPointTransformation
+            && ((IPointTransformation) this.transformation).isIdentity()) {
+      return sourceImage.copy();
+    }
+    if (sourceImage instanceof TiledImage
+            && this.transformation instanceof IBandTransformation) {
+      return new TiledTransformation((IBandTransformation) this.transformation,
+              this.threadCount).run(sourceImage);
+    }
+    if (!(this.transformation instanceof IBandTransformation) || this.threadCount == 1) {
+      return this.transformation.run(sourceImage);
+    }
+    IBandTransformation bandTransformation = (IBandTransformation) this.transformation;
+    int height = sourceImage.getHeight();
+    IImage newImage = new PackedImageImpl(sourceImage.getWidth(), height);
+
+    // split the rows into bands, small images are done in one band on this thread
+    int bandCount = this.threadCount * BANDS_PER_THREAD;
+    int bandRows = Math.max(Math.max(MIN_BAND_ROWS, MIN_BAND_HALOS * bandTransformation.getHalo()),
+            (height + bandCount - 1) / bandCount);
+    if (bandRows >= height) {
+      bandTransformation.runBand(sourceImage, newImage, 0, height);
+      return newImage;
+    }
+
+    ForkJoinPool pool = getPool(this.threadCount);
+    List<ForkJoinTask<?>> bands = new ArrayList<>();
+    for (int startRow = 0; startRow < height; startRow += bandRows) {
+      int bandStart = startRow;
+      int bandEnd = Math.min(height, startRow + bandRows);
+      bands.add(pool.submit(() ->
+              bandTransformation.runBand(sourceImage, newImage, bandStart, bandEnd)));
+    }
+    // wait for every band, rethrowing the first failure
+    for (ForkJoinTask<?> band : bands) {
+      band.join();
+    }
+    return newImage;
+  }
+}
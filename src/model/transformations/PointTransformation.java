@@ -0,0 +1,62 @@
+package model.transformations;
+
+import model.EdgeMode;
+import model.IImage;
+import model.IImageState;
+
+/**
+ * This abstract class represents a transformation that maps each pixel on its
+ *     own. It extends the band transformation abstract class and implements the
+ *     IPointTransformation interface. Subclasses only implement applyToRow; bands
+ *     are transformed by reading each row, transforming it in place, and writing it
+ *     to the destination image. A transformation that leaves every pixel unchanged
+ *     returns a copy of the source image, which shares the source's pixels until
+ *     one of them is written to.
+ */
+
+public abstract class PointTransformation extends BandTransformation
+        implements IPointTransformation {
+
+  /**
+   * Default constructor for point transformations.
+   * This default constructor is intentionally left empty.
+   */
+
+  public PointTransformation() {
+    // Empty constructor
+  }
+
+  @Override
+  public boolean isIdentity() {
+    return false;
+  }
+
+  @Override
+  public int getHalo() {
+    return 0;
+  }
+
+  @Override
+  public EdgeMode getEdgeMode() {
+    return EdgeMode.ZERO;
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    if (isIdentity()) {
+      return sourceImage.copy();
+    }
+    return super.run(sourceImage);
+  }
+
+  @Override
+  public void runBand(IImageState sourceImage, IImage destImage, int startRow, int endRow) {
+    int width = sourceImage.getWidth();
+    int[] pixels = new int[width];
+    for (int row = startRow; row < endRow; row++) {
+      sourceImage.readRow(row, pixels);
+      applyToRow(pixels, width);
+      destImage.writeRow(row, pixels);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package model.transformations;
+
+/**
+ * This interface represents the data-parallel kernels of the point transformations.
+ * Each method transforms the packed pixels at the start of a row in place, a whole
+ * vector of pixels at a time, and returns how many it transformed. The calling
+ * transformation finishes the rest of the row with its own scalar loop, and every
+ * pixel ends up exactly as that loop would have made it.
+ */
+
+interface RowOperations {
+
+  /**
+   * Adds a value to each channel, clamped to 0 to 255.
+   *
+   * @param pixels packed pixels of the row
+   * @param length number of pixels in the row
+   * @param value value to add, negative to darken
+   * @return the number of pixels transformed from the start of the row
+   */
+
+  int brighten(int[] pixels, int length, int value);
+
+  /**
+   * Sets each channel to the rounded sum of red, green, and blue times the given
+   *     weights, added in that order.
+   *
+   * @param pixels packed pixels of the row
+   * @param length number of pixels in the row
+   * @param redWeight weight of red
+   * @param greenWeight weight of green
+   * @param blueWeight weight of blue
+   * @return the number of pixels transformed from the start of the row
+   */
+
+  int weightedSum(int[] pixels, int length, double redWeight, double greenWeight,
+                  double blueWeight);
+
+  /**
+   * Sets each channel to the average of the three channels, rounded down.
+   *
+   * @param pixels packed pixels of the row
+   * @param length number of pixels in the row
+   * @return the number of pixels transformed from the start of the row
+   */
+
+  int intensity(int[] pixels, int length);
+
+  /**
+   * Sets each channel to the largest of the three channels.
+   *
+   * @param pixels packed pixels of the row
+   * @param length number of pixels in the row
+   * @return the number of pixels transformed from the start of the row
+   */
+
+  int value(int[] pixels, int length);
+
+  /**
+   * Sets each channel to r * m[4c] + (g * m[4c + 1] + (b * m[4c + 2] + m[4c + 3])),
+   *     rounded and clamped, where c is 0 for red, 1 for green, and 2 for blue. A
+   *     matrix whose sums could leave the int range is left to the scalar loop.
+   *
+   * @param pixels packed pixels of the row
+   * @param length number of pixels in the row
+   * @param matrix the 3 x 4 matrix in row-major order, offsets in the last column
+   * @return the number of pixels transformed from the start of the row
+   */
+
+  int colorMatrix(int[] pixels, int length, double[] matrix);
+}
@@ -0,0 +1,171 @@
+package model.transformations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+import model.TiledImage;
+
+/**
+ * This class represents a transformation that runs a band transformation one tile
+ *     at a time, so images larger than memory can be transformed with a fixed amount
+ *     of it. It implements the ITransformation interface. The output is a TiledImage.
+ *     Each tile of the source is copied into memory with a border of halo pixels
+ *     around it; border positions outside the image are filled as the
+ *     transformation's edge mode maps them. The tile's rows of the copy are then
+ *     transformed, and only the tile itself is written to the output, so every
+ *     output pixel sees the same source pixels it would if the whole image were
+ *     transformed at once. Results are identical to running the transformation on
+ *     the whole image, except that box blurs, whose running sums depend on where a
+ *     band starts, can round differently by 1. Fourier filtering lays its own tiles
+ *     on the whole image, so it gives the same result as well. Tiles
+ *     run on a fork-join pool with the given number of threads.
+ */
+
+public class TiledTransformation implements ITransformation {
+  private final IBandTransformation transformation;
+  private final int threadCount;
+
+  /**
+   * Construct a tiled transformation that runs the given transformation with the
+   *     default number of threads.
+   *
+   * @param transformation transformation to run a tile at a time
+   *
+   * @throws IllegalArgumentException if transformation is null
+   */
+
+  public TiledTransformation(IBandTransformation transformation)
+          throws IllegalArgumentException {
+    this(transformation, ParallelTransformation.getDefaultThreadCount());
+  }
+
+  /**
+   * Construct a tiled transformation that runs the given transformation with the
+   *     given number of threads.
+   *
+   * @param transformation transformation to run a tile at a time
+   * @param threadCount number of threads to use, 1 runs every tile on the calling
+   *     thread
+   *
+   * @throws IllegalArgumentException if transformation is null or threadCount is
+   *     less than 1
+   */
+
+  public TiledTransformation(IBandTransformation transformation, int threadCount)
+          throws IllegalArgumentException {
+    if (transformation == null) {
+      throw new IllegalArgumentException("transformation cannot be null");
+    }
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("thread count must be at least 1");
+    }
+    this.transformation = transformation;
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Transforms the source image a tile at a time. A TiledImage source is cut into
+   *     its own tiles and gives its tile size and cache to the output; any other
+   *     source uses the default tile size.
+   *
+   * @param sourceImage image object to be transformed
+   * @return the transformed image, a TiledImage
+   * @throws IllegalStateException if the file for the output tiles cannot be created
+   */
+
+  @Override
+  public IImageState run(IImageState sourceImage) throws IllegalStateException {
+    TiledImage newImage = sourceImage instanceof TiledImage
+            ? ((TiledImage) sourceImage).createBlank()
+            : new TiledImage(sourceImage.getWidth(), sourceImage.getHeight());
+    int tileSize = newImage.getTileSize();
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+
+    if (this.threadCount == 1) {
+      for (int y = 0; y < height; y += tileSize) {
+        for (int x = 0; x < width; x += tileSize) {
+          runTile(sourceImage, newImage, x, y, tileSize);
+        }
+      }
+      return newImage;
+    }
+
+    // one task per row of tiles keeps the tiles in use close together in the file
+    ForkJoinPool pool = ParallelTransformation.getPool(this.threadCount);
+    List<ForkJoinTask<?>> tileRows = new ArrayList<>();
+    for (int y = 0; y < height; y += tileSize) {
+      int tileY = y;
+      tileRows.add(pool.submit(() -> {
+        for (int x = 0; x < width; x += tileSize) {
+          runTile(sourceImage, newImage, x, tileY, tileSize);
+        }
+      }));
+    }
+    // wait for every row of tiles, rethrowing the first failure
+    for (ForkJoinTask<?> tileRow : tileRows) {
+      tileRow.join();
+    }
+    return newImage;
+  }
+
+  /**
+   * Private helper method to transform one tile and write it to the output.
+   *
+   * @param sourceImage image being transformed
+   * @param destImage output image
+   * @param x col of the tile's left edge
+   * @param y row of the tile's top edge
+   * @param tileSize width and height of a full tile
+   */
+
+  private void runTile(IImageState sourceImage, TiledImage destImage, int x, int y,
+                       int tileSize) {
+    int tileWidth = Math.min(tileSize, sourceImage.getWidth() - x);
+    int tileHeight = Math.min(tileSize, sourceImage.getHeight() - y);
+    if (this.transformation instanceof FilterTransformation
+            && ((FilterTransformation) this.transformation).usesFourier()) {
+      // Fourier tiles are laid on the whole image, not on the copy of this tile
+      destImage.writeRegion(x, y, tileWidth, tileHeight,
+              ((FilterTransformation) this.transformation)
+                      .filterFourier(sourceImage, x, y, tileWidth, tileHeight));
+      return;
+    }
+    int halo = this.transformation.getHalo();
+    IImageState view = copyWithHalo(sourceImage, x, y, tileWidth, tileHeight, halo);
+    IImage viewResult = new PackedImageImpl(view.getWidth(), view.getHeight());
+    this.transformation.runBand(view, viewResult, halo, halo + tileHeight);
+    int[] tilePixels = new int[tileWidth * tileHeight];
+    viewResult.copyRegion(halo, halo, tileWidth, tileHeight, tilePixels);
+    destImage.writeRegion(x, y, tileWidth, tileHeight, tilePixels);
+  }
+
+  /**
+   * Private helper method to copy a tile of the source image into memory with a
+   *     border of halo pixels on every side. Border positions outside the image are
+   *     filled according to the transformation's edge mode, and left black for
+   *     positions it maps outside the image.
+   *
+   * @param sourceImage image to copy from
+   * @param x col of the tile's left edge
+   * @param y row of the tile's top edge
+   * @param tileWidth width of the tile
+   * @param tileHeight height of the tile
+   * @param halo width of the border
+   * @return the tile and its border
+   */
+
+  private IImageState copyWithHalo(IImageState sourceImage, int x, int y, int tileWidth,
+                                   int tileHeight, int halo) {
+    int[] viewPixels = FilterTransformation.padRegion(sourceImage, x, y, tileWidth,
+            tileHeight, halo, this.transformation.getEdgeMode());
+    int viewWidth = tileWidth + 2 * halo;
+    int viewHeight = tileHeight + 2 * halo;
+    return new PackedImageImpl(viewWidth, viewHeight, viewPixels);
+  }
+}
@@ -0,0 +1,162 @@
+package model.transformations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.IImageState;
+
+/**
+ * This class represents a sequence of transformations run one after another. It
+ *     implements the ITransformation interface. When the pipeline is built, runs of
+ *     consecutive point transformations (brighten, the greyscale components, and
+ *     color matrices) are fused into a single stage that applies every one of them
+ *     to a row before moving to the next row. A script such as brighten, luma, sepia
+ *     therefore reads and writes each pixel once and creates no intermediate images,
+ *     while giving exactly the same result as running the steps in turn. Each stage
+ *     runs through a ParallelTransformation. Point transformations that leave every
+ *     pixel unchanged are dropped, and a pipeline left with no stages returns a copy
+ *     of the source image that shares its pixels. Consecutive lookup
+ *     transformations, such as brightness, gamma, and levels, are combined into one
+ *     table first.
+ */
+
+public class TransformationPipeline implements ITransformation {
+  private final List<ITransformation> stages;
+  private final int threadCount;
+
+  /**
+   * Construct a pipeline that runs the given transformations in order using the
+   *     default number of threads. Color matrices are not combined.
+   *
+   * @param transformations transformations to run, in order
+   *
+   * @throws IllegalArgumentException if transformations is null, empty, or
+   *     contains null
+   */
+
+  public TransformationPipeline(List<ITransformation> transformations)
+          throws IllegalArgumentException {
+    this(transformations, false, ParallelTransformation.getDefaultThreadCount());
+  }
+
+  /**
+   * Construct a pipeline that runs the given transformations in order.
+   *
+   * @param transformations transformations to run, in order
+   * @param combineMatrices whether to multiply consecutive color matrices together
+   *     into one matrix. This is faster but skips the rounding and clamping
+   *     between them, so the output may differ slightly; see
+   *     ColorTransformation.combine.
+   * @param threadCount number of threads to run each stage with
+   *
+   * @throws IllegalArgumentException if transformations is null, empty, or
+   *     contains null, or if threadCount is less than 1
+   */
+
+  public TransformationPipeline(List<ITransformation> transformations, boolean combineMatrices,
+                                int threadCount) throws IllegalArgumentException {
+    if (transformations == null || transformations.isEmpty()) {
+      throw new IllegalArgumentException("pipeline needs at least one transformation");
+    }
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("thread count must be at least 1");
+    }
+    this.threadCount = threadCount;
+    this.stages = new ArrayList<>();
+    List<IPointTransformation> pointRun = new ArrayList<>();
+    for (ITransformation transformation : transformations) {
+      if (transformation == null) {
+        throw new IllegalArgumentException("transformation cannot be null");
+      }
+      if (transformation instanceof IPointTransformation) {
+        IPointTransformation point = (IPointTransformation) transformation;
+        if (point.isIdentity()) {
+          continue;
+        }
+        int last = pointRun.size() - 1;
+        if (last >= 0 && point instanceof LookupTransformation
+                && pointRun.get(last) instanceof LookupTransformation) {
+          // combining tables is exact, so it does not depend on combineMatrices
+          pointRun.set(last,
+                  ((LookupTransformation) pointRun.get(last)).then((LookupTransformation) point));
+        } else if (combineMatrices && last >= 0 && point instanceof ColorTransformation
+                && pointRun.get(last) instanceof ColorTransformation) {
+          pointRun.set(last,
+                  ((ColorTransformation) pointRun.get(last)).combine((ColorTransformation) point));
+        } else {
+          pointRun.add(point);
+        }
+      } else {
+        addPointStage(pointRun);
+        this.stages.add(transformation);
+      }
+    }
+    addPointStage(pointRun);
+  }
+
+  /**
+   * Private helper method to add a run of point transformations as one stage and
+   *     empty the run.
+   *
+   * @param pointRun consecutive point transformations, possibly empty
+   */
+
+  private void addPointStage(List<IPointTransformation> pointRun) {
+    if (pointRun.size() == 1) {
+      this.stages.add(pointRun.get(0));
+    } else if (pointRun.size() > 1) {
+      this.stages.add(new FusedPointTransformation(new ArrayList<>(pointRun)));
+    }
+    pointRun.clear();
+  }
+
+  /**
+   * Returns the number of passes over the image this pipeline makes once
+   *     point transformations have been fused.
+   *
+   * @return the number of stages in this pipeline
+   */
+
+  public int getStageCount() {
+    return this.stages.size();
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    if (this.stages.isEmpty()) {
+      return sourceImage.copy();
+    }
+    IImageState image = sourceImage;
+    for (ITransformation stage : this.stages) {
+      image = new ParallelTransformation(stage, this.threadCount).run(image);
+    }
+    return image;
+  }
+
+  /**
+   * This class represents several point transformations fused into one. It
+   *     extends the point transformation abstract class and applies each
+   *     transformation to the row in turn.
+   */
+
+  private static class FusedPointTransformation extends PointTransformation {
+    private final List<IPointTransformation> transformations;
+
+    /**
+     * Construct a fused transformation of the given point transformations.
+     *
+     * @param transformations point transformations to apply, in order
+     */
+
+    private FusedPointTransformation(List<IPointTransformation> transformations) {
+      this.transformations = transformations;
+    }
+
+    @Override
+    public void applyToRow(int[] pixels, int length) {
+      for (IPointTransformation transformation : this.transformations) {
+        transformation.applyToRow(pixels, length);
+      }
+    }
+  }
+}
@@ -1,19 +1,18 @@
 package model.transformations;
 
-import model.IImage;
-import model.IImageState;
-import model.ImageImpl;
+import java.util.Arrays;
+
 import model.GreyscaleComponent;
 
 /**
  * This class represents an image value component transformation. It extends the
- * clamp abstract class and implements the ITransformation interface
+ * point transformation abstract class
  * and implements the mandated operation. Given a pixel channel
  * enum value (red, green, or blue), it updates all of the pixel channel values for each pixel
  * in the image to the value of the given pixel channel enum value (red, green, or blue).
  */
 
-public class ValueComponentTransformation extends Clamp implements ITransformation {
+public class ValueComponentTransformation extends PointTransformation {
 
   private final GreyscaleComponent greyscaleComponent;
 
@@ -31,27 +30,26 @@ public class ValueComponentTransformation extends Clamp implements ITransformati
 
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col ++) {
-        if (this.greyscaleComponent == GreyscaleComponent.RED) {
-          int newR = clamp(sourceImage.getRedChannel(row, col));
-          // set new rgb values
-          newImage.setPixel(row, col, newR, newR, newR);
-        } else if (this.greyscaleComponent == GreyscaleComponent.GREEN) {
-          int newG = clamp(sourceImage.getGreenChannel(row, col));
-          // set new rgb values
-          newImage.setPixel(row, col, newG, newG, newG);
-        } else if (this.greyscaleComponent == GreyscaleComponent.BLUE) {
-          int newB = clamp(sourceImage.getBlueChannel(row, col));
-          // set new rgb values
-          newImage.setPixel(row, col, newB, newB, newB);
-        }
-      }
+  public void applyToRow(int[] pixels, int length) {
+    // choose the bit offset of the selected channel once, outside the loop
+    int shift;
+    if (this.greyscaleComponent == GreyscaleComponent.RED) {
+      shift = 16;
+    } else if (this.greyscaleComponent == GreyscaleComponent.GREEN) {
+      shift = 8;
+    } else if (this.greyscaleComponent == GreyscaleComponent.BLUE) {
+      shift = 0;
+    } else {
+      // not a single channel component, the pixels are black as before
+      Arrays.fill(pixels, 0, length, 0);
+      return;
+    }
+
+    // iterate through the row and update pixel channels in place
+    for (int col = 0; col < length; col++) {
+      int component = (pixels[col] >> shift) & 0xFF;
+      // set new rgb values
+      pixels[col] = (component << 16) | (component << 8) | component;
     }
-    return newImage;
   }
 }
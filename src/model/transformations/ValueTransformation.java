@@ -1,17 +1,14 @@
 package model.transformations;
 
-import model.IImage;
-import model.IImageState;
-import model.ImageImpl;
 
 /**
  * This class represents an image value transformation. It extends the
- * clamp abstract class and implements the ITransformation interface and
+ * point transformation abstract class and
  * implements the mandated operation. It finds the maximum value of the
  * three components for each pixel and set that for each pixel chanel.
  */
 
-public class ValueTransformation extends Clamp implements ITransformation {
+public class ValueTransformation extends PointTransformation {
 
   /**
    * Construct a value transformation that find the maximum value of the
@@ -24,20 +21,18 @@ public class ValueTransformation extends Clamp implements ITransformation {
 
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    // iterate through image array and update pixel channels and set to new image
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col ++) {
-        int redChannel = clamp(sourceImage.getRedChannel(row, col));
-        int greenChannel = clamp(sourceImage.getGreenChannel(row, col));
-        int blueChannel = clamp(sourceImage.getBlueChannel(row, col));
-        int maxComponent = Math.max(redChannel, Math.max(greenChannel, blueChannel));
-        // set new rgb values
-        newImage.setPixel(row, col, maxComponent, maxComponent, maxComponent);
-      }
+  public void applyToRow(int[] pixels, int length) {
+
+    // the vector kernels, when loaded, do all but the last few pixels
+    RowOperations vector = VectorSupport.operations();
+    int start = vector == null ? 0 : vector.value(pixels, length);
+
+    // iterate through the row and update pixel channels in place
+    for (int col = start; col < length; col++) {
+      int rgb = pixels[col];
+      int maxComponent = Math.max((rgb >> 16) & 0xFF, Math.max((rgb >> 8) & 0xFF, rgb & 0xFF));
+      // set new rgb values
+      pixels[col] = (maxComponent << 16) | (maxComponent << 8) | maxComponent;
     }
-    return newImage;
   }
 }
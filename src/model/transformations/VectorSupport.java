@@ -0,0 +1,62 @@
+package model.transformations;
+
+/**
+ * This class finds the vector implementation of the point transformation kernels.
+ * It uses the incubating Java Vector API, so it is compiled from the simd source
+ * folder and only loads when the program runs with
+ * {@code --add-modules jdk.incubator.vector}. Without it, or when the ime.vector
+ * system property is false, brighten, luma, intensity, value, and the color
+ * matrices run their scalar loops, which give the same pixels.
+ */
+
+public final class VectorSupport {
+  private static final String IMPLEMENTATION = "model.transformations.VectorRowOperations";
+  private static final RowOperations OPERATIONS = load();
+
+  /**
+   * This class only has static methods.
+   */
+
+  private VectorSupport() {
+    // no instances
+  }
+
+  /**
+   * Private helper method to load the vector implementation.
+   *
+   * @return the vector kernels, or null if they are disabled or cannot be loaded
+   */
+
+  private static RowOperations load() {
+    if (!Boolean.parseBoolean(System.getProperty("ime.vector", "true"))) {
+      return null;
+    }
+    try {
+      return (RowOperations) Class.forName(IMPLEMENTATION).getDeclaredConstructor()
+              .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // not compiled in, the module is missing, or the platform has no vectors
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the point transformations run through the Vector API.
+   *
+   * @return true if the vector kernels are in use
+   */
+
+  public static boolean isAvailable() {
+    return OPERATIONS != null;
+  }
+
+  /**
+   * Returns the vector kernels.
+   *
+   * @return the vector kernels, or null if the scalar loops should be used
+   */
+
+  static RowOperations operations() {
+    return OPERATIONS;
+  }
+}
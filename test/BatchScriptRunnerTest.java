@@ -0,0 +1,169 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import controller.BatchScriptRunner;
+import controller.ExecutionMode;
+import controller.ScriptResult;
+import controller.io.PPMImageLoader;
+import model.IImageState;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the BatchScriptRunner class.
+ */
+
+public class BatchScriptRunnerTest {
+
+  /**
+   * Helper method to write a file in the given directory.
+   *
+   * @param directory directory to write to
+   * @param name file name
+   * @param content file content
+   * @return the file path
+   */
+
+  private Path write(Path directory, String name, String content) throws IOException {
+    return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Helper method to delete a directory and everything in it.
+   *
+   * @param directory directory to delete
+   */
+
+  private void deleteAll(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      List<Path> paths = new ArrayList<>();
+      files.forEach(paths::add);
+      paths.sort(Comparator.reverseOrder());
+      for (Path path : paths) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  /**
+   * Test case for running a directory of scripts in parallel. Each script uses
+   *     the same image IDs, which must not clash, and a failing script does not
+   *     stop the others.
+   */
+
+  @Test
+  public void testRunDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("batch-test");
+    try {
+      int scriptCount = 12;
+      for (int i = 0; i < scriptCount; i++) {
+        Path output = directory.resolve("out" + i + ".ppm");
+        write(directory, String.format("script%02d.txt", i),
+                "load res/fourbyfour.ppm image\n"
+                        + "brighten " + (i * 10) + " image image\n"
+                        + "save " + output + " image\n");
+      }
+      write(directory, "broken.txt", "load res/fourbyfour.ppm image\nblur missing other\n");
+      write(directory, "notes.md", "not a script");
+
+      List<Path> scripts = BatchScriptRunner.findScripts(directory);
+      assertEquals(scriptCount + 1, scripts.size());
+      assertTrue(scripts.get(0).endsWith("broken.txt"));
+      List<ScriptResult> results = new BatchScriptRunner(scripts, 4, ExecutionMode.EAGER).run();
+      assertEquals(scriptCount + 1, results.size());
+
+      ScriptResult broken = results.get(0);
+      assertFalse(broken.isSuccessful());
+      assertEquals(1, broken.getCompletedCount());
+      assertEquals(Collections.singletonList("Image with specified ID does not exist.\n"),
+              broken.getFailures());
+      for (int i = 0; i < scriptCount; i++) {
+        ScriptResult result = results.get(i + 1);
+        assertEquals(scripts.get(i + 1), result.getScript());
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getCompletedCount());
+        // each script brightened its own copy of the image
+        IImageState saved = new PPMImageLoader(directory.resolve("out" + i + ".ppm")
+                .toString()).run();
+        assertEquals(Math.min(255, i * 10), saved.getGreenChannel(0, 0));
+      }
+
+      StringBuilder report = new StringBuilder();
+      BatchScriptRunner.writeReport(results, report);
+      String[] lines = report.toString().split("\n");
+      assertEquals(scriptCount + 2, lines.length);
+      assertTrue(lines[0].startsWith("FAIL"));
+      assertTrue(lines[0].endsWith("Image with specified ID does not exist."));
+      assertTrue(lines[1].startsWith("OK"));
+      assertTrue(lines[scriptCount + 1].startsWith("13 scripts, 1 failed"));
+    } finally {
+      deleteAll(directory);
+    }
+  }
+
+  /**
+   * Test case for reading scripts from a manifest, including a missing script.
+   */
+
+  @Test
+  public void testRunManifest() throws IOException {
+    Path directory = Files.createTempDirectory("batch-test");
+    try {
+      Files.createDirectory(directory.resolve("scripts"));
+      write(directory, "scripts/a.txt", "load res/fourbyfour.ppm a\nsepia a b\n");
+      Path manifest = write(directory, "manifest",
+              "# nightly scripts\n\nscripts/a.txt\n" + directory.resolve("missing.txt") + "\n");
+      List<Path> scripts = BatchScriptRunner.findScripts(manifest);
+      assertEquals(Arrays.asList(directory.resolve("scripts/a.txt").toAbsolutePath(),
+              directory.resolve("missing.txt")), scripts);
+
+      List<ScriptResult> results = new BatchScriptRunner(scripts, 2, ExecutionMode.LAZY).run();
+      // lazily, nothing is saved so both commands are skipped
+      assertTrue(results.get(0).isSuccessful());
+      assertEquals(0, results.get(0).getCompletedCount());
+      assertEquals(Collections.singletonList("Unable to read script file\n"),
+              results.get(1).getFailures());
+    } finally {
+      deleteAll(directory);
+    }
+  }
+
+  /**
+   * Test case for invalid arguments.
+   */
+
+  @Test
+  public void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BatchScriptRunner(null, 1, ExecutionMode.EAGER);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BatchScriptRunner(Collections.emptyList(), 0, ExecutionMode.EAGER);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BatchScriptRunner(Collections.emptyList(), 1, null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BatchScriptRunner(Arrays.asList((Path) null), 1, ExecutionMode.EAGER);
+    });
+    assertThrows(IllegalStateException.class, () -> {
+      BatchScriptRunner.findScripts(Paths.get("res/missing-manifest"));
+    });
+    assertEquals(0, new BatchScriptRunner(Collections.emptyList(), 1, ExecutionMode.EAGER)
+            .run().size());
+  }
+}
@@ -0,0 +1,216 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import model.BoundedModelImpl;
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * A JUnit test class for the BoundedModelImpl class.
+ */
+
+public class BoundedModelImplTest {
+
+  /**
+   * Helper method to create an image where every pixel has the given value in
+   *     each channel, apart from the last pixel which is 1, 2, 3.
+   *
+   * @param width width of the image
+   * @param height height of the image
+   * @param value channel value
+   * @return the image
+   */
+
+  private IImageState image(int width, int height, int value) {
+    IImage image = new PackedImageImpl(width, height);
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        image.setPixel(row, col, value, value, value);
+      }
+    }
+    image.setPixel(height - 1, width - 1, 1, 2, 3);
+    return image;
+  }
+
+  /**
+   * Helper method to count the files in a directory.
+   *
+   * @param directory directory to list
+   * @return the number of files in it
+   */
+
+  private long fileCount(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  /**
+   * Test case for spilling the least recently used images once the budget is
+   *     exceeded, and reloading them when they are asked for.
+   */
+
+  @Test
+  public void testSpillAndReload() throws IOException {
+    Path directory = Files.createTempDirectory("bounded-model-test");
+    // each 10 x 10 image is 400 bytes, so two fit
+    try (BoundedModelImpl model = new BoundedModelImpl(800, directory)) {
+      model.addImage("a", image(10, 10, 50));
+      model.addImage("b", image(10, 10, 100));
+      assertEquals(0, model.getSpillCount());
+      assertEquals(800, model.getResidentBytes());
+
+      // using a makes b the least recently used image
+      assertEquals(50, model.getImage("a").getRedChannel(0, 0));
+      assertEquals(1, model.getHitCount());
+      model.addImage("c", image(10, 10, 150));
+      assertEquals(1, model.getSpillCount());
+      assertEquals(1, model.getSpilledImageCount());
+      assertEquals(1, fileCount(directory));
+      assertEquals(800, model.getResidentBytes());
+
+      // b comes back from disk and a is spilled in its place
+      IImageState b = model.getImage("b");
+      assertEquals(1, model.getReloadCount());
+      assertEquals(10, b.getWidth());
+      assertEquals(10, b.getHeight());
+      assertEquals(100, b.getGreenChannel(5, 5));
+      assertEquals(1, b.getRedChannel(9, 9));
+      assertEquals(2, b.getGreenChannel(9, 9));
+      assertEquals(3, b.getBlueChannel(9, 9));
+      assertEquals(2, model.getSpillCount());
+      assertEquals(1, fileCount(directory));
+      assertEquals(50, model.getImage("a").getBlueChannel(0, 0));
+      assertEquals(2, model.getReloadCount());
+      assertNull(model.getImage("d"));
+
+      // replacing a spilled image deletes its file
+      model.addImage("b", image(10, 10, 7));
+      assertEquals(7, model.getImage("b").getRedChannel(0, 0));
+    } finally {
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  /**
+   * Test case for a spilled image whose file cannot be read staying spilled, so
+   *     it can be reloaded once the file is readable again.
+   */
+
+  @Test
+  public void testFailedReloadKeepsFile() throws IOException {
+    Path directory = Files.createTempDirectory("bounded-model-test");
+    try (BoundedModelImpl model = new BoundedModelImpl(400, directory)) {
+      model.addImage("a", image(10, 10, 50));
+      model.addImage("b", image(10, 10, 100));
+      Path file;
+      try (Stream<Path> files = Files.list(directory)) {
+        file = files.findFirst().get();
+      }
+      byte[] contents = Files.readAllBytes(file);
+      Files.write(file, new byte[] {0, 0, 0, 10});
+
+      assertThrows(IllegalStateException.class, () -> {
+        model.getImage("a");
+      });
+      assertEquals(1, model.getSpilledImageCount());
+      assertEquals(1, fileCount(directory));
+      assertEquals(0, model.getReloadCount());
+
+      Files.write(file, contents);
+      assertEquals(50, model.getImage("a").getRedChannel(0, 0));
+      assertEquals(1, model.getReloadCount());
+      assertEquals(1, fileCount(directory));
+    } finally {
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  /**
+   * Test case for closing the model deleting the spilled image files and leaving
+   *     an empty model that can still be used.
+   */
+
+  @Test
+  public void testClose() throws IOException {
+    Path directory = Files.createTempDirectory("bounded-model-test");
+    BoundedModelImpl model = new BoundedModelImpl(400, directory);
+    try {
+      model.addImage("a", image(10, 10, 50));
+      model.addImage("b", image(10, 10, 100));
+      assertEquals(1, fileCount(directory));
+      model.close();
+      assertEquals(0, fileCount(directory));
+      assertEquals(0, model.getResidentBytes());
+      assertEquals(0, model.getSpilledImageCount());
+      assertNull(model.getImage("a"));
+      assertNull(model.getImage("b"));
+
+      model.addImage("c", image(10, 10, 150));
+      assertEquals(150, model.getImage("c").getRedChannel(0, 0));
+    } finally {
+      model.close();
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  /**
+   * Test case for an image larger than the budget staying in memory while it
+   *     is in use.
+   */
+
+  @Test
+  public void testImageLargerThanBudget() {
+    try (BoundedModelImpl model = new BoundedModelImpl(100)) {
+      model.addImage("small", image(2, 2, 9));
+      model.addImage("large", image(20, 10, 30));
+      assertEquals(800, model.getResidentBytes());
+      assertEquals(1, model.getSpilledImageCount());
+      assertEquals(30, model.getImage("large").getRedChannel(0, 0));
+      assertEquals(9, model.getImage("small").getRedChannel(0, 0));
+      assertEquals(1, model.getSpilledImageCount());
+      assertEquals(16, model.getResidentBytes());
+      // removing an image drops it whether it is in memory or on disk
+      model.removeImage("large");
+      assertEquals(0, model.getSpilledImageCount());
+      assertNull(model.getImage("large"));
+      model.removeImage("small");
+      assertEquals(0, model.getResidentBytes());
+      assertNull(model.getImage("small"));
+    }
+  }
+
+  /**
+   * Test case for invalid arguments.
+   */
+
+  @Test
+  public void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BoundedModelImpl(0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BoundedModelImpl(100, null);
+    });
+    try (BoundedModelImpl model = new BoundedModelImpl(100)) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        model.addImage(null, image(1, 1, 0));
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        model.addImage("a", null);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        model.removeImage(null);
+      });
+    }
+  }
+}
@@ -0,0 +1,161 @@
+import org.junit.Test;
+
+import model.EdgeMode;
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+import model.kernel.KernelImpl;
+import model.transformations.BoxBlurTransformation;
+import model.transformations.FilterTransformation;
+import model.transformations.ParallelTransformation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the BoxBlurTransformation class.
+ */
+
+public class BoxBlurTransformationTest {
+
+  /**
+   * Helper method to return the 1D kernel of box blurs of the given radii run in
+   *     turn.
+   *
+   * @param radii radius of each box
+   * @return the combined kernel
+   */
+
+  private double[] combinedBox(int[] radii) {
+    double[] kernel = {1};
+    for (int radius : radii) {
+      int window = 2 * radius + 1;
+      double[] next = new double[kernel.length + window - 1];
+      for (int i = 0; i < kernel.length; i++) {
+        for (int j = 0; j < window; j++) {
+          next[i + j] += kernel[i] / window;
+        }
+      }
+      kernel = next;
+    }
+    return kernel;
+  }
+
+  /**
+   * Helper method to assert that two images differ by at most 1 in every channel.
+   *
+   * @param expected expected image
+   * @param actual actual image
+   */
+
+  private void assertClose(IImageState expected, IImageState actual) {
+    int[] expectedPixels = TestImages.pixels(expected);
+    int[] actualPixels = TestImages.pixels(actual);
+    assertEquals(expectedPixels.length, actualPixels.length);
+    for (int i = 0; i < expectedPixels.length; i++) {
+      for (int shift = 0; shift <= 16; shift += 8) {
+        int difference = ((expectedPixels[i] >> shift) & 0xFF)
+                - ((actualPixels[i] >> shift) & 0xFF);
+        assertTrue("pixel " + i + " differs by " + difference, Math.abs(difference) <= 1);
+      }
+    }
+  }
+
+  /**
+   * Test case for box blurs matching the filter transformation with the combined
+   *     kernel of every pass, for each edge mode.
+   */
+
+  @Test
+  public void testMatchesCombinedKernel() {
+    IImageState source = TestImages.randomImage(23, 17, 11);
+    int[][] radiiCases = {{1}, {4}, {2, 3, 2}, {0, 5}, {12}};
+    for (EdgeMode edgeMode : EdgeMode.values()) {
+      for (int[] radii : radiiCases) {
+        double[] kernel = combinedBox(radii);
+        IImageState expected = new FilterTransformation(new KernelImpl(kernel, kernel), edgeMode)
+                .run(source);
+        assertClose(expected, new BoxBlurTransformation(radii, edgeMode).run(source));
+      }
+    }
+  }
+
+  /**
+   * Test case for running the blur in bands on several threads giving the same
+   *     image as running it once.
+   */
+
+  @Test
+  public void testBandsMatchSerial() {
+    IImageState source = TestImages.randomImage(40, 61, 11);
+    BoxBlurTransformation blur = BoxBlurTransformation.gaussian(4, EdgeMode.MIRROR);
+    assertArrayEquals(TestImages.pixels(blur.run(source)),
+            TestImages.pixels(new ParallelTransformation(blur, 5).run(source)));
+  }
+
+  /**
+   * Test case for the box sizes chosen to approximate a Gaussian.
+   */
+
+  @Test
+  public void testGaussianRadii() {
+    assertArrayEquals(new int[] {0, 0, 0}, BoxBlurTransformation.gaussian(0, EdgeMode.CLAMP)
+            .getRadii());
+    for (double sigma : new double[] {1, 2.5, 5, 20}) {
+      int[] radii = BoxBlurTransformation.gaussian(sigma, EdgeMode.CLAMP).getRadii();
+      assertEquals(3, radii.length);
+      // the variance of a box of width w is (w * w - 1) / 12
+      double variance = 0;
+      for (int radius : radii) {
+        int window = 2 * radius + 1;
+        variance += (window * window - 1) / 12.0;
+      }
+      assertEquals(sigma * sigma, variance, 1 + sigma);
+      assertTrue(radii[2] - radii[0] <= 1);
+    }
+  }
+
+  /**
+   * Test case for a radius of 0 leaving the image unchanged and for a uniform
+   *     image staying uniform with clamped edges.
+   */
+
+  @Test
+  public void testUnchangedImages() {
+    IImageState source = TestImages.randomImage(9, 7, 11);
+    assertArrayEquals(TestImages.pixels(source),
+            TestImages.pixels(new BoxBlurTransformation(0, EdgeMode.ZERO).run(source)));
+
+    IImage uniform = new PackedImageImpl(8, 5);
+    for (int row = 0; row < 5; row++) {
+      for (int col = 0; col < 8; col++) {
+        uniform.setPixel(row, col, 10, 200, 99);
+      }
+    }
+    IImageState blurred = new BoxBlurTransformation(new int[] {3, 20}, EdgeMode.CLAMP)
+            .run(uniform);
+    assertArrayEquals(TestImages.pixels(uniform), TestImages.pixels(blurred));
+  }
+
+  /**
+   * Test case for invalid radii, sigma, and edge mode.
+   */
+
+  @Test
+  public void testInvalidBoxBlur() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new BoxBlurTransformation(-1, EdgeMode.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> new BoxBlurTransformation(2, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new BoxBlurTransformation(new int[0], EdgeMode.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> new BoxBlurTransformation(null, EdgeMode.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> BoxBlurTransformation.gaussian(-2, EdgeMode.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> BoxBlurTransformation.gaussian(Double.NaN, EdgeMode.ZERO));
+  }
+}
@@ -0,0 +1,180 @@
+import org.junit.Test;
+
+import controller.io.IImageLoader;
+import controller.io.OtherImageTypeLoader;
+import controller.io.PPMImageLoader;
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+import model.kernel.KernelImpl;
+import model.transformations.ColorTransformation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the ColorTransformation class.
+ */
+
+public class ColorTransformationTest {
+
+  private final double[][] sepia = {
+      {0.393, 0.769, 0.189},
+      {0.349, 0.686, 0.168},
+      {0.272, 0.534, 0.131}
+  };
+  private final double[][] greyscale = {
+      {0.2126, 0.7152, 0.0722},
+      {0.2126, 0.7152, 0.0722},
+      {0.2126, 0.7152, 0.0722}
+  };
+
+  /**
+   * Helper method to assert that a color transformation gives every pixel of an
+   *     image the value of r * m[0] + (g * m[1] + (b * m[2] + offset)) rounded with
+   *     Math.round, cast to int, and clamped, the way the transformation has always
+   *     computed it.
+   *
+   * @param source image to transform
+   * @param matrix 3 x 3 matrix
+   * @param offsets offset of each channel
+   */
+
+  private void assertMatchesDouble(IImageState source, double[][] matrix, double[] offsets) {
+    IImageState result = new ColorTransformation(new KernelImpl(matrix), offsets).run(source);
+    for (int row = 0; row < source.getHeight(); row++) {
+      for (int col = 0; col < source.getWidth(); col++) {
+        int red = source.getRedChannel(row, col);
+        int green = source.getGreenChannel(row, col);
+        int blue = source.getBlueChannel(row, col);
+        int[] expected = new int[3];
+        for (int i = 0; i < 3; i++) {
+          // sums past the int range wrap around before they are clamped
+          int value = (int) Math.round(red * matrix[i][0]
+                  + (green * matrix[i][1] + (blue * matrix[i][2] + offsets[i])));
+          expected[i] = Math.max(0, Math.min(255, value));
+        }
+        assertEquals(expected[0], result.getRedChannel(row, col));
+        assertEquals(expected[1], result.getGreenChannel(row, col));
+        assertEquals(expected[2], result.getBlueChannel(row, col));
+      }
+    }
+  }
+
+  /**
+   * Helper method to create an image with every combination of the given channel
+   *     values.
+   *
+   * @param values channel values to combine
+   * @return an image with one pixel per combination
+   */
+
+  private IImageState combinations(int[] values) {
+    int count = values.length;
+    IImage image = new PackedImageImpl(count * count, count);
+    for (int red = 0; red < count; red++) {
+      for (int green = 0; green < count; green++) {
+        for (int blue = 0; blue < count; blue++) {
+          image.setPixel(red, green * count + blue, values[red], values[green], values[blue]);
+        }
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Test case for the sepia and greyscale matrices giving exactly the pixels of the
+   *     double computation on the test images.
+   */
+
+  @Test
+  public void testMatchesDoubleOnTestImages() {
+    IImageLoader[] loaders = {
+        new PPMImageLoader("res/strawberry.ppm"),
+        new OtherImageTypeLoader("res/bagel.png"),
+        new OtherImageTypeLoader("res/logan.jpeg")
+    };
+    for (IImageLoader loader : loaders) {
+      IImageState source = loader.run();
+      assertMatchesDouble(source, this.sepia, new double[3]);
+      assertMatchesDouble(source, this.greyscale, new double[3]);
+    }
+  }
+
+  /**
+   * Test case for matrices and offsets whose sums land exactly on halves, go
+   *     negative, or are too large for fixed point.
+   */
+
+  @Test
+  public void testMatchesDoubleAtRoundingBoundaries() {
+    int[] values = new int[52];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i * 5;
+    }
+    IImageState source = combinations(values);
+    assertMatchesDouble(source, new double[][] {{0.5, 0, 0}, {0, 0.25, 0.25}, {0.125, 0.5, 0}},
+            new double[] {0, 0.5, -0.5});
+    assertMatchesDouble(source, new double[][] {{1.0 / 3, 1.0 / 3, 1.0 / 3}, {-1, 2, 0},
+        {0.1, 0.2, 0.7}}, new double[] {0.1, -20, 7.5});
+    assertMatchesDouble(source, new double[][] {{1e12, 1, 1}, {-3, 2, 2}, {0, 0, 1}},
+            new double[] {0, 0, 1e15});
+    assertMatchesDouble(source, this.sepia, new double[] {-10.25, 3, 40});
+  }
+
+  /**
+   * Test case for identity matrices with and without offsets.
+   */
+
+  @Test
+  public void testIdentity() {
+    double[][] identity = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+    assertTrue(new ColorTransformation(new KernelImpl(identity)).isIdentity());
+    assertFalse(new ColorTransformation(new KernelImpl(identity), new double[] {0, 1, 0})
+            .isIdentity());
+    assertFalse(new ColorTransformation(new KernelImpl(this.sepia)).isIdentity());
+  }
+
+  /**
+   * Test case for combining transformations with offsets giving the transformation
+   *     of the combined matrix and offsets.
+   */
+
+  @Test
+  public void testCombineOffsets() {
+    double[][] swap = {{0, 1, 0}, {1, 0, 0}, {0, 0, 1}};
+    ColorTransformation first = new ColorTransformation(new KernelImpl(swap),
+            new double[] {10, 20, 30});
+    ColorTransformation second = new ColorTransformation(new KernelImpl(swap),
+            new double[] {1, 2, 3});
+    // swapping twice gives the identity, and the first offsets are swapped too
+    ColorTransformation combined = first.combine(second);
+    IImageState source = combinations(new int[] {0, 7, 100, 200, 255});
+    IImageState result = combined.run(source);
+    for (int row = 0; row < source.getHeight(); row++) {
+      for (int col = 0; col < source.getWidth(); col++) {
+        assertEquals(Math.min(255, source.getRedChannel(row, col) + 21),
+                result.getRedChannel(row, col));
+        assertEquals(Math.min(255, source.getGreenChannel(row, col) + 12),
+                result.getGreenChannel(row, col));
+        assertEquals(Math.min(255, source.getBlueChannel(row, col) + 33),
+                result.getBlueChannel(row, col));
+      }
+    }
+  }
+
+  /**
+   * Test case for a null kernel and invalid offsets.
+   */
+
+  @Test
+  public void testInvalidColorTransformation() {
+    assertThrows(IllegalArgumentException.class, () -> new ColorTransformation(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ColorTransformation(new KernelImpl(this.sepia), null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ColorTransformation(new KernelImpl(this.sepia), new double[2]));
+  }
+}
@@ -0,0 +1,218 @@
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import controller.ControllerImpl;
+import model.ConcurrentModelImpl;
+import model.IImage;
+import model.IModel;
+import model.ModelImpl;
+import model.PackedImageImpl;
+import view.ImageTextView;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the ConcurrentModelImpl class.
+ */
+
+public class ConcurrentModelImplTest {
+  private static final int THREADS = 8;
+
+  /**
+   * Helper method to run the same task on several threads at once and wait for
+   *     all of them, rethrowing the first failure.
+   *
+   * @param task task to run, given the index of its thread
+   */
+
+  private void runConcurrently(ThreadTask task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        int thread = i;
+        Callable<Void> callable = () -> {
+          // release every thread together to maximise contention
+          start.await();
+          task.run(thread);
+          return null;
+        };
+        results.add(executor.submit(callable));
+      }
+      start.countDown();
+      for (Future<Void> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Helper method to return the script run by one thread.
+   *
+   * @param thread index of the thread
+   * @return script that derives several images from the shared source
+   */
+
+  private String script(int thread) {
+    return "brighten " + (thread * 10) + " source bright" + thread + "\n"
+            + "sepia bright" + thread + " sepia" + thread + "\n"
+            + "blur sepia" + thread + " blur" + thread + "\n"
+            + "red-component blur" + thread + " shared\n";
+  }
+
+  /**
+   * Test case for controllers running scripts in parallel against one model,
+   *     reading a shared source image and each writing their own images.
+   */
+
+  @Test
+  public void testParallelScriptSessions() throws Exception {
+    ConcurrentModelImpl model = new ConcurrentModelImpl();
+    IImage source = new PackedImageImpl(64, 48);
+    for (int row = 0; row < 48; row++) {
+      for (int col = 0; col < 64; col++) {
+        source.setPixel(row, col, (row * 5) % 256, (col * 3) % 256, (row + col) % 256);
+      }
+    }
+    model.addImage("source", source);
+
+    for (int round = 0; round < 5; round++) {
+      runConcurrently(thread -> {
+        ControllerImpl controller = new ControllerImpl(new StringReader(script(thread)),
+                model, new ImageTextView(model, new StringBuilder()));
+        controller.run();
+      });
+    }
+
+    // every image matches the same script run alone
+    for (int thread = 0; thread < THREADS; thread++) {
+      IModel expected = new ModelImpl();
+      expected.addImage("source", source);
+      new ControllerImpl(new StringReader(script(thread)), expected,
+              new ImageTextView(expected, new StringBuilder())).run();
+      assertArrayEquals(TestImages.pixels(expected.getImage("blur" + thread)),
+              TestImages.pixels(model.getImage("blur" + thread)));
+      assertEquals(5, model.getVersion("blur" + thread));
+    }
+    assertEquals(1, model.getVersion("source"));
+    assertEquals(5 * THREADS, model.getVersion("shared"));
+  }
+
+  /**
+   * Test case for many threads updating one image with replaceImage, so that
+   *     no update is lost.
+   */
+
+  @Test
+  public void testReplaceImageUnderContention() throws Exception {
+    ConcurrentModelImpl model = new ConcurrentModelImpl();
+    int updates = 500;
+    assertTrue(model.replaceImage("counter", 0, new PackedImageImpl(1, 1)));
+    assertFalse(model.replaceImage("counter", 0, new PackedImageImpl(1, 1)));
+
+    runConcurrently(thread -> {
+      int[] value = new int[1];
+      for (int i = 0; i < updates; i++) {
+        // read, add one, and retry if another thread stored a value first
+        boolean stored = false;
+        while (!stored) {
+          ConcurrentModelImpl.VersionedImage current = model.getVersionedImage("counter");
+          current.getImage().readRow(0, value);
+          IImage next = new PackedImageImpl(1, 1);
+          next.writeRow(0, new int[] {value[0] + 1});
+          stored = model.replaceImage("counter", current.getVersion(), next);
+        }
+      }
+    });
+
+    int[] value = new int[1];
+    model.getImage("counter").readRow(0, value);
+    assertEquals(THREADS * updates, value[0]);
+    assertEquals(THREADS * updates + 1, model.getVersion("counter"));
+  }
+
+  /**
+   * Test case for versions and invalid arguments.
+   */
+
+  @Test
+  public void testVersions() {
+    ConcurrentModelImpl model = new ConcurrentModelImpl();
+    assertEquals(0, model.getVersion("a"));
+    assertNull(model.getImage("a"));
+    assertNull(model.getVersionedImage(null));
+    IImage image = new PackedImageImpl(1, 1);
+    model.addImage("a", image);
+    model.addImage("a", image);
+    assertEquals(2, model.getVersion("a"));
+    assertFalse(model.replaceImage("a", 1, image));
+    assertTrue(model.replaceImage("a", 2, image));
+    assertEquals(3, model.getVersionedImage("a").getVersion());
+    // the model keeps its own copy and hands out copies
+    image.setPixel(0, 0, 9, 9, 9);
+    assertEquals(0, model.getImage("a").getRedChannel(0, 0));
+    model.getImage("a").getPixel(0, 0).setR(9);
+    ((IImage) model.getVersionedImage("a").getImage()).setPixel(0, 0, 9, 9, 9);
+    assertEquals(0, model.getImage("a").getRedChannel(0, 0));
+    assertEquals(3, model.getVersion("a"));
+
+    // a removed image has no version, but storing it again does not reuse one
+    model.removeImage("a");
+    model.removeImage("a");
+    assertNull(model.getImage("a"));
+    assertNull(model.getVersionedImage("a"));
+    assertEquals(0, model.getVersion("a"));
+    assertFalse(model.replaceImage("a", 3, image));
+    assertTrue(model.replaceImage("a", 0, image));
+    assertEquals(4, model.getVersion("a"));
+    assertFalse(model.replaceImage("a", 0, image));
+    model.removeImage("a");
+    model.addImage("a", image);
+    assertEquals(5, model.getVersion("a"));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      model.addImage(null, image);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      model.removeImage(null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      model.replaceImage("a", -1, image);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      model.replaceImage("a", 1, null);
+    });
+  }
+
+  /**
+   * This interface represents work done by one thread of a concurrent test.
+   */
+
+  private interface ThreadTask {
+
+    /**
+     * Runs the work for one thread.
+     *
+     * @param thread index of the thread
+     * @throws Exception if the work fails
+     */
+
+    void run(int thread) throws Exception;
+  }
+}
@@ -1,27 +1,61 @@
 import org.junit.Test;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+import javax.imageio.ImageIO;
+
+import controller.CommandGraph;
+import controller.CommandMetrics;
+import controller.CommandRecord;
+import controller.CommandScheduler;
+import controller.ImageUtil;
 import controller.ControllerImpl;
+import controller.ExecutionMode;
 import controller.IController;
 import controller.io.IImageLoader;
 import controller.io.IImageSaver;
 import controller.io.OtherImageTypeLoader;
 import controller.io.OtherImageTypeSaver;
+import controller.io.PPMFormat;
 import controller.io.PPMImageLoader;
 import controller.io.PPMImageSaver;
+import controller.io.PPMTokenizer;
+import controller.commands.Blur;
+import controller.commands.ConvolveCommand;
+import controller.commands.EditBrightness;
+import controller.commands.LoadImageCommand;
+import controller.commands.SaveImageCommand;
+import model.EdgeMode;
 import model.IImageState;
 import model.IModel;
 import model.ModelImpl;
+import model.PackedImageImpl;
+import model.kernel.KernelImpl;
+import model.transformations.BoxBlurTransformation;
+import model.transformations.FilterTransformation;
+import model.transformations.LookupTransformation;
 import view.ImageView;
 import view.ImageTextView;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 /**
  * A JUnit test class for the IController interface and other methods in controller package.
@@ -1075,4 +1109,774 @@ public class ControllerTest {
       assertNotNull(e.getMessage());
     }
   }
+
+  /**
+   * Test case for the command graph finding which commands a save depends on.
+   */
+
+  @Test
+  public void testCommandGraph() {
+    CommandGraph graph = new CommandGraph();
+    graph.add(new LoadImageCommand(), new String[] {"res/fourbyfour.ppm", "a"});
+    graph.add(new Blur(), new String[] {"a", "unused"});
+    graph.add(new EditBrightness(), new String[] {"10", "a", "b"});
+    // overwriting b means the save reads this version only
+    graph.add(new Blur(), new String[] {"b", "b"});
+    graph.add(new SaveImageCommand(), new String[] {"out.ppm", "b"});
+    graph.add(new Blur(), new String[] {"b", "after"});
+    // missing argument, kept so its error is reported
+    graph.add(new Blur(), new String[] {"a"});
+    graph.add(null, new String[] {"a"});
+    boolean[] expected = {true, false, true, true, true, false, true, false};
+    boolean[] required = graph.findRequired();
+    assertEquals(expected.length, required.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], required[i]);
+    }
+    // the skipped blur of b does not count as a reader
+    assertArrayEquals(new int[] {2, -1, 3, 4, -1, -1, -1, -1}, graph.findOnlyReaders(required));
+    // a is released after the brighten; the first b is overwritten and the second is saved
+    List<List<String>> released = graph.findReleasedImages(required);
+    assertEquals(expected.length, released.size());
+    for (int i = 0; i < released.size(); i++) {
+      assertEquals(i == 2 ? List.of("a") : List.of(), released.get(i));
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      graph.add(new Blur(), null);
+    });
+  }
+
+  /**
+   * Test case for lazy execution skipping commands whose results are never saved
+   *     while producing the same saved image as eager execution.
+   */
+
+  @Test
+  public void testLazyExecution() throws IOException {
+    File saveFile = File.createTempFile("lazy", ".ppm");
+    saveFile.deleteOnExit();
+    String script = "load res/fourbyfour.ppm a\n"
+            + "luma a unused\n"
+            + "\n"
+            + "blur a b\n"
+            + "brighten 10 b c\n"
+            + "save " + saveFile.getPath() + " c\n"
+            + "sharpen c unsaved\n"
+            + "bogus a b\n";
+
+    IModel lazyModel = new ModelImpl();
+    Appendable lazyOutput = new StringBuilder();
+    IController lazyController = new ControllerImpl(new StringReader(script), lazyModel,
+            new ImageTextView(lazyModel, lazyOutput), ExecutionMode.LAZY);
+    lazyController.run();
+    String expectedOutput = "Command completed successfully\n"
+            + "Command skipped, result is never saved\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command skipped, result is never saved\n"
+            + "Invalid command. Please enter a valid command.\n";
+    assertEquals(expectedOutput, lazyOutput.toString());
+    assertNull(lazyModel.getImage("unused"));
+    assertNull(lazyModel.getImage("unsaved"));
+    // intermediates are removed once no later command reads them
+    assertNull(lazyModel.getImage("a"));
+    assertNull(lazyModel.getImage("b"));
+    assertFalse(saveFile.length() == 0);
+
+    IModel eagerModel = new ModelImpl();
+    IController eagerController = new ControllerImpl(new StringReader(script), eagerModel,
+            new ImageTextView(eagerModel, new StringBuilder()));
+    eagerController.run();
+    IImageState lazyImage = lazyModel.getImage("c");
+    IImageState eagerImage = eagerModel.getImage("c");
+    int[] lazyPixels = new int[16];
+    int[] eagerPixels = new int[16];
+    lazyImage.copyRegion(0, 0, 4, 4, lazyPixels);
+    eagerImage.copyRegion(0, 0, 4, 4, eagerPixels);
+    assertArrayEquals(eagerPixels, lazyPixels);
+
+    // errors from commands that run are still reported in order
+    IModel model = new ModelImpl();
+    Appendable output = new StringBuilder();
+    IController controller = new ControllerImpl(new StringReader("save out.ppm missing\nblur a"),
+            model, new ImageTextView(model, output), ExecutionMode.LAZY);
+    controller.run();
+    assertEquals("Image with specified ID does not exist.\n"
+            + "Third argument must be destination id.\n", output.toString());
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ControllerImpl(new StringReader(""), model, new ImageTextView(model, output), null);
+    });
+  }
+
+  /**
+   * Test case for lazy execution running a chain of point commands as one pipeline
+   *     that gives the same image as running them one by one.
+   */
+
+  @Test
+  public void testLazyFusedPointCommands() throws IOException {
+    File saveFile = File.createTempFile("fused", ".ppm");
+    saveFile.deleteOnExit();
+    String script = "load res/fourbyfour.ppm a\n"
+            + "brighten 10 a b\n"
+            + "luma b c\n"
+            + "load res/fourbyfour.png a\n"
+            + "sepia c d\n"
+            + "save " + saveFile.getPath() + " d\n"
+            + "gamma 0.5 d e\n"
+            + "save " + saveFile.getPath() + " e\n"
+            + "save " + saveFile.getPath() + " a\n";
+
+    CommandMetrics metrics = new CommandMetrics();
+    IModel lazyModel = new ModelImpl();
+    Appendable lazyOutput = new StringBuilder();
+    new ControllerImpl(new StringReader(script), lazyModel,
+            new ImageTextView(lazyModel, lazyOutput), ExecutionMode.LAZY, metrics).run();
+    IModel eagerModel = new ModelImpl();
+    Appendable eagerOutput = new StringBuilder();
+    new ControllerImpl(new StringReader(script), eagerModel,
+            new ImageTextView(eagerModel, eagerOutput)).run();
+    assertEquals(eagerOutput.toString(), lazyOutput.toString());
+    List<String> names = new ArrayList<>();
+    for (CommandRecord record : metrics.getRecords()) {
+      names.add(record.getCommandName());
+    }
+    // the chain runs where its last command is, reading the a it started from;
+    // d is saved as well as read, so the gamma runs alone
+    assertEquals(Arrays.asList("load", "load", "brighten+luma+sepia", "save", "gamma", "save",
+            "save"), names);
+
+    // the images in between are never built
+    assertNull(lazyModel.getImage("b"));
+    assertNull(lazyModel.getImage("c"));
+    int[] lazyPixels = new int[16];
+    int[] eagerPixels = new int[16];
+    for (String imageID : new String[] {"a", "d", "e"}) {
+      lazyModel.getImage(imageID).copyRegion(0, 0, 4, 4, lazyPixels);
+      eagerModel.getImage(imageID).copyRegion(0, 0, 4, 4, eagerPixels);
+      assertArrayEquals(imageID, eagerPixels, lazyPixels);
+    }
+  }
+
+  /**
+   * Test case for the command scheduler finding which earlier commands each
+   *     command must wait for.
+   */
+
+  @Test
+  public void testCommandScheduler() {
+    CommandScheduler scheduler = new CommandScheduler(2);
+    scheduler.add(new LoadImageCommand(), new String[] {"res/fourbyfour.ppm", "a"});
+    scheduler.add(new LoadImageCommand(), new String[] {"res/fourbyfour.png", "b"});
+    scheduler.add(new Blur(), new String[] {"a", "a1"});
+    scheduler.add(new EditBrightness(), new String[] {"10", "b", "b1"});
+    // writing a must wait for the blur that reads the old a
+    scheduler.add(new Blur(), new String[] {"b1", "a"});
+    scheduler.add(new SaveImageCommand(), new String[] {"out.ppm", "a"});
+    // loading a file waits for the save that writes it
+    scheduler.add(new LoadImageCommand(), new String[] {"./out.ppm", "c"});
+    scheduler.add(new SaveImageCommand(), new String[] {"res/fourbyfour.ppm", "a1"});
+    scheduler.add(new Blur(), new String[] {"a"});
+    scheduler.add(null, new String[] {"a"});
+    assertEquals(10, scheduler.size());
+    assertEquals(new HashSet<>(), scheduler.getDependencies(0));
+    assertEquals(new HashSet<>(), scheduler.getDependencies(1));
+    assertEquals(new HashSet<>(Arrays.asList(0)), scheduler.getDependencies(2));
+    assertEquals(new HashSet<>(Arrays.asList(1)), scheduler.getDependencies(3));
+    assertEquals(new HashSet<>(Arrays.asList(0, 2, 3)), scheduler.getDependencies(4));
+    assertEquals(new HashSet<>(Arrays.asList(4)), scheduler.getDependencies(5));
+    assertEquals(new HashSet<>(Arrays.asList(5)), scheduler.getDependencies(6));
+    // overwriting a file waits for the load that reads it
+    assertEquals(new HashSet<>(Arrays.asList(0, 2)), scheduler.getDependencies(7));
+    assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7)),
+            scheduler.getDependencies(8));
+    assertEquals(new HashSet<>(), scheduler.getDependencies(9));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new CommandScheduler(0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      scheduler.add(new Blur(), null);
+    });
+  }
+
+  /**
+   * Test case for parallel execution giving the same messages, in the same order,
+   *     and the same images as eager execution.
+   */
+
+  @Test
+  public void testParallelExecution() throws IOException {
+    File saveFile = File.createTempFile("parallel", ".ppm");
+    saveFile.deleteOnExit();
+    StringBuilder script = new StringBuilder("load res/fourbyfour.ppm a\n"
+            + "load res/fourbyfour.png b\n");
+    for (int i = 0; i < 10; i++) {
+      script.append("blur a a").append(i).append("\n")
+              .append("sepia b b").append(i).append("\n")
+              .append("brighten ").append(i).append(" a").append(i).append(" a\n");
+    }
+    script.append("save ").append(saveFile.getPath()).append(" a\n")
+            .append("load ").append(saveFile.getPath()).append(" c\n")
+            .append("sharpen missing d\n")
+            .append("bogus a b\n")
+            .append("luma c c extra\n")
+            .append("blur c\n");
+
+    IModel parallelModel = new ModelImpl();
+    Appendable parallelOutput = new StringBuilder();
+    new ControllerImpl(new StringReader(script.toString()), parallelModel,
+            new ImageTextView(parallelModel, parallelOutput), ExecutionMode.PARALLEL).run();
+    IModel eagerModel = new ModelImpl();
+    Appendable eagerOutput = new StringBuilder();
+    new ControllerImpl(new StringReader(script.toString()), eagerModel,
+            new ImageTextView(eagerModel, eagerOutput)).run();
+
+    assertEquals(eagerOutput.toString(), parallelOutput.toString());
+    assertTrue(parallelOutput.toString().endsWith("Image with specified ID does not exist.\n"
+            + "Invalid command. Please enter a valid command.\n"
+            + "Command completed successfully\n"
+            + "Invalid command. Please enter a valid command.\n"
+            + "Third argument must be destination id.\n"));
+    for (String id : new String[] {"a", "a9", "b9", "c"}) {
+      int[] parallelPixels = new int[16];
+      int[] eagerPixels = new int[16];
+      parallelModel.getImage(id).copyRegion(0, 0, 4, 4, parallelPixels);
+      eagerModel.getImage(id).copyRegion(0, 0, 4, 4, eagerPixels);
+      assertArrayEquals(eagerPixels, parallelPixels);
+    }
+  }
+
+  /**
+   * Helper method to write bytes to a temporary file that is deleted on exit.
+   *
+   * @param bytes bytes to write
+   * @param suffix file name suffix
+   * @return the temporary file
+   * @throws IOException if the file cannot be written
+   */
+
+  private File writeTempFile(byte[] bytes, String suffix) throws IOException {
+    File file = File.createTempFile("ppm", suffix);
+    file.deleteOnExit();
+    try (FileOutputStream output = new FileOutputStream(file)) {
+      output.write(bytes);
+    }
+    return file;
+  }
+
+  /**
+   * Test case for saving and loading raw (P6) PPM images.
+   */
+
+  @Test
+  public void testRawPPMSaveAndLoad() throws IOException {
+    IImageState image = new PPMImageLoader("res/fourbyfour.ppm").run();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new PPMImageSaver("fourbyfour.ppm", image, output, PPMFormat.RAW).run();
+    byte[] bytes = output.toByteArray();
+    String header = "P6\n4 4\n255\n";
+    assertEquals(header.length() + 48, bytes.length);
+    assertEquals(header, new String(bytes, 0, header.length(), "US-ASCII"));
+    // first pixel is red, second is green
+    assertEquals(255, bytes[header.length()] & 0xFF);
+    assertEquals(0, bytes[header.length() + 1] & 0xFF);
+    assertEquals(255, bytes[header.length() + 4] & 0xFF);
+
+    // the format is picked from the magic number, not the file name
+    IImageState loaded = new PPMImageLoader(writeTempFile(bytes, ".ppm").getPath()).run();
+    int[] expectedPixels = new int[16];
+    int[] actualPixels = new int[16];
+    image.copyRegion(0, 0, 4, 4, expectedPixels);
+    loaded.copyRegion(0, 0, 4, 4, actualPixels);
+    assertArrayEquals(expectedPixels, actualPixels);
+
+    // plain format written to a stream matches the appendable output
+    ByteArrayOutputStream plainOutput = new ByteArrayOutputStream();
+    new PPMImageSaver("fourbyfour.ppm", image, plainOutput, PPMFormat.PLAIN).run();
+    StringBuilder appendable = new StringBuilder();
+    new PPMImageSaver("fourbyfour.ppm", image, appendable).run();
+    assertEquals(appendable.toString(), plainOutput.toString("US-ASCII"));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PPMImageSaver("fourbyfour.ppm", image, null, PPMFormat.RAW);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PPMImageSaver("fourbyfour.ppm", image, output, null);
+    });
+  }
+
+  /**
+   * Test case for raw (P6) headers with comments, two byte samples, and
+   *     incomplete pixel data.
+   */
+
+  @Test
+  public void testRawPPMLoadVariants() throws IOException {
+    byte[] header = "P6 # raw file\n# size\n2 1\n65535\n".getBytes("US-ASCII");
+    byte[] pixels = {(byte) 0xFF, (byte) 0xFF, 0, 0, (byte) 0x80, 0,
+                     0, 0, 0, 0, 0, 0};
+    byte[] bytes = new byte[header.length + pixels.length];
+    System.arraycopy(header, 0, bytes, 0, header.length);
+    System.arraycopy(pixels, 0, bytes, header.length, pixels.length);
+    IImageState image = new PPMImageLoader(writeTempFile(bytes, ".ppm").getPath()).run();
+    assertEquals(2, image.getWidth());
+    assertEquals(1, image.getHeight());
+    assertEquals(255, image.getRedChannel(0, 0));
+    assertEquals(0, image.getGreenChannel(0, 0));
+    assertEquals(127, image.getBlueChannel(0, 0));
+
+    // one pixel short
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 6);
+    String truncatedPath = writeTempFile(truncated, ".ppm").getPath();
+    assertThrows(IllegalStateException.class, () -> {
+      new PPMImageLoader(truncatedPath).run();
+    });
+
+    String badHeaderPath = writeTempFile("P6\n2 x\n255\n".getBytes("US-ASCII"), ".ppm").getPath();
+    assertThrows(IllegalStateException.class, () -> {
+      new PPMImageLoader(badHeaderPath).run();
+    });
+
+    // a two byte sample above the max value would spill into the next channel
+    byte[] smallMax = "P6\n1 1\n1000\n".getBytes("US-ASCII");
+    byte[] overMax = Arrays.copyOf(smallMax, smallMax.length + 6);
+    overMax[smallMax.length] = (byte) 0xFF;
+    overMax[smallMax.length + 1] = (byte) 0xFF;
+    String overMaxPath = writeTempFile(overMax, ".ppm").getPath();
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PPMImageLoader(overMaxPath).run();
+    });
+  }
+
+  /**
+   * Test case for the save-binary command.
+   */
+
+  @Test
+  public void testSaveBinaryCommand() throws IOException {
+    File saveFile = File.createTempFile("binary", ".ppm");
+    saveFile.deleteOnExit();
+    IModel model = new ModelImpl();
+    Appendable appendable = new StringBuilder();
+    Readable readable = new StringReader("load res/fourbyfour.ppm a save-binary "
+            + saveFile.getPath() + " a load " + saveFile.getPath() + " b");
+    IController controller = new ControllerImpl(readable, model,
+            new ImageTextView(model, appendable));
+    controller.run();
+    assertEquals("Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n", appendable.toString());
+    assertEquals("P6\n4 4\n255\n".length() + 48, saveFile.length());
+    assertEquals(model.getImage("a").getRedChannel(3, 1),
+            model.getImage("b").getRedChannel(3, 1));
+  }
+
+  /**
+   * Test case for plain (P3) files with comments anywhere, values spread
+   *     across lines, and invalid values.
+   */
+
+  @Test
+  public void testPlainPPMLoadWithComments() throws IOException {
+    String file = "P3 # plain file\n2 # width\n1\n# max value next\n255\n"
+            + "255 0 0 # red\n# blue next\n0\n0 255";
+    IImageState image = new PPMImageLoader(writeTempFile(file.getBytes("US-ASCII"), ".ppm")
+            .getPath()).run();
+    assertEquals(2, image.getWidth());
+    assertEquals(1, image.getHeight());
+    assertEquals(255, image.getRedChannel(0, 0));
+    assertEquals(0, image.getBlueChannel(0, 0));
+    assertEquals(255, image.getBlueChannel(0, 1));
+
+    // max values above 255 are scaled down
+    String wide = "P3\n1 1\n1023\n1023 511 0\n";
+    IImageState wideImage = new PPMImageLoader(writeTempFile(wide.getBytes("US-ASCII"), ".ppm")
+            .getPath()).run();
+    assertEquals(255, wideImage.getRedChannel(0, 0));
+    assertEquals(127, wideImage.getGreenChannel(0, 0));
+
+    String shortPath = writeTempFile("P3\n2 1\n255\n1 2 3 4".getBytes("US-ASCII"), ".ppm")
+            .getPath();
+    assertThrows(IllegalStateException.class, () -> {
+      new PPMImageLoader(shortPath).run();
+    });
+    String letterPath = writeTempFile("P3\n1 1\n255\n1 2 x".getBytes("US-ASCII"), ".ppm")
+            .getPath();
+    assertThrows(IllegalStateException.class, () -> {
+      new PPMImageLoader(letterPath).run();
+    });
+    String largePath = writeTempFile("P3\n1 1\n255\n1 2 300".getBytes("US-ASCII"), ".ppm")
+            .getPath();
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PPMImageLoader(largePath).run();
+    });
+  }
+
+  /**
+   * Test case for the PPM tokenizer.
+   */
+
+  @Test
+  public void testPPMTokenizer() throws IOException {
+    PPMTokenizer tokenizer = new PPMTokenizer(new ByteArrayInputStream(
+            "P6#magic\n 12\t# twelve\r\n7 AB".getBytes("US-ASCII")));
+    assertEquals("P6", tokenizer.nextToken());
+    assertEquals(12, tokenizer.nextInt());
+    assertEquals(7, tokenizer.nextInt());
+    byte[] rest = new byte[2];
+    tokenizer.readFully(rest);
+    assertEquals('A', rest[0]);
+    assertEquals('B', rest[1]);
+    assertNull(tokenizer.nextToken());
+    assertThrows(IllegalStateException.class, () -> {
+      tokenizer.nextInt();
+    });
+    assertThrows(IllegalStateException.class, () -> {
+      tokenizer.readFully(new byte[1]);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PPMTokenizer(null);
+    });
+  }
+
+  /**
+   * Test case for plain (P3) saving of every channel value, to an appendable
+   *     and to a stream.
+   */
+
+  @Test
+  public void testPlainPPMSaveAllValues() throws IOException {
+    PackedImageImpl image = new PackedImageImpl(16, 16);
+    StringBuilder expected = new StringBuilder("P3\n16 16\n255\n");
+    for (int row = 0; row < 16; row++) {
+      for (int col = 0; col < 16; col++) {
+        int value = row * 16 + col;
+        image.setPixel(row, col, value, 255 - value, value / 2);
+        expected.append(value + " " + (255 - value) + " " + (value / 2) + " ");
+      }
+      expected.append("\n");
+    }
+    StringBuilder appendable = new StringBuilder();
+    new PPMImageSaver("all.ppm", image, appendable).run();
+    assertEquals(expected.toString(), appendable.toString());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new PPMImageSaver("all.ppm", image, output, PPMFormat.PLAIN).run();
+    assertEquals(expected.toString(), output.toString("US-ASCII"));
+  }
+
+  /**
+   * Test case for streaming other image types to a file and to an output stream.
+   */
+
+  @Test
+  public void testOtherImageTypeSaverStreams() throws IOException {
+    IImageState image = new OtherImageTypeLoader("res/bagel.png").run();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    ImageIO.write(ImageUtil.createBufferedImage(image), "png", expected);
+
+    // writing to a stream gives the same bytes as ImageIO.write
+    ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    new OtherImageTypeSaver(image, "PNG", streamed).run();
+    assertArrayEquals(expected.toByteArray(), streamed.toByteArray());
+
+    // saving to a file replaces a longer existing file completely
+    File file = writeTempFile(new byte[expected.size() + 1000], ".png");
+    new OtherImageTypeSaver(file.getPath(), image).run();
+    assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file.toPath()));
+
+    // the ByteArrayOutputStream constructor keeps a copy and writes the file
+    File copyFile = File.createTempFile("copy", ".png");
+    copyFile.deleteOnExit();
+    ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    new OtherImageTypeSaver(copyFile.getPath(), image, copy).run();
+    assertArrayEquals(expected.toByteArray(), copy.toByteArray());
+    assertArrayEquals(expected.toByteArray(), Files.readAllBytes(copyFile.toPath()));
+
+    assertThrows(IllegalStateException.class, () -> {
+      new OtherImageTypeSaver(image, "nope", new ByteArrayOutputStream()).run();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new OtherImageTypeSaver(image, "png", null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new OtherImageTypeSaver(null, image);
+    });
+  }
+
+  /**
+   * Test case for the JPEG quality and PNG compression level settings.
+   */
+
+  @Test
+  public void testOtherImageTypeSaverSettings() throws IOException {
+    IImageState image = new OtherImageTypeLoader("res/bagel.png").run();
+    ByteArrayOutputStream low = new ByteArrayOutputStream();
+    OtherImageTypeSaver lowSaver = new OtherImageTypeSaver(image, "jpeg", low);
+    lowSaver.setJpegQuality(0.1f);
+    lowSaver.run();
+    ByteArrayOutputStream high = new ByteArrayOutputStream();
+    OtherImageTypeSaver highSaver = new OtherImageTypeSaver(image, "jpeg", high);
+    highSaver.setJpegQuality(0.95f);
+    highSaver.run();
+    assertTrue(low.size() < high.size());
+
+    ByteArrayOutputStream stored = new ByteArrayOutputStream();
+    OtherImageTypeSaver storedSaver = new OtherImageTypeSaver(image, "png", stored);
+    storedSaver.setPngCompressionLevel(0);
+    storedSaver.run();
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    OtherImageTypeSaver compressedSaver = new OtherImageTypeSaver(image, "png", compressed);
+    compressedSaver.setPngCompressionLevel(9);
+    compressedSaver.run();
+    assertTrue(compressed.size() < stored.size());
+    // compression does not change the pixels
+    BufferedImage storedImage = ImageIO.read(new ByteArrayInputStream(stored.toByteArray()));
+    BufferedImage compressedImage =
+            ImageIO.read(new ByteArrayInputStream(compressed.toByteArray()));
+    assertEquals(storedImage.getRGB(10, 20), compressedImage.getRGB(10, 20));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      lowSaver.setJpegQuality(1.5f);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      storedSaver.setPngCompressionLevel(10);
+    });
+  }
+
+  /**
+   * Test that the controller records every command it runs, with the pixels it
+   * processed, and marks commands that report an error as not successful.
+   */
+  @Test
+  public void testCommandMetrics() {
+    CommandMetrics metrics = new CommandMetrics();
+    String script = "load res/fourbyfour.ppm a\n"
+            + "brighten 10 a b\n"
+            + "bogus a b\n"
+            + "blur missing c\n"
+            + "sepia b d\n";
+    IModel model = new ModelImpl();
+    new ControllerImpl(new StringReader(script), model, new ImageTextView(model,
+            new StringBuilder()), ExecutionMode.EAGER, metrics).run();
+
+    List<CommandRecord> records = metrics.getRecords();
+    assertEquals(4, records.size());
+    String[] names = {"load", "brighten", "blur", "sepia"};
+    long[] pixels = {16, 16, 0, 16};
+    boolean[] successful = {true, true, false, true};
+    for (int i = 0; i < records.size(); i++) {
+      CommandRecord record = records.get(i);
+      assertEquals(names[i], record.getCommandName());
+      assertEquals(pixels[i], record.getPixels());
+      assertEquals(successful[i], record.isSuccessful());
+      assertTrue(record.getWallNanos() >= 0);
+      assertTrue(record.getCpuNanos() >= -1);
+      assertTrue(record.getAllocatedBytes() >= -1);
+    }
+  }
+
+  /**
+   * Test that lazy and parallel modes record only the commands they run.
+   */
+  @Test
+  public void testCommandMetricsOtherModes() throws IOException {
+    File saveFile = File.createTempFile("metrics", ".ppm");
+    saveFile.deleteOnExit();
+    String script = "load res/fourbyfour.ppm a\n"
+            + "sepia a unused\n"
+            + "luma a b\n"
+            + "save " + saveFile.getPath() + " b\n";
+
+    CommandMetrics lazyMetrics = new CommandMetrics();
+    IModel lazyModel = new ModelImpl();
+    new ControllerImpl(new StringReader(script), lazyModel, new ImageTextView(lazyModel,
+            new StringBuilder()), ExecutionMode.LAZY, lazyMetrics).run();
+    List<String> lazyNames = new ArrayList<>();
+    for (CommandRecord record : lazyMetrics.getRecords()) {
+      lazyNames.add(record.getCommandName());
+    }
+    assertEquals(Arrays.asList("load", "luma", "save"), lazyNames);
+
+    CommandMetrics parallelMetrics = new CommandMetrics();
+    IModel parallelModel = new ModelImpl();
+    new ControllerImpl(new StringReader(script), parallelModel,
+            new ImageTextView(parallelModel, new StringBuilder()), ExecutionMode.PARALLEL,
+            parallelMetrics).run();
+    Set<String> parallelNames = new HashSet<>();
+    for (CommandRecord record : parallelMetrics.getRecords()) {
+      parallelNames.add(record.getCommandName());
+      assertEquals(16, record.getPixels());
+      assertTrue(record.isSuccessful());
+    }
+    assertEquals(4, parallelMetrics.getRecords().size());
+    assertEquals(new HashSet<>(Arrays.asList("load", "sepia", "luma", "save")), parallelNames);
+  }
+
+  /**
+   * Test the summary table of the command metrics.
+   */
+  @Test
+  public void testCommandMetricsSummary() {
+    CommandMetrics metrics = new CommandMetrics();
+    metrics.record(new CommandRecord("blur", 2000000, 1000000, 3000000, 1000000, true));
+    metrics.record(new CommandRecord("load", 1000000, -1, 1000000, 500000, true));
+    metrics.record(new CommandRecord("blur", 2000000, 1000000, 1000000, 1000000, false));
+    StringBuilder summary = new StringBuilder();
+    metrics.writeSummary(summary);
+
+    String[] lines = summary.toString().split("\n");
+    assertEquals(4, lines.length);
+    assertEquals(Arrays.asList("command", "runs", "failed", "wall", "ms", "cpu", "ms", "alloc",
+            "MB", "Mpixels", "Mpix/s"), Arrays.asList(lines[0].trim().split("\\s+")));
+    assertEquals(Arrays.asList("blur", "2", "1", "4.0", "2.0", "4.0", "2.00", "500.0"),
+            Arrays.asList(lines[1].trim().split("\\s+")));
+    assertEquals(Arrays.asList("load", "1", "0", "1.0", "n/a", "1.0", "0.50", "500.0"),
+            Arrays.asList(lines[2].trim().split("\\s+")));
+    assertEquals(Arrays.asList("total", "3", "1", "5.0", "n/a", "5.0", "2.50", "500.0"),
+            Arrays.asList(lines[3].trim().split("\\s+")));
+    assertThrows(IllegalArgumentException.class, () -> metrics.writeSummary(null));
+    assertThrows(IllegalArgumentException.class, () -> metrics.record(null));
+  }
+
+  /**
+   * Test the gamma, contrast, and levels-adjust commands against their lookup
+   * transformations, and their argument errors.
+   */
+  @Test
+  public void testLookupCommands() {
+    String script = "load res/fourbyfour.ppm a\n"
+            + "gamma 2.2 a g\n"
+            + "contrast 1.5 a c\n"
+            + "levels-adjust 20 100 200 a l\n"
+            + "gamma 0 a x\n"
+            + "contrast bright a x\n"
+            + "levels-adjust 100 50 200 a x\n"
+            + "levels-adjust 20 100 a x\n";
+    IModel model = new ModelImpl();
+    StringBuilder output = new StringBuilder();
+    new ControllerImpl(new StringReader(script), model, new ImageTextView(model, output)).run();
+
+    assertEquals("Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Gamma must be greater than 0.\n"
+            + "Invalid command. Please enter a valid command.\n"
+            + "Second argument must be a number.\n"
+            + "Invalid command. Please enter a valid command.\n"
+            + "Levels must be ascending values from 0 to 255.\n"
+            + "Invalid command. Please enter a valid command.\n"
+            + "Fourth argument must be an int.\n"
+            + "Invalid command. Please enter a valid command.\n", output.toString());
+    IImageState source = model.getImage("a");
+    String[] ids = {"g", "c", "l"};
+    LookupTransformation[] expected = {LookupTransformation.gamma(2.2),
+        LookupTransformation.contrast(1.5), LookupTransformation.levels(20, 100, 200)};
+    for (int i = 0; i < ids.length; i++) {
+      int[] expectedPixels = new int[16];
+      int[] actualPixels = new int[16];
+      expected[i].run(source).copyRegion(0, 0, 4, 4, expectedPixels);
+      model.getImage(ids[i]).copyRegion(0, 0, 4, 4, actualPixels);
+      assertArrayEquals(expectedPixels, actualPixels);
+    }
+    assertNull(model.getImage("x"));
+  }
+
+  /**
+   * Test the box-blur and gaussian-blur commands against their transformations,
+   * and their argument errors.
+   */
+  @Test
+  public void testBoxBlurCommands() {
+    String script = "load res/fourbyfour.ppm a\n"
+            + "box-blur 2 a b\n"
+            + "gaussian-blur 1.5 a g\n"
+            + "box-blur -1 a x\n"
+            + "gaussian-blur -1 a x\n";
+    IModel model = new ModelImpl();
+    StringBuilder output = new StringBuilder();
+    new ControllerImpl(new StringReader(script), model, new ImageTextView(model, output)).run();
+
+    assertEquals("Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Radius cannot be negative.\n"
+            + "Invalid command. Please enter a valid command.\n"
+            + "Sigma cannot be negative.\n"
+            + "Invalid command. Please enter a valid command.\n", output.toString());
+    IImageState source = model.getImage("a");
+    String[] ids = {"b", "g"};
+    BoxBlurTransformation[] expected = {new BoxBlurTransformation(2, EdgeMode.CLAMP),
+        BoxBlurTransformation.gaussian(1.5, EdgeMode.CLAMP)};
+    for (int i = 0; i < ids.length; i++) {
+      int[] expectedPixels = new int[16];
+      int[] actualPixels = new int[16];
+      expected[i].run(source).copyRegion(0, 0, 4, 4, expectedPixels);
+      model.getImage(ids[i]).copyRegion(0, 0, 4, 4, actualPixels);
+      assertArrayEquals(expectedPixels, actualPixels);
+    }
+    assertNull(model.getImage("x"));
+  }
+
+  /**
+   * Test the convolve command with kernels loaded from files, including a kernel
+   * large enough to be filtered through the Fourier transform, and invalid files.
+   */
+  @Test
+  public void testConvolveCommand() throws IOException {
+    File small = File.createTempFile("kernel", ".txt");
+    small.deleteOnExit();
+    Files.write(small.toPath(), Arrays.asList("# edge detect",
+            "0 -1 0", "-1 4 -1", "0 -1 0  # last row"));
+    StringBuilder largeValues = new StringBuilder();
+    double[][] large = new double[11][11];
+    for (int row = 0; row < 11; row++) {
+      for (int col = 0; col < 11; col++) {
+        // an odd denominator keeps every sum away from .5, so rounding is exact
+        large[row][col] = (row == col ? 2.0 : 1.0) / 133;
+        largeValues.append(large[row][col]).append(col == 10 ? "\n" : " ");
+      }
+    }
+    File largeFile = File.createTempFile("kernel", ".txt");
+    largeFile.deleteOnExit();
+    Files.write(largeFile.toPath(), largeValues.toString().getBytes());
+    File invalid = File.createTempFile("kernel", ".txt");
+    invalid.deleteOnExit();
+    Files.write(invalid.toPath(), Arrays.asList("1 2", "3 4"));
+
+    String script = "load res/fourbyfour.ppm a\n"
+            + "convolve " + small.getPath() + " a s\n"
+            + "convolve " + largeFile.getPath() + " a l\n"
+            + "convolve " + invalid.getPath() + " a x\n"
+            + "convolve missing-kernel.txt a x\n";
+    IModel model = new ModelImpl();
+    StringBuilder output = new StringBuilder();
+    new ControllerImpl(new StringReader(script), model, new ImageTextView(model, output)).run();
+
+    assertEquals("Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Command completed successfully\n"
+            + "Invalid kernel file: kernel must be square with an odd size of at least 3.\n"
+            + "Kernel file does not exist.\n", output.toString());
+    IImageState source = model.getImage("a");
+    double[][] edge = {{0, -1, 0}, {-1, 4, -1}, {0, -1, 0}};
+    String[] ids = {"s", "l"};
+    double[][][] kernels = {edge, large};
+    for (int i = 0; i < ids.length; i++) {
+      int[] expectedPixels = new int[16];
+      int[] actualPixels = new int[16];
+      new FilterTransformation(new KernelImpl(kernels[i]), EdgeMode.CLAMP).run(source)
+              .copyRegion(0, 0, 4, 4, expectedPixels);
+      model.getImage(ids[i]).copyRegion(0, 0, 4, 4, actualPixels);
+      assertArrayEquals(expectedPixels, actualPixels);
+    }
+    assertNull(model.getImage("x"));
+    assertEquals(Arrays.asList(small.getPath()), new ConvolveCommand().getFilePaths(
+            new String[] {small.getPath(), "a", "b"}));
+  }
 }
@@ -0,0 +1,257 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import model.EdgeMode;
+import model.IImageState;
+import model.TiledImage;
+import model.kernel.IKernelState;
+import model.kernel.KernelImpl;
+import model.transformations.FilterTransformation;
+import model.transformations.ParallelTransformation;
+import model.transformations.TiledTransformation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the FilterTransformation class.
+ */
+
+public class FilterTransformationTest {
+
+  /**
+   * Helper method to wrap a kernel so that it always reports being not separable,
+   *     forcing the full 2D filter.
+   *
+   * @param kernel kernel to wrap
+   * @return a kernel with the same values that is never separable
+   */
+
+  private IKernelState notSeparable(IKernelState kernel) {
+    return new IKernelState() {
+      @Override
+      public int getSize() {
+        return kernel.getSize();
+      }
+
+      @Override
+      public double getValue(int row, int col) {
+        return kernel.getValue(row, col);
+      }
+
+      @Override
+      public boolean isSeparable() {
+        return false;
+      }
+
+      @Override
+      public double[] getColumnVector() {
+        throw new IllegalStateException("Kernel is not separable");
+      }
+
+      @Override
+      public double[] getRowVector() {
+        throw new IllegalStateException("Kernel is not separable");
+      }
+    };
+  }
+
+  /**
+   * Test case for the separable filter producing the same image as the full 2D
+   *     filter, including at the image edges.
+   */
+
+  @Test
+  public void testSeparableMatchesFullFilter() {
+    IImageState source = TestImages.randomImage(37, 23, 7);
+    double[][] blurFilter = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    IKernelState blur = new KernelImpl(blurFilter);
+    assertTrue(blur.isSeparable());
+    assertArrayEquals(TestImages.pixels(new FilterTransformation(notSeparable(blur)).run(source)),
+            TestImages.pixels(new FilterTransformation(blur).run(source)));
+
+    // a wider binomial kernel given as vectors, with exactly representable values
+    double[] binomial = {1.0 / 64, 6.0 / 64, 15.0 / 64, 20.0 / 64, 15.0 / 64, 6.0 / 64, 1.0 / 64};
+    IKernelState wide = new KernelImpl(binomial, binomial);
+    assertArrayEquals(TestImages.pixels(new FilterTransformation(notSeparable(wide)).run(source)),
+            TestImages.pixels(new FilterTransformation(wide).run(source)));
+  }
+
+  /**
+   * Helper method for a straightforward reference filter that maps every kernel
+   *     position through the edge mode.
+   *
+   * @param source image to filter
+   * @param values kernel values
+   * @param edgeMode how to treat pixels outside the image
+   * @return the filtered pixels in row-major order
+   */
+
+  private int[] referenceFilter(IImageState source, double[][] values, EdgeMode edgeMode) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    int center = values.length / 2;
+    int[] result = new int[width * height];
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        double[] sums = new double[3];
+        for (int i = 0; i < values.length; i++) {
+          for (int j = 0; j < values.length; j++) {
+            int imageRow = edgeMode.map(row + i - center, height);
+            int imageCol = edgeMode.map(col + j - center, width);
+            if (imageRow >= 0 && imageCol >= 0) {
+              sums[0] += source.getRedChannel(imageRow, imageCol) * values[i][j];
+              sums[1] += source.getGreenChannel(imageRow, imageCol) * values[i][j];
+              sums[2] += source.getBlueChannel(imageRow, imageCol) * values[i][j];
+            }
+          }
+        }
+        int pixel = 0;
+        for (double sum : sums) {
+          pixel = (pixel << 8) | (int) Math.max(0, Math.min(255, Math.round(sum)));
+        }
+        result[row * width + col] = pixel;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Test case for every edge mode on separable and non separable kernels,
+   *     including a kernel wider than the image.
+   */
+
+  @Test
+  public void testEdgeModes() {
+    double[][] blurFilter = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    double[][] sharpenFilter = {
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+    };
+    IImageState[] sources = {TestImages.randomImage(19, 11, 7),
+        TestImages.randomImage(3, 2, 7), TestImages.randomImage(1, 4, 7)};
+    for (IImageState source : sources) {
+      for (EdgeMode edgeMode : EdgeMode.values()) {
+        for (double[][] values : new double[][][] {blurFilter, sharpenFilter}) {
+          int[] actual = TestImages.pixels(
+                  new FilterTransformation(new KernelImpl(values), edgeMode).run(source));
+          assertArrayEquals(referenceFilter(source, values, edgeMode), actual);
+        }
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> {
+      new FilterTransformation(new KernelImpl(blurFilter), null);
+    });
+  }
+
+  /**
+   * Test case for large kernels, which are filtered through the Fourier transform,
+   *     matching the reference filter to within rounding for every edge mode, on
+   *     images that span several tiles and images smaller than the kernel.
+   */
+
+  @Test
+  public void testFourierMatchesReference() {
+    Random random = new Random(13);
+    IImageState[] sources = {TestImages.randomImage(70, 45, 7), TestImages.randomImage(5, 3, 7)};
+    for (int size : new int[] {FilterTransformation.FOURIER_THRESHOLD, 15, 33}) {
+      double[][] values = new double[size][size];
+      for (double[] row : values) {
+        for (int col = 0; col < size; col++) {
+          // mostly positive with some negative weights, not separable
+          row[col] = (random.nextDouble() - 0.2) * 2 / (size * size);
+        }
+      }
+      IKernelState kernel = new KernelImpl(values);
+      for (IImageState source : sources) {
+        for (EdgeMode edgeMode : EdgeMode.values()) {
+          int[] expected = referenceFilter(source, values, edgeMode);
+          int[] actual = TestImages.pixels(new ParallelTransformation(
+                  new FilterTransformation(kernel, edgeMode), 3).run(source));
+          assertEquals(expected.length, actual.length);
+          for (int i = 0; i < expected.length; i++) {
+            for (int shift = 0; shift <= 16; shift += 8) {
+              int difference = ((expected[i] >> shift) & 0xFF) - ((actual[i] >> shift) & 0xFF);
+              assertTrue("size " + size + " " + edgeMode + " pixel " + i,
+                      Math.abs(difference) <= 1);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test case for Fourier filtering giving the same pixels however the image is
+   *     cut: on one thread, on several, a tile at a time, and through the direct
+   *     filter. The kernels have exactly representable values, so the sums are
+   *     exact and every difference would come from where the tiles start.
+   */
+
+  @Test
+  public void testFourierIndependentOfBands() {
+    Random random = new Random(17);
+    IImageState source = TestImages.randomImage(150, 110, 7);
+    TiledImage tiled = new TiledImage(150, 110, 32, 0);
+    tiled.writeRegion(0, 0, 150, 110, TestImages.pixels(source));
+    for (int size : new int[] {FilterTransformation.FOURIER_THRESHOLD, 11}) {
+      double[][] values = new double[size][size];
+      for (double[] row : values) {
+        for (int col = 0; col < size; col++) {
+          row[col] = (random.nextInt(64) - 12) / 1024.0;
+        }
+      }
+      FilterTransformation filter = new FilterTransformation(new KernelImpl(values),
+              EdgeMode.MIRROR);
+      int[] serial = TestImages.pixels(new ParallelTransformation(filter, 1).run(source));
+      for (int threads : new int[] {2, 3, 5, 8}) {
+        assertArrayEquals("size " + size + " threads " + threads, serial,
+                TestImages.pixels(new ParallelTransformation(filter, threads).run(source)));
+      }
+      assertArrayEquals(serial, TestImages.pixels(new TiledTransformation(filter, 2).run(tiled)));
+      assertArrayEquals(referenceFilter(source, values, EdgeMode.MIRROR), serial);
+    }
+    tiled.close();
+  }
+
+  /**
+   * Test case for mapping positions outside the image with each edge mode.
+   */
+
+  @Test
+  public void testEdgeModeMap() {
+    // inside the image every mode returns the position
+    for (EdgeMode edgeMode : EdgeMode.values()) {
+      assertEquals(2, edgeMode.map(2, 5));
+    }
+    assertEquals(-1, EdgeMode.ZERO.map(-1, 5));
+    assertEquals(-1, EdgeMode.ZERO.map(5, 5));
+    assertEquals(0, EdgeMode.CLAMP.map(-3, 5));
+    assertEquals(4, EdgeMode.CLAMP.map(9, 5));
+    assertEquals(1, EdgeMode.MIRROR.map(-1, 5));
+    assertEquals(3, EdgeMode.MIRROR.map(5, 5));
+    assertEquals(2, EdgeMode.MIRROR.map(-10, 5));
+    assertEquals(0, EdgeMode.MIRROR.map(3, 1));
+    assertEquals(4, EdgeMode.WRAP.map(-1, 5));
+    assertEquals(0, EdgeMode.WRAP.map(5, 5));
+    assertEquals(3, EdgeMode.WRAP.map(-12, 5));
+    assertEquals("mirror", EdgeMode.MIRROR.toString());
+    assertThrows(IllegalArgumentException.class, () -> {
+      EdgeMode.WRAP.map(0, 0);
+    });
+  }
+}
@@ -13,6 +13,7 @@ import controller.io.PPMImageSaver;
 import model.IImageState;
 import model.IModel;
 import model.ModelImpl;
+import model.PackedImageImpl;
 import controller.io.IImageLoader;
 import model.GreyscaleComponent;
 import model.kernel.IKernel;
@@ -27,6 +28,7 @@ import model.transformations.ValueTransformation;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 
 /**
@@ -92,6 +94,27 @@ public class IModelTest {
     });
   }
 
+  /**
+   * Test case for remove image method.
+   */
+
+  @Test
+  public void testModelRemoveImage() {
+    IModel model = new ModelImpl();
+    model.addImage("a", new PackedImageImpl(2, 2));
+    model.addImage("b", new PackedImageImpl(3, 3));
+    model.removeImage("a");
+    assertNull(model.getImage("a"));
+    assertEquals(3, model.getImage("b").getWidth());
+    // removing an ID that is not in the model does nothing
+    model.removeImage("a");
+    assertNotNull(model.getImage("b"));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      model.removeImage(null);
+    });
+  }
+
   /**
    * Test case for load PNG image.
    */
@@ -1052,5 +1075,27 @@ public class IModelTest {
     assertEquals(expectedOutput, appendable.toString());
   }
 
+  /**
+   * Test case for the model keeping its own copy of each added image, while
+   *     images added under several IDs stay independent.
+   */
 
+  @Test
+  public void testModelStoresCopy() {
+    IModel model = new ModelImpl();
+    PackedImageImpl image = new PackedImageImpl(2, 1);
+    image.setPixel(0, 0, 10, 20, 30);
+    model.addImage("a", image);
+    model.addImage("b", model.getImage("a"));
+    // changing the added image does not change the stored ones
+    image.setPixel(0, 0, 40, 50, 60);
+    assertEquals(10, model.getImage("a").getRedChannel(0, 0));
+    assertEquals(10, model.getImage("b").getRedChannel(0, 0));
+
+    // transformations that change nothing still give an equal image
+    ITransformation brighten = new BrightenTransformation(0);
+    model.addImage("c", brighten.run(model.getImage("a")));
+    assertEquals(20, model.getImage("c").getGreenChannel(0, 0));
+    assertEquals(30, model.getImage("c").getBlueChannel(0, 0));
+  }
 }
@@ -152,4 +152,35 @@ public class ImageImplTest {
 
   }
 
+  /**
+   * Test case for the bulk row and region accessors.
+   */
+
+  @Test
+  public void testImageReadWriteRowAndCopyRegion() {
+    testImageBasic = new ImageImpl(2, 2);
+    testImageBasic.writeRow(0, new int[] {0xFF0000, 0x00FF00});
+    testImageBasic.writeRow(1, new int[] {0x0000FF, 0x102030});
+    assertEquals("255 0 0", testImageBasic.getPixel(0, 0).toString());
+    assertEquals("16 32 48", testImageBasic.getPixel(1, 1).toString());
+
+    int[] row = new int[2];
+    testImageBasic.readRow(1, row);
+    assertEquals(0x0000FF, row[0]);
+    assertEquals(0x102030, row[1]);
+
+    int[] region = new int[2];
+    testImageBasic.copyRegion(1, 0, 1, 2, region);
+    assertEquals(0x00FF00, region[0]);
+    assertEquals(0x102030, region[1]);
+
+    // test IllegalArgumentExceptions
+    assertThrows(IllegalArgumentException.class, () -> {
+      testImageBasic.readRow(2, new int[2]);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      testImageBasic.copyRegion(0, 0, 3, 1, new int[3]);
+    });
+  }
+
 }
@@ -1,7 +1,9 @@
 import org.junit.Test;
 
 import java.awt.image.BufferedImage;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 
@@ -11,6 +13,7 @@ import controller.io.PPMImageLoader;
 import model.IImageState;
 import model.IModel;
 import model.ModelImpl;
+import model.PackedImageImpl;
 
 /**
  * A JUnit test class for the ImageUtil class.
@@ -73,4 +76,69 @@ public class ImageUtilTests {
     assertEquals(0, green);
     assertEquals(0, blue);
   }
+
+  /**
+   * Test case for createImage on every standard buffered image type, compared
+   *     against reading each pixel with getRGB.
+   */
+
+  @Test
+  public void testCreateImageMatchesGetRGB() {
+    int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+                   BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_BGR,
+                   BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+                   BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_USHORT_565_RGB,
+                   BufferedImage.TYPE_USHORT_555_RGB, BufferedImage.TYPE_BYTE_GRAY,
+                   BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_BINARY,
+                   BufferedImage.TYPE_BYTE_INDEXED};
+    Random random = new Random(5);
+    for (int type : types) {
+      BufferedImage bufferedImage = new BufferedImage(7, 5, type);
+      for (int row = 0; row < 5; row++) {
+        for (int col = 0; col < 7; col++) {
+          bufferedImage.setRGB(col, row, random.nextInt());
+        }
+      }
+      int[] expected = new int[35];
+      for (int row = 0; row < 5; row++) {
+        for (int col = 0; col < 7; col++) {
+          expected[row * 7 + col] = bufferedImage.getRGB(col, row) & 0xFFFFFF;
+        }
+      }
+      IImageState image = ImageUtil.createImage(bufferedImage);
+      assertEquals(7, image.getWidth());
+      assertEquals(5, image.getHeight());
+      int[] actual = new int[35];
+      image.copyRegion(0, 0, 7, 5, actual);
+      assertArrayEquals("type " + type, expected, actual);
+    }
+
+    // a sub image does not start at the start of the raster
+    BufferedImage parent = new BufferedImage(6, 6, BufferedImage.TYPE_3BYTE_BGR);
+    parent.setRGB(2, 3, 0x123456);
+    IImageState subImage = ImageUtil.createImage(parent.getSubimage(2, 3, 2, 2));
+    assertEquals(0x12, subImage.getRedChannel(0, 0));
+    assertEquals(0x56, subImage.getBlueChannel(0, 0));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      ImageUtil.createImage(null);
+    });
+  }
+
+  /**
+   * Test case for converting an image to a buffered image and back.
+   */
+
+  @Test
+  public void testBufferedImageRoundTrip() {
+    PackedImageImpl image = new PackedImageImpl(3, 2);
+    image.setPixel(0, 0, 1, 2, 3);
+    image.setPixel(1, 2, 250, 128, 0);
+    IImageState roundTrip = ImageUtil.createImage(ImageUtil.createBufferedImage(image));
+    int[] expected = new int[6];
+    int[] actual = new int[6];
+    image.copyRegion(0, 0, 3, 2, expected);
+    roundTrip.copyRegion(0, 0, 3, 2, actual);
+    assertArrayEquals(expected, actual);
+  }
 }
@@ -5,7 +5,9 @@ import model.kernel.IKernelState;
 import model.kernel.KernelImpl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 /**
  * A JUnit test class for the IKernelState and IKernel interfaces and
@@ -115,4 +117,69 @@ public class KernelImplTest {
     });
   }
 
+  /**
+   * Test case for detecting separable kernels and returning their vectors.
+   */
+
+  @Test
+  public void testKernelSeparable() {
+    // Gaussian blur is separable
+    double[][] blurFilter = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    IKernelState blurKernel = new KernelImpl(blurFilter);
+    assertTrue(blurKernel.isSeparable());
+    double[] column = blurKernel.getColumnVector();
+    double[] row = blurKernel.getRowVector();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(blurFilter[i][j], column[i] * row[j], 1e-12);
+      }
+    }
+
+    // sharpen is not separable
+    double[][] sharpenFilter = {
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+    };
+    IKernelState sharpenKernel = new KernelImpl(sharpenFilter);
+    assertFalse(sharpenKernel.isSeparable());
+    assertThrows(IllegalStateException.class, () -> {
+      sharpenKernel.getColumnVector();
+    });
+    assertThrows(IllegalStateException.class, () -> {
+      sharpenKernel.getRowVector();
+    });
+
+    // constructor 3 - declared vectors
+    IKernel declared = new KernelImpl(new double[] {1, 2, 1}, new double[] {0.5, 0, -0.5});
+    assertEquals(3, declared.getSize());
+    assertEquals(-1.0, declared.getValue(1, 2), 0.001);
+    assertTrue(declared.isSeparable());
+    assertEquals(2.0, declared.getColumnVector()[1], 0.001);
+    assertEquals(0.5, declared.getRowVector()[0], 0.001);
+    // setting a value that breaks the product is detected
+    declared.setValue(0, 0, 5);
+    assertFalse(declared.isSeparable());
+
+    // an all zero kernel is separable
+    assertTrue(new KernelImpl(3).isSeparable());
+
+    // constructor 3 - invalid vectors
+    assertThrows(IllegalArgumentException.class, () -> {
+      new KernelImpl(null, new double[] {1, 2, 1});
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new KernelImpl(new double[] {1, 2, 1}, new double[] {1, 2, 1, 2, 1});
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new KernelImpl(new double[] {1, 1}, new double[] {1, 1});
+    });
+  }
+
 }
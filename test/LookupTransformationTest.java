@@ -0,0 +1,171 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.IImageState;
+import model.transformations.BrightenTransformation;
+import model.transformations.ITransformation;
+import model.transformations.LookupTransformation;
+import model.transformations.TransformationPipeline;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the LookupTransformation class.
+ */
+
+public class LookupTransformationTest {
+
+  /**
+   * Test case for brightening through a table giving the same pixels as adding
+   *     and clamping each channel.
+   */
+
+  @Test
+  public void testBrightenMatchesArithmetic() {
+    IImageState source = TestImages.randomImage(17, 9, 5);
+    for (int value : new int[] {-300, -40, 0, 1, 75, 255}) {
+      IImageState result = new BrightenTransformation(value).run(source);
+      for (int row = 0; row < source.getHeight(); row++) {
+        for (int col = 0; col < source.getWidth(); col++) {
+          assertEquals(Math.max(0, Math.min(255, source.getRedChannel(row, col) + value)),
+                  result.getRedChannel(row, col));
+          assertEquals(Math.max(0, Math.min(255, source.getGreenChannel(row, col) + value)),
+                  result.getGreenChannel(row, col));
+          assertEquals(Math.max(0, Math.min(255, source.getBlueChannel(row, col) + value)),
+                  result.getBlueChannel(row, col));
+        }
+      }
+    }
+    assertTrue(new BrightenTransformation(0).isIdentity());
+    assertFalse(new BrightenTransformation(3).isIdentity());
+  }
+
+  /**
+   * Test case for the tables of the gamma, contrast, levels, and curves
+   *     transformations.
+   */
+
+  @Test
+  public void testAdjustmentTables() {
+    LookupTransformation gamma = LookupTransformation.gamma(2.2);
+    assertEquals(0, gamma.lookup(0, 0));
+    assertEquals(255, gamma.lookup(1, 255));
+    assertEquals((int) Math.round(255 * Math.pow(64 / 255.0, 1 / 2.2)), gamma.lookup(2, 64));
+    assertTrue(LookupTransformation.gamma(1).isIdentity());
+
+    LookupTransformation contrast = LookupTransformation.contrast(2);
+    assertEquals(128, contrast.lookup(0, 128));
+    assertEquals(148, contrast.lookup(0, 138));
+    assertEquals(0, contrast.lookup(1, 20));
+    assertEquals(255, contrast.lookup(2, 230));
+    assertEquals(128, LookupTransformation.contrast(0).lookup(0, 3));
+
+    LookupTransformation levels = LookupTransformation.levels(20, 100, 200);
+    assertEquals(0, levels.lookup(0, 10));
+    assertEquals(0, levels.lookup(0, 20));
+    assertEquals(128, levels.lookup(1, 100));
+    assertEquals(255, levels.lookup(2, 200));
+    assertEquals(255, levels.lookup(2, 240));
+    assertTrue(LookupTransformation.levels(0, 128, 255).lookup(0, 64) >= 63);
+
+    LookupTransformation curves = LookupTransformation.curves(new int[] {10, 100, 200},
+            new int[] {0, 200, 220});
+    assertEquals(0, curves.lookup(0, 5));
+    assertEquals(100, curves.lookup(0, 55));
+    assertEquals(200, curves.lookup(1, 100));
+    assertEquals(210, curves.lookup(2, 150));
+    assertEquals(220, curves.lookup(2, 250));
+  }
+
+  /**
+   * Test case for combining lookup transformations giving the same image as
+   *     running them in turn, in a pipeline as well.
+   */
+
+  @Test
+  public void testCombineTables() {
+    IImageState source = TestImages.randomImage(30, 20, 5);
+    LookupTransformation gamma = LookupTransformation.gamma(0.7);
+    LookupTransformation levels = LookupTransformation.levels(5, 90, 250);
+    LookupTransformation invert = LookupTransformation.curves(new int[] {0, 255},
+            new int[] {255, 0});
+    IImageState inTurn = invert.run(levels.run(gamma.run(source)));
+    assertArrayEquals(TestImages.pixels(inTurn),
+            TestImages.pixels(gamma.then(levels).then(invert).run(source)));
+
+    List<ITransformation> script = Arrays.asList(
+            new BrightenTransformation(40),
+            gamma,
+            LookupTransformation.contrast(1.5),
+            new BrightenTransformation(-10));
+    TransformationPipeline pipeline = new TransformationPipeline(script);
+    assertEquals(1, pipeline.getStageCount());
+    IImageState expected = source;
+    for (ITransformation transformation : script) {
+      expected = transformation.run(expected);
+    }
+    assertArrayEquals(TestImages.pixels(expected), TestImages.pixels(pipeline.run(source)));
+
+    // tables that undo each other combine into an identity
+    assertTrue(invert.then(invert).isIdentity());
+  }
+
+  /**
+   * Test case for separate tables per channel.
+   */
+
+  @Test
+  public void testChannelTables() {
+    int[] zero = new int[256];
+    int[] identity = new int[256];
+    for (int i = 0; i < 256; i++) {
+      identity[i] = i;
+    }
+    IImageState source = TestImages.randomImage(6, 4, 5);
+    IImageState result = new LookupTransformation(zero, identity, zero).run(source);
+    for (int row = 0; row < 4; row++) {
+      for (int col = 0; col < 6; col++) {
+        assertEquals(0, result.getRedChannel(row, col));
+        assertEquals(source.getGreenChannel(row, col), result.getGreenChannel(row, col));
+        assertEquals(0, result.getBlueChannel(row, col));
+      }
+    }
+    assertTrue(new LookupTransformation(identity).isIdentity());
+
+    // the transformation keeps its own copy of the tables
+    LookupTransformation copied = new LookupTransformation(identity);
+    identity[0] = 9;
+    assertEquals(0, copied.lookup(0, 0));
+  }
+
+  /**
+   * Test case for invalid tables and adjustment values.
+   */
+
+  @Test
+  public void testInvalidLookups() {
+    assertThrows(IllegalArgumentException.class, () -> new LookupTransformation(null));
+    assertThrows(IllegalArgumentException.class, () -> new LookupTransformation(new int[255]));
+    int[] outOfRange = new int[256];
+    outOfRange[3] = 256;
+    assertThrows(IllegalArgumentException.class, () -> new LookupTransformation(outOfRange));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.gamma(0));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.gamma(Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.contrast(-1));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.levels(10, 10, 20));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.levels(0, 50, 256));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.curves(
+            new int[] {5, 5}, new int[] {0, 1}));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.curves(
+            new int[] {5}, new int[] {0, 1}));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.gamma(2).then(null));
+    assertThrows(IllegalArgumentException.class, () -> LookupTransformation.gamma(2)
+            .lookup(3, 0));
+  }
+}
@@ -0,0 +1,224 @@
+import org.junit.Test;
+
+import model.IImage;
+import model.IPixel;
+import model.PackedImageImpl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * A JUnit test class for the PackedImageImpl class.
+ */
+
+public class PackedImageImplTest {
+
+  /**
+   * This is a test case for the packed image constructor. Getters
+   *     are also tested.
+   */
+
+  @Test
+  public void testPackedImageConstructor() {
+    IImage image = new PackedImageImpl(3, 2);
+    // confirm components are as expected
+    assertEquals(2, image.getHeight());
+    assertEquals(3, image.getWidth());
+    assertEquals(255, image.getMaxValue());
+    // new image starts black
+    assertEquals("0 0 0", image.getPixel(1, 2).toString());
+
+    // test IllegalArgumentExceptions
+    try {
+      new PackedImageImpl(-1, 5);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Cannot have negative height/width", e.getMessage());
+    }
+    // invalid width
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PackedImageImpl(10, -1);
+    });
+    // too many pixels for a single array
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PackedImageImpl(100000, 100000);
+    });
+  }
+
+  /**
+   * Test case for packed image getters and setters.
+   */
+
+  @Test
+  public void testPackedImageGettersAndSetters() {
+    IImage image = new PackedImageImpl(5, 5);
+    image.setPixel(0, 0, 10, 0, 255);
+    image.setPixel(4, 3, 255, 128, 1);
+    // confirm pixels were set as expected in correct location
+    assertEquals("10 0 255", image.getPixel(0, 0).toString());
+    assertEquals("255 128 1", image.getPixel(4, 3).toString());
+    assertEquals(255, image.getRedChannel(4, 3));
+    assertEquals(128, image.getGreenChannel(4, 3));
+    assertEquals(1, image.getBlueChannel(4, 3));
+    // neighbouring pixels are untouched
+    assertEquals("0 0 0", image.getPixel(3, 4).toString());
+
+    // test IllegalArgumentExceptions
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.getRedChannel(-1, 2);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.getBlueChannel(0, 5);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.getPixel(5, 0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.setPixel(0, 5, 10, 20, 255);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.setPixel(0, 2, 10, 256, 255);
+    });
+  }
+
+  /**
+   * Test case for the pixel view returned by getPixel, which reads and
+   *     writes straight through to the image.
+   */
+
+  @Test
+  public void testPixelViewWritesThrough() {
+    IImage image = new PackedImageImpl(2, 2);
+    image.setPixel(1, 1, 1, 2, 3);
+    IPixel pixel = image.getPixel(1, 1);
+    assertEquals(1, pixel.getR());
+    assertEquals(2, pixel.getG());
+    assertEquals(3, pixel.getB());
+    assertEquals(1.0, pixel.getAlpha(), 0.001);
+
+    // setting through the view updates the image
+    pixel.setR(200);
+    pixel.setG(100);
+    pixel.setB(50);
+    assertEquals(200, image.getRedChannel(1, 1));
+    assertEquals(100, image.getGreenChannel(1, 1));
+    assertEquals(50, image.getBlueChannel(1, 1));
+
+    // setting the image is visible through an existing view
+    image.setPixel(1, 1, 9, 8, 7);
+    assertEquals("9 8 7", pixel.toString());
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      pixel.setG(-1);
+    });
+  }
+
+  /**
+   * Test case for the bulk row and region accessors.
+   */
+
+  @Test
+  public void testReadWriteRowAndCopyRegion() {
+    IImage image = new PackedImageImpl(3, 3);
+    // write the middle row, including bits above the colour bits which are ignored
+    int[] row = {0x010203, 0xFF000000 | 0x0A0B0C, 0xFFFFFF};
+    image.writeRow(1, row);
+    assertEquals("1 2 3", image.getPixel(1, 0).toString());
+    assertEquals("10 11 12", image.getPixel(1, 1).toString());
+    assertEquals("255 255 255", image.getPixel(1, 2).toString());
+
+    // read the row back, a longer array is allowed
+    int[] readBack = new int[4];
+    image.readRow(1, readBack);
+    assertArrayEquals(new int[] {0x010203, 0x0A0B0C, 0xFFFFFF, 0}, readBack);
+
+    // copy the bottom right 2x2 region
+    image.setPixel(2, 2, 7, 8, 9);
+    int[] region = new int[4];
+    image.copyRegion(1, 1, 2, 2, region);
+    assertArrayEquals(new int[] {0x0A0B0C, 0xFFFFFF, 0, 0x070809}, region);
+
+    // test IllegalArgumentExceptions
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.readRow(3, new int[3]);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.readRow(0, new int[2]);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.writeRow(-1, new int[3]);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.writeRow(0, null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.copyRegion(2, 2, 2, 1, new int[2]);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      image.copyRegion(0, 0, 2, 2, new int[3]);
+    });
+  }
+
+  /**
+   * Test case for constructing an image around an existing array.
+   */
+
+  @Test
+  public void testPackedImageWrapsArray() {
+    int[] pixels = {0xFF102030, 0x405060, 0x708090, 0};
+    PackedImageImpl image = new PackedImageImpl(2, 2, pixels);
+    // bits above the color are cleared
+    assertEquals(0x10, image.getRedChannel(0, 0));
+    assertEquals(0x102030, pixels[0]);
+    // the array is shared, not copied
+    image.setPixel(1, 1, 1, 2, 3);
+    assertEquals(0x010203, pixels[3]);
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PackedImageImpl(2, 2, null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PackedImageImpl(2, 3, pixels);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PackedImageImpl(-1, 2, pixels);
+    });
+  }
+
+  /**
+   * Test case for copies sharing pixels until one of them is written to.
+   */
+
+  @Test
+  public void testCopyOnWrite() {
+    int[] pixels = {0x010203, 0x040506, 0x070809, 0x0A0B0C};
+    PackedImageImpl image = new PackedImageImpl(2, 2, pixels);
+    IImage copy = image.copy();
+    IImage copyOfCopy = copy.copy();
+    assertEquals(2, copy.getWidth());
+    assertEquals(2, copy.getHeight());
+    int[] row = new int[2];
+    copy.readRow(1, row);
+    assertArrayEquals(new int[] {0x070809, 0x0A0B0C}, row);
+
+    // writing to the copy leaves the original and the other copy alone
+    copy.setPixel(0, 0, 255, 255, 255);
+    assertEquals(255, copy.getRedChannel(0, 0));
+    assertEquals(1, image.getRedChannel(0, 0));
+    assertEquals(1, copyOfCopy.getRedChannel(0, 0));
+
+    // writing to the original through a row or a pixel view copies its array
+    image.writeRow(1, new int[] {0, 0});
+    assertEquals(7, copyOfCopy.getRedChannel(1, 0));
+    IPixel pixel = image.getPixel(0, 1);
+    copyOfCopy.getPixel(0, 1).setG(200);
+    assertEquals(5, pixel.getG());
+    pixel.setB(100);
+    assertEquals(6, copy.getBlueChannel(0, 1));
+    assertEquals(6, copyOfCopy.getBlueChannel(0, 1));
+    assertEquals(100, image.getBlueChannel(0, 1));
+    assertEquals(200, copyOfCopy.getGreenChannel(0, 1));
+    // the wrapped array is left as it was once the image stops sharing it
+    assertArrayEquals(new int[] {0x010203, 0x040506, 0x070809, 0x0A0B0C}, pixels);
+  }
+}
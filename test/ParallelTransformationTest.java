@@ -0,0 +1,85 @@
+import org.junit.Test;
+
+import model.GreyscaleComponent;
+import model.IImageState;
+import model.kernel.KernelImpl;
+import model.transformations.BrightenTransformation;
+import model.transformations.ColorTransformation;
+import model.transformations.FilterTransformation;
+import model.transformations.ITransformation;
+import model.transformations.IntensityTransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.ParallelTransformation;
+import model.transformations.ValueComponentTransformation;
+import model.transformations.ValueTransformation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * A JUnit test class for the ParallelTransformation class.
+ */
+
+public class ParallelTransformationTest {
+
+  /**
+   * Test case for running every transformation in parallel and confirming the
+   *     output matches the serial output for several thread counts.
+   */
+
+  @Test
+  public void testParallelMatchesSerial() {
+    IImageState source = TestImages.randomImage(61, 203, 42);
+    double[][] blurFilter = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    double[][] sharpenFilter = {
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+    };
+    double[][] sepiaFilter = {
+            {0.393, 0.769, 0.189},
+            {0.349, 0.686, 0.168},
+            {0.272, 0.534, 0.131}
+    };
+    ITransformation[] transformations = {
+        new BrightenTransformation(40),
+        new ValueComponentTransformation(GreyscaleComponent.GREEN),
+        new ValueTransformation(),
+        new IntensityTransformation(),
+        new LumaTransformation(),
+        new FilterTransformation(new KernelImpl(blurFilter)),
+        new FilterTransformation(new KernelImpl(sharpenFilter)),
+        new ColorTransformation(new KernelImpl(sepiaFilter))
+    };
+    for (ITransformation transformation : transformations) {
+      int[] expected = TestImages.pixels(transformation.run(source));
+      for (int threads : new int[] {1, 2, 3, 8}) {
+        IImageState result = new ParallelTransformation(transformation, threads).run(source);
+        assertEquals(source.getWidth(), result.getWidth());
+        assertEquals(source.getHeight(), result.getHeight());
+        assertArrayEquals(expected, TestImages.pixels(result));
+      }
+    }
+  }
+
+  /**
+   * Test case for invalid parallel transformation arguments.
+   */
+
+  @Test
+  public void testInvalidParallelTransformation() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ParallelTransformation(null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ParallelTransformation(new LumaTransformation(), 0);
+    });
+  }
+}
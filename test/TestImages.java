@@ -0,0 +1,55 @@
+import java.util.Random;
+
+import model.IImage;
+import model.IImageState;
+import model.PackedImageImpl;
+
+/**
+ * This class holds helper methods shared by the transformation tests for making
+ *     random images and reading their pixels back.
+ */
+
+public final class TestImages {
+
+  /**
+   * This class only has static methods and is never constructed.
+   */
+
+  private TestImages() {
+    // no instances
+  }
+
+  /**
+   * Creates an image filled with random pixels. The same seed always gives the
+   *     same image.
+   *
+   * @param width width of the image
+   * @param height height of the image
+   * @param seed seed of the random pixels
+   * @return an image filled with random pixels
+   */
+
+  public static IImage randomImage(int width, int height, long seed) {
+    Random random = new Random(seed);
+    IImage image = new PackedImageImpl(width, height);
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        image.setPixel(row, col, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Returns every pixel of an image as packed values.
+   *
+   * @param image image to read
+   * @return every pixel of the image in row-major order
+   */
+
+  public static int[] pixels(IImageState image) {
+    int[] pixels = new int[image.getWidth() * image.getHeight()];
+    image.copyRegion(0, 0, image.getWidth(), image.getHeight(), pixels);
+    return pixels;
+  }
+}
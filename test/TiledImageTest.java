@@ -0,0 +1,287 @@
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import model.EdgeMode;
+import model.IImage;
+import model.IImageState;
+import model.IPixel;
+import model.PackedImageImpl;
+import model.TiledImage;
+import model.kernel.KernelImpl;
+import model.transformations.BoxBlurTransformation;
+import model.transformations.BrightenTransformation;
+import model.transformations.FilterTransformation;
+import model.transformations.ITransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.ParallelTransformation;
+import model.transformations.TiledTransformation;
+import model.transformations.TransformationPipeline;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A JUnit test class for the TiledImage and TiledTransformation classes.
+ */
+
+public class TiledImageTest {
+
+  /**
+   * Helper method to fill an image with random pixels.
+   *
+   * @param image image to fill
+   * @return the image
+   */
+
+  private IImage fillRandom(IImage image) {
+    Random random = new Random(17);
+    for (int row = 0; row < image.getHeight(); row++) {
+      for (int col = 0; col < image.getWidth(); col++) {
+        image.setPixel(row, col, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Helper method to assert that two images differ by at most 1 in every channel.
+   *
+   * @param expected expected image
+   * @param actual actual image
+   */
+
+  private void assertClose(IImageState expected, IImageState actual) {
+    int[] expectedPixels = TestImages.pixels(expected);
+    int[] actualPixels = TestImages.pixels(actual);
+    assertEquals(expectedPixels.length, actualPixels.length);
+    for (int i = 0; i < expectedPixels.length; i++) {
+      for (int shift = 0; shift <= 16; shift += 8) {
+        int difference = ((expectedPixels[i] >> shift) & 0xFF)
+                - ((actualPixels[i] >> shift) & 0xFF);
+        assertTrue("pixel " + i + " differs by " + difference, Math.abs(difference) <= 1);
+      }
+    }
+  }
+
+  /**
+   * Test case for reading and writing pixels, rows, and regions that cross tiles.
+   */
+
+  @Test
+  public void testReadWrite() {
+    try (TiledImage image = new TiledImage(13, 10, 4, 0)) {
+      assertEquals(13, image.getWidth());
+      assertEquals(10, image.getHeight());
+      assertEquals(255, image.getMaxValue());
+      assertEquals(4, image.getTileSize());
+      // a new image is black
+      assertArrayEquals(new int[130], TestImages.pixels(image));
+
+      IImageState packed = fillRandom(new PackedImageImpl(13, 10));
+      int[] row = new int[13];
+      for (int r = 0; r < 10; r++) {
+        packed.readRow(r, row);
+        image.writeRow(r, row);
+      }
+      assertArrayEquals(TestImages.pixels(packed), TestImages.pixels(image));
+      int[] region = new int[6 * 5];
+      int[] expected = new int[6 * 5];
+      image.copyRegion(3, 2, 6, 5, region);
+      packed.copyRegion(3, 2, 6, 5, expected);
+      assertArrayEquals(expected, region);
+
+      // bits above the color bits are dropped
+      int[] written = new int[5 * 3];
+      for (int i = 0; i < written.length; i++) {
+        written[i] = 0xFF000000 | (i * 0x010203);
+      }
+      image.writeRegion(7, 6, 5, 3, written);
+      image.copyRegion(7, 6, 5, 3, region);
+      for (int i = 0; i < written.length; i++) {
+        assertEquals(written[i] & 0xFFFFFF, region[i]);
+      }
+
+      image.setPixel(9, 12, 1, 2, 3);
+      assertEquals(1, image.getRedChannel(9, 12));
+      assertEquals(2, image.getGreenChannel(9, 12));
+      assertEquals(3, image.getBlueChannel(9, 12));
+      // pixels are views that write through to the image
+      IPixel pixel = image.getPixel(9, 12);
+      pixel.setG(200);
+      assertEquals(200, image.getGreenChannel(9, 12));
+      assertEquals("1 200 3", pixel.toString());
+    }
+  }
+
+  /**
+   * Test case for copies being independent of the image they were copied from.
+   */
+
+  @Test
+  public void testCopy() {
+    try (TiledImage image = new TiledImage(9, 7, 4, 0)) {
+      fillRandom(image);
+      int[] before = TestImages.pixels(image);
+      IImage copy = image.copy();
+      assertTrue(copy instanceof TiledImage);
+      assertArrayEquals(before, TestImages.pixels(copy));
+      copy.setPixel(0, 0, 0, 0, 0);
+      image.setPixel(6, 8, 255, 255, 255);
+      assertEquals(before[0], TestImages.pixels(image)[0]);
+      assertEquals(before[6 * 9 + 8], TestImages.pixels(copy)[6 * 9 + 8]);
+      ((TiledImage) copy).close();
+    }
+  }
+
+  /**
+   * Test case for copies sharing the tile file until one of them is written to,
+   *     and keeping it after the image they were copied from is closed.
+   */
+
+  @Test
+  public void testCopyOnWrite() {
+    TiledImage image = new TiledImage(9, 7, 4, 0);
+    fillRandom(image);
+    int[] before = TestImages.pixels(image);
+    TiledImage copy = (TiledImage) image.copy();
+    TiledImage second = (TiledImage) copy.copy();
+    image.close();
+    assertArrayEquals(before, TestImages.pixels(copy));
+    // writing through a pixel view gives the copy a file of its own first
+    copy.getPixel(3, 3).setR(before[3 * 9 + 3] == 0 ? 1 : 0);
+    assertEquals(before[3 * 9 + 3] == 0 ? 1 : 0, copy.getRedChannel(3, 3));
+    assertArrayEquals(before, TestImages.pixels(second));
+    copy.close();
+    second.writeRegion(0, 0, 2, 1, new int[] {0x010203, 0x040506});
+    assertEquals(0x040506, TestImages.pixels(second)[1]);
+    assertEquals(before[6 * 9 + 8], TestImages.pixels(second)[6 * 9 + 8]);
+    second.close();
+  }
+
+  /**
+   * Test case for point transformations, filters with every edge mode, box blurs,
+   *     and pipelines run tile by tile matching the same transformations run on an
+   *     image in memory.
+   */
+
+  @Test
+  public void testTransformationsMatchInMemory() {
+    IImageState packed = fillRandom(new PackedImageImpl(23, 17));
+    try (TiledImage tiled = new TiledImage(23, 17, 5, 0)) {
+      tiled.writeRegion(0, 0, 23, 17, TestImages.pixels(packed));
+      double[][] sharpenFilter = {
+              {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+              {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+              {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+              {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+              {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+      };
+      double[] binomial = {1.0 / 16, 4.0 / 16, 6.0 / 16, 4.0 / 16, 1.0 / 16};
+
+      for (ITransformation transformation : List.of(new BrightenTransformation(30),
+              new LumaTransformation())) {
+        IImageState result = transformation.run(tiled);
+        assertTrue(result instanceof TiledImage);
+        assertArrayEquals(TestImages.pixels(transformation.run(packed)), TestImages.pixels(result));
+      }
+      for (EdgeMode edgeMode : EdgeMode.values()) {
+        for (ITransformation transformation : List.of(
+                new FilterTransformation(new KernelImpl(sharpenFilter), edgeMode),
+                new FilterTransformation(new KernelImpl(binomial, binomial), edgeMode))) {
+          assertArrayEquals(edgeMode.toString(), TestImages.pixels(transformation.run(packed)),
+                  TestImages.pixels(new ParallelTransformation(transformation, 3).run(tiled)));
+        }
+        // running sums that depend on where the rows start can round differently
+        ITransformation blur = new BoxBlurTransformation(new int[] {2, 7}, edgeMode);
+        assertClose(blur.run(packed), blur.run(tiled));
+        double[][] large = new double[11][11];
+        Random random = new Random(3);
+        for (double[] row : large) {
+          for (int col = 0; col < 11; col++) {
+            row[col] = (random.nextDouble() - 0.2) * 2 / 121;
+          }
+        }
+        ITransformation fourier = new FilterTransformation(new KernelImpl(large), edgeMode);
+        assertArrayEquals(edgeMode.toString(), TestImages.pixels(fourier.run(packed)),
+                TestImages.pixels(fourier.run(tiled)));
+      }
+
+      ITransformation pipeline = new TransformationPipeline(List.of(
+              new BrightenTransformation(-10),
+              new FilterTransformation(new KernelImpl(sharpenFilter), EdgeMode.MIRROR),
+              new LumaTransformation()), false, 2);
+      IImageState result = pipeline.run(tiled);
+      assertTrue(result instanceof TiledImage);
+      assertArrayEquals(TestImages.pixels(pipeline.run(packed)), TestImages.pixels(result));
+    }
+  }
+
+  /**
+   * Test case for tiled transformations of images in memory and on more threads
+   *     giving the same image as on one thread.
+   */
+
+  @Test
+  public void testTiledTransformation() {
+    IImageState packed = fillRandom(new PackedImageImpl(40, 33));
+    FilterTransformation filter = new FilterTransformation(new KernelImpl(3), EdgeMode.WRAP);
+    IImageState serial = new TiledTransformation(filter, 1).run(packed);
+    assertTrue(serial instanceof TiledImage);
+    assertArrayEquals(TestImages.pixels(filter.run(packed)), TestImages.pixels(serial));
+    assertArrayEquals(TestImages.pixels(serial),
+            TestImages.pixels(new TiledTransformation(filter, 4).run(packed)));
+    assertThrows(IllegalArgumentException.class, () -> new TiledTransformation(null, 1));
+    assertThrows(IllegalArgumentException.class, () -> new TiledTransformation(filter, 0));
+  }
+
+  /**
+   * Test case for choosing when to tile from the maximum heap, or from the
+   *     ime.tile.threshold property when it is set.
+   */
+
+  @Test
+  public void testShouldTile() {
+    assertFalse(TiledImage.shouldTile(1000, 1000));
+    assertTrue(TiledImage.shouldTile(65536, 65536));
+    // images whose pixels take more than a quarter of the heap are tiled
+    int width = 4096;
+    int height = (int) (Runtime.getRuntime().maxMemory() / 16 / width) + 1;
+    assertTrue(TiledImage.shouldTile(width, height));
+    assertFalse(TiledImage.shouldTile(width, height / 2));
+    System.setProperty("ime.tile.threshold", "999999");
+    try {
+      assertTrue(TiledImage.shouldTile(1000, 1000));
+      assertFalse(TiledImage.shouldTile(999, 1000));
+    } finally {
+      System.clearProperty("ime.tile.threshold");
+    }
+  }
+
+  /**
+   * Test case for invalid sizes, positions, regions, and values.
+   */
+
+  @Test
+  public void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new TiledImage(-1, 5, 4, 0));
+    assertThrows(IllegalArgumentException.class, () -> new TiledImage(5, 5, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> new TiledImage(5, 5, 4, -1));
+    try (TiledImage image = new TiledImage(6, 5, 4, 0)) {
+      assertThrows(IllegalArgumentException.class, () -> image.getPixel(5, 0));
+      assertThrows(IllegalArgumentException.class, () -> image.getRedChannel(0, 6));
+      assertThrows(IllegalArgumentException.class, () -> image.setPixel(0, 0, 256, 0, 0));
+      assertThrows(IllegalArgumentException.class, () -> image.readRow(5, new int[6]));
+      assertThrows(IllegalArgumentException.class, () -> image.writeRow(0, new int[5]));
+      assertThrows(IllegalArgumentException.class,
+          () -> image.copyRegion(3, 0, 4, 1, new int[4]));
+      assertThrows(IllegalArgumentException.class,
+          () -> image.writeRegion(0, 0, 2, 2, new int[3]));
+      assertThrows(IllegalArgumentException.class, () -> image.getPixel(0, 0).setB(-1));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.GreyscaleComponent;
+import model.IImage;
+import model.IImageState;
+import model.kernel.KernelImpl;
+import model.transformations.BrightenTransformation;
+import model.transformations.ColorTransformation;
+import model.transformations.FilterTransformation;
+import model.transformations.ITransformation;
+import model.transformations.IntensityTransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.TransformationPipeline;
+import model.transformations.ValueComponentTransformation;
+import model.transformations.ValueTransformation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * A JUnit test class for the TransformationPipeline class.
+ */
+
+public class TransformationPipelineTest {
+
+  private final double[][] sepiaFilter = {
+          {0.393, 0.769, 0.189},
+          {0.349, 0.686, 0.168},
+          {0.272, 0.534, 0.131}
+  };
+  private final double[][] blurFilter = {
+          {1.0 / 16, 1.0 / 8, 1.0 / 16},
+          {1.0 / 8, 1.0 / 4, 1.0 / 8},
+          {1.0 / 16, 1.0 / 8, 1.0 / 16}
+  };
+
+  /**
+   * Helper method to run transformations one after another.
+   *
+   * @param source image to transform
+   * @param transformations transformations to run in order
+   * @return the final image
+   */
+
+  private IImageState runInTurn(IImageState source, List<ITransformation> transformations) {
+    IImageState image = source;
+    for (ITransformation transformation : transformations) {
+      image = transformation.run(image);
+    }
+    return image;
+  }
+
+  /**
+   * Test case for fusing consecutive point transformations into one stage while
+   *     producing the same image as running them in turn.
+   */
+
+  @Test
+  public void testPipelineFusesPointTransformations() {
+    IImageState source = TestImages.randomImage(40, 30, 3);
+    List<ITransformation> script = Arrays.asList(
+            new BrightenTransformation(10),
+            new LumaTransformation(),
+            new ColorTransformation(new KernelImpl(sepiaFilter)));
+    TransformationPipeline pipeline = new TransformationPipeline(script);
+    assertEquals(1, pipeline.getStageCount());
+    assertArrayEquals(TestImages.pixels(runInTurn(source, script)),
+            TestImages.pixels(pipeline.run(source)));
+
+    // a filter splits the point transformations into separate stages
+    List<ITransformation> mixed = Arrays.asList(
+            new BrightenTransformation(-20),
+            new ValueComponentTransformation(GreyscaleComponent.RED),
+            new FilterTransformation(new KernelImpl(blurFilter)),
+            new ValueTransformation(),
+            new IntensityTransformation());
+    TransformationPipeline mixedPipeline = new TransformationPipeline(mixed, false, 3);
+    assertEquals(3, mixedPipeline.getStageCount());
+    assertArrayEquals(TestImages.pixels(runInTurn(source, mixed)),
+            TestImages.pixels(mixedPipeline.run(source)));
+  }
+
+  /**
+   * Test case for combining consecutive color matrices.
+   */
+
+  @Test
+  public void testPipelineCombinesMatrices() {
+    IImageState source = TestImages.randomImage(20, 20, 3);
+    double[][] identity = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+    ColorTransformation sepia = new ColorTransformation(new KernelImpl(sepiaFilter));
+    // combining with the identity matrix changes nothing
+    ColorTransformation combined =
+            new ColorTransformation(new KernelImpl(identity)).combine(sepia);
+    assertArrayEquals(TestImages.pixels(sepia.run(source)),
+            TestImages.pixels(combined.run(source)));
+
+    // swapping red and blue twice is the identity
+    double[][] swap = {{0, 0, 1}, {0, 1, 0}, {1, 0, 0}};
+    List<ITransformation> swaps = Arrays.asList(
+            new ColorTransformation(new KernelImpl(swap)),
+            new ColorTransformation(new KernelImpl(swap)));
+    TransformationPipeline pipeline = new TransformationPipeline(swaps, true, 1);
+    assertEquals(1, pipeline.getStageCount());
+    assertArrayEquals(TestImages.pixels(source), TestImages.pixels(pipeline.run(source)));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      sepia.combine(null);
+    });
+  }
+
+  /**
+   * Test case for identity point transformations being dropped from a pipeline.
+   */
+
+  @Test
+  public void testIdentityStagesDropped() {
+    IImageState source = TestImages.randomImage(5, 4, 3);
+    double[][] identity = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+    TransformationPipeline pipeline = new TransformationPipeline(Arrays.asList(
+            new BrightenTransformation(0), new ColorTransformation(new KernelImpl(identity)),
+            new LumaTransformation(), new BrightenTransformation(0)), false, 2);
+    assertEquals(1, pipeline.getStageCount());
+    assertArrayEquals(TestImages.pixels(new LumaTransformation().run(source)),
+            TestImages.pixels(pipeline.run(source)));
+
+    TransformationPipeline empty = new TransformationPipeline(Arrays.asList(
+            new BrightenTransformation(0)), false, 2);
+    assertEquals(0, empty.getStageCount());
+    int[] expected = TestImages.pixels(source);
+    IImage result = (IImage) empty.run(source);
+    assertArrayEquals(expected, TestImages.pixels(result));
+    // the result can be changed without changing the source
+    result.setPixel(0, 0, 1, 2, 3);
+    assertEquals(0x010203, TestImages.pixels(result)[0]);
+    assertArrayEquals(expected, TestImages.pixels(source));
+  }
+
+  /**
+   * Test case for invalid pipeline arguments.
+   */
+
+  @Test
+  public void testInvalidPipeline() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TransformationPipeline(null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TransformationPipeline(Arrays.asList());
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TransformationPipeline(Arrays.asList(new LumaTransformation(), null));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TransformationPipeline(Arrays.asList(new LumaTransformation()), false, 0);
+    });
+  }
+}
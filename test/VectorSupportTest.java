@@ -0,0 +1,172 @@
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import model.kernel.KernelImpl;
+import model.transformations.BrightenTransformation;
+import model.transformations.ColorTransformation;
+import model.transformations.IPointTransformation;
+import model.transformations.IntensityTransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.ValueTransformation;
+import model.transformations.VectorSupport;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A JUnit test class for the point transformations that run through the vector
+ * kernels of VectorSupport. The expected pixels come from each transformation's
+ * formula, so the tests pass the same whether the kernels are loaded or not; run
+ * them with the simd classes and --add-modules jdk.incubator.vector to test the
+ * vector kernels.
+ */
+
+public class VectorSupportTest {
+
+  /**
+   * Helper method to create a row of random pixels that starts with the pixels
+   *     whose channels are all 0, all 255, and mixed.
+   *
+   * @param length number of pixels
+   * @param seed seed of the random pixels
+   * @return the packed pixels
+   */
+
+  private int[] randomRow(int length, long seed) {
+    Random random = new Random(seed);
+    int[] pixels = new int[length];
+    int[] corners = {0x000000, 0xFFFFFF, 0xFF0000, 0x00FF00, 0x0000FF, 0x80FF01};
+    for (int i = 0; i < length; i++) {
+      pixels[i] = i < corners.length ? corners[i] : random.nextInt(1 << 24);
+    }
+    return pixels;
+  }
+
+  /**
+   * Helper method to pack channel values.
+   *
+   * @param red red value
+   * @param green green value
+   * @param blue blue value
+   * @return the packed pixel
+   */
+
+  private int pack(long red, long green, long blue) {
+    return (int) (Math.max(0, Math.min(255, red)) << 16
+            | Math.max(0, Math.min(255, green)) << 8
+            | Math.max(0, Math.min(255, blue)));
+  }
+
+  /**
+   * Helper method to transform rows of every length up to a few vectors and
+   *     compare each pixel with its formula.
+   *
+   * @param transformation transformation to run
+   * @param formula expected pixel for each source pixel
+   */
+
+  private void assertRows(IPointTransformation transformation,
+                          IntUnaryOperator formula) {
+    for (int length = 0; length <= 70; length++) {
+      int[] source = randomRow(length, length);
+      int[] pixels = source.clone();
+      transformation.applyToRow(pixels, length);
+      for (int col = 0; col < length; col++) {
+        assertEquals("col " + col + " of " + length, formula.applyAsInt(source[col]),
+                pixels[col]);
+      }
+    }
+  }
+
+  /**
+   * Test case for brightening and darkening by values that clamp, and values whose
+   *     sums leave the int range.
+   */
+
+  @Test
+  public void testBrighten() {
+    for (int value : new int[] {-300, -20, 0, 45, 255, Integer.MAX_VALUE}) {
+      assertRows(new BrightenTransformation(value), rgb -> pack(
+              Math.max(0, Math.min(255, ((rgb >> 16) & 0xFF) + value)),
+              Math.max(0, Math.min(255, ((rgb >> 8) & 0xFF) + value)),
+              Math.max(0, Math.min(255, (rgb & 0xFF) + value))));
+    }
+  }
+
+  /**
+   * Test case for the luma, intensity, and value greyscale components.
+   */
+
+  @Test
+  public void testGreyscaleComponents() {
+    assertRows(new LumaTransformation(), rgb -> {
+      long luma = Math.round(((rgb >> 16) & 0xFF) * 0.2126 + ((rgb >> 8) & 0xFF) * 0.7152
+              + (rgb & 0xFF) * 0.0722);
+      return pack(luma, luma, luma);
+    });
+    assertRows(new IntensityTransformation(), rgb -> {
+      int intensity = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
+      return pack(intensity, intensity, intensity);
+    });
+    assertRows(new ValueTransformation(), rgb -> {
+      int value = Math.max((rgb >> 16) & 0xFF, Math.max((rgb >> 8) & 0xFF, rgb & 0xFF));
+      return pack(value, value, value);
+    });
+  }
+
+  /**
+   * Test case for color matrices with sums that round halves, go negative, and
+   *     leave the int range.
+   */
+
+  @Test
+  public void testColorMatrices() {
+    double[][][] matrices = {
+        {{0.393, 0.769, 0.189}, {0.349, 0.686, 0.168}, {0.272, 0.534, 0.131}},
+        {{0.5, 0, 0}, {0, 0.25, 0.25}, {-0.5, 1.5, -1}},
+        {{1e12, 1, 1}, {-3, 2, 2}, {0, 0, 1}}
+    };
+    for (double[][] matrix : matrices) {
+      assertRows(new ColorTransformation(new KernelImpl(matrix)), rgb -> {
+        int red = (rgb >> 16) & 0xFF;
+        int green = (rgb >> 8) & 0xFF;
+        int blue = rgb & 0xFF;
+        int[] result = new int[3];
+        for (int row = 0; row < 3; row++) {
+          result[row] = (int) Math.round(red * matrix[row][0]
+                  + (green * matrix[row][1] + blue * matrix[row][2]));
+        }
+        return pack(result[0], result[1], result[2]);
+      });
+    }
+  }
+
+  /**
+   * Test case for the kernels only being reported as available when they loaded.
+   */
+
+  @Test
+  public void testAvailability() {
+    boolean expected = Boolean.parseBoolean(System.getProperty("ime.vector", "true"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && classExists("model.transformations.VectorRowOperations");
+    assertEquals(expected, VectorSupport.isAvailable());
+  }
+
+  /**
+   * Helper method to check whether a class is on the class path.
+   *
+   * @param name name of the class
+   * @return true if the class exists
+   */
+
+  private boolean classExists(String name) {
+    try {
+      Class.forName(name, false, getClass().getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+}